@@ -0,0 +1,109 @@
+package com.project.core_service.models.lookup;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares lookup rows held as one {@code HashMap} per row against a
+ * {@link LookupTable}.
+ * <p>
+ * The retained heap of both representations is printed once per fork (measured
+ * with JOL); the benchmarks measure building each representation and scanning
+ * a column the way {@code DropdownService} and the query prompt builder do.
+ * Run with {@code mvn -P benchmarks test-compile exec:exec}; add
+ * {@code -Djmh.args="LookupTableBenchmark -prof gc"} for allocation rates.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.attach.allowAttachSelf=true")
+public class LookupTableBenchmark {
+
+    @Param({ "10000", "100000" })
+    private int rows;
+
+    private List<Map<String, String>> maps;
+    private LookupTable table;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        maps = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Map<String, String> row = new HashMap<>();
+            // Values are built per row, as the CSV parser and the Mongo codec do,
+            // so equal values are distinct String instances
+            row.put("L1", "Capability " + (i % 12));
+            row.put("L2", "Capability " + (i % 12) + "." + (i % 80));
+            row.put("L3", "Capability " + (i % 12) + "." + (i % 80) + "." + (i % 600));
+            row.put("Product Name", "Product " + (i % 250));
+            row.put("Product Version", "v" + (i % 7));
+            row.put("Description", "Row " + i);
+            maps.add(row);
+        }
+        table = LookupTable.of(maps);
+
+        System.out.printf("%n[footprint] rows=%d maps=%,d bytes table=%,d bytes%n", rows,
+                GraphLayout.parseInstance(maps).totalSize(),
+                GraphLayout.parseInstance(table).totalSize());
+    }
+
+    @Benchmark
+    public LookupTable buildTable() {
+        return LookupTable.of(maps);
+    }
+
+    @Benchmark
+    public int scanMaps() {
+        int matches = 0;
+        for (Map<String, String> row : maps) {
+            if ("Capability 3".equals(row.get("L1")) && row.get("Product Name") != null) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int scanTable() {
+        int l1 = table.columnIndex("L1");
+        int productName = table.columnIndex("Product Name");
+        int matches = 0;
+        for (int row = 0; row < table.size(); row++) {
+            if ("Capability 3".equals(table.value(row, l1)) && table.value(row, productName) != null) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int scanTableRowViews() {
+        int matches = 0;
+        for (Map<String, String> row : table.rows()) {
+            if ("Capability 3".equals(row.get("L1")) && row.get("Product Name") != null) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,97 @@
+package com.project.core_service.services;
+
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing a lookup CSV upload on one thread against splitting it
+ * into chunks parsed on {@code LookupCsvParser}'s pool.
+ * <p>
+ * Every record is read in file order, as {@code LookupService} does while
+ * ingesting. Some descriptions are quoted and contain commas, escaped quotes
+ * and line breaks, so the boundary scan does real work. The speedup grows
+ * with the number of cores; run with {@code mvn -P benchmarks test-compile
+ * exec:exec -Djmh.args="LookupCsvParserBenchmark"}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LookupCsvParserBenchmark {
+
+    @Param({ "100000", "400000" })
+    private int rows;
+
+    private byte[] csv;
+    private LookupCsvParser sequentialParser;
+    private LookupCsvParser parallelParser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StringBuilder builder = new StringBuilder("L1,L2,L3,Product Name,Product Version,Description\n");
+        for (int i = 0; i < rows; i++) {
+            builder.append("Capability ").append(i % 12).append(',')
+                    .append("Capability ").append(i % 12).append('.').append(i % 80).append(',')
+                    .append("Capability ").append(i % 12).append('.').append(i % 80).append('.').append(i % 600).append(',')
+                    .append("Product ").append(i % 250).append(',')
+                    .append('v').append(i % 7).append(',');
+            if (i % 10 == 0) {
+                builder.append("\"Row ").append(i).append(", the \"\"tenth\"\" one\nspans two lines\"");
+            } else {
+                builder.append("Row ").append(i);
+            }
+            builder.append('\n');
+        }
+        csv = builder.toString().getBytes(StandardCharsets.UTF_8);
+
+        sequentialParser = new LookupCsvParser(false, 1, Long.MAX_VALUE, 1 << 20);
+        parallelParser = new LookupCsvParser(true, 0, 0, 1 << 20);
+        parallelParser.start();
+        System.out.printf("%n[input] rows=%d bytes=%,d threads=%d%n", rows, csv.length,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        parallelParser.stop();
+    }
+
+    @Benchmark
+    public int sequential() throws IOException {
+        return readAll(sequentialParser);
+    }
+
+    @Benchmark
+    public int parallel() throws IOException {
+        return readAll(parallelParser);
+    }
+
+    private int readAll(LookupCsvParser parser) throws IOException {
+        int cells = 0;
+        try (LookupCsvParser.CsvRecords records = parser.open(csv)) {
+            for (CSVRecord csvRecord : records) {
+                cells += csvRecord.size();
+            }
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,66 @@
+package com.project.core_service.config;
+
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+import com.mongodb.MongoException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link MongoTransactionManager} that retries only the commit when its outcome
+ * is unknown.
+ *
+ * <p>
+ * A commit failing with the {@code UnknownTransactionCommitResult} label may
+ * still have been applied. Re-running the transaction body could then apply
+ * the work twice, or fail because it finds its own earlier result, so the
+ * commit is re-sent on the same session instead, which the server treats as
+ * idempotent. Whole transactions are re-run only for
+ * {@code TransientTransactionError}, see
+ * {@link com.project.core_service.services.TransactionRetryService}.
+ * </p>
+ */
+@Slf4j
+public class CommitRetryingMongoTransactionManager extends MongoTransactionManager {
+
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    public CommitRetryingMongoTransactionManager(MongoDatabaseFactory mongoDatabaseFactory, int maxAttempts,
+            long retryBackoffMs) {
+        super(mongoDatabaseFactory);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = Math.max(0, retryBackoffMs);
+    }
+
+    @Override
+    protected void doCommit(MongoTransactionObject transactionObject) throws Exception {
+        commitWithRetry(transactionObject::commitTransaction);
+    }
+
+    /**
+     * Runs the commit, repeating it while it fails with an unknown result.
+     *
+     * @param commit commits the session's transaction
+     * @throws InterruptedException if interrupted while waiting to retry
+     */
+    void commitWithRetry(Runnable commit) throws InterruptedException {
+        int attempt = 1;
+        while (true) {
+            try {
+                commit.run();
+                return;
+            } catch (MongoException e) {
+                if (attempt >= maxAttempts
+                        || !e.hasErrorLabel(MongoException.UNKNOWN_TRANSACTION_COMMIT_RESULT_LABEL)) {
+                    throw e;
+                }
+                log.warn("Unknown transaction commit result on attempt {}/{}, retrying the commit: {}",
+                        attempt, maxAttempts, e.getMessage());
+                Thread.sleep(retryBackoffMs * attempt);
+                attempt++;
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.project.core_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+
+/**
+ * Dropdowns served from lookups without code changes, declared as
+ * {@code dropdowns.registry.<name>.*} properties and read by
+ * {@code GET /api/v1/dropdowns/{name}}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "dropdowns")
+@Data
+public class DropdownRegistryProperties {
+
+    /**
+     * Declared dropdowns by name.
+     */
+    private Map<String, DropdownDefinition> registry = new LinkedHashMap<>();
+
+    @PostConstruct
+    void validate() {
+        registry.forEach((name, definition) -> {
+            if (isBlank(definition.getLookupName()) || isBlank(definition.getValueColumn())) {
+                throw new IllegalStateException(
+                        "Dropdown '" + name + "' must declare lookup-name and value-column");
+            }
+        });
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * How the options of a dropdown are ordered within their group.
+     */
+    public enum DropdownSort {
+        /** Lookup row order */
+        NONE,
+        VALUE,
+        LABEL
+    }
+
+    @Data
+    public static class DropdownDefinition {
+
+        /**
+         * The lookup the options are read from.
+         */
+        private String lookupName;
+
+        /**
+         * Column holding the option value; rows without one are skipped.
+         */
+        private String valueColumn;
+
+        /**
+         * Column holding the option label; the value is used when unset or empty.
+         */
+        private String labelColumn;
+
+        /**
+         * Optional column the options are grouped by.
+         */
+        private String groupColumn;
+
+        private DropdownSort sort = DropdownSort.LABEL;
+    }
+}
@@ -6,8 +6,11 @@ import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoDatabase;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
 
 @Configuration
 public class MongoConfig {
@@ -34,4 +37,23 @@ public class MongoConfig {
         }
         return mongoClient.getDatabase(databaseName);
     }
+
+    /**
+     * Transaction manager for multi-document MongoDB transactions.
+     * 
+     * <p>
+     * Transactions require the server to run as a replica set (a single-node
+     * replica set is enough) or behind mongos. They can be switched off with
+     * {@code mongodb.transactions.enabled=false} when running against a
+     * standalone server, in which case transactional callbacks run without a
+     * session. Commits with an unknown outcome are retried on their own, see
+     * {@link CommitRetryingMongoTransactionManager}.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "mongodb.transactions.enabled", havingValue = "true", matchIfMissing = true)
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory mongoDatabaseFactory,
+            @Value("${mongodb.transactions.max-attempts:3}") int maxAttempts,
+            @Value("${mongodb.transactions.retry-backoff-ms:25}") long retryBackoffMs) {
+        return new CommitRetryingMongoTransactionManager(mongoDatabaseFactory, maxAttempts, retryBackoffMs);
+    }
 }
@@ -0,0 +1,13 @@
+package com.project.core_service.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs, such as collecting the rows of
+ * superseded lookup uploads.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,12 +1,15 @@
 package com.project.core_service.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.project.core_service.dto.BusinessCapabilityLookupDTO;
-import com.project.core_service.dto.TechComponentLookupDTO;
+import com.project.core_service.dto.TechProductDTO;
 import com.project.core_service.services.DropdownService;
+import com.project.core_service.services.DropdownService.CachedDropdown;
 
 import java.util.List;
 
@@ -22,12 +25,60 @@ public class DropdownController {
     }
 
     @GetMapping("/business-capabilities")
-    public ResponseEntity<List<BusinessCapabilityLookupDTO>> getBusinessCapabilities() {
-        return ResponseEntity.ok(dropdownService.getBusinessCapabilities());
+    public ResponseEntity<byte[]> getBusinessCapabilities() {
+        return toResponse(dropdownService.getBusinessCapabilitiesDropdown());
+    }
+
+    @GetMapping("/business-capabilities/tree")
+    public ResponseEntity<byte[]> getBusinessCapabilityTree() {
+        return toResponse(dropdownService.getBusinessCapabilityTreeDropdown());
+    }
+
+    @GetMapping("/business-capabilities/search")
+    public ResponseEntity<List<BusinessCapabilityLookupDTO>> searchBusinessCapabilities(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(dropdownService.searchBusinessCapabilities(q, limit));
     }
 
     @GetMapping("/tech-components")
-    public ResponseEntity<List<TechComponentLookupDTO>> getTechComponents() {
-        return ResponseEntity.ok(dropdownService.getTechComponents());
+    public ResponseEntity<byte[]> getTechComponents() {
+        return toResponse(dropdownService.getTechComponentsDropdown());
+    }
+
+    @GetMapping("/tech-components/search")
+    public ResponseEntity<List<TechProductDTO>> searchTechComponents(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(dropdownService.searchTechComponents(q, limit));
+    }
+
+    // Product names may contain slashes, so the name is a parameter rather than a path segment
+    @GetMapping("/tech-components/versions")
+    public ResponseEntity<List<String>> getTechComponentVersions(@RequestParam String productName) {
+        return ResponseEntity.ok(dropdownService.getTechComponentVersions(productName));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<String>> getRegisteredDropdownNames() {
+        return ResponseEntity.ok(dropdownService.getRegisteredDropdownNames());
+    }
+
+    // Declared in the dropdown registry; the fixed paths above take precedence
+    @GetMapping("/{name}")
+    public ResponseEntity<byte[]> getRegisteredDropdown(@PathVariable String name) {
+        return toResponse(dropdownService.getRegisteredDropdown(name));
+    }
+
+    /**
+     * Writes the cached JSON body as is. A request whose If-None-Match holds the
+     * ETag gets a 304 without a body; no-cache makes clients revalidate each time.
+     */
+    private ResponseEntity<byte[]> toResponse(CachedDropdown<?> dropdown) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(dropdown.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(dropdown.json());
     }
 }
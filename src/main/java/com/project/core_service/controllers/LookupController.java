@@ -2,16 +2,25 @@ package com.project.core_service.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.project.core_service.dto.LookupDTO;
 import com.project.core_service.dto.LookupFieldDescriptionsDTO;
+import com.project.core_service.dto.LookupKeyMatchDTO;
+import com.project.core_service.dto.LookupMigrationDTO;
+import com.project.core_service.dto.LookupRowsPageDTO;
+import com.project.core_service.dto.LookupRowsQueryDTO;
+import com.project.core_service.dto.LookupUploadJobDTO;
 import com.project.core_service.dto.LookupWODataDTO;
 import com.project.core_service.dto.CreateLookupDTO;
 import com.project.core_service.dto.UpdateLookupDTO;
 import com.project.core_service.services.LookupService;
+import com.project.core_service.services.LookupUploadJobService;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -23,10 +32,12 @@ import org.springframework.web.bind.annotation.RequestParam;
 public class LookupController {
 
     private final LookupService lookupService;
+    private final LookupUploadJobService lookupUploadJobService;
 
     @Autowired
-    public LookupController(LookupService lookupService) {
+    public LookupController(LookupService lookupService, LookupUploadJobService lookupUploadJobService) {
         this.lookupService = lookupService;
+        this.lookupUploadJobService = lookupUploadJobService;
     }
 
     @PostMapping
@@ -34,6 +45,42 @@ public class LookupController {
         return ResponseEntity.ok(lookupService.createLookup(createLookupDTO));
     }
 
+    /**
+     * Accepts a new lookup and creates it in the background. Takes the same
+     * parameters as {@code POST /api/v1/lookups}; poll the returned job for
+     * progress.
+     */
+    @PostMapping("/upload-jobs")
+    public ResponseEntity<LookupUploadJobDTO> createLookupAsync(@ModelAttribute CreateLookupDTO createLookupDTO)
+            throws IOException {
+        return accepted(lookupUploadJobService.submitCreate(createLookupDTO));
+    }
+
+    /**
+     * Accepts a new file for a lookup and updates it in the background. Takes
+     * the same parameters as {@code PUT /api/v1/lookups/{lookupName}}.
+     */
+    @PutMapping("/{lookupName}/upload-jobs")
+    public ResponseEntity<LookupUploadJobDTO> updateLookupAsync(@PathVariable String lookupName,
+                                                                @ModelAttribute UpdateLookupDTO updateLookupDTO)
+            throws IOException {
+        return accepted(lookupUploadJobService.submitUpdate(lookupName, updateLookupDTO));
+    }
+
+    /**
+     * Returns the state, rows processed, throughput and error of an upload job.
+     */
+    @GetMapping("/upload-jobs/{jobId}")
+    public ResponseEntity<LookupUploadJobDTO> getUploadJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(lookupUploadJobService.getJob(jobId));
+    }
+
+    private static ResponseEntity<LookupUploadJobDTO> accepted(LookupUploadJobDTO job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/lookups/upload-jobs/" + job.getJobId()))
+                .body(job);
+    }
+
     @GetMapping("/{lookupName}/field-descriptions")
     public ResponseEntity<LookupFieldDescriptionsDTO> getFieldDescriptions(@PathVariable String lookupName) {
         return ResponseEntity.ok(lookupService.getFieldDescriptionsDTO(lookupName));
@@ -60,6 +107,61 @@ public class LookupController {
         return ResponseEntity.ok(lookupService.getLookupByName(lookupName));
     }
 
+    /**
+     * Returns one page of the rows of a lookup.
+     *
+     * @param offset  number of matching rows to skip (not combined with cursor)
+     * @param limit   page size
+     * @param cursor  the {@code nextCursor} of the previous page
+     * @param columns columns to return; all columns when omitted
+     * @param params  all request parameters; repeated {@code eq=column:value},
+     *                {@code prefix=column:value}, {@code from=column:value} and
+     *                {@code to=column:value} parameters filter the rows, with
+     *                values compared as the column's type
+     */
+    @GetMapping("/{lookupName}/rows")
+    public ResponseEntity<LookupRowsPageDTO> getLookupRows(@PathVariable String lookupName,
+                                                           @RequestParam(required = false) Integer offset,
+                                                           @RequestParam(required = false) Integer limit,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) List<String> columns,
+                                                           @RequestParam MultiValueMap<String, String> params) {
+        // Filters are read from the raw parameters so values containing commas are not split
+        LookupRowsQueryDTO query = LookupRowsQueryDTO.builder()
+                .offset(offset)
+                .limit(limit)
+                .cursor(cursor)
+                .columns(columns)
+                .eq(params.get("eq"))
+                .prefix(params.get("prefix"))
+                .from(params.get("from"))
+                .to(params.get("to"))
+                .build();
+        return ResponseEntity.ok(lookupService.getLookupRows(lookupName, query));
+    }
+
+    /**
+     * Returns the rows of a lookup whose key column holds a value.
+     *
+     * @param column one of the {@code keyColumns} of the lookup
+     * @param value  the value to match exactly
+     */
+    @GetMapping("/{lookupName}/by-key/{column}/{value}")
+    public ResponseEntity<LookupKeyMatchDTO> getLookupRowsByKey(@PathVariable String lookupName,
+                                                                @PathVariable String column,
+                                                                @PathVariable String value) {
+        return ResponseEntity.ok(lookupService.findRowsByKey(lookupName, column, value));
+    }
+
+    /**
+     * Moves the embedded rows of a lookup into the lookup rows collection and
+     * flags the saved queries that join its {@code data} array.
+     */
+    @PostMapping("/{lookupName}/migrate-to-rows")
+    public ResponseEntity<LookupMigrationDTO> migrateToChunkedRows(@PathVariable String lookupName) {
+        return ResponseEntity.ok(lookupService.migrateToChunkedRows(lookupName));
+    }
+
     @DeleteMapping("/{lookupName}")
     public ResponseEntity<Void> deleteLookup(@PathVariable String lookupName) {
         lookupService.deleteLookup(lookupName);
@@ -0,0 +1,79 @@
+package com.project.core_service.controllers;
+
+import com.project.core_service.dto.TransitionThroughputDTO;
+import com.project.core_service.models.review_transition.ReviewTransition;
+import com.project.core_service.services.ReviewAuditService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * REST controller exposing the lifecycle audit trail of solution reviews.
+ *
+ * <p>Entries are written by
+ * {@link com.project.core_service.services.SolutionReviewLifecycleService}; this
+ * controller is read-only.</p>
+ */
+@RestController
+@RequestMapping("/api/v1/review-transitions")
+public class ReviewTransitionController {
+
+    private final ReviewAuditService reviewAuditService;
+
+    @Autowired
+    public ReviewTransitionController(ReviewAuditService reviewAuditService) {
+        this.reviewAuditService = reviewAuditService;
+    }
+
+    /**
+     * Retrieves the transition history of a solution review, newest first.
+     *
+     * @param documentId the solution review ID
+     * @return a {@link ResponseEntity} containing the recorded transitions
+     */
+    @GetMapping("/document/{documentId}")
+    public ResponseEntity<List<ReviewTransition>> getDocumentHistory(@PathVariable String documentId) {
+        return ResponseEntity.ok(reviewAuditService.getDocumentHistory(documentId));
+    }
+
+    /**
+     * Retrieves the transition history of all solution reviews of a system, newest first.
+     *
+     * @param systemCode the system code
+     * @param page       the page index (0-based)
+     * @param size       the number of items per page
+     * @return a {@link ResponseEntity} containing a page of recorded transitions
+     */
+    @GetMapping("/system/{systemCode}")
+    public ResponseEntity<Page<ReviewTransition>> getSystemHistory(
+            @PathVariable String systemCode,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(reviewAuditService.getSystemHistory(systemCode, PageRequest.of(page, size)));
+    }
+
+    /**
+     * Counts transitions per day. Defaults to the last 30 days.
+     *
+     * @param from the first day (inclusive, ISO date)
+     * @param to   the last day (inclusive, ISO date)
+     * @return a {@link ResponseEntity} containing one entry per day with transitions
+     */
+    @GetMapping("/throughput")
+    public ResponseEntity<List<TransitionThroughputDTO>> getThroughput(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return ResponseEntity.ok(reviewAuditService.getThroughput(start, end));
+    }
+}
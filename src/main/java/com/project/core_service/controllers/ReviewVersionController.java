@@ -0,0 +1,84 @@
+package com.project.core_service.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.core_service.dto.SolutionReviewDTO;
+import com.project.core_service.models.review_version.ReviewChange;
+import com.project.core_service.models.review_version.ReviewVersion;
+import com.project.core_service.services.ReviewVersionService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+/**
+ * REST controller exposing the released version history of solution reviews.
+ *
+ * <p>Versions are recorded by
+ * {@link com.project.core_service.services.SolutionReviewLifecycleService} when a
+ * review is activated; this controller is read-only.</p>
+ */
+@RestController
+@RequestMapping("/api/v1/review-versions")
+public class ReviewVersionController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ReviewVersionService reviewVersionService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ReviewVersionController(ReviewVersionService reviewVersionService, ObjectMapper objectMapper) {
+        this.reviewVersionService = reviewVersionService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Lists the versions of a system without their content, newest first.
+     *
+     * @param systemCode the system code
+     * @return a {@link ResponseEntity} containing the version metadata
+     */
+    @GetMapping("/{systemCode}")
+    public ResponseEntity<List<ReviewVersion>> getVersions(@PathVariable String systemCode) {
+        return ResponseEntity.ok(reviewVersionService.getVersions(systemCode));
+    }
+
+    /**
+     * Reconstructs the content of a version.
+     *
+     * @param systemCode the system code
+     * @param version    the version number
+     * @return a {@link ResponseEntity} containing the content of the version
+     */
+    @GetMapping("/{systemCode}/{version}")
+    public ResponseEntity<SolutionReviewDTO> getVersion(@PathVariable String systemCode, @PathVariable int version) {
+        return ResponseEntity.ok(reviewVersionService.getVersion(systemCode, version));
+    }
+
+    /**
+     * Streams the changes between two versions as newline-delimited JSON, one
+     * {@link ReviewChange} per line.
+     *
+     * @param systemCode the system code
+     * @param from       the base version
+     * @param to         the target version
+     * @return a {@link ResponseEntity} streaming the changes
+     */
+    @GetMapping("/{systemCode}/diff")
+    public ResponseEntity<StreamingResponseBody> getDiff(@PathVariable String systemCode,
+            @RequestParam int from, @RequestParam int to) {
+        // Resolve before streaming so a missing version still maps to 404
+        List<ReviewChange> changes = reviewVersionService.diffVersions(systemCode, from, to);
+        StreamingResponseBody body = outputStream -> {
+            for (ReviewChange change : changes) {
+                outputStream.write(objectMapper.writeValueAsBytes(change));
+                outputStream.write('\n');
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+}
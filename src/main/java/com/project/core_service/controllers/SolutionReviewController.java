@@ -3,12 +3,18 @@ package com.project.core_service.controllers;
 import com.project.core_service.dto.NewSolutionOverviewRequestDTO;
 import com.project.core_service.dto.SearchQueryDTO;
 import com.project.core_service.dto.SolutionReviewDTO;
+import com.project.core_service.dto.SolutionReviewReferenceDTO;
 import com.project.core_service.dto.SystemDependencyDTO;
 import com.project.core_service.commands.LifecycleTransitionCommand;
 import com.project.core_service.dto.BusinessCapabilityDiagramDTO;
 import com.project.core_service.dto.CleanSolutionReviewDTO;
+import com.project.core_service.exceptions.NotFoundException;
+import com.project.core_service.models.solutions_review.ReviewSection;
+import com.project.core_service.models.solutions_review.ReviewSectionElement;
 import com.project.core_service.models.solutions_review.SolutionReview;
+import com.project.core_service.services.DraftAutosaveService;
 import com.project.core_service.services.SolutionReviewLifecycleService;
+import com.project.core_service.services.SolutionReviewSectionService;
 import com.project.core_service.services.SolutionReviewService;
 
 import jakarta.validation.Valid;
@@ -22,6 +28,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST controller for managing {@link SolutionReview} resources.
@@ -34,11 +41,16 @@ import java.util.List;
 public class SolutionReviewController {
     private final SolutionReviewService solutionReviewService;
     private final SolutionReviewLifecycleService lifecycleService;
+    private final SolutionReviewSectionService sectionService;
+    private final DraftAutosaveService draftAutosaveService;
 
     @Autowired
-    public SolutionReviewController(SolutionReviewService solutionReviewService, SolutionReviewLifecycleService lifecycleService) {
+    public SolutionReviewController(SolutionReviewService solutionReviewService, SolutionReviewLifecycleService lifecycleService,
+            SolutionReviewSectionService sectionService, DraftAutosaveService draftAutosaveService) {
         this.solutionReviewService = solutionReviewService;
         this.lifecycleService = lifecycleService;
+        this.sectionService = sectionService;
+        this.draftAutosaveService = draftAutosaveService;
     }
 
     @PostMapping("/lifecycle/transition")
@@ -165,26 +177,59 @@ public class SolutionReviewController {
     }
 
     /**
-     * Creates a new {@link SolutionReview} for the given system code.
+     * Creates a new draft {@link SolutionReview} from the ACTIVE review of the
+     * given system code.
      *
      * @param systemCode       the system code associated with the review
-     * @return a {@link ResponseEntity} containing the created solution review
-     * with status {@code 201 Created}
+     * @return a {@link ResponseEntity} containing the ID, system code and state
+     * of the created draft with status {@code 201 Created}
      */
     @PostMapping("/existing/{systemCode}")
-    public ResponseEntity<SolutionReview> createSolutionReviewFromExisting(@PathVariable String systemCode) {
+    public ResponseEntity<SolutionReviewReferenceDTO> createSolutionReviewFromExisting(@PathVariable String systemCode) {
         return new ResponseEntity<>(solutionReviewService.createSolutionReview(systemCode), HttpStatus.CREATED);
     }
 
     /**
      * Updates an existing {@link SolutionReview}.
      *
+     * Any autosaved changes still buffered for the review are merged in and
+     * written together with this update.
+     *
      * @param newSolutionReview the updated solution review object
      * @return a {@link ResponseEntity} containing the updated solution review
      */
     @PutMapping
     public ResponseEntity<SolutionReview> updateSolutionReview(@RequestBody SolutionReviewDTO newSolutionReview) {
-        return ResponseEntity.ok(solutionReviewService.updateSolutionReview(newSolutionReview));
+        return ResponseEntity.ok(draftAutosaveService.save(newSolutionReview));
+    }
+
+    /**
+     * Buffers an autosave of a DRAFT {@link SolutionReview}.
+     *
+     * Autosaves arriving in quick succession are merged and written together
+     * once no further autosave arrives for the debounce interval.
+     *
+     * @param autosave the autosaved solution review content
+     * @return a {@link ResponseEntity} with status {@code 202 Accepted}
+     */
+    @PutMapping("/autosave")
+    public ResponseEntity<Void> autosaveSolutionReview(@RequestBody SolutionReviewDTO autosave) {
+        draftAutosaveService.buffer(autosave);
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * Writes any buffered autosave of a {@link SolutionReview} immediately.
+     *
+     * @param id the identifier of the solution review
+     * @return a {@link ResponseEntity} containing the stored solution review
+     */
+    @PostMapping("/autosave/{id}/flush")
+    public ResponseEntity<SolutionReview> flushAutosave(@PathVariable String id) {
+        SolutionReview review = draftAutosaveService.flush(id)
+                .or(() -> solutionReviewService.getSolutionReviewById(id))
+                .orElseThrow(() -> new NotFoundException(String.format("SolutionReview with ID '%s' not found", id)));
+        return ResponseEntity.ok(review);
     }
 
      /**
@@ -200,6 +245,66 @@ public class SolutionReviewController {
         return ResponseEntity.ok(solutionReviewService.updateSolutionReviewConcerns(solutionReviewWithConcerns));
     }
 
+    /**
+     * Replaces all elements of one section of a DRAFT {@link SolutionReview}.
+     *
+     * @param id       the identifier of the solution review
+     * @param section  the section path, e.g. {@code integration-flows}
+     * @param elements the new elements of the section
+     * @return a {@link ResponseEntity} containing the written elements with their IDs
+     */
+    @PatchMapping("/{id}/{section}")
+    public ResponseEntity<List<ReviewSectionElement>> replaceSection(@PathVariable String id,
+            @PathVariable String section, @RequestBody List<Map<String, Object>> elements) {
+        return ResponseEntity.ok(sectionService.replaceSection(id, ReviewSection.fromPath(section), elements));
+    }
+
+    /**
+     * Adds an element to one section of a DRAFT {@link SolutionReview}.
+     *
+     * @param id      the identifier of the solution review
+     * @param section the section path, e.g. {@code integration-flows}
+     * @param element the element to add
+     * @return a {@link ResponseEntity} containing the added element with its ID,
+     * with status {@code 201 Created}
+     */
+    @PostMapping("/{id}/{section}")
+    public ResponseEntity<ReviewSectionElement> addSectionElement(@PathVariable String id,
+            @PathVariable String section, @RequestBody Map<String, Object> element) {
+        return new ResponseEntity<>(sectionService.addElement(id, ReviewSection.fromPath(section), element),
+                HttpStatus.CREATED);
+    }
+
+    /**
+     * Replaces one element of a section of a DRAFT {@link SolutionReview}.
+     *
+     * @param id        the identifier of the solution review
+     * @param section   the section path, e.g. {@code integration-flows}
+     * @param elementId the identifier of the element to replace
+     * @param element   the new element
+     * @return a {@link ResponseEntity} containing the written element
+     */
+    @PutMapping("/{id}/{section}/{elementId}")
+    public ResponseEntity<ReviewSectionElement> replaceSectionElement(@PathVariable String id,
+            @PathVariable String section, @PathVariable String elementId, @RequestBody Map<String, Object> element) {
+        return ResponseEntity.ok(sectionService.replaceElement(id, ReviewSection.fromPath(section), elementId, element));
+    }
+
+    /**
+     * Removes one element from a section of a DRAFT {@link SolutionReview}.
+     *
+     * @param id        the identifier of the solution review
+     * @param section   the section path, e.g. {@code integration-flows}
+     * @param elementId the identifier of the element to remove
+     * @return a {@link ResponseEntity} with status {@code 204 No Content}
+     */
+    @DeleteMapping("/{id}/{section}/{elementId}")
+    public ResponseEntity<Void> removeSectionElement(@PathVariable String id,
+            @PathVariable String section, @PathVariable String elementId) {
+        sectionService.removeElement(id, ReviewSection.fromPath(section), elementId);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Deletes a {@link SolutionReview} by its ID.
      *
@@ -209,6 +314,7 @@ public class SolutionReviewController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteSolutionReview(@PathVariable String id) {
         solutionReviewService.deleteSolutionReview(id);
+        draftAutosaveService.discard(id);
         return ResponseEntity.noContent().build();
     }
 
@@ -0,0 +1,20 @@
+package com.project.core_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO representing one business capability in the L1 → L2 → L3 tree.
+ * L1 nodes hold their L2 capabilities as children, L2 nodes their L3
+ * capabilities; L3 nodes have no children.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusinessCapabilityNodeDTO {
+    private String name;
+    private List<BusinessCapabilityNodeDTO> children;
+}
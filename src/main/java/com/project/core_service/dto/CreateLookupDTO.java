@@ -22,4 +22,8 @@ public class CreateLookupDTO {
     private String description;
     @NonNull
     private MultipartFile lookupFile;
+    /**
+     * Columns to index for {@code by-key} reads; optional.
+     */
+    private List<String> keyColumns;
 }
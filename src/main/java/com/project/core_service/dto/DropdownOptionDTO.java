@@ -0,0 +1,18 @@
+package com.project.core_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO representing one option of a dropdown declared in the dropdown registry.
+ * The group is only set for dropdowns declared with a group column.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DropdownOptionDTO {
+    private String value;
+    private String label;
+    private String group;
+}
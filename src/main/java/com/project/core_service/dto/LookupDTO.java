@@ -2,6 +2,7 @@ package com.project.core_service.dto;
 
 import com.mongodb.lang.NonNull;
 import com.project.core_service.models.lookup.Lookup;
+import com.project.core_service.models.lookup.LookupColumnType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,4 +24,8 @@ public class LookupDTO {
     private Integer recordCount;
     private String description;
     private Map<String, String> fieldDescriptions;
+    private List<String> keyColumns;
+    private Map<String, LookupColumnType> columnTypes;
+    /** What a diff upload changed; {@code null} for other requests. */
+    private LookupDiffDTO diff;
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.project.core_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The rows of a lookup whose key column holds a given value.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LookupKeyMatchDTO {
+    private String lookupName;
+    private String column;
+    private String value;
+    /** Matching rows in upload order; keys need not be unique. */
+    private List<Map<String, String>> rows;
+}
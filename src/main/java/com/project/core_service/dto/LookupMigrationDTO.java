@@ -0,0 +1,25 @@
+package com.project.core_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The outcome of moving the embedded rows of a lookup into the lookup rows
+ * collection.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LookupMigrationDTO {
+    private String lookupName;
+    /** The upload now holding the rows of the lookup. */
+    private String rowsUploadId;
+    private Integer recordCount;
+    /** Saved queries joining the lookup's {@code data} array, now flagged as stale. */
+    private List<String> flaggedQueries;
+}
@@ -0,0 +1,28 @@
+package com.project.core_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of the rows of a lookup.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LookupRowsPageDTO {
+    private String lookupName;
+    /** Total number of rows in the lookup, before filtering. */
+    private Integer recordCount;
+    /** Offset of the page, or {@code null} when it was requested with a cursor. */
+    private Integer offset;
+    private Integer limit;
+    private List<Map<String, String>> rows;
+    /** Pass as {@code cursor} to get the next page; {@code null} on the last page. */
+    private String nextCursor;
+}
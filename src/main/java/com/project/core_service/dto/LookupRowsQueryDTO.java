@@ -0,0 +1,28 @@
+package com.project.core_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Paging, filtering and column selection for reading the rows of a lookup.
+ * The {@code eq} (equality), {@code prefix} and {@code from}/{@code to}
+ * (inclusive range) filters are given as {@code column:value}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LookupRowsQueryDTO {
+    private Integer offset;
+    private Integer limit;
+    private String cursor;
+    private List<String> columns;
+    private List<String> eq;
+    private List<String> prefix;
+    private List<String> from;
+    private List<String> to;
+}
@@ -0,0 +1,42 @@
+package com.project.core_service.dto;
+
+import com.project.core_service.models.lookup.LookupUploadJobState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Progress of an asynchronous lookup upload.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LookupUploadJobDTO {
+    private String jobId;
+    private String lookupName;
+    /**
+     * {@code CREATE} or {@code UPDATE}.
+     */
+    private String operation;
+    private LookupUploadJobState state;
+    private Long fileSize;
+    /**
+     * Rows written so far; the record count of the lookup once succeeded.
+     */
+    private Integer rowsProcessed;
+    /**
+     * Rows written per second since the job started running.
+     */
+    private Double rowsPerSecond;
+    /**
+     * Why the upload failed, if it did.
+     */
+    private String error;
+    private Date createdAt;
+    private Date startedAt;
+    private Date finishedAt;
+}
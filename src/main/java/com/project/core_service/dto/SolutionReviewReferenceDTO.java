@@ -0,0 +1,19 @@
+package com.project.core_service.dto;
+
+import com.project.core_service.models.solutions_review.DocumentState;
+
+import lombok.*;
+
+/**
+ * Identifies a solution review that was created on the database side without
+ * its content being loaded into the service.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SolutionReviewReferenceDTO {
+    private String id;
+    private String systemCode;
+    private DocumentState documentState;
+}
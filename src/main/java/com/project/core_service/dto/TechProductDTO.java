@@ -0,0 +1,19 @@
+package com.project.core_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO representing a tech product with all of its versions from the tech
+ * components lookup. Used for tech component typeahead results.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TechProductDTO {
+    private String productName;
+    private List<String> versions;
+}
@@ -0,0 +1,21 @@
+package com.project.core_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of lifecycle transitions recorded on a single day.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransitionThroughputDTO {
+
+    /**
+     * The day in {@code yyyy-MM-dd} format (UTC).
+     */
+    private String day;
+
+    private long count;
+}
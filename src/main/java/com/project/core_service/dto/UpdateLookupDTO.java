@@ -18,4 +18,16 @@ import java.util.List;
 public class UpdateLookupDTO {
     private String description;
     private MultipartFile lookupFile;
+    /**
+     * Columns to index for {@code by-key} reads; {@code null} keeps the current
+     * ones, an empty list removes them.
+     */
+    private List<String> keyColumns;
+    /**
+     * When set, the file is compared with the stored rows by this column and
+     * only inserted, changed and removed rows are written. Changed rows keep
+     * their stored position and inserted rows are appended after the existing
+     * ones, so rows are not reordered to match the file.
+     */
+    private String diffKeyColumn;
 }
@@ -0,0 +1,22 @@
+package com.project.core_service.exceptions;
+
+/**
+ * Exception thrown when an operation cannot proceed because another operation
+ * on the same resource is still in progress.
+ *
+ * <p>
+ * Typically raised when the per-system lock could not be acquired in time.
+ * The client may retry the request.
+ * </p>
+ */
+public class ConcurrentOperationException extends RuntimeException {
+    /**
+     * Constructs a new {@code ConcurrentOperationException} with a detail
+     * message describing the conflicting operation.
+     *
+     * @param msg message
+     */
+    public ConcurrentOperationException(String msg) {
+        super(msg);
+    }
+}
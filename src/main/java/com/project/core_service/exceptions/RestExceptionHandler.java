@@ -155,6 +155,23 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(body, new HttpHeaders(), status);
     }
 
+    /**
+     * Handles uncaught {@link ConcurrentOperationException}s.
+     *
+     * @param ex the concurrent operation exception
+     * @return a {@link ResponseEntity} with conflict details
+     */
+    @ExceptionHandler({ ConcurrentOperationException.class })
+    public ResponseEntity<Object> handleConcurrentOperationException(ConcurrentOperationException ex) {
+        HttpStatus status = HttpStatus.CONFLICT;
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put(TIMESTAMP, new Date());
+        body.put(STATUS, status);
+        String message = ex.getMessage();
+        body.put(MESSAGE, message != null ? message : "Another operation is in progress");
+        return new ResponseEntity<>(body, new HttpHeaders(), status);
+    }
+
     /**
      * Handles database constraint violations such as unique key violations.
      *
@@ -6,12 +6,13 @@ import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import com.project.core_service.models.solutions_review.ReviewSectionElement;
 
 @Document
 @AllArgsConstructor
 @Data
 @Builder
-public class BusinessCapability {
+public class BusinessCapability implements ReviewSectionElement {
     @Id
     private String id;
 
@@ -11,12 +11,13 @@ import com.mongodb.lang.NonNull;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import com.project.core_service.models.solutions_review.ReviewSectionElement;
 
 @Document
 @Data
 @AllArgsConstructor
 @Builder
-public class DataAsset {
+public class DataAsset implements ReviewSectionElement {
     @Id
     private String id;
 
@@ -8,12 +8,13 @@ import org.springframework.data.mongodb.core.mapping.Document;
 import com.mongodb.lang.NonNull;
 
 import lombok.Data;
+import com.project.core_service.models.solutions_review.ReviewSectionElement;
 
 @Document
 @Data
 @AllArgsConstructor
 @Builder
-public class EnterpriseTool {
+public class EnterpriseTool implements ReviewSectionElement {
     @Id
     private String id;
 
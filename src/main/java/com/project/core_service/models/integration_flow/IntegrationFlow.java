@@ -9,12 +9,13 @@ import com.mongodb.lang.NonNull;
 import com.project.core_service.models.shared.Frequency;
 
 import lombok.Data;
+import com.project.core_service.models.solutions_review.ReviewSectionElement;
 
 @Document
 @Data
 @AllArgsConstructor
 @Builder
-public class IntegrationFlow {
+public class IntegrationFlow implements ReviewSectionElement {
     @Id
     private String id;
 
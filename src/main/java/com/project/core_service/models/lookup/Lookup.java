@@ -36,4 +36,15 @@ public class Lookup {
 
     @NonNull
     private Map<String, String> fieldDescriptions;
+
+    /**
+     * Columns indexed for {@code by-key} reads; empty when none are.
+     */
+    private List<String> keyColumns;
+
+    /**
+     * The inferred type of each column; empty for lookups uploaded before types
+     * were inferred, whose columns are all text.
+     */
+    private Map<String, LookupColumnType> columnTypes;
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.project.core_service.models.lookup;
+
+import org.bson.types.Decimal128;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+
+/**
+ * The type a lookup column is stored as, inferred at upload time by
+ * {@link LookupSchemaInference}.
+ *
+ * <p>
+ * A typed column only accepts values in their canonical text form, e.g.
+ * {@code 42} but not {@code 042}, so that every stored value turns back into
+ * exactly the text that was uploaded, see {@link #text(Object)}. Empty cells
+ * are allowed in any column.
+ * </p>
+ */
+public enum LookupColumnType {
+    /**
+     * Stored as uploaded.
+     */
+    STRING,
+
+    /**
+     * A 64-bit integer such as {@code -12}, stored as a BSON long.
+     */
+    INTEGER,
+
+    /**
+     * A decimal number such as {@code 3.50}, stored as a BSON decimal128 with its
+     * scale kept.
+     */
+    DECIMAL,
+
+    /**
+     * {@code true} or {@code false}, stored as a BSON boolean.
+     */
+    BOOLEAN,
+
+    /**
+     * An ISO date such as {@code 2025-12-31}, stored as a BSON date at midnight
+     * UTC.
+     */
+    DATE;
+
+    /**
+     * @return whether a non-empty value can be stored as this type and read back
+     *         unchanged
+     */
+    public boolean accepts(String value) {
+        try {
+            return text(parse(value)).equals(value);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Converts a value to the BSON value stored for this type.
+     *
+     * @throws IllegalArgumentException if the value is not of this type
+     */
+    public Object parse(String value) {
+        try {
+            return switch (this) {
+                case STRING -> value;
+                case INTEGER -> Long.parseLong(value);
+                case DECIMAL -> new Decimal128(new BigDecimal(value));
+                case BOOLEAN -> switch (value) {
+                    case "true" -> Boolean.TRUE;
+                    case "false" -> Boolean.FALSE;
+                    default -> throw new IllegalArgumentException("Not a boolean: " + value);
+                };
+                case DATE -> parseDate(value);
+            };
+        } catch (NumberFormatException | DateTimeParseException | ArithmeticException e) {
+            throw new IllegalArgumentException(String.format("'%s' is not a valid %s", value, this), e);
+        }
+    }
+
+    private static Date parseDate(String value) {
+        // yyyy-MM-dd only; LocalDate also reads years beyond 9999 as +yyyyy
+        if (value.length() != 10) {
+            throw new DateTimeParseException("Not an ISO date", value, 0);
+        }
+        return Date.from(LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+    /**
+     * Turns a stored value back into its text form; {@code null} becomes the
+     * empty string.
+     */
+    public static String text(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof Date date) {
+            return LocalDate.ofInstant(date.toInstant(), ZoneOffset.UTC).toString();
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,107 @@
+package com.project.core_service.models.lookup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash indexes over the key columns of a {@link LookupTable}, for point reads
+ * such as "the row where {@code Product Name} is X" without scanning.
+ * <p>
+ * Each key column maps a value to the positions of the rows holding it, so a
+ * read is one hash lookup plus one row view per match. Keys need not be
+ * unique. Immutable once built and safe to share between threads.
+ * </p>
+ */
+public final class LookupKeyIndex {
+
+    private static final int[] NO_ROWS = new int[0];
+
+    private final LookupTable table;
+    private final Map<String, Map<String, int[]>> rowsByKey;
+
+    private LookupKeyIndex(LookupTable table, Map<String, Map<String, int[]>> rowsByKey) {
+        this.table = table;
+        this.rowsByKey = rowsByKey;
+    }
+
+    /**
+     * Indexes the given columns of a table. Columns the table does not have get
+     * an empty index.
+     */
+    public static LookupKeyIndex build(LookupTable table, Collection<String> keyColumns) {
+        Map<String, Map<String, int[]>> rowsByKey = new LinkedHashMap<>();
+        for (String keyColumn : keyColumns) {
+            rowsByKey.put(keyColumn, indexColumn(table, table.columnIndex(keyColumn)));
+        }
+        return new LookupKeyIndex(table, rowsByKey);
+    }
+
+    /**
+     * Groups row positions by dictionary code, so each distinct value costs one
+     * map entry and one {@code int[]}.
+     */
+    private static Map<String, int[]> indexColumn(LookupTable table, int column) {
+        if (column < 0) {
+            return Map.of();
+        }
+        int[] counts = new int[table.distinctValues(column)];
+        for (int row = 0; row < table.size(); row++) {
+            int code = table.code(row, column);
+            if (code != LookupTable.MISSING) {
+                counts[code]++;
+            }
+        }
+
+        int[][] rowsByCode = new int[counts.length][];
+        for (int code = 0; code < counts.length; code++) {
+            rowsByCode[code] = new int[counts[code]];
+        }
+        int[] filled = new int[counts.length];
+        for (int row = 0; row < table.size(); row++) {
+            int code = table.code(row, column);
+            if (code != LookupTable.MISSING) {
+                rowsByCode[code][filled[code]++] = row;
+            }
+        }
+
+        Map<String, int[]> index = new HashMap<>(Math.max(16, (int) (counts.length / 0.75f) + 1));
+        for (int[] rows : rowsByCode) {
+            if (rows.length > 0) {
+                index.put(table.value(rows[0], column), rows);
+            }
+        }
+        return index;
+    }
+
+    public List<String> keyColumns() {
+        return List.copyOf(rowsByKey.keySet());
+    }
+
+    public boolean isKeyColumn(String column) {
+        return rowsByKey.containsKey(column);
+    }
+
+    /**
+     * @param column a key column
+     * @param value  the value to look up
+     * @return the matching rows in table order; empty when nothing matches or
+     *         the column is not a key column
+     */
+    public List<Map<String, String>> rows(String column, String value) {
+        Map<String, int[]> index = rowsByKey.get(column);
+        int[] positions = index != null ? index.getOrDefault(value, NO_ROWS) : NO_ROWS;
+        List<Map<String, String>> rows = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            rows.add(table.row(position));
+        }
+        return rows;
+    }
+
+    public LookupTable table() {
+        return table;
+    }
+}
@@ -0,0 +1,164 @@
+package com.project.core_service.models.lookup;
+
+import org.bson.types.Decimal128;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Selects rows and columns of a lookup.
+ *
+ * <p>
+ * Equality and range values are given as text and compared as the type of
+ * their column, so {@code from} {@code 9} and {@code to} {@code 10} select
+ * numbers rather than text between {@code "9"} and {@code "10"}. Prefixes
+ * always match the text of a value.
+ * </p>
+ *
+ * @param exact       columns whose value must equal the given value
+ * @param prefixes    columns whose value must start with the given value
+ * @param from        columns whose value must be at least the given value
+ * @param to          columns whose value must be at most the given value
+ * @param columns     the columns to return, or an empty list for all columns
+ * @param columnTypes the types of the lookup's columns; columns not listed are
+ *                    {@link LookupColumnType#STRING}
+ * @throws IllegalArgumentException if an equality or range value is not of
+ *                                  its column's type
+ */
+public record LookupRowFilter(Map<String, String> exact, Map<String, String> prefixes, Map<String, String> from,
+        Map<String, String> to, List<String> columns, Map<String, LookupColumnType> columnTypes) {
+
+    public LookupRowFilter {
+        exact = exact != null ? Map.copyOf(exact) : Map.of();
+        prefixes = prefixes != null ? Map.copyOf(prefixes) : Map.of();
+        from = from != null ? Map.copyOf(from) : Map.of();
+        to = to != null ? Map.copyOf(to) : Map.of();
+        columns = columns != null ? List.copyOf(columns) : List.of();
+        columnTypes = columnTypes != null ? Map.copyOf(columnTypes) : Map.of();
+
+        for (Map<String, String> values : List.of(exact, from, to)) {
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                typedValue(columnTypes, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Selects by equality and prefix on untyped columns.
+     */
+    public LookupRowFilter(Map<String, String> exact, Map<String, String> prefixes, List<String> columns) {
+        this(exact, prefixes, null, null, columns, null);
+    }
+
+    public LookupColumnType typeOf(String column) {
+        return columnTypes.getOrDefault(column, LookupColumnType.STRING);
+    }
+
+    /**
+     * @return a filter value as the BSON value stored for its column;
+     *         {@code null} for an empty value of a typed column
+     */
+    public Object typedValue(String column, String value) {
+        return typedValue(columnTypes, column, value);
+    }
+
+    private static Object typedValue(Map<String, LookupColumnType> columnTypes, String column, String value) {
+        LookupColumnType type = columnTypes.getOrDefault(column, LookupColumnType.STRING);
+        if (type != LookupColumnType.STRING && value.isEmpty()) {
+            // Empty cells of typed columns are stored as null
+            return null;
+        }
+        try {
+            return type.parse(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Column '%s' holds %s values: %s",
+                    column, type, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Applies the filter to a row held as text, for rows that are filtered in
+     * memory rather than by a query. Values of typed columns are compared as
+     * their type; an empty cell of a typed column is outside every range.
+     *
+     * @param row a full row
+     * @return whether the row is selected
+     */
+    public boolean matches(Map<String, String> row) {
+        for (Map.Entry<String, String> entry : exact.entrySet()) {
+            String cell = row.getOrDefault(entry.getKey(), "");
+            Integer comparison = compare(entry.getKey(), cell, entry.getValue());
+            // Empty cells only equal an empty value
+            if (comparison != null ? comparison != 0 : !cell.equals(entry.getValue())) {
+                return false;
+            }
+        }
+        for (Map.Entry<String, String> entry : prefixes.entrySet()) {
+            if (!row.getOrDefault(entry.getKey(), "").startsWith(entry.getValue())) {
+                return false;
+            }
+        }
+        for (Map.Entry<String, String> entry : from.entrySet()) {
+            Integer comparison = compare(entry.getKey(), row.getOrDefault(entry.getKey(), ""), entry.getValue());
+            if (comparison == null || comparison < 0) {
+                return false;
+            }
+        }
+        for (Map.Entry<String, String> entry : to.entrySet()) {
+            Integer comparison = compare(entry.getKey(), row.getOrDefault(entry.getKey(), ""), entry.getValue());
+            if (comparison == null || comparison > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares a cell with a filter value as the type of their column.
+     *
+     * @return the sign of the comparison, or {@code null} when either side is
+     *         empty, or the cell is not of its column's type, in a typed column
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Integer compare(String column, String cell, String value) {
+        LookupColumnType type = typeOf(column);
+        if (type == LookupColumnType.STRING) {
+            return Integer.signum(cell.compareTo(value));
+        }
+        if (cell.isEmpty() || value.isEmpty()) {
+            return null;
+        }
+        Object left;
+        try {
+            left = type.parse(cell);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        Object right = type.parse(value);
+        if (left instanceof Decimal128 decimal) {
+            return Integer.signum(decimal.bigDecimalValue().compareTo(((Decimal128) right).bigDecimalValue()));
+        }
+        return Integer.signum(((Comparable) left).compareTo(right));
+    }
+
+    /**
+     * Restricts a row to the selected columns.
+     *
+     * @param row a full row
+     * @return the row itself when all columns are selected, otherwise a copy
+     *         holding only the selected columns
+     */
+    public Map<String, String> select(Map<String, String> row) {
+        if (columns.isEmpty()) {
+            return row;
+        }
+        Map<String, String> selected = new LinkedHashMap<>();
+        for (String column : columns) {
+            if (row.containsKey(column)) {
+                selected.put(column, row.get(column));
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,61 @@
+package com.project.core_service.models.lookup;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Infers the {@link LookupColumnType} of every column while the rows of an
+ * upload stream past.
+ *
+ * <p>
+ * Each column starts out as a candidate for every typed column type; a
+ * non-empty value rules out the types that do not accept it, so each value is
+ * checked against the remaining candidates only and a column that turns out
+ * to be text costs nothing after its first text value. A column keeps the
+ * first remaining type in the order {@code INTEGER}, {@code DECIMAL},
+ * {@code BOOLEAN}, {@code DATE}; columns without any non-empty value, or
+ * without a remaining type, are {@code STRING}.
+ * </p>
+ */
+public final class LookupSchemaInference {
+
+    private static final List<LookupColumnType> PREFERENCE = List.of(
+            LookupColumnType.INTEGER, LookupColumnType.DECIMAL, LookupColumnType.BOOLEAN, LookupColumnType.DATE);
+
+    private final Map<String, EnumSet<LookupColumnType>> candidates = new LinkedHashMap<>();
+    private final Set<String> columnsWithValues = new HashSet<>();
+
+    /**
+     * Narrows the candidate types of each column of a row.
+     */
+    public void observe(Map<String, ?> row) {
+        for (Map.Entry<String, ?> cell : row.entrySet()) {
+            EnumSet<LookupColumnType> types = candidates.computeIfAbsent(cell.getKey(),
+                    column -> EnumSet.copyOf(PREFERENCE));
+            String value = cell.getValue() != null ? cell.getValue().toString() : "";
+            if (value.isEmpty()) {
+                continue;
+            }
+            columnsWithValues.add(cell.getKey());
+            if (!types.isEmpty()) {
+                types.removeIf(type -> !type.accepts(value));
+            }
+        }
+    }
+
+    /**
+     * @return the type of every observed column, in the order the columns were
+     *         first seen
+     */
+    public Map<String, LookupColumnType> columnTypes() {
+        Map<String, LookupColumnType> columnTypes = new LinkedHashMap<>();
+        candidates.forEach((column, types) -> columnTypes.put(column, columnsWithValues.contains(column)
+                ? PREFERENCE.stream().filter(types::contains).findFirst().orElse(LookupColumnType.STRING)
+                : LookupColumnType.STRING));
+        return columnTypes;
+    }
+}
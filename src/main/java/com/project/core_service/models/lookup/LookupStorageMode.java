@@ -0,0 +1,27 @@
+package com.project.core_service.models.lookup;
+
+/**
+ * How the rows of a lookup are stored.
+ */
+public enum LookupStorageMode {
+    /**
+     * All rows are kept in the {@code data} array of the lookup document. Simple,
+     * but limited to the 16 MB MongoDB document size.
+     */
+    EMBEDDED,
+
+    /**
+     * The lookup document only holds metadata; each row is a separate document
+     * in the lookup rows collection.
+     */
+    CHUNKED,
+
+    /**
+     * Like {@link #CHUNKED}, but rows are stored in gzip-compressed blocks of
+     * one ingest batch each in the lookup row blocks collection. Takes a
+     * fraction of the space for large, repetitive lookups at the cost of
+     * filtering rows in memory on read; rows cannot be joined by database
+     * queries, and uploads cannot be diffs.
+     */
+    COMPRESSED
+}
@@ -0,0 +1,355 @@
+package com.project.core_service.models.lookup;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Columnar, dictionary-encoded rows of a lookup.
+ * <p>
+ * Rows of a lookup share one set of columns and repeat the same values many
+ * times (capability levels, product names). Rather than holding one
+ * {@code HashMap} per row, a table keeps its column names once, and for every
+ * column a dictionary of distinct values plus an {@code int[]} holding one
+ * dictionary code per row. {@link #rows()} exposes the table as read-only
+ * {@code Map} views so existing callers keep working without copying.
+ * </p>
+ * <p>
+ * Tables are immutable once built and safe to share between threads.
+ * </p>
+ */
+public final class LookupTable {
+
+    /** Code of a cell whose row has no value for the column. */
+    public static final int MISSING = -1;
+
+    private static final LookupTable EMPTY = new Builder().build();
+
+    private final String[] columns;
+    private final Map<String, Integer> columnIndexes;
+    private final String[][] dictionaries;
+    private final int[][] codes;
+    private final int rowCount;
+    private final RowList rowList = new RowList();
+
+    private LookupTable(String[] columns, Map<String, Integer> columnIndexes, String[][] dictionaries,
+            int[][] codes, int rowCount) {
+        this.columns = columns;
+        this.columnIndexes = columnIndexes;
+        this.dictionaries = dictionaries;
+        this.codes = codes;
+        this.rowCount = rowCount;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static LookupTable empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Encodes the given rows. Columns are ordered by first appearance.
+     *
+     * @param rows the rows to encode, may be {@code null}
+     * @return the backing table when {@code rows} is already a
+     *         {@link #rows()} view, otherwise a newly encoded table
+     */
+    public static LookupTable of(Collection<? extends Map<String, String>> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return EMPTY;
+        }
+        if (rows instanceof RowList rowList) {
+            return rowList.table();
+        }
+        Builder builder = new Builder();
+        rows.forEach(builder::addRow);
+        return builder.build();
+    }
+
+    /**
+     * Encodes the given rows as they are streamed, without collecting them
+     * into maps first. The stream is consumed but not closed.
+     *
+     * @param rows the rows to encode
+     * @return the encoded table
+     */
+    public static LookupTable from(Stream<? extends Map<String, String>> rows) {
+        Builder builder = new Builder();
+        rows.forEachOrdered(builder::addRow);
+        return builder.build();
+    }
+
+    public int size() {
+        return rowCount;
+    }
+
+    public boolean isEmpty() {
+        return rowCount == 0;
+    }
+
+    /**
+     * @return the column names in first-seen order
+     */
+    public List<String> columns() {
+        return List.of(columns);
+    }
+
+    /**
+     * @param column a column name
+     * @return the index of the column, or {@code -1} if the table has no such
+     *         column
+     */
+    public int columnIndex(String column) {
+        Integer index = columnIndexes.get(column);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Returns a single cell. An unknown column (index {@code -1}) reads as
+     * missing so callers can resolve optional columns once and scan freely.
+     *
+     * @param row    the row index
+     * @param column the column index, or {@code -1}
+     * @return the cell value, or {@code null} when the row has no value
+     */
+    public String value(int row, int column) {
+        if (column < 0) {
+            return null;
+        }
+        int code = codes[column][row];
+        return code == MISSING ? null : dictionaries[column][code];
+    }
+
+    public String value(int row, String column) {
+        return value(row, columnIndex(column));
+    }
+
+    /**
+     * @return the dictionary code of a cell, or {@link #MISSING}; equal codes
+     *         within a column mean equal values
+     */
+    public int code(int row, int column) {
+        return codes[column][row];
+    }
+
+    /**
+     * @return the number of distinct values stored for a column
+     */
+    public int distinctValues(int column) {
+        return dictionaries[column].length;
+    }
+
+    /**
+     * @return a read-only map view of one row, without missing cells
+     */
+    public Map<String, String> row(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of range for table of size " + rowCount);
+        }
+        return new RowView(row);
+    }
+
+    /**
+     * @return a read-only list of row views backed by this table
+     */
+    public List<Map<String, String>> rows() {
+        return rowList;
+    }
+
+    public Stream<Map<String, String>> stream() {
+        return rowList.stream();
+    }
+
+    private final class RowList extends AbstractList<Map<String, String>> implements RandomAccess {
+
+        @Override
+        public Map<String, String> get(int index) {
+            return row(index);
+        }
+
+        @Override
+        public int size() {
+            return rowCount;
+        }
+
+        LookupTable table() {
+            return LookupTable.this;
+        }
+    }
+
+    private final class RowView extends AbstractMap<String, String> {
+
+        private final int row;
+
+        RowView(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public String get(Object key) {
+            return key instanceof String column ? value(row, columnIndex(column)) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (int[] column : codes) {
+                if (column[row] != MISSING) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    return new CellIterator(row);
+                }
+
+                @Override
+                public int size() {
+                    return RowView.this.size();
+                }
+            };
+        }
+    }
+
+    private final class CellIterator implements Iterator<Map.Entry<String, String>> {
+
+        private final int row;
+        private int next;
+
+        CellIterator(int row) {
+            this.row = row;
+            this.next = advance(0);
+        }
+
+        private int advance(int from) {
+            int column = from;
+            while (column < columns.length && codes[column][row] == MISSING) {
+                column++;
+            }
+            return column;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < columns.length;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int column = next;
+            next = advance(column + 1);
+            return new AbstractMap.SimpleImmutableEntry<>(columns[column], value(row, column));
+        }
+    }
+
+    /**
+     * Encodes rows one at a time. Not thread-safe.
+     */
+    public static final class Builder {
+
+        private static final int INITIAL_CAPACITY = 64;
+
+        private final List<String> columns = new ArrayList<>();
+        private final Map<String, Integer> columnIndexes = new HashMap<>();
+        private final List<Map<String, Integer>> dictionaryIndexes = new ArrayList<>();
+        private final List<List<String>> dictionaries = new ArrayList<>();
+        private final List<int[]> codes = new ArrayList<>();
+        private int capacity = INITIAL_CAPACITY;
+        private int rowCount;
+
+        private Builder() {
+        }
+
+        /**
+         * Appends a row. Columns not seen before are added to the schema and
+         * read as missing for earlier rows; {@code null} values are treated
+         * as missing.
+         */
+        public Builder addRow(Map<String, String> row) {
+            if (rowCount == capacity) {
+                grow();
+            }
+            for (Map.Entry<String, String> cell : row.entrySet()) {
+                if (cell.getValue() != null) {
+                    int column = columnFor(cell.getKey());
+                    codes.get(column)[rowCount] = encode(column, cell.getValue());
+                }
+            }
+            rowCount++;
+            return this;
+        }
+
+        public LookupTable build() {
+            int columnCount = columns.size();
+            String[][] builtDictionaries = new String[columnCount][];
+            int[][] builtCodes = new int[columnCount][];
+            for (int column = 0; column < columnCount; column++) {
+                builtDictionaries[column] = dictionaries.get(column).toArray(String[]::new);
+                builtCodes[column] = Arrays.copyOf(codes.get(column), rowCount);
+            }
+            return new LookupTable(columns.toArray(String[]::new), Map.copyOf(columnIndexes),
+                    builtDictionaries, builtCodes, rowCount);
+        }
+
+        private int columnFor(String name) {
+            Integer index = columnIndexes.get(name);
+            if (index != null) {
+                return index;
+            }
+            int column = columns.size();
+            columns.add(name.intern());
+            columnIndexes.put(name.intern(), column);
+            dictionaryIndexes.add(new HashMap<>());
+            dictionaries.add(new ArrayList<>());
+            int[] columnCodes = new int[capacity];
+            Arrays.fill(columnCodes, MISSING);
+            codes.add(columnCodes);
+            return column;
+        }
+
+        private int encode(int column, String value) {
+            List<String> dictionary = dictionaries.get(column);
+            return dictionaryIndexes.get(column).computeIfAbsent(value, v -> {
+                dictionary.add(v);
+                return dictionary.size() - 1;
+            });
+        }
+
+        private void grow() {
+            int newCapacity = capacity * 2;
+            for (int column = 0; column < codes.size(); column++) {
+                int[] grown = Arrays.copyOf(codes.get(column), newCapacity);
+                Arrays.fill(grown, capacity, newCapacity, MISSING);
+                codes.set(column, grown);
+            }
+            capacity = newCapacity;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.project.core_service.models.lookup;
+
+/**
+ * Lifecycle of an asynchronous lookup upload.
+ */
+public enum LookupUploadJobState {
+    /**
+     * The file is spooled and waits for an upload thread.
+     */
+    QUEUED,
+
+    /**
+     * Rows are being parsed and stored.
+     */
+    RUNNING,
+
+    /**
+     * The lookup was created or updated.
+     */
+    SUCCEEDED,
+
+    /**
+     * The upload failed; the lookup is unchanged.
+     */
+    FAILED
+}
@@ -0,0 +1,18 @@
+package com.project.core_service.models.lookup;
+
+import java.util.Date;
+
+/**
+ * One upload of the rows of a chunked lookup.
+ *
+ * @param uploadId    the upload ID the rows are stored under
+ * @param lookupId    the lookup the upload belongs to
+ * @param state       where the upload is in its lifecycle
+ * @param createdAt   when the upload started
+ * @param activatedAt when the lookup was switched to the upload, if it was
+ * @param retiredAt   when a newer upload replaced it, if one did
+ * @param recordCount the number of rows, once activated
+ */
+public record LookupVersion(String uploadId, String lookupId, LookupVersionState state, Date createdAt,
+        Date activatedAt, Date retiredAt, Integer recordCount) {
+}
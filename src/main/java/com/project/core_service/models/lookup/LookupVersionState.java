@@ -0,0 +1,22 @@
+package com.project.core_service.models.lookup;
+
+/**
+ * Lifecycle of one upload of a chunked lookup.
+ */
+public enum LookupVersionState {
+    /**
+     * Rows are still being written; readers never see them.
+     */
+    WRITING,
+
+    /**
+     * The lookup document points at this upload.
+     */
+    ACTIVE,
+
+    /**
+     * Superseded by a newer upload. The rows are kept for a grace period so
+     * that reads which started before the switch can finish.
+     */
+    RETIRED
+}
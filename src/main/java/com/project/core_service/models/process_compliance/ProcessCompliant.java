@@ -8,12 +8,13 @@ import org.springframework.data.mongodb.core.mapping.Document;
 import com.mongodb.lang.NonNull;
 
 import lombok.Data;
+import com.project.core_service.models.solutions_review.ReviewSectionElement;
 
 @Data
 @Document
 @AllArgsConstructor
 @Builder
-public class ProcessCompliant {
+public class ProcessCompliant implements ReviewSectionElement {
     @Id
     private String id;
 
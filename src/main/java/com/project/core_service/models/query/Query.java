@@ -42,4 +42,15 @@ public class Query {
      */
     @NonNull
     private String description;
+
+    /**
+     * Why the query may no longer return what it used to, e.g. because a
+     * lookup it joins changed storage; {@code null} if nothing is known to be
+     * wrong. Cleared when the query is updated.
+     */
+    private String staleReason;
+
+    public Query(@NonNull String name, @NonNull String mongoQuery, @NonNull String description) {
+        this(name, mongoQuery, description, null);
+    }
 }
@@ -0,0 +1,70 @@
+package com.project.core_service.models.review_transition;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.mongodb.lang.NonNull;
+import com.project.core_service.models.solutions_review.DocumentState;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Audit record of a single lifecycle transition of a solution review.
+ * 
+ * <p>
+ * One entry is appended to the {@code reviewTransitions} collection for every
+ * committed transition. Entries are never updated.
+ * </p>
+ */
+@Document(collection = "reviewTransitions")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReviewTransition {
+
+    @Id
+    private String id;
+
+    /**
+     * The ID of the solution review that was transitioned.
+     */
+    @NonNull
+    private String documentId;
+
+    /**
+     * The system code of the solution review.
+     */
+    @NonNull
+    private String systemCode;
+
+    /**
+     * The lifecycle operation that was executed (e.g. SUBMIT, ACTIVATE).
+     */
+    @NonNull
+    private DocumentState.StateOperation operation;
+
+    @NonNull
+    private DocumentState fromState;
+
+    @NonNull
+    private DocumentState toState;
+
+    /**
+     * The user who executed the transition.
+     */
+    private String modifiedBy;
+
+    /**
+     * Optional comment supplied with the transition.
+     */
+    private String comment;
+
+    @NonNull
+    private LocalDateTime transitionedAt;
+}
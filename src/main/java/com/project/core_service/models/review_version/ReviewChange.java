@@ -0,0 +1,69 @@
+package com.project.core_service.models.review_version;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single structural change between two versions of solution review content.
+ *
+ * <p>
+ * Changes address either the solution overview as a whole
+ * ({@code section = "solutionOverview"}, no element) or one element of a
+ * section by its ID. For elements without an ID the position in the section,
+ * prefixed with {@code #}, is used instead; elements written since IDs are
+ * assigned on every write keep their ID across versions, so inserting one
+ * element is a single change.
+ * </p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReviewChange {
+
+    /**
+     * The kind of change.
+     */
+    public enum Type {
+        /**
+         * The element was added at {@link ReviewChange#position}, or at the end
+         * of the section when no position is recorded.
+         */
+        ADD,
+        /** The element was removed from the section. */
+        REMOVE,
+        /** The element (or the overview) was replaced by {@link ReviewChange#value}. */
+        REPLACE,
+        /** The elements of the section were reordered to the keys in {@link ReviewChange#value}. */
+        REORDER
+    }
+
+    private Type type;
+
+    /**
+     * The field name of the section, e.g. {@code integrationFlows}.
+     */
+    private String section;
+
+    /**
+     * The key of the element within the section; {@code null} for the overview
+     * and for reorders.
+     */
+    private String elementKey;
+
+    /**
+     * The new value for ADD and REPLACE, the new key order for REORDER.
+     */
+    private Object value;
+
+    /**
+     * The index an ADD inserts the element at; {@code null} for other changes.
+     */
+    private Integer position;
+
+    public ReviewChange(Type type, String section, String elementKey, Object value) {
+        this(type, section, elementKey, value, null);
+    }
+}
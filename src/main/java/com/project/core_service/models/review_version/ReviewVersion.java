@@ -0,0 +1,77 @@
+package com.project.core_service.models.review_version;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.mongodb.lang.NonNull;
+import com.project.core_service.models.solutions_review.DocumentState;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One released version of the solution review content of a system.
+ *
+ * <p>
+ * Versions are numbered per system code starting at 1 and are stored in the
+ * {@code reviewVersions} collection. A keyframe version stores the full
+ * content in {@link #snapshot}; every other version stores only the
+ * {@link #changes} against the previous version. Entries are never updated.
+ * </p>
+ */
+@Document(collection = "reviewVersions")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReviewVersion {
+
+    @Id
+    private String id;
+
+    @NonNull
+    private String systemCode;
+
+    /**
+     * The version number within the system, starting at 1.
+     */
+    private int version;
+
+    /**
+     * The ID of the solution review this version was recorded from.
+     */
+    @NonNull
+    private String documentId;
+
+    @NonNull
+    private DocumentState documentState;
+
+    /**
+     * Whether {@link #snapshot} holds the full content of this version.
+     */
+    private boolean keyframe;
+
+    /**
+     * The full content of the version; only set on keyframes.
+     */
+    private Map<String, Object> snapshot;
+
+    /**
+     * The changes against the previous version; only set on non-keyframes.
+     */
+    private List<ReviewChange> changes;
+
+    /**
+     * The user whose action recorded the version.
+     */
+    private String recordedBy;
+
+    @NonNull
+    private LocalDateTime recordedAt;
+}
@@ -0,0 +1,77 @@
+package com.project.core_service.models.solutions_review;
+
+import java.util.Arrays;
+
+import com.project.core_service.models.business_capabilities.BusinessCapability;
+import com.project.core_service.models.data_asset.DataAsset;
+import com.project.core_service.models.enterprise_tools.EnterpriseTool;
+import com.project.core_service.models.integration_flow.IntegrationFlow;
+import com.project.core_service.models.process_compliance.ProcessCompliant;
+import com.project.core_service.models.system_component.SystemComponent;
+import com.project.core_service.models.technology_component.TechnologyComponent;
+
+/**
+ * The list sections of a {@link SolutionReview} that can be edited
+ * individually.
+ * <p>
+ * Each section maps the path segment used by the REST API (e.g.
+ * {@code integration-flows}) to the field of the review document that holds
+ * the section and to the type of its elements.
+ */
+public enum ReviewSection {
+
+    BUSINESS_CAPABILITIES("business-capabilities", "businessCapabilities", BusinessCapability.class),
+    SYSTEM_COMPONENTS("system-components", "systemComponents", SystemComponent.class),
+    INTEGRATION_FLOWS("integration-flows", "integrationFlows", IntegrationFlow.class),
+    DATA_ASSETS("data-assets", "dataAssets", DataAsset.class),
+    TECHNOLOGY_COMPONENTS("technology-components", "technologyComponents", TechnologyComponent.class),
+    ENTERPRISE_TOOLS("enterprise-tools", "enterpriseTools", EnterpriseTool.class),
+    PROCESS_COMPLIANCES("process-compliances", "processCompliances", ProcessCompliant.class);
+
+    private final String path;
+    private final String fieldName;
+    private final Class<? extends ReviewSectionElement> elementType;
+
+    ReviewSection(String path, String fieldName, Class<? extends ReviewSectionElement> elementType) {
+        this.path = path;
+        this.fieldName = fieldName;
+        this.elementType = elementType;
+    }
+
+    /**
+     * @return the path segment used by the REST API
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return the name of the field holding this section in the review document
+     */
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * @return the type of the elements of this section
+     */
+    public Class<? extends ReviewSectionElement> getElementType() {
+        return elementType;
+    }
+
+    /**
+     * Resolves a section from its REST path segment.
+     *
+     * @param path the path segment, e.g. {@code system-components}
+     * @return the matching section
+     * @throws IllegalArgumentException if no section matches
+     */
+    public static ReviewSection fromPath(String path) {
+        return Arrays.stream(values())
+                .filter(section -> section.path.equals(path))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        String.format("Unknown section '%s'. Valid sections are: %s", path,
+                                Arrays.stream(values()).map(ReviewSection::getPath).toList())));
+    }
+}
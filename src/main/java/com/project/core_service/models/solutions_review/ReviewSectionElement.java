@@ -0,0 +1,17 @@
+package com.project.core_service.models.solutions_review;
+
+/**
+ * An element of one of the list sections of a {@link SolutionReview}
+ * (business capabilities, system components, integration flows, ...).
+ * <p>
+ * Elements are embedded in the review document and addressed by their
+ * {@code _id} for element-level updates.
+ *
+ * @see ReviewSection
+ */
+public interface ReviewSectionElement {
+
+    String getId();
+
+    void setId(String id);
+}
@@ -78,6 +78,12 @@ public class SolutionReview {
 
     private String lastModifiedBy;
 
+    /**
+     * SHA-256 hash of the editable sections as of the last full update, used to
+     * skip writes that would not change anything. Cleared by partial updates.
+     */
+    private String contentHash;
+
     // Constructor for creating a new SolutionReview
     public SolutionReview(String systemCode, SolutionOverview solutionOverview) {
         this.documentState = DocumentState.DRAFT;
@@ -317,6 +323,10 @@ public class SolutionReview {
                 .lastModifiedBy(userId);
     }
 
+    /**
+     * Starts a new DRAFT with the content of an existing review. Elements keep
+     * their IDs, which only need to be unique within their section.
+     */
     public static SolutionReviewBuilder fromExisting(SolutionReview original, String modifiedBy) {
         SolutionOverview clonedOverview = SolutionOverview.newEnhancementBuilder(original.solutionOverview).build();
         return SolutionReview.builder()
@@ -324,55 +334,13 @@ public class SolutionReview {
                 .documentState(DocumentState.DRAFT)
                 .solutionOverview(clonedOverview)
                 .systemCode(original.systemCode)
-                .businessCapabilities(new ArrayList<>(original.businessCapabilities
-                        .stream()
-                        .map(businessCapability -> {
-                            businessCapability.setId(null);
-                            return businessCapability;
-                        })
-                        .toList()))
-                .systemComponents(new ArrayList<>(original.systemComponents
-                        .stream()
-                        .map(systemComponent -> {
-                            systemComponent.setId(null);
-                            return systemComponent;
-                        })
-                        .toList()))
-                .integrationFlows(new ArrayList<>(original.integrationFlows
-                        .stream()
-                        .map(integrationFlow -> {
-                            integrationFlow.setId(null);
-                            return integrationFlow;
-                        })
-                        .toList()))
-                .dataAssets(new ArrayList<>(original.dataAssets
-                        .stream()
-                        .map(dataAsset -> {
-                            dataAsset.setId(null);
-                            return dataAsset;
-                        })
-                        .toList()))
-                .technologyComponents(new ArrayList<>(original.technologyComponents
-                        .stream()
-                        .map(technologyComponent -> {
-                            technologyComponent.setId(null);
-                            return technologyComponent;
-                        })
-                        .toList()))
-                .enterpriseTools(new ArrayList<>(original.enterpriseTools
-                        .stream()
-                        .map(enterpriseTool -> {
-                            enterpriseTool.setId(null);
-                            return enterpriseTool;
-                        })
-                        .toList()))
-                .processCompliances(new ArrayList<>(original.processCompliances
-                        .stream()
-                        .map(processCompliant -> {
-                            processCompliant.setId(null);
-                            return processCompliant;
-                        })
-                        .toList()))
+                .businessCapabilities(new ArrayList<>(original.businessCapabilities))
+                .systemComponents(new ArrayList<>(original.systemComponents))
+                .integrationFlows(new ArrayList<>(original.integrationFlows))
+                .dataAssets(new ArrayList<>(original.dataAssets))
+                .technologyComponents(new ArrayList<>(original.technologyComponents))
+                .enterpriseTools(new ArrayList<>(original.enterpriseTools))
+                .processCompliances(new ArrayList<>(original.processCompliances))
                 .createdAt(LocalDateTime.now())
                 .lastModifiedAt(LocalDateTime.now())
                 .createdBy(original.createdBy)
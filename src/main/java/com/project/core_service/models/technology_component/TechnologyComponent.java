@@ -8,13 +8,14 @@ import org.springframework.data.mongodb.core.mapping.Document;
 import com.mongodb.lang.NonNull;
 
 import lombok.Data;
+import com.project.core_service.models.solutions_review.ReviewSectionElement;
 
 @Document
 @Data
 @AllArgsConstructor
 @Builder
 // TODO: Does this overlap with system_component.LanguageFramework?
-public class TechnologyComponent {
+public class TechnologyComponent implements ReviewSectionElement {
     @Id
     private String id;
 
@@ -0,0 +1,63 @@
+package com.project.core_service.repositories;
+
+import com.project.core_service.dto.TransitionThroughputDTO;
+import com.project.core_service.models.review_transition.ReviewTransition;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Aggregation;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repository interface for {@link ReviewTransition} audit entries.
+ *
+ * <p>
+ * Not exported through Spring Data REST so the audit trail cannot be modified
+ * over HTTP; reads go through
+ * {@link com.project.core_service.controllers.ReviewTransitionController}.
+ * </p>
+ */
+@Repository
+@RepositoryRestResource(exported = false)
+public interface ReviewTransitionRepository extends MongoRepository<ReviewTransition, String> {
+
+    /**
+     * Retrieves the transition history of a solution review, newest first.
+     *
+     * @param documentId the solution review ID
+     * @return the transitions of the document
+     */
+    List<ReviewTransition> findByDocumentIdOrderByTransitionedAtDesc(String documentId);
+
+    /**
+     * Retrieves the transition history of all solution reviews of a system,
+     * newest first.
+     *
+     * @param systemCode the system code
+     * @param pageable   the pagination information
+     * @return a {@link Page} of transitions for the system
+     */
+    Page<ReviewTransition> findBySystemCodeOrderByTransitionedAtDesc(String systemCode, Pageable pageable);
+
+    /**
+     * Counts transitions per day within the given time range.
+     *
+     * @param from     inclusive lower bound
+     * @param to       exclusive upper bound
+     * @param timezone the zone whose calendar days the counts are grouped by,
+     *                 e.g. {@code UTC} or {@code Europe/Berlin}
+     * @return one entry per day that has at least one transition, oldest first
+     */
+    @Aggregation(pipeline = {
+        "{ $match: { 'transitionedAt': { $gte: ?0, $lt: ?1 } } }",
+        "{ $group: { _id: { $dateToString: { format: '%Y-%m-%d', date: '$transitionedAt', timezone: ?2 } }, count: { $sum: 1 } } }",
+        "{ $sort: { _id: 1 } }",
+        "{ $project: { _id: 0, day: '$_id', count: 1 } }"
+    })
+    List<TransitionThroughputDTO> countTransitionsPerDay(Date from, Date to, String timezone);
+}
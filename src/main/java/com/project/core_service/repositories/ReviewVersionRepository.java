@@ -0,0 +1,64 @@
+package com.project.core_service.repositories;
+
+import com.project.core_service.models.review_version.ReviewVersion;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for {@link ReviewVersion} history entries.
+ *
+ * <p>
+ * Not exported through Spring Data REST so the history cannot be modified
+ * over HTTP; reads go through
+ * {@link com.project.core_service.controllers.ReviewVersionController}.
+ * </p>
+ */
+@Repository
+@RepositoryRestResource(exported = false)
+public interface ReviewVersionRepository extends MongoRepository<ReviewVersion, String> {
+
+    /**
+     * Retrieves the latest version of a system.
+     *
+     * @param systemCode the system code
+     * @return the latest version, or empty if none was recorded
+     */
+    Optional<ReviewVersion> findFirstBySystemCodeOrderByVersionDesc(String systemCode);
+
+    /**
+     * Retrieves the closest keyframe at or before a version.
+     *
+     * @param systemCode the system code
+     * @param version    the target version
+     * @return the keyframe to start reconstruction from
+     */
+    Optional<ReviewVersion> findFirstBySystemCodeAndKeyframeTrueAndVersionLessThanEqualOrderByVersionDesc(
+            String systemCode, int version);
+
+    /**
+     * Retrieves the versions after {@code afterVersion} up to and including
+     * {@code toVersion}, oldest first.
+     *
+     * @param systemCode   the system code
+     * @param afterVersion exclusive lower bound
+     * @param toVersion    inclusive upper bound
+     * @return the versions in range
+     */
+    @Query(value = "{ 'systemCode': ?0, 'version': { $gt: ?1, $lte: ?2 } }", sort = "{ 'version': 1 }")
+    List<ReviewVersion> findVersionRange(String systemCode, int afterVersion, int toVersion);
+
+    /**
+     * Lists the versions of a system without their content, newest first.
+     *
+     * @param systemCode the system code
+     * @return the version metadata
+     */
+    @Query(value = "{ 'systemCode': ?0 }", fields = "{ 'snapshot': 0, 'changes': 0 }", sort = "{ 'version': -1 }")
+    List<ReviewVersion> findSummariesBySystemCode(String systemCode);
+}
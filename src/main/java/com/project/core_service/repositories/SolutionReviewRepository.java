@@ -156,4 +156,26 @@ public interface SolutionReviewRepository extends MongoRepository<SolutionReview
     List<SolutionReview> findByDocumentState(DocumentState documentState);
 
     Optional<SolutionReview> findBySystemCodeAndDocumentState(String systemCode, DocumentState documentState);
+
+    /**
+     * Retrieves only the system code of a {@link SolutionReview}. All other
+     * fields of the returned entity are left unset.
+     *
+     * @param id the identifier of the solution review
+     * @return an {@link Optional} containing the partially loaded solution review,
+     *         or empty if none found
+     */
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'systemCode': 1 }")
+    Optional<SolutionReview> findSystemCodeById(String id);
+
+    /**
+     * Retrieves only the document state of a {@link SolutionReview}. All other
+     * fields of the returned entity are left unset.
+     *
+     * @param id the identifier of the solution review
+     * @return an {@link Optional} containing the partially loaded solution review,
+     *         or empty if none found
+     */
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'documentState': 1 }")
+    Optional<SolutionReview> findDocumentStateById(String id);
 }
@@ -0,0 +1,100 @@
+package com.project.core_service.services;
+
+import com.project.core_service.dto.BusinessCapabilityLookupDTO;
+import com.project.core_service.dto.BusinessCapabilityNodeDTO;
+
+import java.util.*;
+
+/**
+ * The business capabilities of one lookup version as a tree and as a
+ * {@link PrefixIndex} over their names.
+ *
+ * <p>
+ * Every distinct capability, at any level, is indexed by its name. Matches
+ * come back as the path from their L1 down to the matched level.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable once built and safe to share between threads.
+ * </p>
+ */
+final class BusinessCapabilityIndex {
+
+    private final List<BusinessCapabilityNodeDTO> tree;
+    private final List<BusinessCapabilityLookupDTO> capabilities;
+    private final PrefixIndex names;
+
+    private BusinessCapabilityIndex(List<BusinessCapabilityNodeDTO> tree, List<BusinessCapabilityLookupDTO> capabilities,
+            PrefixIndex names) {
+        this.tree = tree;
+        this.capabilities = capabilities;
+        this.names = names;
+    }
+
+    /**
+     * Builds the index from L1/L2/L3 rows. Children keep the order in which
+     * they first appear and are deduplicated; rows without an L1 are skipped
+     * and a missing L2 or L3 ends the path at the level above.
+     */
+    static BusinessCapabilityIndex of(List<BusinessCapabilityLookupDTO> rows) {
+        Map<String, Map<String, Set<String>>> levels = new LinkedHashMap<>();
+        for (BusinessCapabilityLookupDTO row : rows) {
+            if (isBlank(row.getL1())) {
+                continue;
+            }
+            Map<String, Set<String>> l2s = levels.computeIfAbsent(row.getL1(), name -> new LinkedHashMap<>());
+            if (isBlank(row.getL2())) {
+                continue;
+            }
+            Set<String> l3s = l2s.computeIfAbsent(row.getL2(), name -> new LinkedHashSet<>());
+            if (!isBlank(row.getL3())) {
+                l3s.add(row.getL3());
+            }
+        }
+
+        List<BusinessCapabilityNodeDTO> tree = new ArrayList<>(levels.size());
+        List<BusinessCapabilityLookupDTO> paths = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        levels.forEach((l1, l2s) -> {
+            List<BusinessCapabilityNodeDTO> l2Nodes = new ArrayList<>(l2s.size());
+            paths.add(new BusinessCapabilityLookupDTO(l1, null, null));
+            names.add(l1);
+            l2s.forEach((l2, l3s) -> {
+                List<BusinessCapabilityNodeDTO> l3Nodes = new ArrayList<>(l3s.size());
+                paths.add(new BusinessCapabilityLookupDTO(l1, l2, null));
+                names.add(l2);
+                for (String l3 : l3s) {
+                    l3Nodes.add(new BusinessCapabilityNodeDTO(l3, List.of()));
+                    paths.add(new BusinessCapabilityLookupDTO(l1, l2, l3));
+                    names.add(l3);
+                }
+                l2Nodes.add(new BusinessCapabilityNodeDTO(l2, List.copyOf(l3Nodes)));
+            });
+            tree.add(new BusinessCapabilityNodeDTO(l1, List.copyOf(l2Nodes)));
+        });
+        return new BusinessCapabilityIndex(List.copyOf(tree), List.copyOf(paths), PrefixIndex.of(names));
+    }
+
+    /**
+     * @return the L1 capabilities with their descendants
+     */
+    List<BusinessCapabilityNodeDTO> tree() {
+        return tree;
+    }
+
+    /**
+     * Finds capabilities whose name, or a word in it, starts with the prefix,
+     * ignoring case; names starting with it come first.
+     *
+     * @param prefix what the user typed so far
+     * @param limit  the most matches to return
+     * @return up to {@code limit} matching paths; empty for a blank prefix
+     */
+    List<BusinessCapabilityLookupDTO> search(String prefix, int limit) {
+        return names.search(prefix, limit).stream().map(capabilities::get).toList();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,304 @@
+package com.project.core_service.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.project.core_service.dto.SolutionReviewDTO;
+import com.project.core_service.exceptions.NotFoundException;
+import com.project.core_service.models.solutions_review.SolutionReview;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Coalesces autosaves of DRAFT solution reviews into fewer writes.
+ *
+ * <p>
+ * {@link #buffer(SolutionReviewDTO)} merges an update into an in-memory draft
+ * per review ID, section by section: a later update replaces the solution
+ * overview or a section only when it carries one, using the same rules as
+ * {@link SolutionReviewService#updateSolutionReview(SolutionReviewDTO)}. Each
+ * buffered update restarts a debounce timer of {@code autosave.debounce-ms},
+ * but a draft is never held longer than {@code autosave.max-wait-ms} after its
+ * first buffered update; when the timer fires the merged draft is written with
+ * a single update. Pending drafts are also written on an explicit save, before
+ * a SUBMIT transition and on shutdown.
+ * </p>
+ *
+ * <p>
+ * The review is checked to exist and be a DRAFT before a new draft is buffered
+ * for it. A draft whose write fails is kept, together with the failure: the
+ * next autosave of that review is written immediately instead of buffered, and
+ * the next autosave, save or flush throws if the write still fails, so edits
+ * are never dropped silently.
+ * </p>
+ *
+ * <p>
+ * The buffer is local to this instance. The service must either run as a
+ * single instance or have all autosave, save, flush and transition requests
+ * of one review routed to the same instance (e.g. by hashing the review ID at
+ * the load balancer); otherwise a SUBMIT handled by another instance cannot
+ * flush the pending draft first.
+ * </p>
+ */
+@Service
+@Slf4j
+public class DraftAutosaveService {
+
+    private static final int FLUSH_LOCK_STRIPES = 64;
+
+    private final SolutionReviewService solutionReviewService;
+    private final long debounceMs;
+    private final long maxWaitMs;
+    private final ConcurrentMap<String, PendingDraft> pendingDrafts = new ConcurrentHashMap<>();
+    private final Object[] flushLocks = new Object[FLUSH_LOCK_STRIPES];
+
+    private ScheduledExecutorService flushExecutor;
+
+    public DraftAutosaveService(SolutionReviewService solutionReviewService,
+            @Value("${autosave.debounce-ms:2000}") long debounceMs,
+            @Value("${autosave.max-wait-ms:10000}") long maxWaitMs) {
+        this.solutionReviewService = solutionReviewService;
+        this.debounceMs = Math.max(1, debounceMs);
+        this.maxWaitMs = Math.max(this.debounceMs, maxWaitMs);
+        for (int i = 0; i < flushLocks.length; i++) {
+            flushLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Starts the debounce timer thread.
+     */
+    @PostConstruct
+    void start() {
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "draft-autosave-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stops the timer thread and writes all pending drafts.
+     */
+    @PreDestroy
+    void stop() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdownNow();
+        }
+        flushAll();
+    }
+
+    /**
+     * Merges an autosave into the pending draft of its review and restarts the
+     * debounce timer. If the last write of the review's draft failed, the
+     * update is merged and written immediately instead.
+     *
+     * @param update the autosaved content
+     * @throws IllegalArgumentException if the update or its ID is missing
+     * @throws NotFoundException        if the review does not exist
+     * @throws IllegalStateException    if the review is not in DRAFT state
+     */
+    public void buffer(SolutionReviewDTO update) {
+        if (update == null || update.getId() == null || update.getId().isBlank()) {
+            throw new IllegalArgumentException("Autosave requires a solution review ID");
+        }
+        PendingDraft current = pendingDrafts.get(update.getId());
+        if (current == null) {
+            solutionReviewService.requireDraft(update.getId());
+        } else if (current.failure != null) {
+            save(update);
+            return;
+        }
+        pendingDrafts.compute(update.getId(), (id, pending) -> {
+            if (pending == null) {
+                pending = new PendingDraft(copyOf(update), System.currentTimeMillis());
+            } else {
+                cancelTimer(pending);
+                merge(pending.draft, update);
+            }
+            long untilMaxWait = pending.bufferedAt + maxWaitMs - System.currentTimeMillis();
+            long delayMs = Math.max(0, Math.min(debounceMs, untilMaxWait));
+            pending.timer = flushExecutor.schedule(() -> flushQuietly(id), delayMs, TimeUnit.MILLISECONDS);
+            return pending;
+        });
+    }
+
+    /**
+     * Merges an explicit save with any pending draft of the review and writes
+     * the result immediately.
+     *
+     * If the write fails, the merged draft stays pending.
+     *
+     * @param update the saved content
+     * @return the updated solution review
+     */
+    public SolutionReview save(SolutionReviewDTO update) {
+        if (update == null) {
+            throw new IllegalArgumentException("Modified SolutionReview cannot be null");
+        }
+        synchronized (flushLockFor(update.getId())) {
+            PendingDraft pending = update.getId() != null ? take(update.getId()) : null;
+            if (pending == null) {
+                return solutionReviewService.updateSolutionReview(update);
+            }
+            merge(pending.draft, update);
+            return write(update.getId(), pending);
+        }
+    }
+
+    /**
+     * Writes the pending draft of a review, if there is one. If the write
+     * fails, the draft stays pending.
+     *
+     * @param reviewId the solution review ID
+     * @return the updated solution review, or empty if nothing was pending
+     */
+    public Optional<SolutionReview> flush(String reviewId) {
+        synchronized (flushLockFor(reviewId)) {
+            PendingDraft pending = take(reviewId);
+            if (pending == null) {
+                return Optional.empty();
+            }
+            log.debug("Flushing autosaved draft of review {}", reviewId);
+            return Optional.of(write(reviewId, pending));
+        }
+    }
+
+    /**
+     * Drops the pending draft of a review without writing it.
+     *
+     * @param reviewId the solution review ID
+     */
+    public void discard(String reviewId) {
+        synchronized (flushLockFor(reviewId)) {
+            take(reviewId);
+        }
+    }
+
+    /**
+     * Writes all pending drafts; drafts that fail to write stay pending.
+     *
+     * @return the number of drafts written
+     */
+    public int flushAll() {
+        int written = 0;
+        for (String reviewId : new ArrayList<>(pendingDrafts.keySet())) {
+            if (flushQuietly(reviewId)) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * @return the number of reviews with a pending draft
+     */
+    public int pendingCount() {
+        return pendingDrafts.size();
+    }
+
+    private boolean flushQuietly(String reviewId) {
+        try {
+            return flush(reviewId).isPresent();
+        } catch (RuntimeException e) {
+            log.error("Failed to write autosaved draft of review {}, keeping it pending: {}", reviewId,
+                    e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Writes a draft taken from the buffer. On failure the draft is put back
+     * with the failure recorded, underneath any autosave buffered meanwhile,
+     * and the failure is rethrown.
+     */
+    private SolutionReview write(String reviewId, PendingDraft pending) {
+        try {
+            return solutionReviewService.updateSolutionReview(pending.draft);
+        } catch (RuntimeException e) {
+            pendingDrafts.compute(reviewId, (id, newer) -> {
+                PendingDraft failed = new PendingDraft(pending.draft, pending.bufferedAt);
+                failed.failure = e;
+                if (newer != null) {
+                    merge(failed.draft, newer.draft);
+                    failed.timer = newer.timer;
+                }
+                return failed;
+            });
+            throw e;
+        }
+    }
+
+    private PendingDraft take(String reviewId) {
+        PendingDraft pending = pendingDrafts.remove(reviewId);
+        if (pending != null) {
+            cancelTimer(pending);
+        }
+        return pending;
+    }
+
+    private static void cancelTimer(PendingDraft pending) {
+        if (pending.timer != null) {
+            pending.timer.cancel(false);
+        }
+    }
+
+    private Object flushLockFor(String reviewId) {
+        int hash = reviewId == null ? 0 : reviewId.hashCode();
+        return flushLocks[Math.floorMod(hash ^ (hash >>> 16), flushLocks.length)];
+    }
+
+    private static SolutionReviewDTO copyOf(SolutionReviewDTO update) {
+        SolutionReviewDTO draft = new SolutionReviewDTO();
+        draft.setId(update.getId());
+        if (update.getSystemCode() != null) {
+            draft.setSystemCode(update.getSystemCode());
+        }
+        merge(draft, update);
+        return draft;
+    }
+
+    /**
+     * Applies the sections carried by {@code update} onto {@code draft}.
+     */
+    private static void merge(SolutionReviewDTO draft, SolutionReviewDTO update) {
+        if (update.getSolutionOverview() != null) {
+            draft.setSolutionOverview(update.getSolutionOverview());
+        }
+        draft.setBusinessCapabilities(latest(draft.getBusinessCapabilities(), update.getBusinessCapabilities()));
+        draft.setSystemComponents(latest(draft.getSystemComponents(), update.getSystemComponents()));
+        draft.setIntegrationFlows(latest(draft.getIntegrationFlows(), update.getIntegrationFlows()));
+        draft.setDataAssets(latest(draft.getDataAssets(), update.getDataAssets()));
+        draft.setTechnologyComponents(latest(draft.getTechnologyComponents(), update.getTechnologyComponents()));
+        draft.setEnterpriseTools(latest(draft.getEnterpriseTools(), update.getEnterpriseTools()));
+        draft.setProcessCompliances(latest(draft.getProcessCompliances(), update.getProcessCompliances()));
+    }
+
+    private static <T> List<T> latest(List<T> current, List<T> incoming) {
+        return incoming != null && !incoming.isEmpty() ? new ArrayList<>(incoming) : current;
+    }
+
+    private static final class PendingDraft {
+        private final SolutionReviewDTO draft;
+        private final long bufferedAt;
+        private ScheduledFuture<?> timer;
+        private RuntimeException failure;
+
+        private PendingDraft(SolutionReviewDTO draft, long bufferedAt) {
+            this.draft = draft;
+            this.bufferedAt = bufferedAt;
+        }
+    }
+}
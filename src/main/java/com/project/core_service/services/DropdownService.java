@@ -1,39 +1,72 @@
 package com.project.core_service.services;
 
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoDatabase;
-import com.mongodb.client.model.Filters;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.core_service.config.DropdownRegistryProperties;
+import com.project.core_service.config.DropdownRegistryProperties.DropdownDefinition;
 import com.project.core_service.dto.BusinessCapabilityLookupDTO;
+import com.project.core_service.dto.BusinessCapabilityNodeDTO;
+import com.project.core_service.dto.DropdownOptionDTO;
 import com.project.core_service.dto.TechComponentLookupDTO;
+import com.project.core_service.dto.TechProductDTO;
 import com.project.core_service.exceptions.CsvProcessingException;
 import com.project.core_service.exceptions.NotFoundException;
+import com.project.core_service.models.lookup.LookupTable;
 
-import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Serves the dropdown lists derived from lookups.
+ *
+ * <p>
+ * Each list is built once and kept in memory together with its JSON body and
+ * an ETag over that body, so repeated requests neither read the lookup nor
+ * serialize the list again, and clients holding the current ETag get a 304.
+ * An entry is dropped when a {@link LookupChangedEvent} reports its lookup as
+ * changed, whether the change was made by this instance or another one.
+ * </p>
+ *
+ * <p>
+ * Besides the built-in business capability and tech component dropdowns, any
+ * lookup can be served as a list of value/label options by declaring it in
+ * {@link DropdownRegistryProperties}; such dropdowns share the same cache.
+ * </p>
+ */
 @Service
 @Slf4j
 public class DropdownService {
 
-    private final MongoDatabase mongoDatabase;
+    private final LookupService lookupService;
+    private final ObjectMapper objectMapper;
+    private final DropdownRegistryProperties registryProperties;
 
-    @Value("${mongodb.collection.lookups.name}")
-    private String collectionName;
-
-    // MongoDB document field names
-    private static final String LOOKUP_NAME_FIELD = "lookupName";
-    private static final String DATA_FIELD = "data";
+    private final Map<CacheKey, CachedDropdown<?>> cache = new ConcurrentHashMap<>();
+    // Bumped on every invalidation so a load that raced one is not kept
+    private final AtomicLong generation = new AtomicLong();
+    // Tree and search index of the cached business capabilities
+    private volatile CapabilityView capabilityView;
+    // Products of the cached tech components
+    private volatile TechView techView;
 
     // Lookup collection names
     private static final String BUSINESS_CAPABILITIES_LOOKUP = "business-capabilities";
     private static final String TECH_EOL_LOOKUP = "tech_eol";
 
+    // Most matches a capability search returns
+    private static final int MAX_SEARCH_LIMIT = 50;
+
     // Error messages
     private static final String BUSINESS_CAPABILITIES_NOT_FOUND_MSG = "Business capabilities lookup not found";
     private static final String TECH_COMPONENTS_NOT_FOUND_MSG = "Tech components lookup not found";
@@ -48,8 +81,37 @@ public class DropdownService {
     private static final String PRODUCT_VERSION_FIELD = "Product Version";
 
     @Autowired
-    public DropdownService(MongoDatabase mongoDatabase) {
-        this.mongoDatabase = mongoDatabase;
+    public DropdownService(LookupService lookupService, ObjectMapper objectMapper,
+            DropdownRegistryProperties registryProperties) {
+        this.lookupService = lookupService;
+        this.objectMapper = objectMapper;
+        this.registryProperties = registryProperties;
+    }
+
+    /**
+     * A cached dropdown and the lookup it is read from.
+     */
+    private record CacheKey(String lookupName, String dropdown) {
+    }
+
+    /**
+     * A dropdown list with its serialized JSON body and the ETag of that body.
+     *
+     * @param items the list, unmodifiable
+     * @param json  the list as JSON
+     * @param etag  quoted strong ETag of {@code json}
+     */
+    public record CachedDropdown<T>(List<T> items, byte[] json, String etag) {
+
+        public static <T> CachedDropdown<T> of(List<T> items, ObjectMapper objectMapper) {
+            try {
+                byte[] json = objectMapper.writeValueAsBytes(items);
+                return new CachedDropdown<>(List.copyOf(items), json,
+                    "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 
     /**
@@ -60,31 +122,87 @@ public class DropdownService {
      * @throws NotFoundException if business-capabilities lookup not found
      */
     public List<BusinessCapabilityLookupDTO> getBusinessCapabilities() {
-        log.info("Getting business capabilities from lookup");
+        return getBusinessCapabilitiesDropdown().items();
+    }
+
+    /**
+     * Get business capabilities as a cached dropdown, building it on first use.
+     *
+     * @return the business capabilities with their JSON body and ETag
+     * @throws NotFoundException if business-capabilities lookup not found
+     */
+    public CachedDropdown<BusinessCapabilityLookupDTO> getBusinessCapabilitiesDropdown() {
+        return cached(new CacheKey(BUSINESS_CAPABILITIES_LOOKUP, BUSINESS_CAPABILITIES_LOOKUP), () -> {
+            log.info("Getting business capabilities from lookup");
+            LookupTable table = getLookupData(BUSINESS_CAPABILITIES_LOOKUP, BUSINESS_CAPABILITIES_NOT_FOUND_MSG, "business capabilities");
+            return transformDataToBusinessCapabilities(table);
+        });
+    }
 
-        List<Map<String, String>> data = getLookupData(BUSINESS_CAPABILITIES_LOOKUP, BUSINESS_CAPABILITIES_NOT_FOUND_MSG, "business capabilities");
-        return transformDataToBusinessCapabilities(data);
+    /**
+     * Get business capabilities as an L1 → L2 → L3 tree with deduplicated
+     * children, built once per cached version of the lookup.
+     *
+     * @return the tree with its JSON body and ETag
+     * @throws NotFoundException if business-capabilities lookup not found
+     */
+    public CachedDropdown<BusinessCapabilityNodeDTO> getBusinessCapabilityTreeDropdown() {
+        return capabilityView().tree();
     }
 
     /**
-     * Transforms raw data from MongoDB document into BusinessCapabilityLookupDTO objects.
-     * This method provides a reusable way to convert business capability data regardless of source.
+     * Finds business capabilities, at any level, whose name or a word in it
+     * starts with the query, ignoring case.
      *
-     * @param data List of maps containing business capability data with L1, L2, L3 keys
-     * @return List of BusinessCapabilityLookupDTO objects
-     * @throws IllegalArgumentException if data contains invalid structure
+     * @param query what the user typed so far
+     * @param limit the most matches to return, 1 to 50
+     * @return matching capabilities as paths from L1 down to the matched level
+     * @throws IllegalArgumentException if the limit is out of range
+     * @throws NotFoundException if business-capabilities lookup not found
+     */
+    public List<BusinessCapabilityLookupDTO> searchBusinessCapabilities(String query, int limit) {
+        checkSearchLimit(limit);
+        return capabilityView().index().search(query, limit);
+    }
+
+    /**
+     * Returns the tree and index of the cached business capabilities,
+     * rebuilding them when the cached list has been replaced.
      */
-    private List<BusinessCapabilityLookupDTO> transformDataToBusinessCapabilities(List<Map<String, String>> data) {
-        if (data == null) {
-            return new ArrayList<>();
+    private CapabilityView capabilityView() {
+        CachedDropdown<BusinessCapabilityLookupDTO> source = getBusinessCapabilitiesDropdown();
+        CapabilityView view = capabilityView;
+        if (view == null || view.source() != source) {
+            BusinessCapabilityIndex index = BusinessCapabilityIndex.of(source.items());
+            view = new CapabilityView(source, CachedDropdown.of(index.tree(), objectMapper), index);
+            capabilityView = view;
         }
+        return view;
+    }
+
+    private record CapabilityView(CachedDropdown<BusinessCapabilityLookupDTO> source,
+            CachedDropdown<BusinessCapabilityNodeDTO> tree, BusinessCapabilityIndex index) {
+    }
+
+    /**
+     * Transforms lookup rows into BusinessCapabilityLookupDTO objects.
+     * Columns are resolved once and read by index; repeated L1/L2 names share the
+     * table's dictionary strings.
+     *
+     * @param table lookup rows with L1, L2, L3 columns
+     * @return List of BusinessCapabilityLookupDTO objects
+     */
+    private List<BusinessCapabilityLookupDTO> transformDataToBusinessCapabilities(LookupTable table) {
+        int l1 = table.columnIndex(L1_FIELD);
+        int l2 = table.columnIndex(L2_FIELD);
+        int l3 = table.columnIndex(L3_FIELD);
 
-        List<BusinessCapabilityLookupDTO> businessCapabilities = new ArrayList<>();
-        for (Map<String, String> dataRow : data) {
+        List<BusinessCapabilityLookupDTO> businessCapabilities = new ArrayList<>(table.size());
+        for (int row = 0; row < table.size(); row++) {
             BusinessCapabilityLookupDTO capability = new BusinessCapabilityLookupDTO(
-                dataRow.get(L1_FIELD),
-                dataRow.get(L2_FIELD),
-                dataRow.get(L3_FIELD)
+                table.value(row, l1),
+                table.value(row, l2),
+                table.value(row, l3)
             );
             businessCapabilities.add(capability);
         }
@@ -100,33 +218,198 @@ public class DropdownService {
      * @throws NotFoundException if tech_eol lookup not found
      */
     public List<TechComponentLookupDTO> getTechComponents() {
-        log.info("Getting tech components from lookup");
+        return getTechComponentsDropdown().items();
+    }
+
+    /**
+     * Get tech components as a cached dropdown, building it on first use.
+     *
+     * @return the tech components with their JSON body and ETag
+     * @throws NotFoundException if tech_eol lookup not found
+     */
+    public CachedDropdown<TechComponentLookupDTO> getTechComponentsDropdown() {
+        return cached(new CacheKey(TECH_EOL_LOOKUP, TECH_EOL_LOOKUP), () -> {
+            log.info("Getting tech components from lookup");
+            LookupTable table = getLookupData(TECH_EOL_LOOKUP, TECH_COMPONENTS_NOT_FOUND_MSG, "tech components");
+            return transformDataToTechComponents(table);
+        });
+    }
+
+    /**
+     * Drops the cached dropdowns of the changed lookup.
+     */
+    @EventListener
+    public void onLookupChanged(LookupChangedEvent event) {
+        generation.incrementAndGet();
+        cache.keySet().removeIf(key -> event.affects(key.lookupName()));
+    }
 
-        List<Map<String, String>> data = getLookupData(TECH_EOL_LOOKUP, TECH_COMPONENTS_NOT_FOUND_MSG, "tech components");
-        return transformDataToTechComponents(data);
+    /**
+     * Returns a cached dropdown, loading it if absent. Failed loads are not
+     * cached.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CachedDropdown<T> cached(CacheKey key, Supplier<List<T>> loader) {
+        CachedDropdown<?> hit = cache.get(key);
+        if (hit != null) {
+            return (CachedDropdown<T>) hit;
+        }
+        long loadGeneration = generation.get();
+        CachedDropdown<T> loaded = CachedDropdown.of(loader.get(), objectMapper);
+        cache.put(key, loaded);
+        if (generation.get() != loadGeneration) {
+            // The lookup may have changed while it was read
+            cache.remove(key, loaded);
+        }
+        return loaded;
     }
 
     /**
-     * Transforms raw data from MongoDB document into TechComponentLookupDTO objects.
-     * This method provides a reusable way to convert tech component data regardless of source.
+     * Get a dropdown declared in the registry, building it on first use.
      *
-     * @param data List of maps containing tech component data with Product Name and Product Version keys
-     * @return List of TechComponentLookupDTO objects
-     * @throws IllegalArgumentException if data contains invalid structure
+     * @param name the name the dropdown is declared under
+     * @return the options with their JSON body and ETag
+     * @throws NotFoundException if no such dropdown is declared or its lookup is not found
+     * @throws CsvProcessingException if the lookup has no value column
      */
-    private List<TechComponentLookupDTO> transformDataToTechComponents(List<Map<String, String>> data) {
-        if (data == null) {
-            return new ArrayList<>();
+    public CachedDropdown<DropdownOptionDTO> getRegisteredDropdown(String name) {
+        DropdownDefinition definition = registryProperties.getRegistry().get(name);
+        if (definition == null) {
+            throw new NotFoundException("Dropdown '" + name + "' not found");
         }
+        // Registered names live beside the built-in ones, which are keyed by lookup name
+        return cached(new CacheKey(definition.getLookupName(), "registry:" + name), () -> {
+            log.info("Getting dropdown {} from lookup {}", name, definition.getLookupName());
+            LookupTable table = getLookupData(definition.getLookupName(),
+                "Lookup '" + definition.getLookupName() + "' of dropdown '" + name + "' not found", "dropdown " + name);
+            return transformDataToOptions(table, definition);
+        });
+    }
+
+    /**
+     * @return the names of the dropdowns declared in the registry
+     */
+    public List<String> getRegisteredDropdownNames() {
+        return List.copyOf(registryProperties.getRegistry().keySet());
+    }
 
-        List<TechComponentLookupDTO> techComponents = new ArrayList<>();
-        for (Map<String, String> dataRow : data) {
-            String productName = dataRow.get(PRODUCT_NAME_FIELD);
-            String productVersion = dataRow.get(PRODUCT_VERSION_FIELD);
+    /**
+     * Transforms lookup rows into the options of a registered dropdown: one
+     * option per distinct value within a group, grouped and then sorted as
+     * declared.
+     */
+    private List<DropdownOptionDTO> transformDataToOptions(LookupTable table, DropdownDefinition definition) {
+        if (table.isEmpty()) {
+            return List.of();
+        }
+        int valueColumn = table.columnIndex(definition.getValueColumn());
+        if (valueColumn < 0) {
+            throw new CsvProcessingException("Lookup '" + definition.getLookupName() + "' has no column '"
+                + definition.getValueColumn() + "'");
+        }
+        int labelColumn = definition.getLabelColumn() != null ? table.columnIndex(definition.getLabelColumn()) : -1;
+        int groupColumn = definition.getGroupColumn() != null ? table.columnIndex(definition.getGroupColumn()) : -1;
+
+        Map<List<String>, DropdownOptionDTO> options = new LinkedHashMap<>();
+        for (int row = 0; row < table.size(); row++) {
+            String value = table.value(row, valueColumn);
+            if (value == null || value.isBlank()) {
+                continue;
+            }
+            String label = table.value(row, labelColumn);
+            String group = table.value(row, groupColumn);
+            options.putIfAbsent(Arrays.asList(group, value),
+                new DropdownOptionDTO(value, label == null || label.isBlank() ? value : label, group));
+        }
+
+        List<DropdownOptionDTO> sorted = new ArrayList<>(options.values());
+        Comparator<DropdownOptionDTO> order = switch (definition.getSort()) {
+            case VALUE -> Comparator.comparing(DropdownOptionDTO::getValue, String.CASE_INSENSITIVE_ORDER);
+            case LABEL -> Comparator.comparing(DropdownOptionDTO::getLabel, String.CASE_INSENSITIVE_ORDER);
+            case NONE -> (a, b) -> 0;
+        };
+        if (groupColumn >= 0) {
+            // Options without a group come first; groups appear in name order
+            order = Comparator.comparing(DropdownOptionDTO::getGroup,
+                Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)).thenComparing(order);
+        }
+        // List.sort is stable, so NONE keeps lookup order within each group
+        sorted.sort(order);
+        return sorted;
+    }
+
+    /**
+     * Finds tech products whose name or a word in it starts with the query,
+     * ignoring case, each with all of its versions. Products whose name starts
+     * with the query come first.
+     *
+     * @param query what the user typed so far
+     * @param limit the most products to return, 1 to 50
+     * @return matching products with their versions
+     * @throws IllegalArgumentException if the limit is out of range
+     * @throws NotFoundException if tech_eol lookup not found
+     */
+    public List<TechProductDTO> searchTechComponents(String query, int limit) {
+        checkSearchLimit(limit);
+        return techView().index().search(query, limit);
+    }
+
+    /**
+     * Get the versions of one tech product, so forms need not download every
+     * tech component.
+     *
+     * @param productName the product name, matched ignoring case
+     * @return the versions in lookup order
+     * @throws NotFoundException if tech_eol lookup or the product is not found
+     */
+    public List<String> getTechComponentVersions(String productName) {
+        return techView().index().product(productName)
+            .map(TechProductDTO::getVersions)
+            .orElseThrow(() -> new NotFoundException("Tech component '" + productName + "' not found"));
+    }
+
+    /**
+     * Returns the products of the cached tech components, regrouping them
+     * when the cached list has been replaced.
+     */
+    private TechView techView() {
+        CachedDropdown<TechComponentLookupDTO> source = getTechComponentsDropdown();
+        TechView view = techView;
+        if (view == null || view.source() != source) {
+            view = new TechView(source, TechComponentIndex.of(source.items()));
+            techView = view;
+        }
+        return view;
+    }
+
+    private record TechView(CachedDropdown<TechComponentLookupDTO> source, TechComponentIndex index) {
+    }
+
+    private static void checkSearchLimit(int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+    }
+
+    /**
+     * Transforms lookup rows into TechComponentLookupDTO objects.
+     * Columns are resolved once and read by index.
+     *
+     * @param table lookup rows with Product Name and Product Version columns
+     * @return List of TechComponentLookupDTO objects
+     */
+    private List<TechComponentLookupDTO> transformDataToTechComponents(LookupTable table) {
+        int productNameColumn = table.columnIndex(PRODUCT_NAME_FIELD);
+        int productVersionColumn = table.columnIndex(PRODUCT_VERSION_FIELD);
+
+        List<TechComponentLookupDTO> techComponents = new ArrayList<>(table.size());
+        for (int row = 0; row < table.size(); row++) {
+            String productName = table.value(row, productNameColumn);
+            String productVersion = table.value(row, productVersionColumn);
 
             // Skip entries with null or empty product names as they are invalid
             if (productName == null || productName.trim().isEmpty()) {
-                log.warn("Tech component found with null or empty product name in row: {}, skipping entry", dataRow);
+                log.warn("Tech component found with null or empty product name in row: {}, skipping entry", table.row(row));
                 continue;
             }
 
@@ -144,104 +427,33 @@ public class DropdownService {
     }
 
     /**
-     * Generic method to retrieve lookup data from MongoDB collection.
-     * This method consolidates the common logic for fetching and processing lookup data.
+     * Generic method to retrieve lookup data through {@link LookupService}, which
+     * streams the rows from whichever storage the lookup uses.
      *
-     * @param lookupName The name of the lookup collection to retrieve
+     * @param lookupName The name of the lookup to retrieve
      * @param notFoundMessage The error message to use if lookup is not found
      * @param logContext Context for logging (e.g., "business capabilities", "tech components")
-     * @return List of maps containing the lookup data
+     * @return the lookup rows, encoded as they are streamed
      * @throws NotFoundException if the specified lookup is not found
      * @throws CsvProcessingException if data processing fails
      */
-    private List<Map<String, String>> getLookupData(String lookupName, String notFoundMessage, String logContext) {
-        MongoCollection<Document> collection = mongoDatabase.getCollection(collectionName);
-        Document doc = collection.find(Filters.eq(LOOKUP_NAME_FIELD, lookupName)).first();
-
-        if (doc == null) {
+    private LookupTable getLookupData(String lookupName, String notFoundMessage, String logContext) {
+        LookupTable data;
+        try (Stream<Map<String, String>> rows = lookupService.streamRows(lookupName, 0)) {
+            data = LookupTable.from(rows);
+        } catch (NotFoundException e) {
             throw new NotFoundException(notFoundMessage);
-        }
-
-        try {
-            Object dataObj = doc.get(DATA_FIELD);
-            List<Map<String, String>> data = extractDataList(dataObj, logContext);
-
-            if (data.isEmpty()) {
-                log.warn("{} lookup found but contains no data", logContext);
-                return new ArrayList<>();
-            }
-
-            log.info("Successfully retrieved {} {} records", data.size(), logContext);
-            return data;
-
-        } catch (Exception e) {
+        } catch (CsvProcessingException e) {
             log.error("Error processing {} lookup", logContext, e);
             throw new CsvProcessingException("Failed to process " + logContext + ": " + e.getMessage(), e);
         }
-    }
-
-    /**
-     * Safely extracts and validates a List<Map<String, String>> from a MongoDB document field.
-     * This method provides type-safe extraction without using unchecked casts.
-     *
-     * @param dataObj The object retrieved from the MongoDB document
-     * @param contextName A descriptive name for error messages (e.g., "business capabilities")
-     * @return A validated List<Map<String, String>> or null if the data is null
-     * @throws CsvProcessingException if the data structure is invalid
-     */
-    private List<Map<String, String>> extractDataList(Object dataObj, String contextName) {
-        if (dataObj == null) {
-            return new ArrayList<>();
-        }
 
-        // Check if it's a List
-        if (!(dataObj instanceof List)) {
-            throw new CsvProcessingException(
-                String.format("Invalid data structure in %s: expected List but got %s",
-                    contextName, dataObj.getClass().getSimpleName())
-            );
-        }
-
-        List<?> rawList = (List<?>) dataObj;
-        List<Map<String, String>> result = new ArrayList<>();
-
-        // Validate each element in the list
-        for (int i = 0; i < rawList.size(); i++) {
-            Object item = rawList.get(i);
-
-            if (item == null) {
-                log.warn("Found null item at index {} in {} data, skipping", i, contextName);
-                continue;
-            }
-
-            // Check if it's a Map
-            if (!(item instanceof Map)) {
-                throw new CsvProcessingException(
-                    String.format("Invalid item at index %d in %s: expected Map but got %s",
-                        i, contextName, item.getClass().getSimpleName())
-                );
-            }
-
-            Map<?, ?> rawMap = (Map<?, ?>) item;
-            Map<String, String> stringMap = new HashMap<>();
-
-            // Validate and convert map entries
-            for (Map.Entry<?, ?> entry : rawMap.entrySet()) {
-                Object key = entry.getKey();
-                Object value = entry.getValue();
-
-                // Convert key to string
-                String stringKey = (key != null) ? key.toString() : "";
-
-                // Convert value to string (null values become empty strings)
-                String stringValue = (value != null) ? value.toString() : "";
-
-                stringMap.put(stringKey, stringValue);
-            }
-
-            result.add(stringMap);
+        if (data.isEmpty()) {
+            log.warn("{} lookup found but contains no data", logContext);
+            return data;
         }
 
-        return result;
+        log.info("Successfully retrieved {} {} records", data.size(), logContext);
+        return data;
     }
 }
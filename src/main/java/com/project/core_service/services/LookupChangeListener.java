@@ -0,0 +1,312 @@
+package com.project.core_service.services;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tells the caches of this instance about lookup changes made by any instance.
+ *
+ * <p>
+ * A background thread watches the lookups collection with a change stream and
+ * publishes a {@link LookupChangedEvent} for every created, updated, replaced
+ * or deleted lookup document, which covers uploads, field description changes
+ * and deletes alike. Only the operation type and document key of each change
+ * are read, never the lookup itself. The resume token is saved in the lookup
+ * change tokens collection under {@code lookups.change-stream.consumer-id},
+ * the host name by default, whenever it moves: after every change, and after
+ * batches without changes too, so a restarted instance, or the same instance
+ * after a lost connection, carries on where it stopped even after a long quiet
+ * period. Every instance needs its own consumer id, or one instance resumes
+ * after changes another has seen. If the oplog no longer holds the token's
+ * position, the token is dropped and an event for all lookups is published
+ * instead.
+ * </p>
+ *
+ * <p>
+ * A standalone MongoDB has no change streams. There the listener polls the
+ * lookup documents, without their embedded rows, every
+ * {@code lookups.change-stream.poll-interval-ms} and publishes an event for
+ * each lookup whose document differs from the previous poll.
+ * </p>
+ */
+@Service
+@Slf4j
+public class LookupChangeListener {
+
+    // Server error codes
+    private static final int CHANGE_STREAMS_UNSUPPORTED = 40573;
+    private static final int CHANGE_STREAM_FATAL_ERROR = 280;
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private static final String ID_FIELD = "_id";
+    private static final String DATA_FIELD = "data";
+    private static final String RESUME_TOKEN_FIELD = "resumeToken";
+    private static final String UPDATED_AT_FIELD = "updatedAt";
+
+    private static final long MAX_AWAIT_MS = 1_000;
+    private static final long RETRY_DELAY_MS = 5_000;
+
+    private final MongoDatabase mongoDatabase;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${mongodb.collection.lookups.name}")
+    private String lookupsCollectionName;
+
+    @Value("${mongodb.collection.lookup-change-tokens.name:lookupChangeTokens}")
+    private String tokensCollectionName = "lookupChangeTokens";
+
+    @Value("${lookups.change-stream.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${lookups.change-stream.consumer-id:}")
+    private String consumerId = "";
+
+    @Value("${lookups.change-stream.poll-interval-ms:5000}")
+    private long pollIntervalMs = 5_000;
+
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+    private BsonDocument resumeToken;
+    private BsonDocument savedResumeToken;
+    private Map<String, Integer> lastPoll;
+
+    public LookupChangeListener(MongoDatabase mongoDatabase, ApplicationEventPublisher eventPublisher) {
+        this.mongoDatabase = mongoDatabase;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        if (consumerId == null || consumerId.isBlank()) {
+            consumerId = defaultConsumerId();
+        }
+        running = true;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lookup-change-listener");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::watch);
+    }
+
+    /**
+     * Stops watching; the last resume token is kept for the next start.
+     */
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(MAX_AWAIT_MS * 2, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Follows the change stream until stopped, reopening it after errors.
+     * Switches to polling if the server has no change streams.
+     */
+    private void watch() {
+        resumeToken = loadResumeToken();
+        while (running) {
+            try {
+                followChanges();
+            } catch (MongoException e) {
+                if (e.getCode() == CHANGE_STREAMS_UNSUPPORTED) {
+                    log.info("MongoDB has no change streams; polling lookups every {} ms", pollIntervalMs);
+                    executor.scheduleWithFixedDelay(this::poll, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+                    return;
+                }
+                if (!handleStreamError(e)) {
+                    sleepBeforeRetry();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Lookup change stream failed: {}", e.getMessage());
+                sleepBeforeRetry();
+            }
+        }
+    }
+
+    private void followChanges() {
+        Bson changes = Aggregates.match(Filters.in("operationType", "insert", "update", "replace", "delete",
+                "drop", "rename", "dropDatabase", "invalidate"));
+        // Replace events would otherwise carry the whole lookup, rows included
+        Bson keysOnly = Aggregates.project(Projections.include("operationType", "documentKey"));
+        ChangeStreamIterable<Document> stream = lookups().watch(List.of(changes, keysOnly))
+                .maxAwaitTime(MAX_AWAIT_MS, TimeUnit.MILLISECONDS);
+        if (resumeToken != null) {
+            stream = stream.startAfter(resumeToken);
+        }
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            while (running) {
+                if (!followNext(cursor)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Handles the next change, if there is one, and saves the resume token if
+     * it moved. Without a change the token is the post-batch token, which
+     * still advances with the oplog.
+     *
+     * @return {@code false} once the stream was invalidated
+     */
+    boolean followNext(MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor) {
+        ChangeStreamDocument<Document> change = cursor.tryNext();
+        if (cursor.getResumeToken() != null) {
+            resumeToken = cursor.getResumeToken();
+        }
+        if (change != null) {
+            handleChange(change);
+        }
+        if (resumeToken != null && !resumeToken.equals(savedResumeToken)) {
+            saveResumeToken(resumeToken);
+        }
+        return change == null || change.getOperationType() != OperationType.INVALIDATE;
+    }
+
+    /**
+     * Publishes the event for one change.
+     */
+    void handleChange(ChangeStreamDocument<Document> change) {
+        BsonDocument documentKey = change.getDocumentKey();
+        BsonValue id = documentKey != null ? documentKey.get(ID_FIELD) : null;
+        if (id != null && id.isString()) {
+            eventPublisher.publishEvent(new LookupChangedEvent(id.asString().getValue()));
+        } else {
+            // The collection was dropped or renamed
+            eventPublisher.publishEvent(LookupChangedEvent.all());
+        }
+    }
+
+    /**
+     * @return whether the stream can be reopened right away
+     */
+    boolean handleStreamError(MongoException e) {
+        if (e.getCode() == CHANGE_STREAM_HISTORY_LOST || e.getCode() == CHANGE_STREAM_FATAL_ERROR) {
+            log.warn("Cannot resume the lookup change stream ({}); invalidating all lookups", e.getMessage());
+            resumeToken = null;
+            saveResumeToken(null);
+            eventPublisher.publishEvent(LookupChangedEvent.all());
+            return true;
+        }
+        log.warn("Lookup change stream failed, reopening: {}", e.getMessage());
+        return false;
+    }
+
+    /**
+     * Compares the lookup documents with the previous poll and publishes an
+     * event for each one that was added, changed or removed. The first poll
+     * only records the documents.
+     */
+    void poll() {
+        try {
+            Map<String, Integer> current = new HashMap<>();
+            for (Document lookup : lookups().find().projection(Projections.exclude(DATA_FIELD))
+                    .into(new ArrayList<>())) {
+                current.put(lookup.get(ID_FIELD).toString(), lookup.hashCode());
+            }
+            if (lastPoll != null) {
+                Set<String> names = new HashSet<>(lastPoll.keySet());
+                names.addAll(current.keySet());
+                for (String name : names) {
+                    if (!Objects.equals(lastPoll.get(name), current.get(name))) {
+                        eventPublisher.publishEvent(new LookupChangedEvent(name));
+                    }
+                }
+            }
+            lastPoll = current;
+        } catch (RuntimeException e) {
+            log.warn("Could not poll lookups for changes: {}", e.getMessage());
+        }
+    }
+
+    private BsonDocument loadResumeToken() {
+        try {
+            Document saved = tokens().find(Filters.eq(ID_FIELD, consumerId)).first();
+            Document token = saved != null ? saved.get(RESUME_TOKEN_FIELD, Document.class) : null;
+            savedResumeToken = token != null ? token.toBsonDocument() : null;
+            return savedResumeToken;
+        } catch (RuntimeException e) {
+            log.warn("Could not load the lookup change stream resume token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void saveResumeToken(BsonDocument token) {
+        try {
+            tokens().replaceOne(Filters.eq(ID_FIELD, consumerId),
+                    new Document(ID_FIELD, consumerId)
+                            .append(RESUME_TOKEN_FIELD, token)
+                            .append(UPDATED_AT_FIELD, new Date()),
+                    new ReplaceOptions().upsert(true));
+            savedResumeToken = token;
+        } catch (RuntimeException e) {
+            // Only costs a replay of already seen changes after a restart
+            log.warn("Could not save the lookup change stream resume token: {}", e.getMessage());
+        }
+    }
+
+    private static String defaultConsumerId() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            String generated = UUID.randomUUID().toString();
+            log.warn("Could not resolve the host name; following lookup changes as {}", generated);
+            return generated;
+        }
+    }
+
+    private void sleepBeforeRetry() {
+        try {
+            Thread.sleep(RETRY_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private MongoCollection<Document> lookups() {
+        return mongoDatabase.getCollection(lookupsCollectionName);
+    }
+
+    private MongoCollection<Document> tokens() {
+        return mongoDatabase.getCollection(tokensCollectionName);
+    }
+}
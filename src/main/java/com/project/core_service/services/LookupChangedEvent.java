@@ -0,0 +1,26 @@
+package com.project.core_service.services;
+
+/**
+ * Published by {@link LookupChangeListener} when a lookup was created,
+ * updated or deleted on any instance. Caches of lookup data subscribe with
+ * {@code @EventListener} and drop what they hold for the lookup.
+ *
+ * @param lookupName the lookup that changed, or {@code null} if any lookup may
+ *                   have changed, e.g. after changes could not be followed
+ */
+public record LookupChangedEvent(String lookupName) {
+
+    /**
+     * @return an event telling caches to drop everything they hold
+     */
+    public static LookupChangedEvent all() {
+        return new LookupChangedEvent(null);
+    }
+
+    /**
+     * @return whether the event concerns the given lookup
+     */
+    public boolean affects(String name) {
+        return lookupName == null || lookupName.equals(name);
+    }
+}
@@ -0,0 +1,401 @@
+package com.project.core_service.services;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Parses lookup CSV uploads, splitting large files into chunks that are
+ * parsed in parallel.
+ *
+ * <p>
+ * Files smaller than {@code lookups.ingest.parallel.min-bytes} are streamed
+ * through a single {@link CSVParser}. Larger files are memory-mapped, from
+ * the spool file of an upload job or else from a copy in the temporary
+ * directory, so the file itself never sits on the heap, and scanned once for
+ * record boundaries, i.e. line breaks outside quoted fields.
+ * The chunks between them are parsed on a fixed pool of
+ * {@code lookups.ingest.parallel.threads} threads, a few chunks ahead of the
+ * reader, and their records are returned in file order. Files whose quoting
+ * the scanner cannot follow, such as text after a closing quote or an
+ * unterminated quote, fall back to the sequential parser, which reports
+ * malformed input exactly as before.
+ * </p>
+ */
+@Service
+@Slf4j
+public class LookupCsvParser {
+
+    /** Header handling is the same in both modes; chunks hold data records only. */
+    private static final CSVFormat HEADER_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setTrim(true)
+            .build();
+    private static final CSVFormat CHUNK_FORMAT = CSVFormat.DEFAULT.builder()
+            .setTrim(true)
+            .build();
+
+    private static final byte QUOTE = '"';
+    private static final byte DELIMITER = ',';
+
+    private final boolean parallelEnabled;
+    private final int threads;
+    private final long minParallelBytes;
+    private final int chunkBytes;
+
+    private ExecutorService parseExecutor;
+
+    public LookupCsvParser(@Value("${lookups.ingest.parallel.enabled:true}") boolean parallelEnabled,
+            @Value("${lookups.ingest.parallel.threads:0}") int threads,
+            @Value("${lookups.ingest.parallel.min-bytes:4194304}") long minParallelBytes,
+            @Value("${lookups.ingest.parallel.chunk-bytes:1048576}") int chunkBytes) {
+        this.parallelEnabled = parallelEnabled;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.minParallelBytes = minParallelBytes;
+        this.chunkBytes = Math.max(1, chunkBytes);
+    }
+
+    /**
+     * Starts the parser threads.
+     */
+    @PostConstruct
+    void start() {
+        if (!parallelEnabled) {
+            return;
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        parseExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "lookup-csv-parser-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        if (parseExecutor != null) {
+            parseExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Opens a CSV upload for reading. The records must be read in one pass and
+     * the result closed.
+     *
+     * @param file the uploaded CSV, with a header record
+     * @return the header and the data records in file order
+     * @throws IOException if the file cannot be read or its header is malformed
+     */
+    public CsvRecords open(MultipartFile file) throws IOException {
+        // Mapped buffers are indexed by int
+        if (parseExecutor == null || file.getSize() < minParallelBytes || file.getSize() > Integer.MAX_VALUE) {
+            return sequential(file.getInputStream());
+        }
+        if (file instanceof LookupUploadJobService.SpooledCsvFile spooled) {
+            return open(map(spooled.path()));
+        }
+        Path copy = Files.createTempFile("lookup-upload-", ".csv");
+        try {
+            try (InputStream input = file.getInputStream()) {
+                Files.copy(input, copy, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return open(map(copy));
+        } finally {
+            // A mapping stays valid after its file is deleted
+            try {
+                Files.deleteIfExists(copy);
+            } catch (IOException e) {
+                copy.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    private static ByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    CsvRecords open(ByteBuffer csv) throws IOException {
+        int headerEnd = nextRecordStart(csv, 0);
+        int[] chunkStarts = headerEnd < 0 ? null : chunkStarts(csv, headerEnd, chunkBytes);
+        if (parseExecutor == null || chunkStarts == null) {
+            if (parseExecutor != null) {
+                log.info("CSV quoting cannot be split safely; parsing {} bytes sequentially", csv.limit());
+            }
+            return sequential(new ByteBufferInputStream(csv.slice()));
+        }
+
+        Map<String, Integer> headerMap;
+        try (CSVParser headerParser = new CSVParser(reader(csv, 0, headerEnd), HEADER_FORMAT)) {
+            headerMap = headerParser.getHeaderMap();
+        }
+        return new ParallelRecords(headerMap, csv, chunkStarts);
+    }
+
+    private CsvRecords sequential(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        CSVParser parser = new CSVParser(reader, HEADER_FORMAT);
+        return new CsvRecords() {
+            @Override
+            public Map<String, Integer> headerMap() {
+                return parser.getHeaderMap();
+            }
+
+            @Override
+            public Iterator<CSVRecord> iterator() {
+                return parser.iterator();
+            }
+
+            @Override
+            public void close() throws IOException {
+                parser.close();
+            }
+        };
+    }
+
+    /**
+     * Finds where chunks of about {@code targetBytes} start, scanning the
+     * quoting of every field.
+     *
+     * @param csv         the file contents
+     * @param from        the start of the first data record
+     * @param targetBytes the approximate chunk size
+     * @return the start of every chunk followed by the end of the file, or
+     *         {@code null} if the quoting is not plain RFC 4180
+     */
+    static int[] chunkStarts(ByteBuffer csv, int from, int targetBytes) {
+        List<Integer> starts = new ArrayList<>();
+        starts.add(from);
+        int chunkStart = from;
+        int position = from;
+        while (position < csv.limit()) {
+            int next = nextRecordStart(csv, position);
+            if (next < 0) {
+                return null;
+            }
+            if (next - chunkStart >= targetBytes && next < csv.limit()) {
+                starts.add(next);
+                chunkStart = next;
+            }
+            position = next;
+        }
+        starts.add(csv.limit());
+        return starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Skips one record.
+     *
+     * @return the offset after the record's line feed (or the end of the
+     *         file), or {@code -1} if its quoting cannot be followed
+     */
+    static int nextRecordStart(ByteBuffer csv, int from) {
+        boolean fieldStart = true;
+        int i = from;
+        while (i < csv.limit()) {
+            byte b = csv.get(i);
+            if (b == QUOTE && fieldStart) {
+                i = skipQuotedField(csv, i + 1);
+                if (i < 0) {
+                    return -1;
+                }
+                fieldStart = false;
+                continue;
+            }
+            if (b == '\n') {
+                return i + 1;
+            }
+            fieldStart = b == DELIMITER || b == '\r';
+            i++;
+        }
+        return csv.limit();
+    }
+
+    /**
+     * @return the offset after the closing quote, or {@code -1} if the quote is
+     *         not closed or the closing quote is followed by more text
+     */
+    private static int skipQuotedField(ByteBuffer csv, int from) {
+        int i = from;
+        while (i < csv.limit()) {
+            if (csv.get(i) != QUOTE) {
+                i++;
+            } else if (i + 1 < csv.limit() && csv.get(i + 1) == QUOTE) {
+                // Escaped quote
+                i += 2;
+            } else {
+                int after = i + 1;
+                while (after < csv.limit() && (csv.get(after) == ' ' || csv.get(after) == '\t')) {
+                    after++;
+                }
+                if (after < csv.limit() && csv.get(after) != DELIMITER && csv.get(after) != '\r'
+                        && csv.get(after) != '\n') {
+                    return -1;
+                }
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static BufferedReader reader(ByteBuffer csv, int from, int to) {
+        // Chunks start after a line feed, which never splits a UTF-8 sequence
+        return new BufferedReader(new InputStreamReader(
+                new ByteBufferInputStream(csv.slice(from, to - from)), StandardCharsets.UTF_8));
+    }
+
+    private static List<CSVRecord> parseChunk(ByteBuffer csv, int from, int to) {
+        try (CSVParser parser = new CSVParser(reader(csv, from, to), CHUNK_FORMAT)) {
+            return parser.getRecords();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The header and data records of a CSV upload.
+     */
+    public interface CsvRecords extends Iterable<CSVRecord>, Closeable {
+        /**
+         * @return the column index of every header name, in header order
+         */
+        Map<String, Integer> headerMap();
+    }
+
+    /**
+     * Returns the records of chunks parsed on the pool, keeping at most two
+     * chunks per thread parsed or in flight ahead of the reader.
+     */
+    private final class ParallelRecords implements CsvRecords {
+        private final Map<String, Integer> headerMap;
+        private final ByteBuffer csv;
+        private final int[] chunkStarts;
+        private final Deque<Future<List<CSVRecord>>> inFlight = new ArrayDeque<>();
+        private int nextChunk;
+
+        private ParallelRecords(Map<String, Integer> headerMap, ByteBuffer csv, int[] chunkStarts) {
+            this.headerMap = headerMap;
+            this.csv = csv;
+            this.chunkStarts = chunkStarts;
+        }
+
+        @Override
+        public Map<String, Integer> headerMap() {
+            return headerMap;
+        }
+
+        @Override
+        public Iterator<CSVRecord> iterator() {
+            return new Iterator<>() {
+                private Iterator<CSVRecord> current = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!current.hasNext()) {
+                        submitAhead();
+                        if (inFlight.isEmpty()) {
+                            return false;
+                        }
+                        current = await(inFlight.poll()).iterator();
+                    }
+                    return true;
+                }
+
+                @Override
+                public CSVRecord next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return current.next();
+                }
+            };
+        }
+
+        private void submitAhead() {
+            int chunkCount = chunkStarts.length - 1;
+            while (nextChunk < chunkCount && inFlight.size() < threads * 2) {
+                int from = chunkStarts[nextChunk];
+                int to = chunkStarts[nextChunk + 1];
+                inFlight.add(parseExecutor.submit(() -> parseChunk(csv, from, to)));
+                nextChunk++;
+            }
+        }
+
+        private List<CSVRecord> await(Future<List<CSVRecord>> chunk) {
+            try {
+                return chunk.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while parsing CSV", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() instanceof UncheckedIOException io ? io.getCause() : e.getCause();
+                throw new IllegalStateException(cause.getMessage(), cause);
+            }
+        }
+
+        @Override
+        public void close() {
+            inFlight.forEach(chunk -> chunk.cancel(true));
+            inFlight.clear();
+        }
+    }
+
+    /**
+     * Reads a buffer from its position to its limit. Each thread reads its own
+     * slice; the slices share the mapped file.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
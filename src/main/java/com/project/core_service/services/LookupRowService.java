@@ -0,0 +1,744 @@
+package com.project.core_service.services;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Field;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.MergeOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.Updates;
+import com.project.core_service.models.lookup.LookupColumnType;
+import com.project.core_service.models.lookup.LookupRowFilter;
+
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stores the rows of chunked lookups, one document per row.
+ *
+ * <p>
+ * Each row document holds the lookup it belongs to ({@code lookupId}), the
+ * upload that wrote it ({@code uploadId}), its position in the CSV
+ * ({@code rowNumber}) and its column values ({@code fields}). The lookup
+ * document names the upload whose rows are current, so rows of a new upload
+ * can be written while readers still see the previous one.
+ * </p>
+ *
+ * <p>
+ * Rows of a lookup with key columns also hold {@code keys}: one
+ * {@code column + KEY_SEPARATOR + value} entry per key column, served by a
+ * single multikey index so that point reads on any key column of any lookup
+ * share one index.
+ * </p>
+ *
+ * <p>
+ * Every row also stores a {@code hash} of its column values, so a re-upload
+ * can be compared with the stored rows without reading their values, see
+ * {@link #streamRowHashes} and {@link #copyRows}.
+ * </p>
+ *
+ * <p>
+ * Rows are written as text; {@link #applyColumnTypes} then converts the
+ * columns of a typed schema to native BSON values on the server. Embedded
+ * lookups convert their {@code data} array with the same expressions, see
+ * {@link #typedRow}. Hashes and
+ * keys are always computed from the text form, which every stored value turns
+ * back into on read, see {@link LookupColumnType#text}.
+ * </p>
+ *
+ * <p>
+ * Uploads of {@code COMPRESSED} lookups are stored as blocks instead: one
+ * document per ingest batch in the lookup row blocks collection, holding the
+ * rows as a gzip-compressed BSON array. Blocks are decompressed one at a time
+ * as they are read, and filtered in memory, see {@link #streamBlockRows} and
+ * {@link #findBlockRows}. They carry no keys, hashes or typed values.
+ * </p>
+ */
+@Service
+@Slf4j
+public class LookupRowService {
+
+    static final String LOOKUP_ID_FIELD = "lookupId";
+    static final String UPLOAD_ID_FIELD = "uploadId";
+    static final String ROW_NUMBER_FIELD = "rowNumber";
+    static final String FIELDS_FIELD = "fields";
+    static final String KEYS_FIELD = "keys";
+    static final String KEY_SEPARATOR = "\u001f";
+    static final String HASH_FIELD = "hash";
+    static final String FIRST_ROW_NUMBER_FIELD = "firstRowNumber";
+    static final String LAST_ROW_NUMBER_FIELD = "lastRowNumber";
+    static final String BLOCK_FIELD = "block";
+    private static final String BLOCK_ROWS_FIELD = "rows";
+    private static final DocumentCodec BLOCK_CODEC = new DocumentCodec();
+
+    private final MongoDatabase mongoDatabase;
+
+    @Value("${mongodb.collection.lookup-rows.name:lookupRows}")
+    private String rowsCollectionName = "lookupRows";
+
+    @Value("${mongodb.collection.lookup-row-blocks.name:lookupRowBlocks}")
+    private String blocksCollectionName = "lookupRowBlocks";
+
+    @Value("${lookups.read.batch-size:1000}")
+    private int readBatchSize = 1000;
+
+    @Autowired
+    public LookupRowService(MongoDatabase mongoDatabase) {
+        this.mongoDatabase = mongoDatabase;
+    }
+
+    /**
+     * Creates the index that serves ordered reads of one upload's rows, the
+     * index that serves point reads by key, the index that serves column
+     * filters and the index that serves ordered reads of one upload's blocks.
+     *
+     * <p>
+     * Columns differ per lookup, so column filters are served by a wildcard
+     * index over {@code fields}, scoped by lookup and upload where the server
+     * supports compound wildcard indexes (MongoDB 7.0) and on its own
+     * otherwise.
+     * </p>
+     */
+    @PostConstruct
+    void ensureIndexes() {
+        try {
+            rows().createIndex(
+                    Indexes.ascending(LOOKUP_ID_FIELD, UPLOAD_ID_FIELD, ROW_NUMBER_FIELD),
+                    new IndexOptions().unique(true).name("lookupId_uploadId_rowNumber"));
+            rows().createIndex(
+                    Indexes.ascending(LOOKUP_ID_FIELD, UPLOAD_ID_FIELD, KEYS_FIELD),
+                    new IndexOptions()
+                            .partialFilterExpression(Filters.exists(KEYS_FIELD))
+                            .name("lookupId_uploadId_keys"));
+            ensureFieldsIndex();
+            blocks().createIndex(
+                    Indexes.ascending(LOOKUP_ID_FIELD, UPLOAD_ID_FIELD, LAST_ROW_NUMBER_FIELD),
+                    new IndexOptions().unique(true).name("lookupId_uploadId_lastRowNumber"));
+        } catch (RuntimeException e) {
+            log.warn("Could not create indexes for lookup rows: {}", e.getMessage());
+        }
+    }
+
+    private void ensureFieldsIndex() {
+        try {
+            rows().createIndex(new Document(LOOKUP_ID_FIELD, 1).append(UPLOAD_ID_FIELD, 1)
+                    .append(FIELDS_FIELD + ".$**", 1), new IndexOptions().name("lookupId_uploadId_fields"));
+        } catch (RuntimeException e) {
+            log.info("Compound wildcard index not supported, indexing lookup row fields alone: {}", e.getMessage());
+            rows().createIndex(Indexes.ascending(FIELDS_FIELD + ".$**"), new IndexOptions().name("fields"));
+        }
+    }
+
+    /**
+     * Inserts a batch of rows with one unordered {@code insertMany}.
+     *
+     * @param lookupId        the lookup the rows belong to
+     * @param uploadId        the upload that is writing the rows
+     * @param firstRowNumber  the row number of the first row in the batch
+     * @param rows            the column values of each row
+     * @param keyColumns      the key columns of the lookup, may be empty
+     */
+    public void insertRows(String lookupId, String uploadId, int firstRowNumber, List<Document> rows,
+            List<String> keyColumns) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Document> documents = new ArrayList<>(rows.size());
+        int rowNumber = firstRowNumber;
+        for (Document row : rows) {
+            documents.add(rowDocument(lookupId, uploadId, rowNumber++, row, keyColumns));
+        }
+        rows().insertMany(documents, new InsertManyOptions().ordered(false));
+    }
+
+    /**
+     * Streams the row number, key and hash of every row of an upload, without
+     * reading the other column values. The returned stream must be closed to
+     * release the cursor.
+     *
+     * @param lookupId  the lookup the rows belong to
+     * @param uploadId  the upload whose rows are read
+     * @param keyColumn the column identifying a row
+     * @return one entry per row, in row order
+     */
+    public Stream<RowHash> streamRowHashes(String lookupId, String uploadId, String keyColumn) {
+        MongoCursor<Document> cursor = rows()
+                .find(Filters.and(
+                        Filters.eq(LOOKUP_ID_FIELD, lookupId),
+                        Filters.eq(UPLOAD_ID_FIELD, uploadId)))
+                .projection(Projections.fields(
+                        Projections.include(ROW_NUMBER_FIELD, HASH_FIELD, fieldPath(keyColumn)),
+                        Projections.excludeId()))
+                .sort(Sorts.ascending(ROW_NUMBER_FIELD))
+                .batchSize(Math.max(1, readBatchSize))
+                .iterator();
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)
+                .onClose(cursor::close)
+                .map(document -> {
+                    Document fields = document.get(FIELDS_FIELD, Document.class);
+                    Object key = fields != null ? fields.get(keyColumn) : null;
+                    return new RowHash(document.getInteger(ROW_NUMBER_FIELD), LookupColumnType.text(key),
+                            document.getLong(HASH_FIELD));
+                });
+    }
+
+    /**
+     * Inserts rows that are not numbered consecutively, such as the changed
+     * rows of a diff upload, with one unordered {@code insertMany}.
+     *
+     * @param lookupId   the lookup the rows belong to
+     * @param uploadId   the upload that is writing the rows
+     * @param rows       the column values of each row by row number
+     * @param keyColumns the key columns of the lookup, may be empty
+     */
+    public void insertRows(String lookupId, String uploadId, Map<Integer, Document> rows,
+            List<String> keyColumns) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Document> documents = new ArrayList<>(rows.size());
+        rows.forEach((rowNumber, row) -> documents.add(rowDocument(lookupId, uploadId, rowNumber, row, keyColumns)));
+        rows().insertMany(documents, new InsertManyOptions().ordered(false));
+    }
+
+    /**
+     * Copies the rows of one upload to another entirely on the server, with one
+     * {@code $merge} aggregation. Keys, hashes and typed values are copied as
+     * stored; the copies get new ids.
+     *
+     * @param lookupId          the lookup the rows belong to
+     * @param fromUploadId      the upload whose rows are copied
+     * @param toUploadId        the upload the copies are written to
+     * @param skippedRowNumbers row numbers of the rows not to copy
+     */
+    public void copyRows(String lookupId, String fromUploadId, String toUploadId,
+            Collection<Integer> skippedRowNumbers) {
+        rows().aggregate(List.of(
+                Aggregates.match(rowFilter(lookupId, fromUploadId, Filters.nin(ROW_NUMBER_FIELD, skippedRowNumbers))),
+                Aggregates.project(Projections.excludeId()),
+                Aggregates.addFields(new Field<>(UPLOAD_ID_FIELD, new Document("$literal", toUploadId))),
+                Aggregates.merge(rowsCollectionName, new MergeOptions()
+                        .whenMatched(MergeOptions.WhenMatched.FAIL)
+                        .whenNotMatched(MergeOptions.WhenNotMatched.INSERT))))
+                .allowDiskUse(true)
+                .toCollection();
+    }
+
+    /**
+     * Hashes the column values of a row, in column order, for change detection.
+     *
+     * @return the first 64 bits of the SHA-256 digest of the row
+     */
+    static long rowHash(Map<String, ?> fields) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        for (Map.Entry<String, ?> entry : fields.entrySet()) {
+            digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0x1f);
+            digest.update(String.valueOf(entry.getValue()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0x1e);
+        }
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    private static Document rowDocument(String lookupId, String uploadId, int rowNumber, Document row,
+            List<String> keyColumns) {
+        Document document = new Document(LOOKUP_ID_FIELD, lookupId)
+                .append(UPLOAD_ID_FIELD, uploadId)
+                .append(ROW_NUMBER_FIELD, rowNumber)
+                .append(FIELDS_FIELD, row)
+                .append(HASH_FIELD, rowHash(row));
+        if (!keyColumns.isEmpty()) {
+            document.append(KEYS_FIELD, keysOf(row, keyColumns));
+        }
+        return document;
+    }
+
+    private static Bson rowFilter(String lookupId, String uploadId, Bson rowCondition) {
+        return Filters.and(
+                Filters.eq(LOOKUP_ID_FIELD, lookupId),
+                Filters.eq(UPLOAD_ID_FIELD, uploadId),
+                rowCondition);
+    }
+
+    /**
+     * Streams the rows of an upload in row order from a cursor. The returned
+     * stream must be closed to release the cursor.
+     *
+     * @param lookupId the lookup the rows belong to
+     * @param uploadId the upload whose rows are read
+     * @param limit    the maximum number of rows to read, or {@code 0} for all
+     * @return the column values of each row
+     */
+    public Stream<Map<String, String>> streamRows(String lookupId, String uploadId, int limit) {
+        MongoCursor<Document> cursor = rows()
+                .find(Filters.and(
+                        Filters.eq(LOOKUP_ID_FIELD, lookupId),
+                        Filters.eq(UPLOAD_ID_FIELD, uploadId)))
+                .projection(Projections.fields(Projections.include(FIELDS_FIELD), Projections.excludeId()))
+                .sort(Sorts.ascending(ROW_NUMBER_FIELD))
+                .limit(Math.max(0, limit))
+                .batchSize(Math.max(1, readBatchSize))
+                .iterator();
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)
+                .onClose(cursor::close)
+                .map(document -> toStringMap(document.get(FIELDS_FIELD, Document.class)));
+    }
+
+    /**
+     * Reads one page of the rows of an upload, in row order.
+     *
+     * <p>
+     * Paging after a row number is served from the
+     * {@code lookupId_uploadId_rowNumber} index, so its cost does not grow with
+     * the position of the page; {@code skip} walks the index up to the offset.
+     * Equality, anchored prefix and range filters on a column can be served by
+     * the wildcard index over {@code fields} instead. Prefix filters only apply
+     * to text columns.
+     * </p>
+     *
+     * @param lookupId       the lookup the rows belong to
+     * @param uploadId       the upload whose rows are read
+     * @param filter         equality, prefix and range filters and the columns to
+     *                       return
+     * @param afterRowNumber only rows after this row number are read; negative for
+     *                       no lower bound
+     * @param skip           the number of matching rows to skip
+     * @param limit          the maximum number of rows to read
+     * @return the matching rows with their row numbers
+     */
+    public List<Row> findRows(String lookupId, String uploadId, LookupRowFilter filter, int afterRowNumber,
+            int skip, int limit) {
+        List<Bson> conditions = new ArrayList<>();
+        conditions.add(Filters.eq(LOOKUP_ID_FIELD, lookupId));
+        conditions.add(Filters.eq(UPLOAD_ID_FIELD, uploadId));
+        if (afterRowNumber >= 0) {
+            conditions.add(Filters.gt(ROW_NUMBER_FIELD, afterRowNumber));
+        }
+        filter.exact().forEach((column, value) -> {
+            Object typed = filter.typedValue(column, value);
+            // Rows of uploads made before the column was typed still hold text
+            conditions.add(filter.typeOf(column) == LookupColumnType.STRING
+                    ? Filters.eq(fieldPath(column), value)
+                    : Filters.in(fieldPath(column), typed, value));
+        });
+        // An anchored, case-sensitive regex is answered from index bounds
+        filter.prefixes().forEach((column, prefix) -> conditions.add(
+                Filters.regex(fieldPath(column), "^" + Pattern.quote(prefix))));
+        filter.from().forEach((column, value) -> conditions.add(
+                Filters.gte(fieldPath(column), filter.typedValue(column, value))));
+        filter.to().forEach((column, value) -> conditions.add(
+                Filters.lte(fieldPath(column), filter.typedValue(column, value))));
+
+        List<String> projected = new ArrayList<>();
+        projected.add(ROW_NUMBER_FIELD);
+        if (filter.columns().isEmpty()) {
+            projected.add(FIELDS_FIELD);
+        } else {
+            filter.columns().forEach(column -> projected.add(fieldPath(column)));
+        }
+
+        List<Row> page = new ArrayList<>();
+        for (Document document : rows()
+                .find(Filters.and(conditions))
+                .projection(Projections.fields(Projections.include(projected), Projections.excludeId()))
+                .sort(Sorts.ascending(ROW_NUMBER_FIELD))
+                .skip(Math.max(0, skip))
+                .limit(limit)) {
+            page.add(new Row(document.getInteger(ROW_NUMBER_FIELD),
+                    toStringMap(document.get(FIELDS_FIELD, Document.class))));
+        }
+        return page;
+    }
+
+    /**
+     * Reads the rows of an upload whose key column has the given value, through
+     * the {@code lookupId_uploadId_keys} index.
+     *
+     * @param lookupId the lookup the rows belong to
+     * @param uploadId the upload whose rows are read
+     * @param column   a key column of the lookup
+     * @param value    the value to match
+     * @return the matching rows in row order
+     */
+    public List<Map<String, String>> findRowsByKey(String lookupId, String uploadId, String column, String value) {
+        List<Map<String, String>> matches = new ArrayList<>();
+        for (Document document : rows()
+                .find(Filters.and(
+                        Filters.eq(LOOKUP_ID_FIELD, lookupId),
+                        Filters.eq(UPLOAD_ID_FIELD, uploadId),
+                        Filters.eq(KEYS_FIELD, key(column, value))))
+                .projection(Projections.fields(Projections.include(FIELDS_FIELD), Projections.excludeId()))
+                .sort(Sorts.ascending(ROW_NUMBER_FIELD))) {
+            matches.add(toStringMap(document.get(FIELDS_FIELD, Document.class)));
+        }
+        return matches;
+    }
+
+    /**
+     * Recomputes the {@code keys} of every row of an upload on the server, after
+     * the key columns of a lookup changed.
+     *
+     * @param keyColumns the new key columns; the keys are removed when empty
+     */
+    public void rebuildKeys(String lookupId, String uploadId, List<String> keyColumns) {
+        Bson upload = Filters.and(
+                Filters.eq(LOOKUP_ID_FIELD, lookupId),
+                Filters.eq(UPLOAD_ID_FIELD, uploadId));
+        if (keyColumns.isEmpty()) {
+            rows().updateMany(upload, Updates.unset(KEYS_FIELD));
+            return;
+        }
+
+        List<Document> keys = new ArrayList<>();
+        for (String column : keyColumns) {
+            // $literal keeps column names starting with '$' from being read as field paths
+            Document value = new Document("$getField", new Document("field", new Document("$literal", column))
+                    .append("input", "$" + FIELDS_FIELD));
+            // A missing value concatenates to null and is filtered out below
+            keys.add(new Document("$concat", List.of(
+                    new Document("$literal", column + KEY_SEPARATOR),
+                    textValue(value))));
+        }
+        Document keysWithoutMissing = new Document("$filter", new Document("input", keys)
+                .append("cond", new Document("$ne", Arrays.asList("$$this", null))));
+        rows().updateMany(upload, List.of(new Document("$set", new Document(KEYS_FIELD, keysWithoutMissing))));
+    }
+
+    /**
+     * Converts the values of some columns of an upload to their column types on
+     * the server, with one pipeline update. Text values, and values stored as
+     * another type by an earlier schema, are both converted through their text
+     * form; empty values become {@code null} in typed columns and {@code ""} in
+     * {@code STRING} columns.
+     *
+     * @param columnTypes the columns to convert and their types
+     * @param rowNumbers  the rows to convert, or {@code null} for all rows
+     */
+    public void applyColumnTypes(String lookupId, String uploadId, Map<String, LookupColumnType> columnTypes,
+            Collection<Integer> rowNumbers) {
+        if (columnTypes.isEmpty() || (rowNumbers != null && rowNumbers.isEmpty())) {
+            return;
+        }
+        Bson upload = Filters.and(
+                Filters.eq(LOOKUP_ID_FIELD, lookupId),
+                Filters.eq(UPLOAD_ID_FIELD, uploadId));
+        if (rowNumbers != null) {
+            upload = rowFilter(lookupId, uploadId, Filters.in(ROW_NUMBER_FIELD, rowNumbers));
+        }
+
+        List<Document> pipeline = new ArrayList<>(columnTypes.size());
+        columnTypes.forEach((column, type) -> {
+            Document field = new Document("$literal", column);
+            Document value = new Document("$getField", new Document("field", field)
+                    .append("input", "$" + FIELDS_FIELD));
+            pipeline.add(new Document("$set", new Document(FIELDS_FIELD, new Document("$setField",
+                    new Document("field", field)
+                            .append("input", "$" + FIELDS_FIELD)
+                            .append("value", typedValue(textValue(value), type))))));
+        });
+        rows().updateMany(upload, pipeline);
+    }
+
+    /**
+     * An aggregation expression for the text form of a stored value, matching
+     * {@link LookupColumnType#text}.
+     */
+    static Document textValue(Object value) {
+        return new Document("$cond", Arrays.asList(
+                new Document("$eq", Arrays.asList(new Document("$type", value), "date")),
+                new Document("$dateToString", new Document("date", value)
+                        .append("format", "%Y-%m-%d")
+                        .append("timezone", "UTC")),
+                new Document("$toString", value)));
+    }
+
+    /**
+     * An aggregation expression converting the text form of a value to its
+     * column type, matching {@link LookupColumnType#parse}. Values that do not
+     * parse become {@code null}.
+     */
+    static Document typedValue(Object text, LookupColumnType type) {
+        if (type == LookupColumnType.STRING) {
+            return new Document("$ifNull", Arrays.asList(text, ""));
+        }
+        Object parsed = switch (type) {
+            case INTEGER -> convert("long");
+            case DECIMAL -> convert("decimal");
+            case BOOLEAN -> new Document("$eq", Arrays.asList("$$text", "true"));
+            case DATE -> new Document("$dateFromString", new Document("dateString", "$$text")
+                    .append("format", "%Y-%m-%d")
+                    .append("timezone", "UTC")
+                    .append("onError", null));
+            case STRING -> throw new IllegalStateException();
+        };
+        return new Document("$let", new Document("vars", new Document("text", text))
+                .append("in", new Document("$cond", Arrays.asList(
+                        new Document("$in", Arrays.asList("$$text", Arrays.asList("", null))),
+                        null,
+                        parsed))));
+    }
+
+    /**
+     * An aggregation expression for a row document with some of its columns
+     * converted to their column types, one {@code $setField} per column.
+     *
+     * @param row         an expression for the row document
+     * @param columnTypes the columns to convert and their types
+     */
+    static Object typedRow(Object row, Map<String, LookupColumnType> columnTypes) {
+        Object typed = row;
+        for (Map.Entry<String, LookupColumnType> column : columnTypes.entrySet()) {
+            Document field = new Document("$literal", column.getKey());
+            Document value = new Document("$getField", new Document("field", field).append("input", row));
+            typed = new Document("$setField", new Document("field", field)
+                    .append("input", typed)
+                    .append("value", typedValue(textValue(value), column.getValue())));
+        }
+        return typed;
+    }
+
+    private static Document convert(String bsonType) {
+        return new Document("$convert", new Document("input", "$$text")
+                .append("to", bsonType)
+                .append("onError", null)
+                .append("onNull", null));
+    }
+
+    /**
+     * Stores a batch of rows as one compressed block.
+     *
+     * @param lookupId       the lookup the rows belong to
+     * @param uploadId       the upload that is writing the rows
+     * @param firstRowNumber the row number of the first row in the batch
+     * @param rows           the column values of each row
+     */
+    public void insertBlock(String lookupId, String uploadId, int firstRowNumber, List<Document> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        blocks().insertOne(new Document(LOOKUP_ID_FIELD, lookupId)
+                .append(UPLOAD_ID_FIELD, uploadId)
+                .append(FIRST_ROW_NUMBER_FIELD, firstRowNumber)
+                .append(LAST_ROW_NUMBER_FIELD, firstRowNumber + rows.size() - 1)
+                .append(BLOCK_FIELD, new Binary(compressBlock(rows))));
+    }
+
+    /**
+     * Streams the rows of a block-stored upload in row order, decompressing one
+     * block at a time as the stream is consumed. The returned stream must be
+     * closed to release the cursor.
+     *
+     * @param lookupId the lookup the rows belong to
+     * @param uploadId the upload whose rows are read
+     * @param limit    the maximum number of rows to read, or {@code 0} for all
+     * @return the column values of each row
+     */
+    public Stream<Map<String, String>> streamBlockRows(String lookupId, String uploadId, int limit) {
+        MongoCursor<Document> cursor = findBlocks(lookupId, uploadId, -1);
+        Stream<Map<String, String>> rows = StreamSupport
+                .stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)
+                .onClose(cursor::close)
+                .flatMap(block -> blockRows(block).stream())
+                .map(LookupRowService::toStringMap);
+        return limit > 0 ? rows.limit(limit) : rows;
+    }
+
+    /**
+     * Reads one page of the rows of a block-stored upload, in row order. Blocks
+     * before {@code afterRowNumber} are skipped through the
+     * {@code lookupId_uploadId_lastRowNumber} index; the filter is applied to
+     * the decompressed rows.
+     *
+     * @see #findRows
+     */
+    public List<Row> findBlockRows(String lookupId, String uploadId, LookupRowFilter filter, int afterRowNumber,
+            int skip, int limit) {
+        List<Row> page = new ArrayList<>();
+        int skipped = 0;
+        try (MongoCursor<Document> cursor = findBlocks(lookupId, uploadId, afterRowNumber)) {
+            while (cursor.hasNext() && page.size() < limit) {
+                Document block = cursor.next();
+                int rowNumber = block.getInteger(FIRST_ROW_NUMBER_FIELD);
+                for (Document row : blockRows(block)) {
+                    int current = rowNumber++;
+                    if (current <= afterRowNumber) {
+                        continue;
+                    }
+                    Map<String, String> fields = toStringMap(row);
+                    if (!filter.matches(fields)) {
+                        continue;
+                    }
+                    if (skipped < skip) {
+                        skipped++;
+                        continue;
+                    }
+                    page.add(new Row(current, filter.select(fields)));
+                    if (page.size() >= limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        return page;
+    }
+
+    private MongoCursor<Document> findBlocks(String lookupId, String uploadId, int afterRowNumber) {
+        return blocks()
+                .find(Filters.and(
+                        Filters.eq(LOOKUP_ID_FIELD, lookupId),
+                        Filters.eq(UPLOAD_ID_FIELD, uploadId),
+                        Filters.gt(LAST_ROW_NUMBER_FIELD, afterRowNumber)))
+                .projection(Projections.fields(
+                        Projections.include(FIRST_ROW_NUMBER_FIELD, BLOCK_FIELD),
+                        Projections.excludeId()))
+                .sort(Sorts.ascending(LAST_ROW_NUMBER_FIELD))
+                .iterator();
+    }
+
+    private static List<Document> blockRows(Document block) {
+        return decompressBlock(block.get(BLOCK_FIELD, Binary.class).getData());
+    }
+
+    /**
+     * Encodes rows as one BSON document and gzips it.
+     */
+    static byte[] compressBlock(List<Document> rows) {
+        ByteBuffer bson = new RawBsonDocument(new Document(BLOCK_ROWS_FIELD, rows), BLOCK_CODEC)
+                .getByteBuffer().asNIO();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, bson.remaining() / 4));
+        try (OutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bson.array(), bson.arrayOffset() + bson.position(), bson.remaining());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    static List<Document> decompressBlock(byte[] block) {
+        byte[] bson;
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(block))) {
+            bson = gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt lookup row block", e);
+        }
+        return new RawBsonDocument(bson).decode(BLOCK_CODEC).getList(BLOCK_ROWS_FIELD, Document.class);
+    }
+
+    /**
+     * Deletes the rows of one upload, whether stored as documents or blocks.
+     */
+    public void deleteRows(String lookupId, String uploadId) {
+        Bson upload = Filters.and(
+                Filters.eq(LOOKUP_ID_FIELD, lookupId),
+                Filters.eq(UPLOAD_ID_FIELD, uploadId));
+        rows().deleteMany(upload);
+        blocks().deleteMany(upload);
+    }
+
+    private static List<String> keysOf(Document row, List<String> keyColumns) {
+        List<String> keys = new ArrayList<>(keyColumns.size());
+        for (String column : keyColumns) {
+            Object value = row.get(column);
+            if (value != null) {
+                keys.add(key(column, LookupColumnType.text(value)));
+            }
+        }
+        return keys;
+    }
+
+    static String key(String column, String value) {
+        return column + KEY_SEPARATOR + value;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the column name would not address a
+     *                                  single field, see
+     *                                  {@link #isQueryableColumnName}
+     */
+    private static String fieldPath(String column) {
+        if (!isQueryableColumnName(column)) {
+            throw new IllegalArgumentException(String.format(
+                    "Column '%s' cannot be queried: column names must not contain '.' or start with '$'", column));
+        }
+        return FIELDS_FIELD + "." + column;
+    }
+
+    /**
+     * @return whether a column name can be used in a field path; dots would
+     *         address a nested field and a leading {@code $} an operator
+     */
+    static boolean isQueryableColumnName(String column) {
+        return !column.isEmpty() && column.indexOf('.') < 0 && !column.startsWith("$");
+    }
+
+    private MongoCollection<Document> rows() {
+        return mongoDatabase.getCollection(rowsCollectionName);
+    }
+
+    private MongoCollection<Document> blocks() {
+        return mongoDatabase.getCollection(blocksCollectionName);
+    }
+
+    private static Map<String, String> toStringMap(Document fields) {
+        Map<String, String> row = new LinkedHashMap<>();
+        if (fields == null) {
+            return row;
+        }
+        for (Map.Entry<String, Object> entry : fields.entrySet()) {
+            row.put(entry.getKey(), LookupColumnType.text(entry.getValue()));
+        }
+        return row;
+    }
+
+    /**
+     * A row of a lookup and its position in the upload.
+     */
+    public record Row(int rowNumber, Map<String, String> fields) {
+    }
+
+    /**
+     * The key and value hash of a stored row; {@code hash} is {@code null} for
+     * rows written before hashes were stored.
+     */
+    public record RowHash(int rowNumber, String key, Long hash) {
+    }
+}
@@ -1,34 +1,64 @@
 package com.project.core_service.services;
 
+import com.mongodb.MongoException;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Field;
 import com.mongodb.client.model.Filters;
-import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.FindOneAndDeleteOptions;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.MergeOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.result.UpdateResult;
 import com.project.core_service.dto.LookupDTO;
+import com.project.core_service.dto.LookupDiffDTO;
 import com.project.core_service.dto.UpdateLookupDTO;
 import com.project.core_service.dto.CreateLookupDTO;
 import com.project.core_service.dto.LookupFieldDescriptionsDTO;
+import com.project.core_service.dto.LookupKeyMatchDTO;
+import com.project.core_service.dto.LookupMigrationDTO;
+import com.project.core_service.dto.LookupRowsPageDTO;
+import com.project.core_service.dto.LookupRowsQueryDTO;
 import com.project.core_service.dto.LookupWODataDTO;
+import com.project.core_service.exceptions.ConcurrentOperationException;
 import com.project.core_service.exceptions.CsvProcessingException;
 import com.project.core_service.exceptions.InvalidFileException;
 import com.project.core_service.exceptions.NotFoundException;
 import com.project.core_service.models.lookup.Lookup;
+import com.project.core_service.models.lookup.LookupColumnType;
+import com.project.core_service.models.lookup.LookupKeyIndex;
+import com.project.core_service.models.lookup.LookupRowFilter;
+import com.project.core_service.models.lookup.LookupSchemaInference;
+import com.project.core_service.models.lookup.LookupStorageMode;
+import com.project.core_service.models.lookup.LookupTable;
+import com.project.core_service.models.lookup.LookupVersion;
+import com.project.core_service.models.lookup.LookupVersionState;
 
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
@@ -36,10 +66,51 @@ import lombok.extern.slf4j.Slf4j;
 public class LookupService {
 
     private final MongoDatabase mongoDatabase;
+    private final LookupRowService lookupRowService;
+    private final LookupVersionService lookupVersionService;
+    private final LookupCsvParser csvParser;
+    private final ApplicationEventPublisher eventPublisher;
+    private final QueryService queryService;
 
     @Value("${mongodb.collection.lookups.name}")
     private String collectionName;
 
+    @Value("${lookups.ingest.batch-size:1000}")
+    private int ingestBatchSize = 1000;
+
+    @Value("${lookups.storage.mode:EMBEDDED}")
+    private LookupStorageMode storageMode = LookupStorageMode.EMBEDDED;
+
+    @Value("${lookups.rows.default-page-size:100}")
+    private int defaultRowsPageSize = 100;
+
+    @Value("${lookups.rows.max-page-size:1000}")
+    private int maxRowsPageSize = 1000;
+
+    @Value("${lookups.index-cache.ttl-ms:60000}")
+    private long indexCacheTtlMs = 60_000;
+
+    @Value("${lookups.key-index.max-rows:100000}")
+    private int keyIndexMaxRows = 100_000;
+
+    @Value("${lookups.schema.inference.enabled:true}")
+    private boolean schemaInferenceEnabled = true;
+
+    /**
+     * The lookup index served by {@link #getAllLookups()}. Writes on this
+     * instance clear it; the TTL bounds how long writes made by other instances
+     * can go unnoticed.
+     */
+    private volatile CachedLookupIndex cachedLookupIndex;
+    private final AtomicLong lookupIndexVersion = new AtomicLong();
+
+    /**
+     * In-memory key indexes by lookup name, see {@link #findRowsByKey}. An entry
+     * is only used while its stamp matches the lookup document, so uploads made
+     * by other instances are picked up on the next read.
+     */
+    private final Map<String, CachedKeyIndex> keyIndexes = new ConcurrentHashMap<>();
+
     // MongoDB document field names
     private static final String LOOKUP_NAME_FIELD = "lookupName";
     private static final String ID_FIELD = "_id";
@@ -48,13 +119,69 @@ public class LookupService {
     private static final String RECORD_COUNT_FIELD = "recordCount";
     private static final String DESCRIPTION_FIELD = "description";
     private static final String FIELD_DESCRIPTIONS_FIELD = "fieldDescriptions";
+    private static final String ROWS_UPLOAD_ID_FIELD = "rowsUploadId";
+    private static final String KEY_COLUMNS_FIELD = "keyColumns";
+    private static final String COLUMN_TYPES_FIELD = "columnTypes";
+    private static final String COMPRESSED_ROWS_FIELD = "compressedRows";
+
+    private static final Bson LOOKUP_INDEX_PROJECTION = Projections.include(
+            LOOKUP_NAME_FIELD, UPLOADED_AT_FIELD, RECORD_COUNT_FIELD, DESCRIPTION_FIELD);
+
+    private static final String STAGING_COLLECTION_SUFFIX = "_staging";
+
+    // Row page cursors: after a row number of an upload, or at an offset into embedded rows
+    private static final String ROW_CURSOR_PREFIX = "r:";
+    private static final String OFFSET_CURSOR_PREFIX = "o:";
 
     @Autowired
-    public LookupService(MongoDatabase mongoDatabase) {
+    public LookupService(MongoDatabase mongoDatabase, LookupRowService lookupRowService,
+            LookupVersionService lookupVersionService, LookupCsvParser csvParser,
+            ApplicationEventPublisher eventPublisher, QueryService queryService) {
         this.mongoDatabase = mongoDatabase;
+        this.lookupRowService = lookupRowService;
+        this.lookupVersionService = lookupVersionService;
+        this.csvParser = csvParser;
+        this.eventPublisher = eventPublisher;
+        this.queryService = queryService;
+    }
+
+    /**
+     * @return how rows of newly created lookups are stored; an existing lookup
+     *         keeps its storage until it is migrated with
+     *         {@link #migrateToChunkedRows(String)}
+     */
+    public LookupStorageMode getStorageMode() {
+        return storageMode;
+    }
+
+    /**
+     * Creates a TTL index so staging documents of uploads that were interrupted
+     * by a crash are removed.
+     */
+    @PostConstruct
+    void ensureStagingIndex() {
+        try {
+            mongoDatabase.getCollection(stagingCollectionName()).createIndex(
+                    Indexes.ascending(UPLOADED_AT_FIELD),
+                    new IndexOptions().expireAfter(1L, TimeUnit.DAYS).name("uploadedAt_ttl"));
+        } catch (RuntimeException e) {
+            log.warn("Could not create TTL index for staged lookups: {}", e.getMessage());
+        }
     }
 
     public LookupDTO createLookup(CreateLookupDTO createLookupDTO) {
+        return createLookup(createLookupDTO, rows -> {
+        });
+    }
+
+    /**
+     * Creates a lookup, reporting the number of rows written so far after
+     * every ingest batch.
+     *
+     * @param progress receives the running row count; called on the ingesting
+     *                 thread
+     */
+    public LookupDTO createLookup(CreateLookupDTO createLookupDTO, IntConsumer progress) {
         if (createLookupDTO.getLookupName() == null || createLookupDTO.getLookupName().trim().isEmpty()) {
             throw new IllegalArgumentException("lookupName parameter is required and cannot be empty");
         }
@@ -63,38 +190,29 @@ public class LookupService {
             throw new IllegalArgumentException("description parameter is required and cannot be empty");
         }
 
-        List<Map<String, String>> lookupData = processCsvFileToData(createLookupDTO.getLookupFile());
-        // new fieldDescriptions with empty descriptions
-        Map<String, String> newfieldDescriptions = generateFieldDescMap(
-                new ArrayList<>(lookupData.get(0).keySet())
-        );
+        // Stream the CSV into MongoDB; new fieldDescriptions get empty descriptions
+        IngestedCsv ingested;
+        try {
+            ingested = ingestCsv(createLookupDTO.getLookupFile(), createLookupDTO.getLookupName(),
+                    createLookupDTO.getDescription(), null, normalizeKeyColumns(createLookupDTO.getKeyColumns()),
+                    metadata -> newRowSink(createLookupDTO.getLookupName(), metadata, storageMode), progress);
+        } finally {
+            lookupWritten(createLookupDTO.getLookupName());
+        }
 
-        // Create and return the lookup object
-        Lookup lookup = Lookup.builder()
-                .id(createLookupDTO.getLookupName())
+        // Return response (the rows are not echoed back, fetch them with getLookupByName)
+        return LookupDTO.builder().id(createLookupDTO.getLookupName())
                 .lookupName(createLookupDTO.getLookupName())
-                .data(lookupData)
                 .description(createLookupDTO.getDescription())
-                .fieldDescriptions(newfieldDescriptions)
-                .uploadedAt(new Date())
-                .recordCount(lookupData.size())
-                .build();
-
-        // Store in MongoDB
-        saveToMongoDB(lookup);
-
-        // Return response
-        return LookupDTO.builder().id(lookup.getId())
-                .lookupName(lookup.getLookupName())
-                .description(lookup.getDescription())
-                .data(lookup.getData())
-                .fieldDescriptions(lookup.getFieldDescriptions())
-                .uploadedAt(lookup.getUploadedAt())
-                .recordCount(lookup.getRecordCount())
+                .fieldDescriptions(ingested.fieldDescriptions())
+                .keyColumns(ingested.keyColumns())
+                .columnTypes(ingested.columnTypes())
+                .uploadedAt(ingested.uploadedAt())
+                .recordCount(ingested.recordCount())
                 .build();
     }
 
-    private List<Map<String, String>> processCsvFileToData(MultipartFile lookupFile) {
+    private void validateCsvFile(MultipartFile lookupFile) {
         // Validate file
         if (lookupFile == null || lookupFile.isEmpty()) {
             throw new InvalidFileException("file parameter is required and cannot be empty");
@@ -107,136 +225,550 @@ public class LookupService {
             !"text/csv".equals(contentType)) {
             throw new InvalidFileException("File must be a CSV file");
         }
+    }
 
-        try {
-            // Parse CSV to List of Maps
-            return parseCsvToJson(lookupFile);
+    /**
+     * Streams a CSV upload into MongoDB without holding the rows in memory.
+     *
+     * <p>
+     * Headers are cleaned once, then every {@link CSVRecord} is converted
+     * straight into a BSON {@link Document} and handed to a {@link RowSink} in
+     * batches of {@code lookups.ingest.batch-size} rows, so memory use is bounded
+     * by the batch size rather than the file size. The sink depends on
+     * {@code lookups.storage.mode}:
+     * <ul>
+     * <li>{@code EMBEDDED}: rows are appended to a staging document with
+     * {@code $push}/{@code $each}, which is then copied over the lookup with a
+     * server-side {@code $merge}.</li>
+     * <li>{@code CHUNKED}: rows are inserted into the lookup rows collection under
+     * a new upload ID, then the lookup document is pointed at that upload. The
+     * previous upload is retired and collected later by
+     * {@link LookupVersionService}.</li>
+     * <li>{@code COMPRESSED}: as {@code CHUNKED}, but each batch is stored as one
+     * compressed block, and the lookup document is flagged with
+     * {@code compressedRows}.</li>
+     * </ul>
+     * Either way readers never see a partially uploaded lookup, and the rows of an
+     * upload that fails are removed. The type of every column is inferred from
+     * the rows as they stream past and stored in {@code columnTypes}; chunked
+     * rows of typed columns are converted to native BSON values before the
+     * upload is published. A diff upload uses a {@link DiffRowSink}
+     * instead, which only sends the rows that changed.
+     * </p>
+     *
+     * @param lookupFile                the uploaded CSV file
+     * @param lookupName                the lookup to create or replace
+     * @param description               the lookup description
+     * @param existingFieldDescriptions descriptions to carry over for columns that
+     *                                  still exist, or {@code null} for a new lookup
+     * @param keyColumns                the columns to index for point reads; each
+     *                                  must be a column of the CSV
+     * @param sinkFactory               creates the sink for the rows from the
+     *                                  lookup metadata
+     * @param progress                  receives the number of rows handed to
+     *                                  the sink after every batch
+     * @return the record count, field descriptions, key columns, column types
+     *         and upload time of the lookup, and what a diff upload changed
+     */
+    private IngestedCsv ingestCsv(MultipartFile lookupFile, String lookupName, String description,
+            Map<String, String> existingFieldDescriptions, List<String> keyColumns,
+            Function<Document, RowSink> sinkFactory, IntConsumer progress) {
+        validateCsvFile(lookupFile);
 
-        } catch (InvalidFileException | CsvProcessingException e) {
-            // Re-throw dedicated exceptions
-            throw e;
-        } catch (Exception e) {
-            // Wrap unexpected exceptions
-            throw new CsvProcessingException("Failed to process CSV file: " + e.getMessage(), e);
-        }
-    }
+        Date uploadedAt = new Date();
+        RowSink sink = null;
 
-    private List<Map<String, String>> parseCsvToJson(MultipartFile file) {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8));
-            CSVParser csvParser = createCsvParser(reader)) {
+        try (LookupCsvParser.CsvRecords csvRecords = csvParser.open(lookupFile)) {
 
-            Map<String, Integer> headerMap = csvParser.getHeaderMap();
+            Map<String, Integer> headerMap = csvRecords.headerMap();
             validateHeaders(headerMap);
 
-            Map<String, String> cleanHeaderMap = buildCleanHeaderMap(headerMap);
-            List<Map<String, String>> records = parseRecords(csvParser, headerMap, cleanHeaderMap);
+            // Clean every header once; rows are then built by column position
+            String[] columnNames = new String[headerMap.size()];
+            int[] columnIndexes = new int[headerMap.size()];
+            int column = 0;
+            for (Map.Entry<String, Integer> headerEntry : headerMap.entrySet()) {
+                columnNames[column] = cleanHeader(headerEntry.getKey());
+                columnIndexes[column] = headerEntry.getValue();
+                column++;
+            }
+
+            Set<String> distinctColumnNames = new LinkedHashSet<>(Arrays.asList(columnNames));
+            List<String> unqueryableColumns = distinctColumnNames.stream()
+                    .filter(columnName -> !LookupRowService.isQueryableColumnName(columnName))
+                    .toList();
+            if (!unqueryableColumns.isEmpty()) {
+                throw new CsvProcessingException("Column names must not be empty, contain '.' or start with '$': "
+                        + String.join(", ", unqueryableColumns));
+            }
+            List<String> missingKeyColumns = keyColumns.stream()
+                    .filter(keyColumn -> !distinctColumnNames.contains(keyColumn))
+                    .toList();
+            if (!missingKeyColumns.isEmpty()) {
+                throw new CsvProcessingException(
+                        "Key columns not found in CSV header: " + String.join(", ", missingKeyColumns));
+            }
+
+            Map<String, String> fieldDescriptions = generateFieldDescMap(new ArrayList<>(distinctColumnNames));
+            if (existingFieldDescriptions != null) {
+                fieldDescriptions = mergeFieldDescriptions(existingFieldDescriptions, fieldDescriptions);
+            }
+
+            Document metadata = new Document(LOOKUP_NAME_FIELD, lookupName)
+                    .append(UPLOADED_AT_FIELD, uploadedAt)
+                    .append(DESCRIPTION_FIELD, description)
+                    .append(FIELD_DESCRIPTIONS_FIELD, fieldDescriptions)
+                    .append(KEY_COLUMNS_FIELD, keyColumns);
+            sink = sinkFactory.apply(metadata);
+
+            LookupSchemaInference schema = new LookupSchemaInference();
+            int batchSize = Math.max(1, ingestBatchSize);
+            List<Document> batch = new ArrayList<>(batchSize);
+            int recordCount = 0;
+            for (CSVRecord csvRecord : csvRecords) {
+                Document row = new Document();
+                for (int i = 0; i < columnNames.length; i++) {
+                    row.append(columnNames[i], extractValue(csvRecord, columnIndexes[i]));
+                }
+                if (schemaInferenceEnabled) {
+                    schema.observe(row);
+                }
+                batch.add(row);
+                recordCount++;
+
+                if (batch.size() >= batchSize) {
+                    sink.append(batch, recordCount - batch.size());
+                    progress.accept(recordCount);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                sink.append(batch, recordCount - batch.size());
+                progress.accept(recordCount);
+            }
+
+            if (recordCount == 0) {
+                throw new CsvProcessingException("CSV file contains no data rows");
+            }
+
+            Map<String, LookupColumnType> columnTypes = new LinkedHashMap<>();
+            distinctColumnNames.forEach(columnName -> columnTypes.put(columnName, LookupColumnType.STRING));
+            columnTypes.putAll(schema.columnTypes());
+            metadata.append(COLUMN_TYPES_FIELD, columnTypeNames(columnTypes));
+            sink.publish(recordCount);
 
-            validateRecords(records);
-            return records;
+            log.info("Ingested {} rows into lookup {}", recordCount, lookupName);
+            return new IngestedCsv(recordCount, fieldDescriptions, keyColumns, columnTypes, uploadedAt, sink.diff());
 
-        } catch (CsvProcessingException e) {
+        } catch (CsvProcessingException | ConcurrentOperationException | MongoException e) {
             throw e;
         } catch (Exception e) {
             throw new CsvProcessingException("Error parsing CSV file: " + e.getMessage(), e);
+        } finally {
+            if (sink != null) {
+                sink.close();
+            }
         }
     }
 
-    private CSVParser createCsvParser(BufferedReader reader) throws IOException {
-        return new CSVParser(reader, CSVFormat.DEFAULT
-                .builder()
-                .setHeader()
-                .setSkipHeaderRecord(true)
-                .setTrim(true)
-                .build());
+    /**
+     * Destination of the rows of one CSV upload.
+     */
+    private interface RowSink {
+        /**
+         * Writes a batch of rows; {@code firstRowNumber} is the zero-based
+         * position of the first row in the file.
+         */
+        void append(List<Document> rows, int firstRowNumber);
+
+        /**
+         * Makes the upload visible to readers.
+         */
+        void publish(int recordCount);
+
+        /**
+         * Removes whatever an unpublished upload left behind.
+         */
+        void close();
+
+        /**
+         * @return what a published diff upload changed, or {@code null}
+         */
+        default LookupDiffDTO diff() {
+            return null;
+        }
     }
 
-    private void validateHeaders(Map<String, Integer> headerMap) {
-        if (headerMap.isEmpty()) {
-            throw new CsvProcessingException("CSV file must contain headers");
-        }
+    private RowSink newRowSink(String lookupName, Document metadata, LookupStorageMode storage) {
+        return switch (storage) {
+            case EMBEDDED -> new EmbeddedRowSink(lookupName, metadata);
+            case CHUNKED -> new ChunkedRowSink(lookupName, metadata, false);
+            case COMPRESSED -> new ChunkedRowSink(lookupName, metadata, true);
+        };
     }
 
-    private Map<String, String> buildCleanHeaderMap(Map<String, Integer> headerMap) {
-        Map<String, String> cleanHeaderMap = new HashMap<>();
-        for (String header : headerMap.keySet()) {
-            String cleanHeader = cleanHeader(header);
-            cleanHeaderMap.put(header, cleanHeader);
+    /**
+     * Builds the rows into the {@code data} array of a staging document and
+     * copies it over the lookup with {@code $merge}. The rows are pushed as
+     * text and their typed columns converted on the server before the copy.
+     */
+    private final class EmbeddedRowSink implements RowSink {
+        private final MongoCollection<Document> staging = mongoDatabase.getCollection(stagingCollectionName());
+        private final String uploadId = UUID.randomUUID().toString();
+        private final String lookupName;
+        private final Document metadata;
+
+        private EmbeddedRowSink(String lookupName, Document metadata) {
+            this.lookupName = lookupName;
+            this.metadata = metadata;
+            staging.insertOne(new Document(ID_FIELD, uploadId)
+                    .append(LOOKUP_NAME_FIELD, lookupName)
+                    .append(DATA_FIELD, new ArrayList<>())
+                    .append(UPLOADED_AT_FIELD, metadata.get(UPLOADED_AT_FIELD))
+                    .append(RECORD_COUNT_FIELD, 0)
+                    .append(DESCRIPTION_FIELD, metadata.get(DESCRIPTION_FIELD))
+                    .append(FIELD_DESCRIPTIONS_FIELD, metadata.get(FIELD_DESCRIPTIONS_FIELD))
+                    .append(KEY_COLUMNS_FIELD, metadata.get(KEY_COLUMNS_FIELD)));
+        }
+
+        @Override
+        public void append(List<Document> rows, int firstRowNumber) {
+            staging.updateOne(Filters.eq(ID_FIELD, uploadId), Updates.pushEach(DATA_FIELD, rows));
+        }
+
+        @Override
+        public void publish(int recordCount) {
+            staging.updateOne(Filters.eq(ID_FIELD, uploadId), Updates.combine(
+                    Updates.set(RECORD_COUNT_FIELD, recordCount),
+                    Updates.set(COLUMN_TYPES_FIELD, metadata.get(COLUMN_TYPES_FIELD))));
+            Map<String, LookupColumnType> typed = typedColumns(columnTypesOf(metadata));
+            if (!typed.isEmpty()) {
+                // Typed columns become native values in every row, as in lookupRows
+                Document typedData = new Document("$map", new Document("input", "$" + DATA_FIELD)
+                        .append("as", "row")
+                        .append("in", LookupRowService.typedRow("$$row", typed)));
+                staging.updateOne(Filters.eq(ID_FIELD, uploadId),
+                        List.of(new Document("$set", new Document(DATA_FIELD, typedData))));
+            }
+            String previousUploadId = findRowsUploadId(lookupName);
+            publishStagedLookup(staging, uploadId, lookupName);
+            // Rows of an earlier chunked upload are no longer referenced
+            runQuietly(() -> lookupVersionService.retireVersions(lookupName, previousUploadId), lookupName);
+        }
+
+        @Override
+        public void close() {
+            discardStagedLookup(staging, uploadId);
         }
-        return cleanHeaderMap;
     }
 
-    private String cleanHeader(String header) {
-        return header.replaceAll("^\uFEFF", "") 
-                    .replaceAll("[\u200B-\u200D\uFEFF]", "")
-                    .trim();
+    /**
+     * Inserts the rows into the lookup rows collection as a new version and
+     * points the lookup document at them once they are all written. Compressed
+     * rows are inserted as blocks instead, and stay text.
+     */
+    private final class ChunkedRowSink implements RowSink {
+        private final String uploadId = UUID.randomUUID().toString();
+        private final String lookupName;
+        private final Document metadata;
+        private final List<String> keyColumns;
+        private final boolean compressed;
+        private boolean published;
+
+        private ChunkedRowSink(String lookupName, Document metadata, boolean compressed) {
+            this.lookupName = lookupName;
+            this.metadata = metadata;
+            this.keyColumns = keyColumnsOf(metadata);
+            this.compressed = compressed;
+            lookupVersionService.startVersion(lookupName, uploadId);
+        }
+
+        @Override
+        public void append(List<Document> rows, int firstRowNumber) {
+            if (compressed) {
+                lookupRowService.insertBlock(lookupName, uploadId, firstRowNumber, rows);
+            } else {
+                lookupRowService.insertRows(lookupName, uploadId, firstRowNumber, rows, keyColumns);
+            }
+        }
+
+        @Override
+        public void publish(int recordCount) {
+            if (!compressed) {
+                // Every row was written as text
+                lookupRowService.applyColumnTypes(lookupName, uploadId, typedColumns(columnTypesOf(metadata)),
+                        null);
+            }
+
+            List<Bson> updates = new ArrayList<>();
+            metadata.forEach((field, value) -> updates.add(Updates.set(field, value)));
+            updates.add(Updates.set(RECORD_COUNT_FIELD, recordCount));
+            updates.add(Updates.set(ROWS_UPLOAD_ID_FIELD, uploadId));
+            updates.add(compressed
+                    ? Updates.set(COMPRESSED_ROWS_FIELD, true)
+                    : Updates.unset(COMPRESSED_ROWS_FIELD));
+            updates.add(Updates.unset(DATA_FIELD));
+            // The pointer swap: readers resolve either the previous upload or this one
+            Document previous = mongoDatabase.getCollection(collectionName).findOneAndUpdate(
+                    Filters.eq(ID_FIELD, lookupName),
+                    Updates.combine(updates),
+                    new FindOneAndUpdateOptions()
+                            .upsert(true)
+                            .projection(Projections.include(ROWS_UPLOAD_ID_FIELD))
+                            .returnDocument(ReturnDocument.BEFORE));
+            published = true;
+            String previousUploadId = previous != null ? previous.getString(ROWS_UPLOAD_ID_FIELD) : null;
+            runQuietly(() -> lookupVersionService.activateVersion(lookupName, uploadId, recordCount,
+                    previousUploadId), lookupName);
+        }
+
+        @Override
+        public void close() {
+            if (!published) {
+                runQuietly(() -> lookupVersionService.discardVersion(lookupName, uploadId), lookupName);
+            }
+        }
     }
 
-    private List<Map<String, String>> parseRecords(CSVParser csvParser, 
-                                                    Map<String, Integer> headerMap, 
-                                                    Map<String, String> cleanHeaderMap) {
-        List<Map<String, String>> records = new ArrayList<>();
-        
-        for (CSVRecord csvRecord : csvParser) {
-            Map<String, String> parsedRecord = parseRecord(csvRecord, headerMap, cleanHeaderMap);
-            records.add(parsedRecord);
-        }
-        
-        return records;
-    }
-
-    private Map<String, String> parseRecord(CSVRecord csvRecord, 
-                                        Map<String, Integer> headerMap, 
-                                        Map<String, String> cleanHeaderMap) {
-        Map<String, String> headerRecord = new HashMap<>();
-        
-        for (Map.Entry<String, Integer> headerEntry : headerMap.entrySet()) {
-            String originalHeader = headerEntry.getKey();
-            String cleanHeader = cleanHeaderMap.get(originalHeader);
-            int index = headerEntry.getValue();
-            
-            String value = extractValue(csvRecord, index);
-            headerRecord.put(cleanHeader, value);
+    /**
+     * Compares the uploaded rows with the rows of the current upload by a key
+     * column and publishes the result as a new upload.
+     *
+     * <p>
+     * Only the row number, key and hash of the stored rows are read. The new
+     * upload is started when the sink is created, and the changed rows of each
+     * parsed batch are inserted into it straight away, so only their row
+     * numbers are held in memory; a file that fails to parse leaves an
+     * unpublished upload that is discarded. On publish the unchanged rows are
+     * copied into the new upload on the server and the lookup is switched to it
+     * with the same pointer swap as a full upload, so readers never see a
+     * partially applied diff.
+     * </p>
+     *
+     * <p>
+     * Rows keep the position of the row they replace and new rows are appended
+     * after the existing ones, so the stored order follows the first upload
+     * rather than the order of the diff file.
+     * </p>
+     */
+    private final class DiffRowSink implements RowSink {
+        private final String uploadId = UUID.randomUUID().toString();
+        private final String lookupName;
+        private final Document metadata;
+        private final String previousUploadId;
+        private final String keyColumn;
+        private final List<String> keyColumns;
+        private final List<String> previousKeyColumns;
+        private final Map<String, LookupColumnType> previousColumnTypes;
+        private final Map<String, LookupRowService.RowHash> stored = new HashMap<>();
+        private final Set<String> seen = new HashSet<>();
+        private final List<Integer> inserted = new ArrayList<>();
+        private final List<Integer> updated = new ArrayList<>();
+        private final List<Integer> deleted = new ArrayList<>();
+        private int nextRowNumber;
+        private int unchanged;
+        private boolean published;
+        private LookupDiffDTO diff;
+
+        private DiffRowSink(String lookupName, Document metadata, String previousUploadId, String keyColumn,
+                List<String> previousKeyColumns, Map<String, LookupColumnType> previousColumnTypes) {
+            this.lookupName = lookupName;
+            this.metadata = metadata;
+            this.previousUploadId = previousUploadId;
+            this.keyColumn = keyColumn;
+            this.keyColumns = keyColumnsOf(metadata);
+            this.previousKeyColumns = previousKeyColumns;
+            this.previousColumnTypes = previousColumnTypes;
+            if (!(metadata.get(FIELD_DESCRIPTIONS_FIELD) instanceof Map<?, ?> columns)
+                    || !columns.containsKey(keyColumn)) {
+                throw new CsvProcessingException("Diff key column not found in CSV header: " + keyColumn);
+            }
+
+            int lastRowNumber = -1;
+            try (Stream<LookupRowService.RowHash> rows = lookupRowService.streamRowHashes(lookupName,
+                    previousUploadId, keyColumn)) {
+                Iterator<LookupRowService.RowHash> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    LookupRowService.RowHash row = iterator.next();
+                    lastRowNumber = Math.max(lastRowNumber, row.rowNumber());
+                    if (stored.putIfAbsent(row.key(), row) != null) {
+                        // Stored rows sharing a key collapse into the first one
+                        deleted.add(row.rowNumber());
+                    }
+                }
+            }
+            nextRowNumber = lastRowNumber + 1;
+            lookupVersionService.startVersion(lookupName, uploadId);
+        }
+
+        @Override
+        public void append(List<Document> rows, int firstRowNumber) {
+            Map<Integer, Document> changed = new LinkedHashMap<>();
+            for (Document row : rows) {
+                String key = row.getString(keyColumn);
+                if (!seen.add(key)) {
+                    throw new CsvProcessingException(String.format(
+                            "Duplicate value '%s' in diff key column '%s'", key, keyColumn));
+                }
+                LookupRowService.RowHash existing = stored.remove(key);
+                if (existing == null) {
+                    inserted.add(nextRowNumber);
+                    changed.put(nextRowNumber++, row);
+                } else if (!Objects.equals(existing.hash(), LookupRowService.rowHash(row))) {
+                    updated.add(existing.rowNumber());
+                    changed.put(existing.rowNumber(), row);
+                } else {
+                    unchanged++;
+                }
+            }
+            if (!changed.isEmpty()) {
+                lookupRowService.insertRows(lookupName, uploadId, changed, keyColumns);
+            }
+        }
+
+        @Override
+        public void publish(int recordCount) {
+            // Stored keys missing from the file
+            stored.values().forEach(row -> deleted.add(row.rowNumber()));
+            Set<Integer> skipped = new HashSet<>(deleted);
+            skipped.addAll(updated);
+            lookupRowService.copyRows(lookupName, previousUploadId, uploadId, skipped);
+            List<Integer> written = new ArrayList<>(updated);
+            written.addAll(inserted);
+            if (!keyColumns.equals(previousKeyColumns)) {
+                // The copied rows still hold the keys of the previous key columns
+                lookupRowService.rebuildKeys(lookupName, uploadId, keyColumns);
+            }
+            applyColumnTypes(written);
+
+            List<Bson> updates = new ArrayList<>();
+            metadata.forEach((field, value) -> updates.add(Updates.set(field, value)));
+            updates.add(Updates.set(RECORD_COUNT_FIELD, recordCount));
+            updates.add(Updates.set(ROWS_UPLOAD_ID_FIELD, uploadId));
+            // The pointer swap, only if no other upload was published since the rows were compared
+            UpdateResult result = mongoDatabase.getCollection(collectionName).updateOne(
+                    Filters.and(
+                            Filters.eq(ID_FIELD, lookupName),
+                            Filters.eq(ROWS_UPLOAD_ID_FIELD, previousUploadId)),
+                    Updates.combine(updates));
+            if (result.getMatchedCount() == 0) {
+                throw new ConcurrentOperationException(String.format(
+                        "Lookup '%s' was replaced or deleted while the diff was applied; retry the upload",
+                        lookupName));
+            }
+            published = true;
+            runQuietly(() -> lookupVersionService.activateVersion(lookupName, uploadId, recordCount,
+                    previousUploadId), lookupName);
+
+            diff = LookupDiffDTO.builder()
+                    .keyColumn(keyColumn)
+                    .inserted(inserted.size())
+                    .updated(updated.size())
+                    .deleted(deleted.size())
+                    .unchanged(unchanged)
+                    .build();
+        }
+
+        /**
+         * Converts the rows of the new upload to the new column types. Columns
+         * whose type changed are converted in every row, other typed columns
+         * only in the rows written as text by this diff; the copied rows
+         * already hold them typed.
+         */
+        private void applyColumnTypes(Collection<Integer> writtenRowNumbers) {
+            Map<String, LookupColumnType> changed = new LinkedHashMap<>();
+            Map<String, LookupColumnType> typed = new LinkedHashMap<>();
+            columnTypesOf(metadata).forEach((column, type) -> {
+                if (type != previousColumnTypes.getOrDefault(column, LookupColumnType.STRING)) {
+                    changed.put(column, type);
+                } else if (type != LookupColumnType.STRING) {
+                    typed.put(column, type);
+                }
+            });
+            lookupRowService.applyColumnTypes(lookupName, uploadId, changed, null);
+            lookupRowService.applyColumnTypes(lookupName, uploadId, typed, writtenRowNumbers);
+        }
+
+        @Override
+        public void close() {
+            if (!published) {
+                runQuietly(() -> lookupVersionService.discardVersion(lookupName, uploadId), lookupName);
+            }
+        }
+
+        @Override
+        public LookupDiffDTO diff() {
+            return diff;
         }
-        
-        return headerRecord;
     }
 
-    private String extractValue(CSVRecord csvRecord, int index) {
-        if (index < csvRecord.size()) {
-            String value = csvRecord.get(index);
-            return value != null ? value.trim() : "";
+    /**
+     * Runs version bookkeeping that must not fail a request whose data is
+     * already consistent. Superseded or unpublished rows are never read, and
+     * uploads left behind are collected by {@link LookupVersionService}.
+     */
+    private void runQuietly(Runnable action, String lookupName) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            log.warn("Failed to update the versions of lookup {}: {}", lookupName, e.getMessage());
         }
-        return "";
     }
 
-    private void validateRecords(List<Map<String, String>> records) {
-        if (records.isEmpty()) {
-            throw new CsvProcessingException("CSV file contains no data rows");
+    private String findRowsUploadId(String lookupName) {
+        Document doc = mongoDatabase.getCollection(collectionName)
+                .find(Filters.eq(ID_FIELD, lookupName))
+                .projection(Projections.include(ROWS_UPLOAD_ID_FIELD))
+                .first();
+        return doc != null ? doc.getString(ROWS_UPLOAD_ID_FIELD) : null;
+    }
+
+    /**
+     * Replaces (or inserts) the lookup with the staged document, entirely on the
+     * server.
+     */
+    private void publishStagedLookup(MongoCollection<Document> staging, String uploadId, String lookupName) {
+        staging.aggregate(List.of(
+                Aggregates.match(Filters.eq(ID_FIELD, uploadId)),
+                Aggregates.addFields(new Field<>(ID_FIELD, new Document("$literal", lookupName))),
+                Aggregates.merge(collectionName, new MergeOptions()
+                        .uniqueIdentifier(ID_FIELD)
+                        .whenMatched(MergeOptions.WhenMatched.REPLACE)
+                        .whenNotMatched(MergeOptions.WhenNotMatched.INSERT))))
+                .toCollection();
+    }
+
+    private void discardStagedLookup(MongoCollection<Document> staging, String uploadId) {
+        try {
+            staging.deleteOne(Filters.eq(ID_FIELD, uploadId));
+        } catch (RuntimeException e) {
+            // Orphaned staging documents expire through the TTL index
+            log.warn("Failed to remove staged lookup upload {}: {}", uploadId, e.getMessage());
         }
     }
 
-    private void saveToMongoDB(Lookup lookup) {
-        MongoCollection<Document> collection = mongoDatabase.getCollection(collectionName);
+    private String stagingCollectionName() {
+        return collectionName + STAGING_COLLECTION_SUFFIX;
+    }
 
-        // Convert Lookup to BSON Document
-        Map<String, Object> lookupMap = new HashMap<>();
-        lookupMap.put(ID_FIELD, lookup.getId());
-        lookupMap.put(LOOKUP_NAME_FIELD, lookup.getLookupName());
-        lookupMap.put(DATA_FIELD, lookup.getData());
-        lookupMap.put(UPLOADED_AT_FIELD, lookup.getUploadedAt());
-        lookupMap.put(RECORD_COUNT_FIELD, lookup.getRecordCount());
-        lookupMap.put(DESCRIPTION_FIELD, lookup.getDescription());
-        lookupMap.put(FIELD_DESCRIPTIONS_FIELD, lookup.getFieldDescriptions());
+    private void validateHeaders(Map<String, Integer> headerMap) {
+        if (headerMap.isEmpty()) {
+            throw new CsvProcessingException("CSV file must contain headers");
+        }
+    }
 
-        Document document = new Document(lookupMap);
+    private String cleanHeader(String header) {
+        return header.replaceAll("^\uFEFF", "") 
+                    .replaceAll("[\u200B-\u200D\uFEFF]", "")
+                    .trim();
+    }
 
-        // Use replaceOne with upsert to update if exists or insert if not
-        ReplaceOptions options = new ReplaceOptions().upsert(true);
-        collection.replaceOne(
-            Filters.eq(ID_FIELD, lookup.getId()),
-            document,
-            options
-        );
+    private String extractValue(CSVRecord csvRecord, int index) {
+        if (index < csvRecord.size()) {
+            String value = csvRecord.get(index);
+            return value != null ? value.trim() : "";
+        }
+        return "";
     }
 
     private Map<String, String> generateFieldDescMap(List<String> fieldNames) {
@@ -247,38 +779,573 @@ public class LookupService {
         return fieldDescriptions;
     }
 
+    /**
+     * Lists all lookups without their rows or field descriptions.
+     *
+     * <p>
+     * Only the index fields are projected, so the cost does not depend on the
+     * size of the lookups. The result is cached until the next write to any
+     * lookup, on this instance or, through {@link LookupChangedEvent}, on
+     * another, or until {@code lookups.index-cache.ttl-ms} has passed.
+     * </p>
+     *
+     * @return an unmodifiable list of lookup summaries
+     */
     public List<LookupWODataDTO> getAllLookups() {
+        CachedLookupIndex cached = cachedLookupIndex;
+        // Read the version before loading, so a load that races with a write is never cached as current
+        long version = lookupIndexVersion.get();
+        if (cached != null && cached.version() == version
+                && System.nanoTime() - cached.loadedAtNanos() < TimeUnit.MILLISECONDS.toNanos(indexCacheTtlMs)) {
+            return cached.lookups();
+        }
+
+        List<LookupWODataDTO> lookups = List.copyOf(loadLookupIndex());
+        if (indexCacheTtlMs > 0) {
+            cachedLookupIndex = new CachedLookupIndex(lookups, version, System.nanoTime());
+        }
+        return lookups;
+    }
+
+    private List<LookupWODataDTO> loadLookupIndex() {
         MongoCollection<Document> collection = mongoDatabase.getCollection(collectionName);
 
         List<LookupWODataDTO> lookups = new ArrayList<>();
-
-        // Fetch all documents and convert to Lookup objects
-        for (Document doc : collection.find()) {
-            Lookup lookup = documentToLookup(doc);
+        for (Document doc : collection.find().projection(LOOKUP_INDEX_PROJECTION)) {
+            Integer recordCount = doc.getInteger(RECORD_COUNT_FIELD);
             lookups.add(LookupWODataDTO.builder()
-                    .id(lookup.getId())
-                    .lookupName(lookup.getLookupName())
-                    .uploadedAt(lookup.getUploadedAt())
-                    .recordCount(lookup.getRecordCount())
-                    .description(lookup.getDescription())
+                    .id(doc.getString(ID_FIELD))
+                    .lookupName(doc.getString(LOOKUP_NAME_FIELD))
+                    .uploadedAt(doc.getDate(UPLOADED_AT_FIELD))
+                    .recordCount(recordCount != null ? recordCount : 0)
+                    .description(doc.getString(DESCRIPTION_FIELD))
                     .build());
         }
-
         return lookups;
     }
 
+    private void invalidateLookupIndex() {
+        lookupIndexVersion.incrementAndGet();
+        cachedLookupIndex = null;
+    }
+
+    /**
+     * Drops what this service caches about a lookup written through it and
+     * tells the other caches of this instance right away, without waiting for
+     * {@link LookupChangeListener}.
+     */
+    private void lookupWritten(String lookupName) {
+        invalidateLookupIndex();
+        keyIndexes.remove(lookupName);
+        eventPublisher.publishEvent(new LookupChangedEvent(lookupName));
+    }
+
+    /**
+     * Drops what is cached about a lookup that changed, possibly on another
+     * instance.
+     */
+    @EventListener
+    public void onLookupChanged(LookupChangedEvent event) {
+        invalidateLookupIndex();
+        keyIndexes.keySet().removeIf(event::affects);
+    }
+
+    /**
+     * Finds a lookup with all of its rows.
+     *
+     * @param lookupName the lookup name
+     * @return the lookup and its rows in upload order
+     * @throws NotFoundException if the lookup does not exist
+     */
     public Lookup findLookupByName(String lookupName) {
+        return findLookupByName(lookupName, 0);
+    }
+
+    /**
+     * Finds a lookup with at most {@code maxRows} of its rows. Only the rows that
+     * are returned are read from the database.
+     *
+     * @param lookupName the lookup name
+     * @param maxRows    the maximum number of rows to load, or {@code 0} for all
+     * @return the lookup and its first rows in upload order; the record count is
+     *         the total number of rows. The rows are read-only views over a
+     *         {@link LookupTable}, see {@link LookupTable#of}.
+     * @throws NotFoundException if the lookup does not exist
+     */
+    public Lookup findLookupByName(String lookupName, int maxRows) {
+        Document metadata = findMetadataDocument(lookupName);
+        Lookup lookup = documentToLookup(metadata);
+        lookup.setData(loadTable(metadata, maxRows).rows());
+        return lookup;
+    }
+
+    /**
+     * Loads the rows of a lookup into a dictionary-encoded {@link LookupTable}
+     * without materialising a map per row.
+     *
+     * @param lookupName the lookup name
+     * @param maxRows    the maximum number of rows to load, or {@code 0} for all
+     * @return the rows of the lookup in upload order
+     * @throws NotFoundException if the lookup does not exist
+     */
+    public LookupTable findLookupTable(String lookupName, int maxRows) {
+        return loadTable(findMetadataDocument(lookupName), maxRows);
+    }
+
+    private LookupTable loadTable(Document metadata, int maxRows) {
+        try (Stream<Map<String, String>> rows = streamRows(metadata, maxRows)) {
+            return LookupTable.from(rows);
+        }
+    }
+
+    /**
+     * Finds a lookup without loading its rows.
+     *
+     * @param lookupName the lookup name
+     * @return the lookup with an empty {@code data} list
+     * @throws NotFoundException if the lookup does not exist
+     */
+    public Lookup findLookupMetadataByName(String lookupName) {
+        return documentToLookup(findMetadataDocument(lookupName));
+    }
+
+    /**
+     * Streams the rows of a lookup in upload order. For a chunked lookup the rows
+     * are read from a cursor as the stream is consumed, so the stream must be
+     * closed.
+     *
+     * @param lookupName the lookup name
+     * @param limit      the maximum number of rows to read, or {@code 0} for all
+     * @return the rows of the lookup
+     * @throws NotFoundException if the lookup does not exist
+     */
+    public Stream<Map<String, String>> streamRows(String lookupName, int limit) {
+        return streamRows(findMetadataDocument(lookupName), limit);
+    }
+
+    private Stream<Map<String, String>> streamRows(Document metadata, int limit) {
+        String lookupName = metadata.getString(ID_FIELD);
+        String rowsUploadId = rowsUploadIdOf(metadata);
+        if (rowsUploadId != null) {
+            return streamUploadRows(metadata, rowsUploadId, limit);
+        }
+
+        // Rows are embedded in the lookup document
+        List<Map<String, String>> data = loadEmbeddedRows(lookupName);
+        return limit > 0 ? data.stream().limit(limit) : data.stream();
+    }
+
+    /**
+     * Streams the rows of one upload of a lookup, from blocks if the lookup
+     * keeps its rows compressed.
+     */
+    private Stream<Map<String, String>> streamUploadRows(Document metadata, String rowsUploadId, int limit) {
+        String lookupName = metadata.getString(ID_FIELD);
+        return isCompressed(metadata)
+                ? lookupRowService.streamBlockRows(lookupName, rowsUploadId, limit)
+                : lookupRowService.streamRows(lookupName, rowsUploadId, limit);
+    }
+
+    private static boolean isCompressed(Document metadata) {
+        return Boolean.TRUE.equals(metadata.getBoolean(COMPRESSED_ROWS_FIELD));
+    }
+
+    /**
+     * @return the upload holding the rows of a lookup, or {@code null} if the
+     *         rows are embedded in the lookup document
+     */
+    private static String rowsUploadIdOf(Document metadata) {
+        return metadata.getString(ROWS_UPLOAD_ID_FIELD);
+    }
+
+    /**
+     * @return how the rows of an existing lookup are stored
+     */
+    private static LookupStorageMode storageOf(Document metadata) {
+        if (rowsUploadIdOf(metadata) == null) {
+            return LookupStorageMode.EMBEDDED;
+        }
+        return isCompressed(metadata) ? LookupStorageMode.COMPRESSED : LookupStorageMode.CHUNKED;
+    }
+
+    /**
+     * Reads one page of the rows of a lookup.
+     *
+     * <p>
+     * Rows can be selected with equality, prefix (text columns only) and inclusive range filters on
+     * columns, and restricted to some columns. Equality and range values are
+     * compared as the inferred type of their column, so ranges over integer,
+     * decimal and date columns are numeric and chronological. Pages are addressed either by {@code offset}
+     * or by the {@code nextCursor} of the previous page. For chunked lookups a
+     * cursor resumes after the last row number through the row index, so every
+     * page costs the same however deep it is; for lookups whose rows are still
+     * embedded the page is cut out on the server with {@code $filter} and
+     * {@code $slice}, so only the page is sent over the wire.
+     * </p>
+     *
+     * @param lookupName the lookup name
+     * @param query      paging, filters and column selection
+     * @return the requested page and the cursor of the next one
+     * @throws NotFoundException        if the lookup does not exist
+     * @throws IllegalArgumentException if the paging parameters, filters,
+     *                                  columns or cursor are invalid, or a filter
+     *                                  value is not of its column's type
+     */
+    public LookupRowsPageDTO getLookupRows(String lookupName, LookupRowsQueryDTO query) {
+        int limit = query.getLimit() != null ? query.getLimit() : defaultRowsPageSize;
+        if (limit < 1 || limit > maxRowsPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxRowsPageSize);
+        }
+        boolean hasCursor = query.getCursor() != null && !query.getCursor().isBlank();
+        if (hasCursor && query.getOffset() != null) {
+            throw new IllegalArgumentException("Use either offset or cursor, not both");
+        }
+        int offset = query.getOffset() != null ? query.getOffset() : 0;
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset cannot be negative");
+        }
+
+        Map<String, String> exact = parseColumnFilters(query.getEq(), "eq");
+        Map<String, String> prefixes = parseColumnFilters(query.getPrefix(), "prefix");
+        Map<String, String> from = parseColumnFilters(query.getFrom(), "from");
+        Map<String, String> to = parseColumnFilters(query.getTo(), "to");
+        List<String> columns = query.getColumns() == null ? null : query.getColumns().stream()
+                .map(String::trim)
+                .filter(column -> !column.isEmpty())
+                .distinct()
+                .toList();
+
+        Document metadata = findMetadataDocument(lookupName);
+        LookupRowFilter filter = new LookupRowFilter(exact, prefixes, from, to, columns, columnTypesOf(metadata));
+        validateColumns(lookupName, metadata, filter);
+
+        List<Map<String, String>> rows;
+        String nextCursor = null;
+        Integer recordCount = metadata.getInteger(RECORD_COUNT_FIELD);
+        String rowsUploadId = rowsUploadIdOf(metadata);
+        if (rowsUploadId != null) {
+            int afterRowNumber = -1;
+            if (hasCursor) {
+                RowCursor cursor = decodeRowCursor(query.getCursor());
+                if (!rowsUploadId.equals(cursor.uploadId())) {
+                    // Keep paging through the upload the cursor started on while it is retained
+                    LookupVersion version = findReadableVersion(lookupName, cursor.uploadId());
+                    rowsUploadId = version.uploadId();
+                    recordCount = version.recordCount();
+                }
+                afterRowNumber = cursor.rowNumber();
+            }
+            List<LookupRowService.Row> page = isCompressed(metadata)
+                    ? lookupRowService.findBlockRows(lookupName, rowsUploadId, filter, afterRowNumber,
+                            hasCursor ? 0 : offset, limit + 1)
+                    : lookupRowService.findRows(lookupName, rowsUploadId, filter, afterRowNumber,
+                            hasCursor ? 0 : offset, limit + 1);
+            if (page.size() > limit) {
+                page = page.subList(0, limit);
+                nextCursor = encodeCursor(ROW_CURSOR_PREFIX + rowsUploadId + ":" + page.get(limit - 1).rowNumber());
+            }
+            rows = page.stream().map(LookupRowService.Row::fields).toList();
+        } else {
+            int start = hasCursor ? decodeOffsetCursor(query.getCursor()) : offset;
+            rows = findEmbeddedRows(lookupName, filter, start, limit + 1);
+            if (rows.size() > limit) {
+                rows = rows.subList(0, limit);
+                nextCursor = encodeCursor(OFFSET_CURSOR_PREFIX + (start + limit));
+            }
+        }
+
+        return LookupRowsPageDTO.builder()
+                .lookupName(lookupName)
+                .recordCount(recordCount != null ? recordCount : 0)
+                .offset(hasCursor ? null : offset)
+                .limit(limit)
+                .rows(rows)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Parses {@code column:value} filters. Only the first colon separates the
+     * column from the value.
+     */
+    private Map<String, String> parseColumnFilters(List<String> filters, String parameterName) {
+        Map<String, String> parsed = new LinkedHashMap<>();
+        if (filters == null) {
+            return parsed;
+        }
+        for (String filter : filters) {
+            int separator = filter.indexOf(':');
+            String column = separator > 0 ? filter.substring(0, separator).trim() : "";
+            if (column.isEmpty()) {
+                throw new IllegalArgumentException(String.format(
+                        "Invalid %s filter '%s', expected column:value", parameterName, filter));
+            }
+            if (parsed.put(column, filter.substring(separator + 1)) != null) {
+                throw new IllegalArgumentException(String.format(
+                        "Duplicate %s filter for column '%s'", parameterName, column));
+            }
+        }
+        return parsed;
+    }
+
+    private void validateColumns(String lookupName, Document metadata, LookupRowFilter filter) {
+        // A text prefix of a typed value cannot be matched through an index; ranges can
+        List<String> typedPrefixes = filter.prefixes().keySet().stream()
+                .filter(column -> filter.typeOf(column) != LookupColumnType.STRING)
+                .sorted()
+                .toList();
+        if (!typedPrefixes.isEmpty()) {
+            throw new IllegalArgumentException(String.format(
+                    "Prefix filters only apply to text columns; use from/to on: %s", String.join(", ", typedPrefixes)));
+        }
+        if (!(metadata.get(FIELD_DESCRIPTIONS_FIELD) instanceof Map<?, ?> knownColumns)) {
+            return;
+        }
+        Set<String> unknown = new TreeSet<>();
+        filter.columns().stream().filter(column -> !knownColumns.containsKey(column)).forEach(unknown::add);
+        filter.exact().keySet().stream().filter(column -> !knownColumns.containsKey(column)).forEach(unknown::add);
+        filter.prefixes().keySet().stream().filter(column -> !knownColumns.containsKey(column)).forEach(unknown::add);
+        filter.from().keySet().stream().filter(column -> !knownColumns.containsKey(column)).forEach(unknown::add);
+        filter.to().keySet().stream().filter(column -> !knownColumns.containsKey(column)).forEach(unknown::add);
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException(String.format("Unknown columns for lookup '%s': %s",
+                    lookupName, String.join(", ", unknown)));
+        }
+    }
+
+    /**
+     * Cuts one page of matching rows out of the embedded {@code data} array on
+     * the server.
+     */
+    private List<Map<String, String>> findEmbeddedRows(String lookupName, LookupRowFilter filter, int skip,
+            int limit) {
+        List<Document> conditions = new ArrayList<>();
+        filter.exact().forEach((column, value) -> conditions.add(filter.typeOf(column) == LookupColumnType.STRING
+                ? new Document("$eq", List.of(rowField(column), new Document("$literal", value)))
+                // Rows of uploads made before embedded rows were typed still hold text
+                : new Document("$in", List.of(rowField(column),
+                        new Document("$literal", Arrays.asList(filter.typedValue(column, value), value))))));
+        filter.prefixes().forEach((column, prefix) -> conditions.add(new Document("$eq", List.of(
+                new Document("$indexOfCP", List.of(rowField(column), new Document("$literal", prefix))), 0))));
+        filter.from().forEach((column, value) -> conditions.add(embeddedRange("$gte", filter, column, value)));
+        filter.to().forEach((column, value) -> conditions.add(embeddedRange("$lte", filter, column, value)));
+
+        Document matchingRows = new Document("$filter", new Document("input",
+                new Document("$ifNull", List.of("$" + DATA_FIELD, List.of())))
+                .append("as", "row")
+                .append("cond", new Document("$and", conditions)));
+
+        Document doc = mongoDatabase.getCollection(collectionName).aggregate(List.of(
+                Aggregates.match(Filters.eq(ID_FIELD, lookupName)),
+                Aggregates.project(new Document(ID_FIELD, 0)
+                        .append("rows", new Document("$slice", List.of(matchingRows, skip, limit))))))
+                .first();
+
+        if (doc == null) {
+            throw new NotFoundException("Lookup with name '" + lookupName + "' not found");
+        }
+
+        return extractDataList(doc.get("rows"), "lookup document").stream()
+                .map(filter::select)
+                .toList();
+    }
+
+    /**
+     * Compares an embedded cell with a range bound. Only cells still held as
+     * text, by uploads made before embedded rows were typed, are converted to
+     * the column type.
+     */
+    private static Document embeddedRange(String operator, LookupRowFilter filter, String column, String value) {
+        Document cell = new Document("$cond", Arrays.asList(
+                new Document("$eq", List.of(new Document("$type", rowField(column)), "string")),
+                LookupRowService.typedValue(rowField(column), filter.typeOf(column)),
+                rowField(column)));
+        // Expressions order null before every value, queries never match it to a bound
+        return new Document("$and", List.of(
+                new Document("$ne", Arrays.asList(cell, null)),
+                new Document(operator, Arrays.asList(cell,
+                        new Document("$literal", filter.typedValue(column, value))))));
+    }
+
+    private static Document rowField(String column) {
+        return new Document("$getField", new Document("field", new Document("$literal", column))
+                .append("input", "$$row"));
+    }
+
+    private static String encodeCursor(String cursor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static RowCursor decodeRowCursor(String cursor) {
+        String decoded = decodeCursor(cursor);
+        int separator = decoded.lastIndexOf(':');
+        if (!decoded.startsWith(ROW_CURSOR_PREFIX) || separator < ROW_CURSOR_PREFIX.length()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new RowCursor(decoded.substring(ROW_CURSOR_PREFIX.length(), separator),
+                parseCursorNumber(decoded.substring(separator + 1)));
+    }
+
+    private record RowCursor(String uploadId, int rowNumber) {
+    }
+
+    /**
+     * Finds a superseded upload whose rows have not been collected yet.
+     */
+    private LookupVersion findReadableVersion(String lookupName, String uploadId) {
+        return lookupVersionService.findVersion(lookupName, uploadId)
+                .filter(version -> version.state() != LookupVersionState.WRITING)
+                .orElseThrow(() -> new IllegalArgumentException(String.format(
+                        "Cursor is no longer valid because lookup '%s' has been re-uploaded", lookupName)));
+    }
+
+    private static int decodeOffsetCursor(String cursor) {
+        String decoded = decodeCursor(cursor);
+        if (!decoded.startsWith(OFFSET_CURSOR_PREFIX)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return parseCursorNumber(decoded.substring(OFFSET_CURSOR_PREFIX.length()));
+    }
+
+    private static int parseCursorNumber(String value) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+
+    private Document findMetadataDocument(String lookupName) {
         MongoCollection<Document> collection = mongoDatabase.getCollection(collectionName);
 
-        Document doc = collection.find(Filters.eq(ID_FIELD, lookupName)).first();
+        Document doc = collection.find(Filters.eq(ID_FIELD, lookupName))
+                .projection(Projections.exclude(DATA_FIELD))
+                .first();
 
         if (doc == null) {
             throw new NotFoundException("Lookup with name '" + lookupName + "' not found");
         }
 
-        Lookup lookup = documentToLookup(doc);
+        return doc;
+    }
 
-        return lookup;
+    private List<Map<String, String>> loadEmbeddedRows(String lookupName) {
+        Document doc = mongoDatabase.getCollection(collectionName)
+                .find(Filters.eq(ID_FIELD, lookupName))
+                .projection(Projections.include(DATA_FIELD))
+                .first();
+
+        if (doc == null) {
+            throw new NotFoundException("Lookup with name '" + lookupName + "' not found");
+        }
+
+        return extractDataList(doc.get(DATA_FIELD), "lookup document");
+    }
+
+    /**
+     * Moves the embedded rows of a lookup into the lookup rows collection, so
+     * it is no longer bound by the 16 MB document limit.
+     *
+     * <p>
+     * Saved queries that {@code $lookup} into the {@code data} array of the
+     * lookup stop finding rows once it is migrated; they are flagged with a
+     * stale reason so their authors can rewrite them against the lookup rows
+     * collection. Rows are never migrated as a side effect of reading.
+     * </p>
+     *
+     * @param lookupName the lookup to migrate
+     * @return the upload now holding the rows and the flagged queries
+     * @throws NotFoundException        if the lookup does not exist
+     * @throws IllegalArgumentException if the lookup's rows are not embedded
+     */
+    public LookupMigrationDTO migrateToChunkedRows(String lookupName) {
+        Document metadata = findMetadataDocument(lookupName);
+        if (rowsUploadIdOf(metadata) != null) {
+            throw new IllegalArgumentException(String.format(
+                    "Lookup '%s' does not keep its rows embedded", lookupName));
+        }
+
+        String rowsUploadId;
+        try {
+            rowsUploadId = migrateToRows(lookupName, loadEmbeddedRows(lookupName), keyColumnsOf(metadata),
+                    columnTypesOf(metadata));
+        } finally {
+            lookupWritten(lookupName);
+        }
+        List<String> flaggedQueries = queryService.flagQueriesJoiningLookup(lookupName, String.format(
+                "Lookup '%s' was migrated to chunked storage; its rows are no longer in 'lookups.data' but in "
+                        + "the lookup rows collection under its 'rowsUploadId'", lookupName));
+        if (!flaggedQueries.isEmpty()) {
+            log.warn("Flagged saved queries joining migrated lookup {}: {}", lookupName, flaggedQueries);
+        }
+        return LookupMigrationDTO.builder()
+                .lookupName(lookupName)
+                .rowsUploadId(rowsUploadId)
+                .recordCount(findMetadataDocument(lookupName).getInteger(RECORD_COUNT_FIELD))
+                .flaggedQueries(flaggedQueries)
+                .build();
+    }
+
+    /**
+     * Moves the embedded rows of a lookup into the lookup rows collection.
+     *
+     * <p>
+     * The rows are inserted under a new upload ID first; the lookup document is
+     * then switched over with an update that only matches while it still holds
+     * its embedded rows. If another reader migrated the lookup, or it was
+     * re-uploaded or deleted in the meantime, our rows are removed again and the
+     * upload ID now on the document (if any) is used.
+     * </p>
+     *
+     * @return the upload ID holding the rows, or {@code null} if the lookup
+     *         still keeps its rows embedded
+     */
+    private String migrateToRows(String lookupName, List<Map<String, String>> data, List<String> keyColumns,
+            Map<String, LookupColumnType> columnTypes) {
+        String uploadId = UUID.randomUUID().toString();
+        lookupVersionService.startVersion(lookupName, uploadId);
+        int batchSize = Math.max(1, ingestBatchSize);
+        for (int from = 0; from < data.size(); from += batchSize) {
+            List<Document> batch = new ArrayList<>(batchSize);
+            for (Map<String, String> row : data.subList(from, Math.min(from + batchSize, data.size()))) {
+                batch.add(new Document(new LinkedHashMap<String, Object>(row)));
+            }
+            lookupRowService.insertRows(lookupName, uploadId, from, batch, keyColumns);
+        }
+        lookupRowService.applyColumnTypes(lookupName, uploadId, typedColumns(columnTypes), null);
+
+        UpdateResult result = mongoDatabase.getCollection(collectionName).updateOne(
+                Filters.and(
+                        Filters.eq(ID_FIELD, lookupName),
+                        Filters.exists(DATA_FIELD),
+                        Filters.exists(ROWS_UPLOAD_ID_FIELD, false)),
+                Updates.combine(
+                        Updates.set(ROWS_UPLOAD_ID_FIELD, uploadId),
+                        Updates.set(RECORD_COUNT_FIELD, data.size()),
+                        Updates.unset(DATA_FIELD)));
+
+        if (result.getMatchedCount() == 0) {
+            runQuietly(() -> lookupVersionService.discardVersion(lookupName, uploadId), lookupName);
+            return findMetadataDocument(lookupName).getString(ROWS_UPLOAD_ID_FIELD);
+        }
+
+        runQuietly(() -> lookupVersionService.activateVersion(lookupName, uploadId, data.size(), null), lookupName);
+        invalidateLookupIndex();
+        log.info("Migrated {} rows of lookup {} to chunked storage", data.size(), lookupName);
+        return uploadId;
     }
 
     public LookupDTO getLookupByName(String lookupName) {
@@ -289,6 +1356,8 @@ public class LookupService {
                 .description(lookup.getDescription())
                 .data(lookup.getData())
                 .fieldDescriptions(lookup.getFieldDescriptions())
+                .keyColumns(lookup.getKeyColumns())
+                .columnTypes(lookup.getColumnTypes())
                 .uploadedAt(lookup.getUploadedAt())
                 .recordCount(lookup.getRecordCount())
                 .build();
@@ -297,11 +1366,17 @@ public class LookupService {
     public void deleteLookup(String lookupName) {
         MongoCollection<Document> collection = mongoDatabase.getCollection(collectionName);
 
-        long deletedCount = collection.deleteOne(Filters.eq(ID_FIELD, lookupName)).getDeletedCount();
+        Document deleted = collection.findOneAndDelete(Filters.eq(ID_FIELD, lookupName),
+                new FindOneAndDeleteOptions().projection(Projections.include(ROWS_UPLOAD_ID_FIELD)));
+        lookupWritten(lookupName);
 
-        if (deletedCount == 0) {
+        if (deleted == null) {
             throw new NotFoundException("Lookup with name '" + lookupName + "' not found");
         }
+
+        // Reads that already resolved the rows can finish; the rows are collected later
+        runQuietly(() -> lookupVersionService.retireVersions(lookupName, deleted.getString(ROWS_UPLOAD_ID_FIELD)),
+                lookupName);
     }
 
     private Lookup documentToLookup(Document doc) {
@@ -338,6 +1413,8 @@ public class LookupService {
                     .recordCount(recordCount != null ? recordCount : 0)
                     .description(description)
                     .fieldDescriptions(fieldDescriptions)
+                    .keyColumns(keyColumnsOf(doc))
+                    .columnTypes(columnTypesOf(doc))
                     .build();
 
         } catch (Exception e) {
@@ -401,8 +1478,8 @@ public class LookupService {
                 // Convert key to string
                 String stringKey = (key != null) ? key.toString() : "";
                 
-                // Convert value to string (null values become empty strings)
-                String stringValue = (value != null) ? value.toString() : "";
+                // Typed values turn back into their text (null values become empty strings)
+                String stringValue = LookupColumnType.text(value);
                 
                 stringMap.put(stringKey, stringValue);
             }
@@ -422,13 +1499,15 @@ public class LookupService {
      * @throws NotFoundException if the lookup with the given name is not found
      */
     public LookupFieldDescriptionsDTO updateFieldDescriptions(String lookupName, LookupFieldDescriptionsDTO lookupFieldDescriptionsDTO) {
-        Lookup existingLookup = findLookupByName(lookupName);
-
-        // Update the fieldDescriptions
-        existingLookup.setFieldDescriptions(lookupFieldDescriptionsDTO.getFieldDescriptions());
+        // Update the fieldDescriptions in place; the rows are not touched
+        UpdateResult result = mongoDatabase.getCollection(collectionName).updateOne(
+                Filters.eq(ID_FIELD, lookupName),
+                Updates.set(FIELD_DESCRIPTIONS_FIELD, lookupFieldDescriptionsDTO.getFieldDescriptions()));
 
-        // Save the updated lookup back to MongoDB
-        saveToMongoDB(existingLookup);
+        if (result.getMatchedCount() == 0) {
+            throw new NotFoundException("Lookup with name '" + lookupName + "' not found");
+        }
+        eventPublisher.publishEvent(new LookupChangedEvent(lookupName));
 
         log.info("Successfully updated context for lookup: {}", lookupName);
 
@@ -436,7 +1515,7 @@ public class LookupService {
     }
 
     private Map<String, String> getFieldDescriptions(String lookupName) {
-        Lookup lookup = findLookupByName(lookupName);
+        Lookup lookup = findLookupMetadataByName(lookupName);
 
         return lookup.getFieldDescriptions();
     }
@@ -452,7 +1531,7 @@ public class LookupService {
             Map<String, String> mergedDescriptions = new HashMap<>();
 
             for (String fieldName : newFieldDescriptions.keySet()) {
-                if (existingFieldDescriptions.containsKey(fieldName)) {
+                if (existingFieldDescriptions != null && existingFieldDescriptions.containsKey(fieldName)) {
                     mergedDescriptions.put(fieldName, existingFieldDescriptions.get(fieldName));
                 } else {
                     mergedDescriptions.put(fieldName, ""); // Default empty description
@@ -465,42 +1544,254 @@ public class LookupService {
     }
 
     public LookupDTO updateLookup(String lookupName, UpdateLookupDTO updateLookupDTO) {
-        // throws exception if not found
-        Lookup existingLookup = findLookupByName(lookupName);
+        return updateLookup(lookupName, updateLookupDTO, rows -> {
+        });
+    }
+
+    /**
+     * Updates a lookup, reporting the number of rows of a new file written so
+     * far after every ingest batch.
+     *
+     * @param progress receives the running row count; called on the ingesting
+     *                 thread
+     */
+    public LookupDTO updateLookup(String lookupName, UpdateLookupDTO updateLookupDTO, IntConsumer progress) {
+        // throws exception if not found; the existing rows are not loaded
+        Document existingMetadata = findMetadataDocument(lookupName);
+        Lookup existingLookup = documentToLookup(existingMetadata);
 
         if (updateLookupDTO.getDescription() != null && !updateLookupDTO.getDescription().trim().isEmpty()) {
             existingLookup.setDescription(updateLookupDTO.getDescription());
         }
-
-        if (updateLookupDTO.getLookupFile() != null && !updateLookupDTO.getLookupFile().isEmpty()) {
-            List<Map<String, String>> lookupData = processCsvFileToData(updateLookupDTO.getLookupFile());
-            existingLookup.setData(lookupData);
-            existingLookup.setRecordCount(lookupData.size());
-            existingLookup.setUploadedAt(new Date());
-
-                    // new fieldDescriptions with empty descriptions
-            Map<String, String> newfieldDescriptions = generateFieldDescMap(
-                    new ArrayList<>(lookupData.get(0).keySet())
-            );
-            // merge field descriptions if lookup exists
-            Map<String, String> mergedFieldDescriptions = mergeFieldDescriptions(
-                    existingLookup.getFieldDescriptions(),
-                    newfieldDescriptions
-            );
-            existingLookup.setFieldDescriptions(mergedFieldDescriptions);
+        // Key columns are kept unless the update names new ones
+        List<String> keyColumns = updateLookupDTO.getKeyColumns() != null
+                ? normalizeKeyColumns(updateLookupDTO.getKeyColumns())
+                : existingLookup.getKeyColumns();
+        boolean hasFile = updateLookupDTO.getLookupFile() != null && !updateLookupDTO.getLookupFile().isEmpty();
+        String requestedDiffKey = updateLookupDTO.getDiffKeyColumn();
+        String diffKeyColumn = requestedDiffKey != null && !requestedDiffKey.isBlank() ? requestedDiffKey.trim() : null;
+        if (diffKeyColumn != null && !hasFile) {
+            throw new IllegalArgumentException("diffKeyColumn requires a lookupFile");
         }
 
-        // Store in MongoDB
-        saveToMongoDB(existingLookup);
+        LookupDiffDTO diff = null;
+        try {
+            if (hasFile) {
+                // Re-uploads keep the lookup's storage so saved queries joining it keep working
+                LookupStorageMode storage = storageOf(existingMetadata);
+                Function<Document, RowSink> sinkFactory = metadata -> newRowSink(lookupName, metadata, storage);
+                if (diffKeyColumn != null) {
+                    String rowsUploadId = rowsUploadIdOf(existingMetadata);
+                    if (rowsUploadId == null) {
+                        throw new IllegalArgumentException(String.format(
+                                "Lookup '%s' keeps its rows embedded and cannot take a diff upload", lookupName));
+                    }
+                    if (isCompressed(existingMetadata)) {
+                        throw new IllegalArgumentException(String.format(
+                                "Lookup '%s' keeps its rows compressed and cannot take a diff upload", lookupName));
+                    }
+                    List<String> previousKeyColumns = existingLookup.getKeyColumns();
+                    Map<String, LookupColumnType> previousColumnTypes = existingLookup.getColumnTypes();
+                    sinkFactory = metadata -> new DiffRowSink(lookupName, metadata, rowsUploadId, diffKeyColumn,
+                            previousKeyColumns, previousColumnTypes);
+                }
+                // Stream the new rows in, merging field descriptions of columns that still exist
+                IngestedCsv ingested = ingestCsv(updateLookupDTO.getLookupFile(), lookupName,
+                        existingLookup.getDescription(), existingLookup.getFieldDescriptions(), keyColumns,
+                        sinkFactory, progress);
+                existingLookup.setRecordCount(ingested.recordCount());
+                existingLookup.setUploadedAt(ingested.uploadedAt());
+                existingLookup.setFieldDescriptions(ingested.fieldDescriptions());
+                existingLookup.setColumnTypes(ingested.columnTypes());
+                diff = ingested.diff();
+            } else {
+                if (!keyColumns.equals(existingLookup.getKeyColumns())) {
+                    updateKeyColumns(existingMetadata, existingLookup.getFieldDescriptions(), keyColumns);
+                }
+                mongoDatabase.getCollection(collectionName).updateOne(
+                        Filters.eq(ID_FIELD, lookupName),
+                        Updates.combine(
+                                Updates.set(DESCRIPTION_FIELD, existingLookup.getDescription()),
+                                Updates.set(KEY_COLUMNS_FIELD, keyColumns)));
+            }
+            existingLookup.setKeyColumns(keyColumns);
+        } finally {
+            lookupWritten(lookupName);
+        }
 
-        // Return response
+        // Return response (the rows are not echoed back, fetch them with getLookupByName)
         return LookupDTO.builder().id(existingLookup.getId())
                 .lookupName(existingLookup.getLookupName())
                 .description(existingLookup.getDescription())
-                .data(existingLookup.getData())
                 .fieldDescriptions(existingLookup.getFieldDescriptions())
+                .keyColumns(existingLookup.getKeyColumns())
+                .columnTypes(existingLookup.getColumnTypes())
                 .uploadedAt(existingLookup.getUploadedAt())
                 .recordCount(existingLookup.getRecordCount())
+                .diff(diff)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Changes the key columns of a lookup without re-uploading it. The keys of
+     * chunked rows are recomputed first, so a column is only advertised as a
+     * key once its rows can be found by it.
+     */
+    private void updateKeyColumns(Document metadata, Map<String, String> fieldDescriptions,
+            List<String> keyColumns) {
+        String lookupName = metadata.getString(ID_FIELD);
+        if (fieldDescriptions != null) {
+            List<String> unknown = keyColumns.stream()
+                    .filter(keyColumn -> !fieldDescriptions.containsKey(keyColumn))
+                    .toList();
+            if (!unknown.isEmpty()) {
+                throw new IllegalArgumentException(String.format("Unknown key columns for lookup '%s': %s",
+                        lookupName, String.join(", ", unknown)));
+            }
+        }
+        String rowsUploadId = metadata.getString(ROWS_UPLOAD_ID_FIELD);
+        // Compressed rows carry no keys; point reads scan them instead
+        if (rowsUploadId != null && !isCompressed(metadata)) {
+            lookupRowService.rebuildKeys(lookupName, rowsUploadId, keyColumns);
+        }
+    }
+
+    /**
+     * Finds the rows of a lookup whose key column holds a value.
+     *
+     * <p>
+     * Lookups of up to {@code lookups.key-index.max-rows} rows are served from
+     * an in-memory {@link LookupKeyIndex}, built on first use and kept until
+     * the lookup is re-uploaded or its key columns change, so a read is a hash
+     * lookup. Larger chunked lookups are read through the {@code keys} index of
+     * the lookup rows collection instead, and larger compressed lookups are
+     * scanned.
+     * </p>
+     *
+     * @param lookupName the lookup name
+     * @param column     a key column of the lookup
+     * @param value      the value to match exactly
+     * @return the matching rows in upload order
+     * @throws NotFoundException        if the lookup does not exist or no row
+     *                                  matches
+     * @throws IllegalArgumentException if the column is not a key column
+     */
+    public LookupKeyMatchDTO findRowsByKey(String lookupName, String column, String value) {
+        Document metadata = findMetadataDocument(lookupName);
+        List<String> keyColumns = keyColumnsOf(metadata);
+        if (!keyColumns.contains(column)) {
+            throw new IllegalArgumentException(keyColumns.isEmpty()
+                    ? String.format("Lookup '%s' has no key columns", lookupName)
+                    : String.format("Column '%s' is not a key column of lookup '%s'; key columns: %s",
+                            column, lookupName, String.join(", ", keyColumns)));
+        }
+
+        String rowsUploadId = rowsUploadIdOf(metadata);
+        Integer recordCount = metadata.getInteger(RECORD_COUNT_FIELD);
+        List<Map<String, String>> rows;
+        if (rowsUploadId != null && (recordCount == null || recordCount > keyIndexMaxRows)) {
+            if (isCompressed(metadata)) {
+                try (Stream<Map<String, String>> scanned = streamUploadRows(metadata, rowsUploadId, 0)) {
+                    rows = scanned.filter(row -> value.equals(row.get(column))).toList();
+                }
+            } else {
+                rows = lookupRowService.findRowsByKey(lookupName, rowsUploadId, column, value);
+            }
+        } else {
+            rows = keyIndex(metadata, rowsUploadId, keyColumns).rows(column, value);
+        }
+
+        if (rows.isEmpty()) {
+            throw new NotFoundException(String.format("No row of lookup '%s' has %s '%s'",
+                    lookupName, column, value));
+        }
+        return LookupKeyMatchDTO.builder()
+                .lookupName(lookupName)
+                .column(column)
+                .value(value)
+                .rows(rows)
+                .build();
+    }
+
+    private LookupKeyIndex keyIndex(Document metadata, String rowsUploadId, List<String> keyColumns) {
+        String lookupName = metadata.getString(ID_FIELD);
+        KeyIndexStamp stamp = new KeyIndexStamp(rowsUploadId, metadata.getDate(UPLOADED_AT_FIELD), keyColumns);
+        CachedKeyIndex cached = keyIndexes.get(lookupName);
+        if (cached != null && cached.stamp().equals(stamp)) {
+            return cached.index();
+        }
+
+        LookupTable table;
+        if (rowsUploadId != null) {
+            try (Stream<Map<String, String>> rows = streamUploadRows(metadata, rowsUploadId, 0)) {
+                table = LookupTable.from(rows);
+            }
+        } else {
+            table = LookupTable.of(loadEmbeddedRows(lookupName));
+        }
+        LookupKeyIndex index = LookupKeyIndex.build(table, keyColumns);
+        keyIndexes.put(lookupName, new CachedKeyIndex(stamp, index));
+        return index;
+    }
+
+    private static List<String> keyColumnsOf(Document doc) {
+        List<String> keyColumns = doc.getList(KEY_COLUMNS_FIELD, String.class);
+        return keyColumns != null ? keyColumns : List.of();
+    }
+
+    /**
+     * @return the column types stored on a lookup document; empty for lookups
+     *         uploaded before types were inferred
+     */
+    private static Map<String, LookupColumnType> columnTypesOf(Document doc) {
+        Map<String, LookupColumnType> columnTypes = new LinkedHashMap<>();
+        if (doc.get(COLUMN_TYPES_FIELD) instanceof Map<?, ?> stored) {
+            stored.forEach((column, type) -> columnTypes.put(String.valueOf(column),
+                    Arrays.stream(LookupColumnType.values())
+                            .filter(known -> known.name().equals(type))
+                            .findFirst()
+                            .orElse(LookupColumnType.STRING)));
+        }
+        return columnTypes;
+    }
+
+    private static Map<String, String> columnTypeNames(Map<String, LookupColumnType> columnTypes) {
+        Map<String, String> names = new LinkedHashMap<>();
+        columnTypes.forEach((column, type) -> names.put(column, type.name()));
+        return names;
+    }
+
+    private static Map<String, LookupColumnType> typedColumns(Map<String, LookupColumnType> columnTypes) {
+        Map<String, LookupColumnType> typed = new LinkedHashMap<>(columnTypes);
+        typed.values().removeIf(type -> type == LookupColumnType.STRING);
+        return typed;
+    }
+
+    private static List<String> normalizeKeyColumns(List<String> keyColumns) {
+        if (keyColumns == null) {
+            return List.of();
+        }
+        return keyColumns.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(keyColumn -> !keyColumn.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private record IngestedCsv(int recordCount, Map<String, String> fieldDescriptions, List<String> keyColumns,
+            Map<String, LookupColumnType> columnTypes, Date uploadedAt, LookupDiffDTO diff) {
+    }
+
+    /**
+     * Identifies the rows and key columns a key index was built from.
+     */
+    private record KeyIndexStamp(String rowsUploadId, Date uploadedAt, List<String> keyColumns) {
+    }
+
+    private record CachedKeyIndex(KeyIndexStamp stamp, LookupKeyIndex index) {
+    }
+
+    private record CachedLookupIndex(List<LookupWODataDTO> lookups, long version, long loadedAtNanos) {
+    }
+}
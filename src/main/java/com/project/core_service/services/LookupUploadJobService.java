@@ -0,0 +1,534 @@
+package com.project.core_service.services;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.result.UpdateResult;
+import com.project.core_service.dto.CreateLookupDTO;
+import com.project.core_service.dto.LookupDTO;
+import com.project.core_service.dto.LookupUploadJobDTO;
+import com.project.core_service.dto.UpdateLookupDTO;
+import com.project.core_service.exceptions.ConcurrentOperationException;
+import com.project.core_service.exceptions.InvalidFileException;
+import com.project.core_service.exceptions.NotFoundException;
+import com.project.core_service.models.lookup.LookupUploadJobState;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs lookup uploads in the background so the request only has to receive
+ * the file.
+ *
+ * <p>
+ * The uploaded CSV is spooled to {@code lookups.upload-jobs.spool-dir} and a
+ * job is recorded as {@link LookupUploadJobState#QUEUED}; the request returns
+ * right away. A pool of {@code lookups.upload-jobs.threads} threads then runs
+ * {@link LookupService#createLookup} or {@link LookupService#updateLookup} on
+ * the spooled file, exactly as a synchronous upload would. At most
+ * {@code lookups.upload-jobs.queue-capacity} jobs wait for a thread; beyond
+ * that uploads are refused until one finishes.
+ * </p>
+ *
+ * <p>
+ * Jobs are kept in the lookup upload jobs collection, so their progress can be
+ * read from any instance. The running row count is written at most every
+ * {@code lookups.upload-jobs.progress-interval-ms}. Finished jobs expire after
+ * {@code lookups.upload-jobs.retention-ms}.
+ * </p>
+ *
+ * <p>
+ * Each job records the instance that owns it ({@code lookups.upload-jobs.owner},
+ * the host name by default) and a heartbeat that the owner refreshes every
+ * {@code lookups.upload-jobs.heartbeat-interval-ms} until the job finishes. Jobs
+ * left {@code QUEUED} or {@code RUNNING} by a crash or restart are marked
+ * {@code FAILED}, with {@code finishedAt} set so they expire: on startup for jobs
+ * of this owner, and by any instance once a heartbeat is older than
+ * {@code lookups.upload-jobs.stale-after-ms}. Such uploads are not resumed;
+ * the file has to be uploaded again.
+ * </p>
+ */
+@Service
+@Slf4j
+public class LookupUploadJobService {
+
+    static final String LOOKUP_NAME_FIELD = "lookupName";
+    static final String OPERATION_FIELD = "operation";
+    static final String STATE_FIELD = "state";
+    static final String FILE_SIZE_FIELD = "fileSize";
+    static final String ROWS_PROCESSED_FIELD = "rowsProcessed";
+    static final String ERROR_FIELD = "error";
+    static final String CREATED_AT_FIELD = "createdAt";
+    static final String STARTED_AT_FIELD = "startedAt";
+    static final String FINISHED_AT_FIELD = "finishedAt";
+    static final String OWNER_FIELD = "owner";
+    static final String HEARTBEAT_AT_FIELD = "heartbeatAt";
+    static final String SPOOL_PATH_FIELD = "spoolPath";
+    private static final String ID_FIELD = "_id";
+
+    private static final String CREATE_OPERATION = "CREATE";
+    private static final String UPDATE_OPERATION = "UPDATE";
+
+    private final MongoDatabase mongoDatabase;
+    private final LookupService lookupService;
+
+    @Value("${mongodb.collection.lookup-upload-jobs.name:lookupUploadJobs}")
+    private String jobsCollectionName = "lookupUploadJobs";
+
+    @Value("${lookups.upload-jobs.threads:2}")
+    private int threads = 2;
+
+    @Value("${lookups.upload-jobs.queue-capacity:16}")
+    private int queueCapacity = 16;
+
+    @Value("${lookups.upload-jobs.spool-dir:${java.io.tmpdir}/lookup-uploads}")
+    private String spoolDir = System.getProperty("java.io.tmpdir") + "/lookup-uploads";
+
+    @Value("${lookups.upload-jobs.progress-interval-ms:1000}")
+    private long progressIntervalMs = 1_000;
+
+    @Value("${lookups.upload-jobs.retention-ms:86400000}")
+    private long retentionMs = 86_400_000;
+
+    @Value("${lookups.upload-jobs.owner:}")
+    private String owner = "";
+
+    @Value("${lookups.upload-jobs.heartbeat-interval-ms:10000}")
+    private long heartbeatIntervalMs = 10_000;
+
+    @Value("${lookups.upload-jobs.stale-after-ms:60000}")
+    private long staleAfterMs = 60_000;
+
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService heartbeats;
+
+    /**
+     * Jobs of this instance that are queued or running.
+     */
+    private final Set<String> activeJobIds = ConcurrentHashMap.newKeySet();
+
+    public LookupUploadJobService(MongoDatabase mongoDatabase, LookupService lookupService) {
+        this.mongoDatabase = mongoDatabase;
+        this.lookupService = lookupService;
+    }
+
+    @PostConstruct
+    void start() {
+        if (owner == null || owner.isBlank()) {
+            owner = defaultOwner();
+        }
+        try {
+            jobs().createIndex(Indexes.ascending(FINISHED_AT_FIELD),
+                    new IndexOptions().expireAfter(retentionMs, TimeUnit.MILLISECONDS).name("finishedAt_ttl"));
+        } catch (RuntimeException e) {
+            log.warn("Could not create TTL index for lookup upload jobs: {}", e.getMessage());
+        }
+        // Nothing runs here yet, so every unfinished job of this owner was cut off by a restart
+        failStaleJobs(Filters.or(
+                Filters.eq(OWNER_FIELD, owner),
+                Filters.exists(HEARTBEAT_AT_FIELD, false),
+                staleHeartbeat()));
+        AtomicInteger threadNumber = new AtomicInteger();
+        int poolSize = Math.max(1, threads);
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "lookup-upload-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        long interval = Math.max(1, heartbeatIntervalMs);
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lookup-upload-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Lets running uploads finish; jobs cut off here are failed on the next
+     * start or once their heartbeat is stale.
+     */
+    @PreDestroy
+    void stop() {
+        if (heartbeats != null) {
+            heartbeats.shutdownNow();
+        }
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Spools the file of a new lookup and queues its upload.
+     *
+     * @return the queued job
+     * @throws IllegalArgumentException     if the lookup name or description is
+     *                                      missing
+     * @throws InvalidFileException         if no file was uploaded
+     * @throws ConcurrentOperationException if too many uploads are queued
+     * @throws IOException                  if the file cannot be spooled
+     */
+    public LookupUploadJobDTO submitCreate(CreateLookupDTO createLookupDTO) throws IOException {
+        if (createLookupDTO.getLookupName() == null || createLookupDTO.getLookupName().trim().isEmpty()) {
+            throw new IllegalArgumentException("lookupName parameter is required and cannot be empty");
+        }
+        if (createLookupDTO.getDescription() == null || createLookupDTO.getDescription().trim().isEmpty()) {
+            throw new IllegalArgumentException("description parameter is required and cannot be empty");
+        }
+        return submit(createLookupDTO.getLookupName(), CREATE_OPERATION, createLookupDTO.getLookupFile(),
+                spooled -> progress -> lookupService.createLookup(CreateLookupDTO.builder()
+                        .lookupName(createLookupDTO.getLookupName())
+                        .description(createLookupDTO.getDescription())
+                        .keyColumns(createLookupDTO.getKeyColumns())
+                        .lookupFile(spooled)
+                        .build(), progress));
+    }
+
+    /**
+     * Spools the new file of a lookup and queues its update.
+     *
+     * @see #submitCreate
+     */
+    public LookupUploadJobDTO submitUpdate(String lookupName, UpdateLookupDTO updateLookupDTO) throws IOException {
+        return submit(lookupName, UPDATE_OPERATION, updateLookupDTO.getLookupFile(),
+                spooled -> progress -> lookupService.updateLookup(lookupName, UpdateLookupDTO.builder()
+                        .description(updateLookupDTO.getDescription())
+                        .keyColumns(updateLookupDTO.getKeyColumns())
+                        .diffKeyColumn(updateLookupDTO.getDiffKeyColumn())
+                        .lookupFile(spooled)
+                        .build(), progress));
+    }
+
+    /**
+     * @throws NotFoundException if the job does not exist or has expired
+     */
+    public LookupUploadJobDTO getJob(String jobId) {
+        Document job = jobs().find(Filters.eq(ID_FIELD, jobId)).first();
+        if (job == null) {
+            throw new NotFoundException(String.format("Lookup upload job '%s' not found", jobId));
+        }
+        return toDTO(job, System.currentTimeMillis());
+    }
+
+    private LookupUploadJobDTO submit(String lookupName, String operation, MultipartFile file,
+            Function<MultipartFile, Upload> upload) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new InvalidFileException("file parameter is required and cannot be empty");
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        Path directory = Path.of(spoolDir);
+        Files.createDirectories(directory);
+        Path spooledPath = Files.createTempFile(directory, jobId, ".csv");
+        Document job = new Document(ID_FIELD, jobId)
+                .append(LOOKUP_NAME_FIELD, lookupName)
+                .append(OPERATION_FIELD, operation)
+                .append(STATE_FIELD, LookupUploadJobState.QUEUED.name())
+                .append(FILE_SIZE_FIELD, file.getSize())
+                .append(ROWS_PROCESSED_FIELD, 0)
+                .append(CREATED_AT_FIELD, new Date())
+                .append(OWNER_FIELD, owner)
+                .append(HEARTBEAT_AT_FIELD, new Date())
+                .append(SPOOL_PATH_FIELD, spooledPath.toString());
+        try {
+            file.transferTo(spooledPath);
+            activeJobIds.add(jobId);
+            jobs().insertOne(job);
+            SpooledCsvFile spooled = new SpooledCsvFile(spooledPath, file);
+            executor.execute(() -> run(jobId, spooledPath, upload.apply(spooled)));
+        } catch (RejectedExecutionException e) {
+            activeJobIds.remove(jobId);
+            jobs().deleteOne(Filters.eq(ID_FIELD, jobId));
+            Files.deleteIfExists(spooledPath);
+            throw new ConcurrentOperationException("Too many lookup uploads are queued; retry later");
+        } catch (IOException | RuntimeException e) {
+            activeJobIds.remove(jobId);
+            Files.deleteIfExists(spooledPath);
+            throw e;
+        }
+        log.info("Queued {} of lookup {} as job {}", operation.toLowerCase(), lookupName, jobId);
+        return toDTO(job, System.currentTimeMillis());
+    }
+
+    /**
+     * Runs one upload and records its outcome. The spooled file is deleted
+     * either way.
+     */
+    void run(String jobId, Path spooledPath, Upload upload) {
+        Bson byId = Filters.eq(ID_FIELD, jobId);
+        try {
+            jobs().updateOne(byId, Updates.combine(
+                    Updates.set(STATE_FIELD, LookupUploadJobState.RUNNING.name()),
+                    Updates.set(STARTED_AT_FIELD, new Date())));
+            LookupDTO lookup = upload.run(new ProgressWriter(byId));
+            jobs().updateOne(byId, Updates.combine(
+                    Updates.set(STATE_FIELD, LookupUploadJobState.SUCCEEDED.name()),
+                    Updates.set(ROWS_PROCESSED_FIELD, lookup.getRecordCount()),
+                    Updates.set(FINISHED_AT_FIELD, new Date())));
+        } catch (RuntimeException e) {
+            log.warn("Lookup upload job {} failed: {}", jobId, e.getMessage());
+            try {
+                jobs().updateOne(byId, Updates.combine(
+                        Updates.set(STATE_FIELD, LookupUploadJobState.FAILED.name()),
+                        Updates.set(ERROR_FIELD, e.getMessage() != null ? e.getMessage() : e.toString()),
+                        Updates.set(FINISHED_AT_FIELD, new Date())));
+            } catch (RuntimeException recordFailure) {
+                log.warn("Could not record the failure of lookup upload job {}: {}", jobId,
+                        recordFailure.getMessage());
+            }
+        } finally {
+            activeJobIds.remove(jobId);
+            deleteSpooledFile(spooledPath);
+        }
+    }
+
+    /**
+     * Refreshes the heartbeat of this instance's jobs, then fails jobs of any
+     * instance whose heartbeat stopped.
+     */
+    void heartbeat() {
+        try {
+            if (!activeJobIds.isEmpty()) {
+                jobs().updateMany(Filters.in(ID_FIELD, Set.copyOf(activeJobIds)),
+                        Updates.set(HEARTBEAT_AT_FIELD, new Date()));
+            }
+            failStaleJobs(staleHeartbeat());
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh lookup upload job heartbeats: {}", e.getMessage());
+        }
+    }
+
+    private Bson staleHeartbeat() {
+        return Filters.lt(HEARTBEAT_AT_FIELD, new Date(System.currentTimeMillis() - staleAfterMs));
+    }
+
+    /**
+     * Marks unfinished jobs matching the filter as failed and removes their
+     * spooled files if they are on this instance. Jobs this instance is still
+     * running are left alone.
+     *
+     * @return the number of jobs marked as failed
+     */
+    int failStaleJobs(Bson filter) {
+        List<String> unfinishedStates = List.of(LookupUploadJobState.QUEUED.name(),
+                LookupUploadJobState.RUNNING.name());
+        int failed = 0;
+        try {
+            for (Document job : jobs().find(Filters.and(Filters.in(STATE_FIELD, unfinishedStates), filter))
+                    .into(new ArrayList<>())) {
+                String jobId = job.getString(ID_FIELD);
+                if (activeJobIds.contains(jobId)) {
+                    continue;
+                }
+                UpdateResult result = jobs().updateOne(
+                        Filters.and(Filters.eq(ID_FIELD, jobId), Filters.in(STATE_FIELD, unfinishedStates)),
+                        Updates.combine(
+                                Updates.set(STATE_FIELD, LookupUploadJobState.FAILED.name()),
+                                Updates.set(ERROR_FIELD, "The upload was interrupted by a restart; upload the file again"),
+                                Updates.set(FINISHED_AT_FIELD, new Date())));
+                if (result.getModifiedCount() == 0) {
+                    continue;
+                }
+                failed++;
+                log.warn("Marked interrupted lookup upload job {} of {} as failed", jobId, job.getString(OWNER_FIELD));
+                String spoolPath = job.getString(SPOOL_PATH_FIELD);
+                if (owner.equals(job.getString(OWNER_FIELD)) && spoolPath != null) {
+                    deleteSpooledFile(Path.of(spoolPath));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not fail interrupted lookup upload jobs: {}", e.getMessage());
+        }
+        return failed;
+    }
+
+    private static void deleteSpooledFile(Path spooledPath) {
+        try {
+            Files.deleteIfExists(spooledPath);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled upload {}: {}", spooledPath, e.getMessage());
+        }
+    }
+
+    private static String defaultOwner() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            String generated = UUID.randomUUID().toString();
+            log.warn("Could not resolve the host name; owning lookup upload jobs as {}", generated);
+            return generated;
+        }
+    }
+
+    static LookupUploadJobDTO toDTO(Document job, long nowMillis) {
+        Date startedAt = job.getDate(STARTED_AT_FIELD);
+        Date finishedAt = job.getDate(FINISHED_AT_FIELD);
+        Integer rowsProcessed = job.getInteger(ROWS_PROCESSED_FIELD);
+        Double rowsPerSecond = null;
+        if (startedAt != null && rowsProcessed != null) {
+            long elapsedMs = (finishedAt != null ? finishedAt.getTime() : nowMillis) - startedAt.getTime();
+            rowsPerSecond = elapsedMs > 0 ? rowsProcessed * 1000.0 / elapsedMs : null;
+        }
+        Number fileSize = job.get(FILE_SIZE_FIELD, Number.class);
+        return LookupUploadJobDTO.builder()
+                .jobId(job.getString(ID_FIELD))
+                .lookupName(job.getString(LOOKUP_NAME_FIELD))
+                .operation(job.getString(OPERATION_FIELD))
+                .state(LookupUploadJobState.valueOf(job.getString(STATE_FIELD)))
+                .fileSize(fileSize != null ? fileSize.longValue() : null)
+                .rowsProcessed(rowsProcessed)
+                .rowsPerSecond(rowsPerSecond)
+                .error(job.getString(ERROR_FIELD))
+                .createdAt(job.getDate(CREATED_AT_FIELD))
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .build();
+    }
+
+    private MongoCollection<Document> jobs() {
+        return mongoDatabase.getCollection(jobsCollectionName);
+    }
+
+    /**
+     * The work of one job, given a progress callback.
+     */
+    @FunctionalInterface
+    interface Upload {
+        LookupDTO run(IntConsumer progress);
+    }
+
+    /**
+     * Writes the running row count, at most once per progress interval.
+     */
+    private final class ProgressWriter implements IntConsumer {
+        private final Bson byId;
+        private long lastWriteNanos = System.nanoTime();
+
+        private ProgressWriter(Bson byId) {
+            this.byId = byId;
+        }
+
+        @Override
+        public void accept(int rows) {
+            long now = System.nanoTime();
+            if (now - lastWriteNanos < TimeUnit.MILLISECONDS.toNanos(progressIntervalMs)) {
+                return;
+            }
+            lastWriteNanos = now;
+            try {
+                jobs().updateOne(byId, Updates.set(ROWS_PROCESSED_FIELD, rows));
+            } catch (RuntimeException e) {
+                // Progress is informational; the upload carries on
+                log.debug("Could not record progress of lookup upload: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * An uploaded file that was moved to the spool directory, read back as the
+     * original upload.
+     */
+    static final class SpooledCsvFile implements MultipartFile {
+        private final Path path;
+        private final String name;
+        private final String originalFilename;
+        private final String contentType;
+
+        SpooledCsvFile(Path path, MultipartFile original) {
+            this.path = path;
+            this.name = original.getName();
+            this.originalFilename = original.getOriginalFilename();
+            this.contentType = original.getContentType();
+        }
+
+        /**
+         * @return the spool file, which large uploads are parsed from directly
+         */
+        Path path() {
+            return path;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return originalFilename;
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            try {
+                return Files.size(path);
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
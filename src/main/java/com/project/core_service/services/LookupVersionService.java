@@ -0,0 +1,248 @@
+package com.project.core_service.services;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.project.core_service.models.lookup.LookupVersion;
+import com.project.core_service.models.lookup.LookupVersionState;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tracks the uploads (versions) of chunked lookups and removes their rows once
+ * nobody can be reading them.
+ *
+ * <p>
+ * A re-upload writes its rows under a new upload ID while readers keep using
+ * the one the lookup document points at. Switching the pointer is a single
+ * document update, so every read sees either the old or the new rows in full.
+ * The previous upload is then only marked {@link LookupVersionState#RETIRED};
+ * its rows are deleted by {@link #collectExpiredVersions()} after the
+ * retention period, giving reads that resolved the old pointer time to finish.
+ * </p>
+ */
+@Service
+@Slf4j
+public class LookupVersionService {
+
+    static final String LOOKUP_ID_FIELD = "lookupId";
+    static final String STATE_FIELD = "state";
+    static final String CREATED_AT_FIELD = "createdAt";
+    static final String ACTIVATED_AT_FIELD = "activatedAt";
+    static final String RETIRED_AT_FIELD = "retiredAt";
+    static final String RECORD_COUNT_FIELD = "recordCount";
+    private static final String ID_FIELD = "_id";
+    private static final String ROWS_UPLOAD_ID_FIELD = "rowsUploadId";
+
+    private final MongoDatabase mongoDatabase;
+    private final LookupRowService lookupRowService;
+
+    @Value("${mongodb.collection.lookups.name}")
+    private String lookupsCollectionName;
+
+    @Value("${mongodb.collection.lookup-versions.name:lookupVersions}")
+    private String versionsCollectionName = "lookupVersions";
+
+    @Value("${lookups.versions.retention-ms:600000}")
+    private long retentionMs = 600_000;
+
+    @Value("${lookups.versions.abandoned-after-ms:86400000}")
+    private long abandonedAfterMs = 86_400_000;
+
+    @Autowired
+    public LookupVersionService(MongoDatabase mongoDatabase, LookupRowService lookupRowService) {
+        this.mongoDatabase = mongoDatabase;
+        this.lookupRowService = lookupRowService;
+    }
+
+    /**
+     * Creates the indexes used to find the versions of a lookup and the
+     * versions due for collection.
+     */
+    @PostConstruct
+    void ensureIndexes() {
+        try {
+            versions().createIndex(Indexes.ascending(LOOKUP_ID_FIELD, STATE_FIELD),
+                    new IndexOptions().name("lookupId_state"));
+            versions().createIndex(Indexes.ascending(STATE_FIELD, RETIRED_AT_FIELD),
+                    new IndexOptions().name("state_retiredAt"));
+        } catch (RuntimeException e) {
+            log.warn("Could not create indexes for lookup versions: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Records that rows are being written under a new upload ID. Uploads that
+     * are neither activated nor discarded are collected once they are older
+     * than the abandonment timeout.
+     */
+    public void startVersion(String lookupId, String uploadId) {
+        versions().insertOne(new Document(ID_FIELD, uploadId)
+                .append(LOOKUP_ID_FIELD, lookupId)
+                .append(STATE_FIELD, LookupVersionState.WRITING.name())
+                .append(CREATED_AT_FIELD, new Date()));
+    }
+
+    /**
+     * Marks an upload as the one the lookup now points at and retires the
+     * upload it replaced.
+     * <p>
+     * Only a {@link LookupVersionState#WRITING} upload is activated: when two
+     * uploads race, the one that lost the pointer may already have been retired
+     * by the winner and must stay retired.
+     * </p>
+     *
+     * @param lookupId         the lookup
+     * @param uploadId         the upload the lookup was switched to
+     * @param recordCount      the number of rows in the upload
+     * @param previousUploadId the upload the lookup pointed at before, or
+     *                         {@code null}; it may predate version tracking
+     */
+    public void activateVersion(String lookupId, String uploadId, int recordCount, String previousUploadId) {
+        Date now = new Date();
+        versions().updateOne(
+                Filters.and(
+                        Filters.eq(ID_FIELD, uploadId),
+                        Filters.eq(STATE_FIELD, LookupVersionState.WRITING.name())),
+                Updates.combine(
+                        Updates.set(STATE_FIELD, LookupVersionState.ACTIVE.name()),
+                        Updates.set(ACTIVATED_AT_FIELD, now),
+                        Updates.set(RECORD_COUNT_FIELD, recordCount)));
+        if (previousUploadId != null && !previousUploadId.equals(uploadId)) {
+            retire(lookupId, previousUploadId, now);
+        }
+    }
+
+    /**
+     * Retires every upload of a lookup, e.g. because it was deleted or now keeps
+     * its rows embedded.
+     *
+     * @param currentUploadId the upload the lookup pointed at, or {@code null}
+     */
+    public void retireVersions(String lookupId, String currentUploadId) {
+        Date now = new Date();
+        if (currentUploadId != null) {
+            retire(lookupId, currentUploadId, now);
+        }
+        versions().updateMany(
+                Filters.and(
+                        Filters.eq(LOOKUP_ID_FIELD, lookupId),
+                        Filters.eq(STATE_FIELD, LookupVersionState.ACTIVE.name())),
+                Updates.combine(
+                        Updates.set(STATE_FIELD, LookupVersionState.RETIRED.name()),
+                        Updates.set(RETIRED_AT_FIELD, now)));
+    }
+
+    /**
+     * Deletes the rows and the record of an upload that was never activated.
+     */
+    public void discardVersion(String lookupId, String uploadId) {
+        lookupRowService.deleteRows(lookupId, uploadId);
+        versions().deleteOne(Filters.eq(ID_FIELD, uploadId));
+    }
+
+    /**
+     * @return the upload, if it is known and its rows have not been collected
+     */
+    public Optional<LookupVersion> findVersion(String lookupId, String uploadId) {
+        Document document = versions()
+                .find(Filters.and(Filters.eq(ID_FIELD, uploadId), Filters.eq(LOOKUP_ID_FIELD, lookupId)))
+                .first();
+        return Optional.ofNullable(document).map(LookupVersionService::toVersion);
+    }
+
+    /**
+     * Deletes the rows of uploads retired for longer than the retention period
+     * and of uploads abandoned while writing. An upload the lookup document
+     * still points at is never collected.
+     *
+     * @return the number of uploads collected
+     */
+    @Scheduled(fixedDelayString = "${lookups.versions.gc-interval-ms:60000}",
+            initialDelayString = "${lookups.versions.gc-interval-ms:60000}")
+    public int collectExpiredVersions() {
+        long now = System.currentTimeMillis();
+        List<Document> expired = new ArrayList<>();
+        versions().find(Filters.or(
+                Filters.and(
+                        Filters.eq(STATE_FIELD, LookupVersionState.RETIRED.name()),
+                        Filters.lt(RETIRED_AT_FIELD, new Date(now - retentionMs))),
+                Filters.and(
+                        Filters.eq(STATE_FIELD, LookupVersionState.WRITING.name()),
+                        Filters.lt(CREATED_AT_FIELD, new Date(now - abandonedAfterMs)))))
+                .into(expired);
+
+        int collected = 0;
+        for (Document version : expired) {
+            String uploadId = version.getString(ID_FIELD);
+            String lookupId = version.getString(LOOKUP_ID_FIELD);
+            try {
+                if (isCurrentUpload(lookupId, uploadId)) {
+                    log.warn("Upload {} of lookup {} is still current; not collecting it", uploadId, lookupId);
+                    versions().updateOne(Filters.eq(ID_FIELD, uploadId),
+                            Updates.set(STATE_FIELD, LookupVersionState.ACTIVE.name()));
+                    continue;
+                }
+                lookupRowService.deleteRows(lookupId, uploadId);
+                versions().deleteOne(Filters.eq(ID_FIELD, uploadId));
+                collected++;
+            } catch (RuntimeException e) {
+                // Retried on the next run
+                log.warn("Failed to collect upload {} of lookup {}: {}", uploadId, lookupId, e.getMessage());
+            }
+        }
+        if (collected > 0) {
+            log.info("Collected {} expired lookup uploads", collected);
+        }
+        return collected;
+    }
+
+    /**
+     * Retires one upload. Upserting covers uploads written before versions were
+     * tracked.
+     */
+    private void retire(String lookupId, String uploadId, Date now) {
+        versions().updateOne(Filters.eq(ID_FIELD, uploadId),
+                Updates.combine(
+                        Updates.set(LOOKUP_ID_FIELD, lookupId),
+                        Updates.set(STATE_FIELD, LookupVersionState.RETIRED.name()),
+                        Updates.set(RETIRED_AT_FIELD, now),
+                        Updates.setOnInsert(CREATED_AT_FIELD, now)),
+                new UpdateOptions().upsert(true));
+    }
+
+    private boolean isCurrentUpload(String lookupId, String uploadId) {
+        return mongoDatabase.getCollection(lookupsCollectionName).countDocuments(Filters.and(
+                Filters.eq(ID_FIELD, lookupId),
+                Filters.eq(ROWS_UPLOAD_ID_FIELD, uploadId))) > 0;
+    }
+
+    private static LookupVersion toVersion(Document document) {
+        String state = document.getString(STATE_FIELD);
+        return new LookupVersion(
+                document.getString(ID_FIELD),
+                document.getString(LOOKUP_ID_FIELD),
+                state != null ? LookupVersionState.valueOf(state) : null,
+                document.getDate(CREATED_AT_FIELD),
+                document.getDate(ACTIVATED_AT_FIELD),
+                document.getDate(RETIRED_AT_FIELD),
+                document.getInteger(RECORD_COUNT_FIELD));
+    }
+
+    private MongoCollection<Document> versions() {
+        return mongoDatabase.getCollection(versionsCollectionName);
+    }
+}
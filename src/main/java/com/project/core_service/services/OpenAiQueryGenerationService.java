@@ -6,6 +6,8 @@ import com.theokanning.openai.completion.chat.ChatMessage;
 import com.theokanning.openai.completion.chat.ChatMessageRole;
 import com.theokanning.openai.service.OpenAiService;
 import com.project.core_service.models.lookup.Lookup;
+import com.project.core_service.models.lookup.LookupStorageMode;
+import com.project.core_service.models.lookup.LookupTable;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,7 +22,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,6 +40,8 @@ public class OpenAiQueryGenerationService {
     private static final int CHARS_PER_TOKEN = 4;
     // Reserve tokens for system prompt, user prompt structure, and response
     private static final int RESERVED_TOKENS = 1000;
+    // Shown for a requested field that a record has no value for
+    private static final String NOT_SET = "(not set)";
 
     @Autowired
     public OpenAiQueryGenerationService(OpenAiService openAiService,
@@ -121,15 +125,15 @@ public class OpenAiQueryGenerationService {
      * 2. Size of individual records
      * 3. Number of fields being used
      * 
-     * @param lookup           The lookup data
+     * @param lookup           The lookup metadata
+     * @param table            The loaded lookup rows
      * @param lookupFieldsUsed Fields to include
      * @param availableTokens  Available tokens for lookup data
      * @return Number of records to include
      */
-    private int calculateOptimalRecordCount(Lookup lookup, List<String> lookupFieldsUsed,
+    private int calculateOptimalRecordCount(Lookup lookup, LookupTable table, List<String> lookupFieldsUsed,
             int availableTokens) {
-        List<Map<String, String>> data = lookup.getData();
-        if (data == null || data.isEmpty()) {
+        if (table.isEmpty()) {
             return 0;
         }
 
@@ -155,9 +159,8 @@ public class OpenAiQueryGenerationService {
 
         // Estimate average token size per record by sampling first record
         StringBuilder sampleRecord = new StringBuilder("Record 1:\n");
-        Map<String, String> firstRecord = data.get(0);
         for (String field : lookupFieldsUsed) {
-            String value = firstRecord.getOrDefault(field, "(not set)");
+            String value = Objects.requireNonNullElse(table.value(0, field), NOT_SET);
             sampleRecord.append("  ").append(field).append(": ").append(value).append("\n");
         }
         int tokensPerRecord = estimateTokens(sampleRecord.toString());
@@ -172,17 +175,26 @@ public class OpenAiQueryGenerationService {
         // Apply constraints
         int finalRecordCount = Math.min(
                 Math.min(calculatedMaxRecords, maxLookupRecords), // Don't exceed config limit
-                data.size() // Don't exceed actual data size
+                table.size() // Don't exceed actual data size
         );
 
         log.info("Lookup chunking - Total records: {}, Fields: {}, Available tokens: {}, " +
                 "Tokens per record: {}, Including {} records",
-                data.size(), lookupFieldsUsed.size(), availableTokens,
+                totalRecords(lookup), lookupFieldsUsed.size(), availableTokens,
                 tokensPerRecord, finalRecordCount);
 
         return Math.max(1, finalRecordCount); // Always include at least 1 record
     }
 
+    /**
+     * The lookup only carries the rows that may be sent to OpenAI; its record
+     * count is the size of the whole lookup.
+     */
+    private int totalRecords(Lookup lookup) {
+        int loaded = lookup.getData() != null ? lookup.getData().size() : 0;
+        return lookup.getRecordCount() != null ? Math.max(lookup.getRecordCount(), loaded) : loaded;
+    }
+
     /**
      * Generate MongoDB aggregation query using OpenAI with streaming
      * 
@@ -194,13 +206,15 @@ public class OpenAiQueryGenerationService {
     public void generateQueryStream(String userPrompt, String lookupName, List<String> lookupFieldsUsed,
             SseEmitter emitter) {
         try {
-            Lookup lookup = lookupService.findLookupByName(lookupName);
+            // Only the rows that can end up in the prompt are read
+            Lookup lookup = lookupService.findLookupByName(lookupName, maxLookupRecords);
+            LookupTable table = LookupTable.of(lookup.getData());
 
             // Calculate available tokens and determine optimal record count
             int availableTokens = calculateAvailableTokensForLookup(userPrompt);
-            int optimalRecordCount = calculateOptimalRecordCount(lookup, lookupFieldsUsed, availableTokens);
+            int optimalRecordCount = calculateOptimalRecordCount(lookup, table, lookupFieldsUsed, availableTokens);
 
-            String formattedLookupData = filterAndFormatLookupData(lookup, lookupFieldsUsed, optimalRecordCount);
+            String formattedLookupData = filterAndFormatLookupData(lookup, table, lookupFieldsUsed, optimalRecordCount);
 
             String systemPrompt = buildSystemPrompt();
             String userMessage = buildUserMessage(userPrompt, formattedLookupData);
@@ -253,9 +267,10 @@ public class OpenAiQueryGenerationService {
         return "";
     }
 
-    private String filterAndFormatLookupData(Lookup lookup, List<String> lookupFieldsUsed, int maxRecords) {
+    private String filterAndFormatLookupData(Lookup lookup, LookupTable table, List<String> lookupFieldsUsed,
+            int maxRecords) {
         // Validate that all requested fields exist in the lookup data
-        validateLookupFields(lookup, lookupFieldsUsed);
+        validateLookupFields(lookup, table, lookupFieldsUsed);
 
         StringBuilder formatted = new StringBuilder();
         formatted.append("=== Lookup Data: ").append(lookup.getLookupName()).append(" ===\n\n");
@@ -266,7 +281,7 @@ public class OpenAiQueryGenerationService {
 
         // Add data records with ONLY the requested fields (filtering #2)
         // Now uses dynamic maxRecords based on token estimation
-        appendFilteredDataRecords(formatted, lookup.getData(), lookupFieldsUsed, maxRecords);
+        appendFilteredDataRecords(formatted, table, lookupFieldsUsed, maxRecords);
 
         return formatted.toString();
     }
@@ -296,32 +311,35 @@ public class OpenAiQueryGenerationService {
      * tokens.
      * 
      * @param formatted        StringBuilder to append to
-     * @param data             Lookup data records
+     * @param table            Lookup data records
      * @param lookupFieldsUsed Fields to include
      * @param maxRecords       Maximum number of records to include (dynamically
      *                         calculated)
      */
-    private void appendFilteredDataRecords(StringBuilder formatted, List<Map<String, String>> data,
+    private void appendFilteredDataRecords(StringBuilder formatted, LookupTable table,
             List<String> lookupFieldsUsed, int maxRecords) {
         formatted.append("Data Records (showing only fields: ").append(String.join(", ", lookupFieldsUsed))
                 .append("):\n");
 
+        // Resolve the requested columns once instead of hashing field names per record
+        int[] columns = lookupFieldsUsed.stream().mapToInt(table::columnIndex).toArray();
+
         int count = 0;
-        for (Map<String, String> record : data) {
+        for (int row = 0; row < table.size(); row++) {
             formatted.append("Record ").append(++count).append(":\n");
 
             // FILTERING HAPPENS HERE: Only include fields in lookupFieldsUsed
-            for (String field : lookupFieldsUsed) {
-                // Use getOrDefault to handle records with inconsistent schemas gracefully
-                String value = record.getOrDefault(field, "(not set)");
-                formatted.append("  ").append(field).append(": ").append(value).append("\n");
+            for (int i = 0; i < columns.length; i++) {
+                // Records with inconsistent schemas have no value for some columns
+                String value = Objects.requireNonNullElse(table.value(row, columns[i]), NOT_SET);
+                formatted.append("  ").append(lookupFieldsUsed.get(i)).append(": ").append(value).append("\n");
             }
             formatted.append("\n");
 
             // Limit to dynamically calculated maxRecords to avoid token limits
             if (count >= maxRecords) {
                 formatted.append("... (showing first ").append(maxRecords)
-                        .append(" records out of ").append(data.size())
+                        .append(" records out of ").append(table.size())
                         .append(" total to stay within token limits)\n");
                 break;
             }
@@ -332,22 +350,22 @@ public class OpenAiQueryGenerationService {
      * Validates that all requested fields exist in the lookup data.
      * This prevents sending invalid field names to OpenAI and reduces token usage.
      * 
-     * @param lookup           The lookup containing the data
+     * @param lookup           The lookup metadata
+     * @param table            The loaded lookup rows
      * @param lookupFieldsUsed The fields requested by the user
      * @throws IllegalArgumentException if any field doesn't exist in the lookup
      */
-    private void validateLookupFields(Lookup lookup, List<String> lookupFieldsUsed) {
-        List<Map<String, String>> data = lookup.getData();
-        if (data == null || data.isEmpty()) {
+    private void validateLookupFields(Lookup lookup, LookupTable table, List<String> lookupFieldsUsed) {
+        if (table.isEmpty()) {
             throw new IllegalArgumentException(
                     "Lookup '" + lookup.getLookupName() + "' contains no data records");
         }
 
-        Set<String> availableFields = data.get(0).keySet();
+        List<String> availableFields = table.columns();
         List<String> invalidFields = new ArrayList<>();
 
         for (String requestedField : lookupFieldsUsed) {
-            if (!availableFields.contains(requestedField)) {
+            if (table.columnIndex(requestedField) < 0) {
                 invalidFields.add(requestedField);
             }
         }
@@ -362,7 +380,7 @@ public class OpenAiQueryGenerationService {
     }
 
     private String buildSystemPrompt() {
-        return """
+        return String.format("""
                 You are an expert MongoDB query generator. Your task is to generate valid MongoDB aggregation pipelines for the 'solutionReviews' collection based on user requirements.
 
                 Important Guidelines:
@@ -374,10 +392,27 @@ public class OpenAiQueryGenerationService {
                 6. For nested fields, use dot notation (e.g., "solutionOverview.businessUnit")
                 7. For array fields, use appropriate operators like $unwind, $elemMatch, etc.
                 8. Ensure the pipeline is efficient and follows MongoDB best practices
-                9. All the lookups are stored in the same collection named 'lookups', so use $lookup from 'lookups' collection accordingly, then match '_id' to the lookup name and 'data' is the array of lookup data.
+                9. %s
 
                 The output should start with '[' and end with ']'.
-                """;
+                """, buildLookupStorageGuideline());
+    }
+
+    /**
+     * Describes where lookup rows live, which depends on the lookup storage mode.
+     */
+    private String buildLookupStorageGuideline() {
+        if (lookupService.getStorageMode() == LookupStorageMode.EMBEDDED) {
+            return "All the lookups are stored in the same collection named 'lookups', so use $lookup from 'lookups' collection accordingly, then match '_id' to the lookup name and 'data' is the array of lookup data. "
+                    + "A lookup with 'rowsUploadId' instead of 'data' keeps its rows one document per row in the collection named 'lookupRows', matched on 'lookupId' (the lookup name) and 'uploadId', with the columns under 'fields'.";
+        }
+        if (lookupService.getStorageMode() == LookupStorageMode.COMPRESSED) {
+            return "Lookup rows are stored compressed and cannot be joined in an aggregation pipeline, so do not use $lookup on lookup data; rely on the lookup data provided above instead.";
+        }
+        return "Lookup metadata is stored in the collection named 'lookups' ('_id' is the lookup name and 'rowsUploadId' identifies its current rows). "
+                + "The rows are stored one document per row in the collection named 'lookupRows', with fields 'lookupId' (the lookup name), 'uploadId', 'rowNumber' and 'fields' (an object holding the row's columns, e.g. 'fields.<column>'). "
+                + "Columns listed as INTEGER, DECIMAL, BOOLEAN or DATE in the lookup's 'columnTypes' hold native long, decimal, boolean and date values (empty cells are null); other columns hold strings. "
+                + "To join lookup data, use $lookup from 'lookups' to get 'rowsUploadId', then $lookup from 'lookupRows' matching both 'lookupId' and 'uploadId'.";
     }
 
     private String buildUserMessage(String userPrompt, String formattedLookupData) {
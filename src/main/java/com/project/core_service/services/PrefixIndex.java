@@ -0,0 +1,117 @@
+package com.project.core_service.services;
+
+import java.util.*;
+
+/**
+ * Case-insensitive typeahead over a fixed list of names.
+ *
+ * <p>
+ * Each name is kept lower-cased in one sorted array, and every later word of
+ * it, from the word onwards, in a second one, so "iss" finds "Policy
+ * Issuance". A search binary-searches the first key at or after the prefix in
+ * each array and walks forward while keys still start with it, stopping after
+ * {@code limit} distinct names. Names that start with the prefix rank before
+ * names that only have a word starting with it; within each group matches
+ * come in key order.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable once built and safe to share between threads.
+ * </p>
+ */
+final class PrefixIndex {
+
+    private static final PrefixIndex EMPTY = new PrefixIndex(new String[0], new int[0], new String[0], new int[0]);
+
+    private final String[] nameKeys;
+    private final int[] nameTargets;
+    private final String[] wordKeys;
+    private final int[] wordTargets;
+
+    private PrefixIndex(String[] nameKeys, int[] nameTargets, String[] wordKeys, int[] wordTargets) {
+        this.nameKeys = nameKeys;
+        this.nameTargets = nameTargets;
+        this.wordKeys = wordKeys;
+        this.wordTargets = wordTargets;
+    }
+
+    /**
+     * Indexes the names; a search returns positions in this list.
+     */
+    static PrefixIndex of(List<String> names) {
+        if (names.isEmpty()) {
+            return EMPTY;
+        }
+        List<Map.Entry<String, Integer>> nameEntries = new ArrayList<>(names.size());
+        List<Map.Entry<String, Integer>> wordEntries = new ArrayList<>();
+        for (int target = 0; target < names.size(); target++) {
+            String key = normalize(names.get(target));
+            if (key.isEmpty()) {
+                continue;
+            }
+            nameEntries.add(Map.entry(key, target));
+            for (int start = 1; start < key.length(); start++) {
+                if (!Character.isLetterOrDigit(key.charAt(start - 1)) && Character.isLetterOrDigit(key.charAt(start))) {
+                    wordEntries.add(Map.entry(key.substring(start), target));
+                }
+            }
+        }
+        nameEntries.sort(Map.Entry.comparingByKey());
+        wordEntries.sort(Map.Entry.comparingByKey());
+        return new PrefixIndex(keys(nameEntries), targets(nameEntries), keys(wordEntries), targets(wordEntries));
+    }
+
+    /**
+     * @param prefix what the user typed so far
+     * @param limit  the most matches to return
+     * @return positions of up to {@code limit} matching names, best first;
+     *         empty for a blank prefix
+     */
+    List<Integer> search(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        Set<Integer> matches = new LinkedHashSet<>();
+        collect(nameKeys, nameTargets, key, limit, matches);
+        collect(wordKeys, wordTargets, key, limit, matches);
+        return List.copyOf(matches);
+    }
+
+    private static void collect(String[] keys, int[] targets, String prefix, int limit, Set<Integer> matches) {
+        for (int i = lowerBound(keys, prefix); i < keys.length && matches.size() < limit
+                && keys[i].startsWith(prefix); i++) {
+            matches.add(targets[i]);
+        }
+    }
+
+    /**
+     * @return the first position whose key is not below the prefix;
+     *         {@link Arrays#binarySearch} may land on any of several equal keys
+     */
+    private static int lowerBound(String[] keys, String prefix) {
+        int from = 0;
+        int to = keys.length;
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    private static String[] keys(List<Map.Entry<String, Integer>> entries) {
+        return entries.stream().map(Map.Entry::getKey).toArray(String[]::new);
+    }
+
+    private static int[] targets(List<Map.Entry<String, Integer>> entries) {
+        return entries.stream().mapToInt(Map.Entry::getValue).toArray();
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+}
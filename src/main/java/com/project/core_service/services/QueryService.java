@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 /**
  * Service layer for managing {@link Query} entities.
@@ -38,6 +39,8 @@ public class QueryService {
 
     private static final String COLLECTION_FIELD = "solutionReviews";
 
+    private static final Pattern LOOKUPS_JOIN_PATTERN = Pattern.compile("\"from\"\\s*:\\s*\"lookups\"");
+
     @Autowired
     public QueryService(QueryRepository queryRepository, MongoTemplate mongoTemplate) {
         this.queryRepository = queryRepository;
@@ -151,10 +154,34 @@ public class QueryService {
         if (request.getDescription() != null && !request.getDescription().trim().isEmpty()) {
             existingQuery.setDescription(request.getDescription());
         }
+
+        // The author has revisited the pipeline
+        existingQuery.setStaleReason(null);
         
         return queryRepository.save(existingQuery);
     }
 
+    /**
+     * Flags the saved queries that join the given lookup from the
+     * {@code lookups} collection, i.e. whose pipeline has a {@code $lookup}
+     * from {@code lookups} and mentions the lookup name as a string.
+     *
+     * @param lookupName the lookup whose storage changed
+     * @param reason     why the queries may no longer work
+     * @return the names of the flagged queries
+     */
+    public List<String> flagQueriesJoiningLookup(String lookupName, String reason) {
+        String quotedName = "\"" + lookupName + "\"";
+        List<Query> dependent = queryRepository.findAll().stream()
+                .filter(query -> query.getMongoQuery() != null
+                        && LOOKUPS_JOIN_PATTERN.matcher(query.getMongoQuery()).find()
+                        && query.getMongoQuery().contains(quotedName))
+                .toList();
+        dependent.forEach(query -> query.setStaleReason(reason));
+        queryRepository.saveAll(dependent);
+        return dependent.stream().map(Query::getName).toList();
+    }
+
     /**
      * Deletes a {@link Query} by its name.
      * 
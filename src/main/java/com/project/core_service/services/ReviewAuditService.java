@@ -0,0 +1,218 @@
+package com.project.core_service.services;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Service;
+
+import com.project.core_service.dto.TransitionThroughputDTO;
+import com.project.core_service.models.review_transition.ReviewTransition;
+import com.project.core_service.repositories.ReviewTransitionRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records lifecycle transitions of solution reviews in the
+ * {@code reviewTransitions} collection and serves the audit history.
+ *
+ * <p>
+ * {@link #record(ReviewTransition)} only enqueues the entry; a background
+ * writer drains the queue every {@code audit.transitions.flush-interval-ms}
+ * and inserts up to {@code audit.transitions.batch-size} entries per write, so
+ * recording does not add a database round trip to the transition itself. If
+ * the queue is full the caller flushes it once; if that does not make room,
+ * the entry is logged and dropped rather than failing a transition that has
+ * already been committed. Pending entries are flushed on shutdown.
+ * </p>
+ *
+ * <p>
+ * Throughput is counted per calendar day of {@code audit.transitions.time-zone}.
+ * </p>
+ */
+@Service
+@Slf4j
+public class ReviewAuditService {
+
+    private final ReviewTransitionRepository reviewTransitionRepository;
+    private final MongoTemplate mongoTemplate;
+    private final BlockingQueue<ReviewTransition> pendingTransitions;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final ZoneId timeZone;
+
+    private ScheduledExecutorService flushExecutor;
+
+    public ReviewAuditService(ReviewTransitionRepository reviewTransitionRepository,
+            MongoTemplate mongoTemplate,
+            @Value("${audit.transitions.batch-size:100}") int batchSize,
+            @Value("${audit.transitions.flush-interval-ms:500}") long flushIntervalMs,
+            @Value("${audit.transitions.queue-capacity:10000}") int queueCapacity,
+            @Value("${audit.transitions.time-zone:UTC}") String timeZone) {
+        this.reviewTransitionRepository = reviewTransitionRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMs = Math.max(1, flushIntervalMs);
+        this.pendingTransitions = new LinkedBlockingQueue<>(Math.max(1, queueCapacity));
+        this.timeZone = ZoneId.of(timeZone);
+    }
+
+    /**
+     * Creates the query indexes and starts the background writer.
+     */
+    @PostConstruct
+    void start() {
+        ensureIndexes();
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "review-audit-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushExecutor.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background writer and writes any pending entries.
+     */
+    @PreDestroy
+    void stop() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+            try {
+                flushExecutor.awaitTermination(flushIntervalMs * 2, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Queues a transition for writing. Never throws, as the transition it
+     * records has already been committed.
+     *
+     * @param transition the transition to record
+     */
+    public void record(ReviewTransition transition) {
+        if (pendingTransitions.offer(transition)) {
+            return;
+        }
+        log.warn("Review audit queue is full, flushing on the calling thread");
+        flush();
+        if (!pendingTransitions.offer(transition)) {
+            log.error("Dropped review transition {} of {} because the audit queue is full and cannot be written",
+                    transition.getOperation(), transition.getDocumentId());
+        }
+    }
+
+    /**
+     * Writes all queued transitions in batches.
+     *
+     * @return the number of transitions written
+     */
+    public synchronized int flush() {
+        int written = 0;
+        List<ReviewTransition> batch = new ArrayList<>(batchSize);
+        while (pendingTransitions.drainTo(batch, batchSize) > 0) {
+            try {
+                reviewTransitionRepository.insert(batch);
+                written += batch.size();
+            } catch (RuntimeException e) {
+                log.error("Failed to write {} review transitions, will retry on next flush", batch.size(), e);
+                requeue(batch);
+                break;
+            }
+            batch.clear();
+        }
+        return written;
+    }
+
+    /**
+     * Retrieves the transition history of a solution review, newest first.
+     *
+     * @param documentId the solution review ID
+     * @return the recorded transitions
+     */
+    public List<ReviewTransition> getDocumentHistory(String documentId) {
+        return reviewTransitionRepository.findByDocumentIdOrderByTransitionedAtDesc(documentId);
+    }
+
+    /**
+     * Retrieves the transition history of all solution reviews of a system,
+     * newest first.
+     *
+     * @param systemCode the system code
+     * @param pageable   the pagination information
+     * @return a page of recorded transitions
+     */
+    public Page<ReviewTransition> getSystemHistory(String systemCode, Pageable pageable) {
+        return reviewTransitionRepository.findBySystemCodeOrderByTransitionedAtDesc(systemCode, pageable);
+    }
+
+    /**
+     * Counts transitions per day between two dates (both inclusive), both the
+     * day bounds and the grouping taken in {@code audit.transitions.time-zone}.
+     *
+     * @param from the first day
+     * @param to   the last day
+     * @return one entry per day that has at least one transition, oldest first
+     * @throws IllegalArgumentException if {@code from} is after {@code to}
+     */
+    public List<TransitionThroughputDTO> getThroughput(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException(
+                    String.format("'from' (%s) must not be after 'to' (%s)", from, to));
+        }
+        return reviewTransitionRepository.countTransitionsPerDay(
+                Date.from(from.atStartOfDay(timeZone).toInstant()),
+                Date.from(to.plusDays(1).atStartOfDay(timeZone).toInstant()),
+                timeZone.getId());
+    }
+
+    private void requeue(List<ReviewTransition> batch) {
+        int dropped = 0;
+        for (ReviewTransition transition : batch) {
+            if (!pendingTransitions.offer(transition)) {
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            log.error("Dropped {} review transitions because the audit queue is full", dropped);
+        }
+    }
+
+    private void ensureIndexes() {
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(ReviewTransition.class);
+            indexOps.ensureIndex(new Index()
+                    .on("documentId", Sort.Direction.ASC)
+                    .on("transitionedAt", Sort.Direction.DESC)
+                    .named("documentId_transitionedAt"));
+            indexOps.ensureIndex(new Index()
+                    .on("systemCode", Sort.Direction.ASC)
+                    .on("transitionedAt", Sort.Direction.DESC)
+                    .named("systemCode_transitionedAt"));
+            indexOps.ensureIndex(new Index()
+                    .on("transitionedAt", Sort.Direction.ASC)
+                    .named("transitionedAt"));
+        } catch (RuntimeException e) {
+            log.warn("Could not create indexes for review transitions: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.project.core_service.services;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.project.core_service.models.solutions_review.SolutionReview;
+
+/**
+ * Computes a content hash over the editable sections of a
+ * {@link SolutionReview}.
+ *
+ * <p>
+ * The hash is a SHA-256 digest of a canonical JSON form of the solution
+ * overview and the seven element sections, with properties and map keys in
+ * sorted order so that two reviews with the same content always produce the
+ * same hash. Identity, state and audit fields ({@code id}, {@code systemCode},
+ * {@code documentState}, timestamps and users) are not part of the hash.
+ * Date-times inside the content are hashed at millisecond precision, the
+ * precision MongoDB stores, so a review hashes the same before and after a
+ * round trip through the database.
+ * </p>
+ */
+@Service
+public class ReviewContentHashService {
+
+    private static final String ALGORITHM = "SHA-256";
+    private static final DateTimeFormatter MILLIS = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
+    private final ObjectMapper canonicalMapper;
+
+    public ReviewContentHashService(ObjectMapper objectMapper) {
+        ObjectMapper copy = objectMapper.copy();
+        copy.setConfig(copy.getSerializationConfig()
+                .with(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+                .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS));
+        copy.registerModule(new SimpleModule("ReviewContentHash")
+                .addSerializer(LocalDateTime.class, new LocalDateTimeSerializer(MILLIS)));
+        this.canonicalMapper = copy;
+    }
+
+    /**
+     * Computes the content hash of a review.
+     *
+     * @param review the review to hash
+     * @return the hex-encoded SHA-256 hash of the editable content
+     */
+    public String hash(SolutionReview review) {
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("solutionOverview", review.getSolutionOverview());
+        content.put("businessCapabilities", review.getBusinessCapabilities());
+        content.put("systemComponents", review.getSystemComponents());
+        content.put("integrationFlows", review.getIntegrationFlows());
+        content.put("dataAssets", review.getDataAssets());
+        content.put("technologyComponents", review.getTechnologyComponents());
+        content.put("enterpriseTools", review.getEnterpriseTools());
+        content.put("processCompliances", review.getProcessCompliances());
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance(ALGORITHM);
+            return HexFormat.of().formatHex(digest.digest(canonicalMapper.writeValueAsBytes(content)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize review content for hashing", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+}
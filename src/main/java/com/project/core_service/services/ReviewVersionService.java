@@ -0,0 +1,319 @@
+package com.project.core_service.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.core_service.dto.SolutionReviewDTO;
+import com.project.core_service.exceptions.NotFoundException;
+import com.project.core_service.models.review_version.ReviewChange;
+import com.project.core_service.models.review_version.ReviewVersion;
+import com.project.core_service.models.solutions_review.ReviewSection;
+import com.project.core_service.models.solutions_review.SolutionReview;
+import com.project.core_service.repositories.ReviewVersionRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps a delta-compressed history of the released solution review content of
+ * each system.
+ *
+ * <p>
+ * A version is recorded whenever a review of the system is activated. The
+ * first version, and every {@code history.versions.keyframe-interval}-th
+ * version after it, stores the full content; all others store only the
+ * per-section and per-element changes against the previous version. Any
+ * version is reconstructed by applying the changes since the closest keyframe,
+ * so reconstruction never replays more than one interval of diffs.
+ * </p>
+ */
+@Service
+@Slf4j
+public class ReviewVersionService {
+
+    static final String OVERVIEW_SECTION = "solutionOverview";
+    private static final TypeReference<Map<String, Object>> CONTENT_TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Map<String, Object>>> ELEMENTS_TYPE = new TypeReference<>() {
+    };
+
+    private final ReviewVersionRepository reviewVersionRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final int keyframeInterval;
+
+    public ReviewVersionService(ReviewVersionRepository reviewVersionRepository,
+            MongoTemplate mongoTemplate,
+            ObjectMapper objectMapper,
+            @Value("${history.versions.keyframe-interval:20}") int keyframeInterval) {
+        this.reviewVersionRepository = reviewVersionRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+    }
+
+    /**
+     * Creates the unique version index.
+     */
+    @PostConstruct
+    void ensureIndexes() {
+        try {
+            mongoTemplate.indexOps(ReviewVersion.class).ensureIndex(new Index()
+                    .on("systemCode", Sort.Direction.ASC)
+                    .on("version", Sort.Direction.DESC)
+                    .unique()
+                    .named("systemCode_version"));
+        } catch (RuntimeException e) {
+            log.warn("Could not create indexes for review versions: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Records the content of a review as the next version of its system.
+     *
+     * @param review     the review whose content is released
+     * @param recordedBy the user whose action released it
+     * @return the stored version
+     */
+    public ReviewVersion recordVersion(SolutionReview review, String recordedBy) {
+        Map<String, Object> content = toContent(review);
+        ReviewVersion latest = reviewVersionRepository.findFirstBySystemCodeOrderByVersionDesc(review.getSystemCode())
+                .orElse(null);
+        int version = latest == null ? 1 : latest.getVersion() + 1;
+
+        ReviewVersion.ReviewVersionBuilder builder = ReviewVersion.builder()
+                .systemCode(review.getSystemCode())
+                .version(version)
+                .documentId(review.getId())
+                .documentState(review.getDocumentState())
+                .recordedBy(recordedBy)
+                .recordedAt(LocalDateTime.now());
+
+        if ((version - 1) % keyframeInterval == 0) {
+            builder.keyframe(true).snapshot(content);
+        } else {
+            Map<String, Object> previous = reconstructContent(review.getSystemCode(), latest.getVersion());
+            builder.keyframe(false).changes(diff(previous, content));
+        }
+
+        ReviewVersion saved = reviewVersionRepository.insert(builder.build());
+        log.info("Recorded version {} of system {} from review {}", version, review.getSystemCode(), review.getId());
+        return saved;
+    }
+
+    /**
+     * Lists the versions of a system without their content, newest first.
+     *
+     * @param systemCode the system code
+     * @return the version metadata
+     */
+    public List<ReviewVersion> getVersions(String systemCode) {
+        return reviewVersionRepository.findSummariesBySystemCode(systemCode);
+    }
+
+    /**
+     * Reconstructs the content of a version.
+     *
+     * @param systemCode the system code
+     * @param version    the version number
+     * @return the content of the version
+     * @throws NotFoundException if the version does not exist
+     */
+    public SolutionReviewDTO getVersion(String systemCode, int version) {
+        SolutionReviewDTO dto = objectMapper.convertValue(reconstructContent(systemCode, version),
+                SolutionReviewDTO.class);
+        dto.setSystemCode(systemCode);
+        return dto;
+    }
+
+    /**
+     * Computes the changes that turn one version into another.
+     *
+     * @param systemCode  the system code
+     * @param fromVersion the base version
+     * @param toVersion   the target version
+     * @return the changes, overview first and then section by section
+     * @throws NotFoundException if either version does not exist
+     */
+    public List<ReviewChange> diffVersions(String systemCode, int fromVersion, int toVersion) {
+        return diff(reconstructContent(systemCode, fromVersion), reconstructContent(systemCode, toVersion));
+    }
+
+    private Map<String, Object> reconstructContent(String systemCode, int version) {
+        ReviewVersion keyframe = reviewVersionRepository
+                .findFirstBySystemCodeAndKeyframeTrueAndVersionLessThanEqualOrderByVersionDesc(systemCode, version)
+                .orElseThrow(() -> versionNotFound(systemCode, version));
+
+        Map<String, Object> content = normalize(keyframe.getSnapshot());
+        if (keyframe.getVersion() == version) {
+            return content;
+        }
+
+        List<ReviewVersion> deltas = reviewVersionRepository.findVersionRange(systemCode, keyframe.getVersion(),
+                version);
+        if (deltas.isEmpty() || deltas.get(deltas.size() - 1).getVersion() != version) {
+            throw versionNotFound(systemCode, version);
+        }
+        for (ReviewVersion delta : deltas) {
+            content = delta.isKeyframe()
+                    ? normalize(delta.getSnapshot())
+                    : apply(content, delta.getChanges());
+        }
+        return content;
+    }
+
+    private NotFoundException versionNotFound(String systemCode, int version) {
+        return new NotFoundException(String.format("Version %d of system '%s' not found", version, systemCode));
+    }
+
+    private Map<String, Object> toContent(SolutionReview review) {
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put(OVERVIEW_SECTION, review.getSolutionOverview());
+        content.put(ReviewSection.BUSINESS_CAPABILITIES.getFieldName(), review.getBusinessCapabilities());
+        content.put(ReviewSection.SYSTEM_COMPONENTS.getFieldName(), review.getSystemComponents());
+        content.put(ReviewSection.INTEGRATION_FLOWS.getFieldName(), review.getIntegrationFlows());
+        content.put(ReviewSection.DATA_ASSETS.getFieldName(), review.getDataAssets());
+        content.put(ReviewSection.TECHNOLOGY_COMPONENTS.getFieldName(), review.getTechnologyComponents());
+        content.put(ReviewSection.ENTERPRISE_TOOLS.getFieldName(), review.getEnterpriseTools());
+        content.put(ReviewSection.PROCESS_COMPLIANCES.getFieldName(), review.getProcessCompliances());
+        return normalize(content);
+    }
+
+    /**
+     * Converts content to plain JSON-shaped maps and lists, so content built from
+     * entities and content read back from MongoDB compare equal.
+     */
+    private Map<String, Object> normalize(Object content) {
+        return objectMapper.convertValue(content, CONTENT_TYPE);
+    }
+
+    private List<Map<String, Object>> elementsOf(Map<String, Object> content, String section) {
+        Object elements = content.get(section);
+        return elements == null ? Collections.emptyList() : objectMapper.convertValue(elements, ELEMENTS_TYPE);
+    }
+
+    /**
+     * Computes the structural changes that turn {@code from} into {@code to}.
+     */
+    List<ReviewChange> diff(Map<String, Object> from, Map<String, Object> to) {
+        List<ReviewChange> changes = new ArrayList<>();
+        if (!Objects.equals(from.get(OVERVIEW_SECTION), to.get(OVERVIEW_SECTION))) {
+            changes.add(new ReviewChange(ReviewChange.Type.REPLACE, OVERVIEW_SECTION, null,
+                    to.get(OVERVIEW_SECTION)));
+        }
+
+        for (ReviewSection section : ReviewSection.values()) {
+            String field = section.getFieldName();
+            Map<String, Map<String, Object>> before = keyed(elementsOf(from, field));
+            Map<String, Map<String, Object>> after = keyed(elementsOf(to, field));
+
+            List<String> order = new ArrayList<>();
+            for (String key : before.keySet()) {
+                if (!after.containsKey(key)) {
+                    changes.add(new ReviewChange(ReviewChange.Type.REMOVE, field, key, null));
+                } else {
+                    order.add(key);
+                }
+            }
+            List<String> targetOrder = new ArrayList<>(after.keySet());
+            // Adds are applied in target order at their target index, so a kept
+            // order only needs a REORDER when the kept elements moved
+            List<String> keptOrder = targetOrder.stream().filter(before::containsKey).toList();
+            for (int i = 0; i < targetOrder.size(); i++) {
+                String key = targetOrder.get(i);
+                Map<String, Object> element = after.get(key);
+                if (!before.containsKey(key)) {
+                    changes.add(new ReviewChange(ReviewChange.Type.ADD, field, key, element, i));
+                } else if (!element.equals(before.get(key))) {
+                    changes.add(new ReviewChange(ReviewChange.Type.REPLACE, field, key, element));
+                }
+            }
+            if (!order.equals(keptOrder)) {
+                changes.add(new ReviewChange(ReviewChange.Type.REORDER, field, null, targetOrder));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Applies changes produced by {@link #diff} to a copy of {@code content}.
+     */
+    Map<String, Object> apply(Map<String, Object> content, List<ReviewChange> changes) {
+        Map<String, Object> result = new LinkedHashMap<>(content);
+        Map<String, Map<String, Map<String, Object>>> sections = new LinkedHashMap<>();
+
+        for (ReviewChange change : changes == null ? List.<ReviewChange>of() : changes) {
+            if (OVERVIEW_SECTION.equals(change.getSection())) {
+                result.put(OVERVIEW_SECTION, change.getValue() == null ? null : normalize(change.getValue()));
+                continue;
+            }
+            Map<String, Map<String, Object>> elements = sections.computeIfAbsent(change.getSection(),
+                    field -> keyed(elementsOf(content, field)));
+            switch (change.getType()) {
+                case ADD -> insert(elements, change.getElementKey(), normalize(change.getValue()),
+                        change.getPosition());
+                case REPLACE -> elements.put(change.getElementKey(), normalize(change.getValue()));
+                case REMOVE -> elements.remove(change.getElementKey());
+                case REORDER -> {
+                    Map<String, Map<String, Object>> reordered = new LinkedHashMap<>();
+                    for (Object key : (List<?>) change.getValue()) {
+                        reordered.put(String.valueOf(key), elements.get(String.valueOf(key)));
+                    }
+                    elements.clear();
+                    elements.putAll(reordered);
+                }
+                default -> throw new IllegalStateException("Unknown change type: " + change.getType());
+            }
+        }
+        sections.forEach((field, elements) -> result.put(field, new ArrayList<>(elements.values())));
+        return result;
+    }
+
+    /**
+     * Inserts an element at {@code position}, or at the end when no position is
+     * recorded (changes stored before ADDs carried one) or it is past the end.
+     */
+    private static void insert(Map<String, Map<String, Object>> elements, String key, Map<String, Object> element,
+            Integer position) {
+        if (position == null || position >= elements.size()) {
+            elements.put(key, element);
+            return;
+        }
+        Map<String, Map<String, Object>> existing = new LinkedHashMap<>(elements);
+        elements.clear();
+        int index = 0;
+        for (Map.Entry<String, Map<String, Object>> entry : existing.entrySet()) {
+            if (index++ == position) {
+                elements.put(key, element);
+            }
+            elements.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static Map<String, Map<String, Object>> keyed(List<Map<String, Object>> elements) {
+        Map<String, Map<String, Object>> keyed = new LinkedHashMap<>();
+        for (int i = 0; i < elements.size(); i++) {
+            Object id = elements.get(i).get("id");
+            String key = id != null && !id.toString().isBlank() ? id.toString() : "#" + i;
+            if (keyed.containsKey(key)) {
+                // Duplicate IDs fall back to the position so no element is lost
+                key = "#" + i;
+            }
+            keyed.put(key, elements.get(i));
+        }
+        return keyed;
+    }
+}
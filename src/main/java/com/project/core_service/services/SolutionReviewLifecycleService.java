@@ -3,13 +3,16 @@ package com.project.core_service.services;
 import com.project.core_service.commands.LifecycleTransitionCommand;
 import com.project.core_service.exceptions.IllegalStateTransitionException;
 import com.project.core_service.exceptions.NotFoundException;
+import com.project.core_service.models.review_transition.ReviewTransition;
 import com.project.core_service.models.solutions_review.DocumentState;
 import com.project.core_service.models.solutions_review.SolutionReview;
 import com.project.core_service.repositories.SolutionReviewRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -26,44 +29,100 @@ public class SolutionReviewLifecycleService {
 
     private final SolutionReviewRepository solutionReviewRepository;
     private final SolutionReviewService solutionReviewService;
+    private final TransactionRetryService transactionRetryService;
+    private final ReviewAuditService reviewAuditService;
+    private final SystemCodeLockService systemCodeLockService;
+    private final DraftAutosaveService draftAutosaveService;
+    private final ReviewVersionService reviewVersionService;
 
     @Autowired
     public SolutionReviewLifecycleService(SolutionReviewRepository solutionReviewRepository,
-            SolutionReviewService solutionReviewService) {
+            SolutionReviewService solutionReviewService,
+            TransactionRetryService transactionRetryService,
+            ReviewAuditService reviewAuditService,
+            SystemCodeLockService systemCodeLockService,
+            DraftAutosaveService draftAutosaveService,
+            ReviewVersionService reviewVersionService) {
         this.solutionReviewRepository = solutionReviewRepository;
         this.solutionReviewService = solutionReviewService;
+        this.transactionRetryService = transactionRetryService;
+        this.reviewAuditService = reviewAuditService;
+        this.systemCodeLockService = systemCodeLockService;
+        this.draftAutosaveService = draftAutosaveService;
+        this.reviewVersionService = reviewVersionService;
     }
 
     /**
      * Executes a lifecycle transition for a SolutionReview document.
-     * Uses transaction management to ensure atomicity - if any part fails,
-     * all changes are rolled back to maintain data consistency.
+     * The load, validation and writes run in a single MongoDB transaction, so
+     * outdating the previous ACTIVE review and activating the new one either
+     * both commit or both roll back. Transient transaction errors (e.g. write
+     * conflicts between concurrent activations) are retried from a fresh read.
+     * The transaction runs while holding the lock for the review's system code,
+     * so it cannot interleave with creates or other transitions of that system.
+     * Once the transaction has committed, the transition is queued for the
+     * audit trail. An ACTIVATE also records the activated content in the
+     * version history within the same transaction. A SUBMIT first writes any
+     * autosaved changes still buffered for the review, so the submitted content
+     * is the latest one.
      * 
      * @param command the transition command containing document ID, operation, and
      *                user info
      * @throws IllegalStateTransitionException if the transition is not allowed
      * @throws NotFoundException               if the document is not found
      */
-    @Transactional
     public void executeTransition(LifecycleTransitionCommand command) {
         log.info("Executing lifecycle transition: operation={}, documentId={}, user={}",
                 command.getOperation(), command.getDocumentId(), command.getModifiedBy());
 
         // step 0: Validate and convert operation string to enum
-        DocumentState.StateOperation operation;
+        DocumentState.StateOperation operation = parseOperation(command.getOperation());
+
+        if (operation == DocumentState.StateOperation.SUBMIT) {
+            draftAutosaveService.flush(command.getDocumentId());
+        }
+
+        String systemCode = solutionReviewRepository.findSystemCodeById(command.getDocumentId())
+                .map(SolutionReview::getSystemCode)
+                .orElseThrow(() -> notFound(command.getDocumentId()));
+
+        ReviewTransition transition = systemCodeLockService.executeWithLock(systemCode,
+                () -> transactionRetryService.executeInTransaction(() -> applyTransition(command, operation)));
+
+        reviewAuditService.record(transition);
+    }
+
+    /**
+     * Converts the operation name from the command into a
+     * {@link DocumentState.StateOperation}.
+     * 
+     * @param operationName the requested operation
+     * @return the matching operation
+     * @throws IllegalArgumentException if the operation is unknown
+     */
+    private DocumentState.StateOperation parseOperation(String operationName) {
         try {
-            operation = DocumentState.StateOperation.valueOf(command.getOperation().toUpperCase());
+            return DocumentState.StateOperation.valueOf(operationName.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException(
                     String.format("Invalid operation '%s'. Valid operations are: %s",
-                            command.getOperation(),
+                            operationName,
                             java.util.Arrays.toString(DocumentState.StateOperation.values())));
         }
+    }
 
+    /**
+     * Loads, validates and persists a single transition. Runs inside the
+     * transaction started by {@link #executeTransition}.
+     * 
+     * @param command   the transition command
+     * @param operation the parsed operation
+     * @return the audit entry describing the applied transition
+     */
+    private ReviewTransition applyTransition(LifecycleTransitionCommand command, DocumentState.StateOperation operation) {
         // step 1: Load SolutionReview by documentId
         SolutionReview solutionReview = solutionReviewRepository.findById(command.getDocumentId())
-                .orElseThrow(() -> new NotFoundException(
-                        String.format("SolutionReview with ID '%s' not found", command.getDocumentId())));
+                .orElseThrow(() -> notFound(command.getDocumentId()));
 
         DocumentState currentState = solutionReview.getDocumentState();
 
@@ -93,6 +152,14 @@ public class SolutionReviewLifecycleService {
         // step 4: Save the updated document
         SolutionReview savedReview = solutionReviewRepository.save(solutionReview);
 
+        // step 5: An activated review is the next released version of its system
+        if (operation == DocumentState.StateOperation.ACTIVATE) {
+            reviewVersionService.recordVersion(savedReview, command.getModifiedBy());
+        }
+
+        // step 6: Do not commit if another instance has taken over the system lock
+        systemCodeLockService.checkLease(savedReview.getSystemCode());
+
         log.info("Lifecycle transition completed successfully: documentId={}, operation={}, " +
                 "oldState={}, newState={}, modifiedBy={}, comment='{}'",
                 savedReview.getId(),
@@ -101,6 +168,17 @@ public class SolutionReviewLifecycleService {
                 savedReview.getDocumentState(),
                 command.getModifiedBy(),
                 command.getComment());
+
+        return ReviewTransition.builder()
+                .documentId(savedReview.getId())
+                .systemCode(savedReview.getSystemCode())
+                .operation(operation)
+                .fromState(currentState)
+                .toState(savedReview.getDocumentState())
+                .modifiedBy(command.getModifiedBy())
+                .comment(command.getComment())
+                .transitionedAt(LocalDateTime.now())
+                .build();
     }
 
     /**
@@ -186,6 +264,10 @@ public class SolutionReviewLifecycleService {
         }
     }
 
+    private NotFoundException notFound(String documentId) {
+        return new NotFoundException(String.format("SolutionReview with ID '%s' not found", documentId));
+    }
+
     /**
      * Helper method to get the required state for an operation (for error
      * messages).
@@ -0,0 +1,202 @@
+package com.project.core_service.services;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.result.UpdateResult;
+import com.project.core_service.exceptions.NotFoundException;
+import com.project.core_service.models.solutions_review.DocumentState;
+import com.project.core_service.models.solutions_review.ReviewSection;
+import com.project.core_service.models.solutions_review.ReviewSectionElement;
+import com.project.core_service.models.solutions_review.SolutionReview;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service for editing a single section of a DRAFT {@link SolutionReview}
+ * without loading and rewriting the whole document.
+ *
+ * <p>
+ * Every operation is one {@code updateOne} whose filter includes
+ * {@code documentState: DRAFT}, so an edit can never land on a review that has
+ * been submitted in the meantime. Element-level operations address elements by
+ * their {@code _id}; elements without an ID are given a generated one when they
+ * are written through this service, a full update or a clone of the ACTIVE
+ * review, see {@link SolutionReviewService#assignElementIds}.
+ * </p>
+ *
+ * <p>
+ * Any autosave still buffered for the review is written before the edit, the
+ * same way a SUBMIT does, so a later flush of that older content cannot
+ * overwrite the section that was just edited.
+ * </p>
+ */
+@Service
+@Slf4j
+public class SolutionReviewSectionService {
+
+    private static final String ID_FIELD = "_id";
+    private static final String DOCUMENT_STATE_FIELD = "documentState";
+    private static final String LAST_MODIFIED_AT_FIELD = "lastModifiedAt";
+    private static final String CONTENT_HASH_FIELD = "contentHash";
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final DraftAutosaveService draftAutosaveService;
+
+    public SolutionReviewSectionService(MongoTemplate mongoTemplate, ObjectMapper objectMapper,
+            DraftAutosaveService draftAutosaveService) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.draftAutosaveService = draftAutosaveService;
+    }
+
+    /**
+     * Replaces all elements of a section with {@code $set}.
+     *
+     * @param reviewId the solution review ID
+     * @param section  the section to replace
+     * @param elements the new elements, as deserialized from the request body
+     * @return the elements that were written, with IDs assigned
+     * @throws NotFoundException     if the review does not exist
+     * @throws IllegalStateException if the review is not in DRAFT state
+     */
+    public List<ReviewSectionElement> replaceSection(String reviewId, ReviewSection section, List<?> elements) {
+        if (elements == null) {
+            throw new IllegalArgumentException("Section elements cannot be null");
+        }
+        List<ReviewSectionElement> converted = elements.stream()
+                .map(element -> toElement(section, element))
+                .toList();
+
+        Update update = new Update().set(section.getFieldName(), converted);
+        applyUpdate(draftQuery(reviewId), update, reviewId, section, null);
+
+        log.info("Replaced section {} of review {} with {} elements", section.getPath(), reviewId, converted.size());
+        return converted;
+    }
+
+    /**
+     * Appends an element to a section with {@code $push}.
+     *
+     * @param reviewId the solution review ID
+     * @param section  the section to append to
+     * @param element  the new element, as deserialized from the request body
+     * @return the element that was written, with its ID assigned
+     * @throws NotFoundException     if the review does not exist
+     * @throws IllegalStateException if the review is not in DRAFT state
+     */
+    public ReviewSectionElement addElement(String reviewId, ReviewSection section, Object element) {
+        ReviewSectionElement converted = toElement(section, element);
+
+        Update update = new Update().push(section.getFieldName(), converted);
+        applyUpdate(draftQuery(reviewId), update, reviewId, section, null);
+
+        log.info("Added element {} to section {} of review {}", converted.getId(), section.getPath(), reviewId);
+        return converted;
+    }
+
+    /**
+     * Replaces a single element of a section using the positional
+     * {@code $} operator.
+     *
+     * @param reviewId  the solution review ID
+     * @param section   the section containing the element
+     * @param elementId the ID of the element to replace
+     * @param element   the new element, as deserialized from the request body
+     * @return the element that was written
+     * @throws NotFoundException     if the review or the element does not exist
+     * @throws IllegalStateException if the review is not in DRAFT state
+     */
+    public ReviewSectionElement replaceElement(String reviewId, ReviewSection section, String elementId,
+            Object element) {
+        ReviewSectionElement converted = toElement(section, element);
+        converted.setId(elementId);
+
+        Update update = new Update().set(section.getFieldName() + ".$", converted);
+        applyUpdate(elementQuery(reviewId, section, elementId), update, reviewId, section, elementId);
+
+        log.info("Replaced element {} in section {} of review {}", elementId, section.getPath(), reviewId);
+        return converted;
+    }
+
+    /**
+     * Removes a single element from a section with {@code $pull}.
+     *
+     * @param reviewId  the solution review ID
+     * @param section   the section containing the element
+     * @param elementId the ID of the element to remove
+     * @throws NotFoundException     if the review or the element does not exist
+     * @throws IllegalStateException if the review is not in DRAFT state
+     */
+    public void removeElement(String reviewId, ReviewSection section, String elementId) {
+        Update update = new Update().pull(section.getFieldName(), new Document(ID_FIELD, elementId));
+        applyUpdate(elementQuery(reviewId, section, elementId), update, reviewId, section, elementId);
+
+        log.info("Removed element {} from section {} of review {}", elementId, section.getPath(), reviewId);
+    }
+
+    private void applyUpdate(Query query, Update update, String reviewId, ReviewSection section, String elementId) {
+        draftAutosaveService.flush(reviewId);
+
+        update.set(LAST_MODIFIED_AT_FIELD, LocalDateTime.now());
+        // The stored hash no longer describes the content; the next full update recomputes it
+        update.unset(CONTENT_HASH_FIELD);
+        UpdateResult result = mongoTemplate.updateFirst(query, update, SolutionReview.class);
+        if (result.getMatchedCount() == 0) {
+            throw explainMiss(reviewId, section, elementId);
+        }
+    }
+
+    private Query draftQuery(String reviewId) {
+        return new Query(Criteria.where(ID_FIELD).is(reviewId)
+                .and(DOCUMENT_STATE_FIELD).is(DocumentState.DRAFT));
+    }
+
+    private Query elementQuery(String reviewId, ReviewSection section, String elementId) {
+        return new Query(Criteria.where(ID_FIELD).is(reviewId)
+                .and(DOCUMENT_STATE_FIELD).is(DocumentState.DRAFT)
+                .and(section.getFieldName() + "." + ID_FIELD).is(elementId));
+    }
+
+    /**
+     * Works out why a guarded update matched nothing. Only runs on the failure
+     * path, so successful edits stay a single round trip.
+     */
+    private RuntimeException explainMiss(String reviewId, ReviewSection section, String elementId) {
+        Query stateQuery = new Query(Criteria.where(ID_FIELD).is(reviewId));
+        stateQuery.fields().include(DOCUMENT_STATE_FIELD);
+        SolutionReview review = mongoTemplate.findOne(stateQuery, SolutionReview.class);
+
+        if (review == null) {
+            return new NotFoundException(String.format("SolutionReview with ID '%s' not found", reviewId));
+        }
+        if (review.getDocumentState() != DocumentState.DRAFT) {
+            return new IllegalStateException("Only DRAFT reviews can be modified");
+        }
+        return new NotFoundException(String.format("Element '%s' not found in section '%s' of review '%s'",
+                elementId, section.getPath(), reviewId));
+    }
+
+    private ReviewSectionElement toElement(ReviewSection section, Object element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Section element cannot be null");
+        }
+        ReviewSectionElement converted = section.getElementType().isInstance(element)
+                ? (ReviewSectionElement) element
+                : objectMapper.convertValue(element, section.getElementType());
+        if (converted.getId() == null || converted.getId().isBlank()) {
+            converted.setId(UUID.randomUUID().toString());
+        }
+        return converted;
+    }
+}
@@ -8,21 +8,26 @@ import com.project.core_service.dto.SystemDependencyDTO;
 import com.project.core_service.dto.BusinessCapabilityDiagramDTO;
 import com.project.core_service.dto.NewSolutionOverviewRequestDTO;
 import com.project.core_service.dto.SolutionReviewDTO;
+import com.project.core_service.dto.SolutionReviewReferenceDTO;
 import com.project.core_service.exceptions.IllegalOperationException;
 import com.project.core_service.exceptions.NotFoundException;
 import com.project.core_service.models.enterprise_tools.EnterpriseTool;
 import com.project.core_service.models.enterprise_tools.Tool;
 import com.project.core_service.models.solution_overview.SolutionOverview;
 import com.project.core_service.models.solutions_review.DocumentState;
+import com.project.core_service.models.solutions_review.ReviewSection;
+import com.project.core_service.models.solutions_review.ReviewSectionElement;
 import com.project.core_service.models.solutions_review.SolutionReview;
 import com.project.core_service.repositories.*;
 
 import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
 import org.springframework.data.mongodb.core.aggregation.AggregationResults;
@@ -32,9 +37,13 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -49,16 +58,28 @@ import java.util.stream.Collectors;
  */
 @Service
 public class SolutionReviewService {
+    private static final List<String> CLONED_SECTIONS = Arrays.stream(ReviewSection.values())
+            .map(ReviewSection::getFieldName)
+            .toList();
+
     private final SolutionReviewRepository solutionReviewRepository;
     private final ChatbotServiceClient chatbotServiceClient;
     private final QueryService queryService;
+    private final SystemCodeLockService systemCodeLockService;
+    private final ReviewContentHashService contentHashService;
+    private final MongoTemplate mongoTemplate;
 
 
     @Autowired
-    public SolutionReviewService(SolutionReviewRepository solutionReviewRepository, ChatbotServiceClient chatbotServiceClient, QueryService queryService) {
+    public SolutionReviewService(SolutionReviewRepository solutionReviewRepository, ChatbotServiceClient chatbotServiceClient, QueryService queryService,
+            SystemCodeLockService systemCodeLockService, ReviewContentHashService contentHashService,
+            MongoTemplate mongoTemplate) {
         this.solutionReviewRepository = solutionReviewRepository;
         this.chatbotServiceClient = chatbotServiceClient;
         this.queryService = queryService;
+        this.systemCodeLockService = systemCodeLockService;
+        this.contentHashService = contentHashService;
+        this.mongoTemplate = mongoTemplate;
     }
 
     /**
@@ -72,6 +93,22 @@ public class SolutionReviewService {
         return solutionReviewRepository.findById(id);
     }
 
+    /**
+     * Checks that a {@link SolutionReview} exists and can still be modified,
+     * reading only its document state.
+     *
+     * @param id the identifier of the solution review
+     * @throws NotFoundException     if no review exists for the given ID
+     * @throws IllegalStateException if the review is not in DRAFT state
+     */
+    public void requireDraft(String id) {
+        SolutionReview solutionReview = solutionReviewRepository.findDocumentStateById(id)
+                .orElseThrow(() -> new NotFoundException(id));
+        if (solutionReview.getDocumentState() != DocumentState.DRAFT) {
+            throw new IllegalStateException("Only DRAFT reviews can be modified");
+        }
+    }
+
     private CleanSolutionReviewDTO toCleanDTO(SolutionReview review) {
         CleanSolutionReviewDTO dto = new CleanSolutionReviewDTO();
         dto.setId(review.getId());
@@ -234,6 +271,13 @@ public class SolutionReviewService {
      * @return the newly created solution review
      */
     public SolutionReview createSolutionReview(String systemCode, NewSolutionOverviewRequestDTO solutionOverview) {
+        // Hold the system lock so the exclusive-state check and the insert cannot
+        // interleave with another create or transition for the same system
+        return systemCodeLockService.executeWithLock(systemCode,
+                () -> insertNewSolutionReview(systemCode, solutionOverview));
+    }
+
+    private SolutionReview insertNewSolutionReview(String systemCode, NewSolutionOverviewRequestDTO solutionOverview) {
         validateExclusiveStateConstraint(systemCode);
 
         if (solutionOverview == null) {
@@ -257,32 +301,102 @@ public class SolutionReviewService {
      * Creates a new draft {@link SolutionReview} from existing ACTIVE solution
      * review
      *
+     * <p>
+     * The copy is made inside MongoDB by an aggregation that reads the ACTIVE
+     * review, drops the ID of its overview, keeps the IDs of its elements so
+     * the section endpoints can address them, resets state and
+     * timestamps and {@code $merge}s the result back into the collection under a
+     * pre-generated ID, so the review content never passes through the service.
+     * </p>
+     *
      * @param systemCode the system code associated with the review
-     * @return the newly created solution review
+     * @return a reference to the newly created draft
      * @throws NotFoundException if no ACTIVE solution review exists for the system
      */
-    public SolutionReview createSolutionReview(String systemCode) {
-        // step 1: query for active solution review by system code (should only have 1,
-        // optionally nothing -> throw error)
-        Optional<SolutionReview> activeSolutionReviewOpt = getActiveSolutionReviewBySystemCode(systemCode);
-        if (activeSolutionReviewOpt.isEmpty()) {
-            throw new NotFoundException("No ACTIVE solution review found for system " + systemCode +
-                    ". Cannot create new draft without an active reference.");
+    public SolutionReviewReferenceDTO createSolutionReview(String systemCode) {
+        // step 1: check that an active solution review exists for the system code
+        if (systemCode == null || !solutionReviewRepository.existsBySystemCodeAndDocumentStateIn(systemCode,
+                List.of(DocumentState.ACTIVE))) {
+            throw noActiveReference(systemCode);
         }
 
-        SolutionReview activeSolutionReview = activeSolutionReviewOpt.get();
+        return systemCodeLockService.executeWithLock(systemCode, () -> {
+            // Validate exclusive state constraint before creating new draft
+            validateExclusiveStateConstraint(systemCode);
 
-        // Validate exclusive state constraint before creating new draft
-        validateExclusiveStateConstraint(systemCode);
+            // step 2: copy the ACTIVE solution review on the server
+            ObjectId draftId = new ObjectId();
+            mongoTemplate.aggregate(cloneActiveToDraft(systemCode, draftId),
+                    mongoTemplate.getCollectionName(SolutionReview.class), Document.class);
 
-        // step 2: copy from existing ACTIVE solution review
-        SolutionOverview overview = SolutionOverview
-                .fromExisting(activeSolutionReview.getSolutionOverview())
-                .build();
-        SolutionReview solutionReview = SolutionReview.fromExisting(activeSolutionReview, null)
-                .solutionOverview(overview).build();
+            // The ACTIVE review can still be deleted outside the system lock
+            if (!solutionReviewRepository.existsById(draftId.toHexString())) {
+                throw noActiveReference(systemCode);
+            }
+            return new SolutionReviewReferenceDTO(draftId.toHexString(), systemCode, DocumentState.DRAFT);
+        });
+    }
 
-        return solutionReviewRepository.insert(solutionReview);
+    /**
+     * Builds the pipeline that copies the ACTIVE review of a system into a new
+     * DRAFT, with the same fields and resets as
+     * {@link SolutionReview#fromExisting(SolutionReview, String)}.
+     */
+    Aggregation cloneActiveToDraft(String systemCode, ObjectId draftId) {
+        Document elementIds = new Document();
+        CLONED_SECTIONS.forEach(section -> elementIds.append(section, withElementIds(section, draftId)));
+
+        Document fields = new Document("systemCode", 1)
+                .append("solutionOverview", 1)
+                .append("createdBy", 1)
+                .append("_class", 1);
+        CLONED_SECTIONS.forEach(section -> fields.append(section, 1));
+
+        List<Document> stages = List.of(
+                new Document("$match", new Document("systemCode", systemCode)
+                        .append("documentState", DocumentState.ACTIVE.name())),
+                new Document("$limit", 1),
+                new Document("$project", fields),
+                new Document("$unset", "solutionOverview._id"),
+                new Document("$set", elementIds),
+                new Document("$set", new Document("_id", new Document("$literal", draftId))
+                        .append("documentState", DocumentState.DRAFT.name())
+                        .append("createdAt", "$$NOW")
+                        .append("lastModifiedAt", "$$NOW")),
+                new Document("$merge", new Document("into", mongoTemplate.getCollectionName(SolutionReview.class))
+                        .append("on", "_id")
+                        .append("whenMatched", "fail")
+                        .append("whenNotMatched", "insert")));
+
+        List<AggregationOperation> operations = new ArrayList<>();
+        for (Document stage : stages) {
+            operations.add(context -> stage);
+        }
+        return Aggregation.newAggregation(operations);
+    }
+
+    /**
+     * Keeps the ID of every element of a cloned section, since IDs only need
+     * to be unique within their section, and gives elements stored without
+     * one the draft ID followed by their position.
+     */
+    private static Document withElementIds(String section, ObjectId draftId) {
+        Document elements = new Document("$ifNull", List.of("$" + section, List.of()));
+        Document element = new Document("$arrayElemAt", List.of("$" + section, "$$index"));
+        Document generatedId = new Document("$concat", List.of(
+                draftId.toHexString() + "-", new Document("$toString", "$$index")));
+        return new Document("$map", new Document("input",
+                new Document("$range", List.of(0, new Document("$size", elements))))
+                .append("as", "index")
+                .append("in", new Document("$let", new Document("vars", new Document("element", element))
+                        .append("in", new Document("$mergeObjects", List.of("$$element",
+                                new Document("_id", new Document("$ifNull",
+                                        List.of("$$element._id", generatedId)))))))));
+    }
+
+    private NotFoundException noActiveReference(String systemCode) {
+        return new NotFoundException("No ACTIVE solution review found for system " + systemCode +
+                ". Cannot create new draft without an active reference.");
     }
 
     /**
@@ -294,6 +408,11 @@ public class SolutionReviewService {
      * {@link NotFoundException} is thrown.
      * </p>
      *
+     * <p>
+     * If the merged content hashes to the stored {@code contentHash}, nothing
+     * is written and the stored review is returned unchanged.
+     * </p>
+     *
      * @param modifiedSolutionReview the DTO containing modified fields
      * @return the updated solution review
      * @throws NotFoundException if no solution review exists with the given ID
@@ -310,20 +429,38 @@ public class SolutionReviewService {
             throw new IllegalStateException("Only DRAFT reviews can be modified");
         }
 
+        String storedHash = solutionReview.getContentHash() != null
+                ? solutionReview.getContentHash()
+                : contentHashService.hash(solutionReview);
+
         if (modifiedSolutionReview.getSolutionOverview() != null) {
             SolutionOverview overview = modifiedSolutionReview.getSolutionOverview();
             updateIfNotEmpty(overview.getConcerns(), overview::setConcerns);
             solutionReview.setSolutionOverview(overview);
         }
 
-        updateIfNotEmpty(modifiedSolutionReview.getBusinessCapabilities(), solutionReview::setBusinessCapabilities);
-        updateIfNotEmpty(modifiedSolutionReview.getSystemComponents(), solutionReview::setSystemComponents);
-        updateIfNotEmpty(modifiedSolutionReview.getIntegrationFlows(), solutionReview::setIntegrationFlows);
-        updateIfNotEmpty(modifiedSolutionReview.getDataAssets(), solutionReview::setDataAssets);
-        updateIfNotEmpty(modifiedSolutionReview.getTechnologyComponents(), solutionReview::setTechnologyComponents);
-        updateIfNotEmpty(modifiedSolutionReview.getEnterpriseTools(), solutionReview::setEnterpriseTools);
-        updateIfNotEmpty(modifiedSolutionReview.getProcessCompliances(), solutionReview::setProcessCompliances);
+        updateElementsIfNotEmpty(modifiedSolutionReview.getBusinessCapabilities(),
+                solutionReview.getBusinessCapabilities(), solutionReview::setBusinessCapabilities);
+        updateElementsIfNotEmpty(modifiedSolutionReview.getSystemComponents(),
+                solutionReview.getSystemComponents(), solutionReview::setSystemComponents);
+        updateElementsIfNotEmpty(modifiedSolutionReview.getIntegrationFlows(),
+                solutionReview.getIntegrationFlows(), solutionReview::setIntegrationFlows);
+        updateElementsIfNotEmpty(modifiedSolutionReview.getDataAssets(),
+                solutionReview.getDataAssets(), solutionReview::setDataAssets);
+        updateElementsIfNotEmpty(modifiedSolutionReview.getTechnologyComponents(),
+                solutionReview.getTechnologyComponents(), solutionReview::setTechnologyComponents);
+        updateElementsIfNotEmpty(modifiedSolutionReview.getEnterpriseTools(),
+                solutionReview.getEnterpriseTools(), solutionReview::setEnterpriseTools);
+        updateElementsIfNotEmpty(modifiedSolutionReview.getProcessCompliances(),
+                solutionReview.getProcessCompliances(), solutionReview::setProcessCompliances);
+
+        // Autosaves mostly resend unchanged content; skip the write when nothing changed
+        String updatedHash = contentHashService.hash(solutionReview);
+        if (updatedHash.equals(storedHash)) {
+            return solutionReview;
+        }
 
+        solutionReview.setContentHash(updatedHash);
         solutionReview.setLastModifiedAt(LocalDateTime.now());
 
         return solutionReviewRepository.save(solutionReview);
@@ -360,6 +497,7 @@ public class SolutionReviewService {
         if (modifiedSolutionReview.getSolutionOverview() != null) {
             SolutionOverview overview = modifiedSolutionReview.getSolutionOverview();
             solutionReview.setSolutionOverview(overview);
+            solutionReview.setContentHash(null);
         }
 
         solutionReview.setLastModifiedAt(LocalDateTime.now());
@@ -391,6 +529,62 @@ public class SolutionReviewService {
         }
     }
 
+    private <T extends ReviewSectionElement> void updateElementsIfNotEmpty(List<T> elements, List<T> stored,
+            Consumer<List<T>> setter) {
+        if (elements != null && !elements.isEmpty()) {
+            setter.accept(assignElementIds(elements, stored));
+        }
+    }
+
+    /**
+     * Gives every element without an ID, or repeating an ID used earlier in the
+     * list, an ID so that the section endpoints can address it. An element
+     * that equals a stored element but for its missing ID takes over that
+     * element's ID, so resending unchanged content without IDs neither changes
+     * the IDs nor rewrites the review; any other element gets a generated ID.
+     *
+     * @param elements the new elements of a section
+     * @param stored   the elements of the section as stored, may be
+     *                 {@code null}
+     * @return the same elements, with IDs assigned
+     */
+    static <T extends ReviewSectionElement> List<T> assignElementIds(List<T> elements, List<T> stored) {
+        List<T> unclaimed = new ArrayList<>();
+        if (stored != null) {
+            stored.stream().filter(SolutionReviewService::hasId).forEach(unclaimed::add);
+        }
+        elements.stream()
+                .filter(SolutionReviewService::hasId)
+                .forEach(element -> unclaimed.removeIf(candidate -> candidate.getId().equals(element.getId())));
+
+        Set<String> used = new HashSet<>();
+        for (T element : elements) {
+            if (hasId(element) && used.add(element.getId())) {
+                continue;
+            }
+            element.setId(null);
+            for (Iterator<T> candidates = unclaimed.iterator(); candidates.hasNext();) {
+                T candidate = candidates.next();
+                element.setId(candidate.getId());
+                if (element.equals(candidate) && used.add(candidate.getId())) {
+                    candidates.remove();
+                    break;
+                }
+                element.setId(null);
+            }
+            if (element.getId() == null) {
+                String id = UUID.randomUUID().toString();
+                element.setId(id);
+                used.add(id);
+            }
+        }
+        return elements;
+    }
+
+    private static boolean hasId(ReviewSectionElement element) {
+        return element.getId() != null && !element.getId().isBlank();
+    }
+
     // ====== CONSTRAINT VALIDATION METHODS ======
 
     /**
@@ -0,0 +1,323 @@
+package com.project.core_service.services;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.project.core_service.exceptions.ConcurrentOperationException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Provides mutual exclusion per system code for operations that check and
+ * then change the set of solution reviews of a system (create, clone and
+ * lifecycle transitions).
+ *
+ * <p>
+ * Two levels of locking are used, always in this order:
+ * <ul>
+ * <li>An in-process {@link ReentrantLock} per system code, so threads of this
+ * instance working on the same system serialize without touching the database.
+ * Locks are created on demand and dropped once no thread holds or waits for
+ * them, so a wait only ever concerns the same system code.</li>
+ * <li>A lease document in the {@code systemLocks} collection, keyed by system
+ * code, that serializes instances of the service. A lease is acquired with a
+ * conditional upsert that only succeeds when no lease exists or the existing
+ * one has expired, and is released by deleting it. Leases expire after
+ * {@code locks.system-code.lease-ttl-ms} so a crashed instance cannot block a
+ * system forever; while held they are renewed every third of that time, so a
+ * long operation keeps its lease. Work that must not commit after losing the
+ * lease calls {@link #checkLease(String)} inside its transaction. The lease can
+ * be disabled with {@code locks.system-code.lease.enabled=false} for
+ * single-instance deployments.</li>
+ * </ul>
+ * Both locks are re-entrant for the current thread.
+ * </p>
+ */
+@Service
+@Slf4j
+public class SystemCodeLockService {
+
+    static final String LEASE_COLLECTION = "systemLocks";
+    private static final String ID_FIELD = "_id";
+    private static final String OWNER_FIELD = "owner";
+    private static final String EXPIRES_AT_FIELD = "expiresAt";
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean leaseEnabled;
+    private final long leaseTtlMs;
+    private final long acquireTimeoutMs;
+    private final long retryIntervalMs;
+
+    /**
+     * Local locks by system code, each counting the threads holding or waiting
+     * for it.
+     */
+    private final Map<String, KeyLock> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Leases held by this instance, keyed by system code. The local lock
+     * guarantees at most one thread of this instance holds a given lease.
+     */
+    private final Map<String, HeldLease> heldLeases = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService renewExecutor;
+
+    public SystemCodeLockService(MongoTemplate mongoTemplate,
+            @Value("${locks.system-code.lease.enabled:true}") boolean leaseEnabled,
+            @Value("${locks.system-code.lease-ttl-ms:30000}") long leaseTtlMs,
+            @Value("${locks.system-code.acquire-timeout-ms:10000}") long acquireTimeoutMs,
+            @Value("${locks.system-code.retry-interval-ms:25}") long retryIntervalMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaseEnabled = leaseEnabled;
+        this.leaseTtlMs = leaseTtlMs;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.retryIntervalMs = Math.max(1, retryIntervalMs);
+    }
+
+    /**
+     * Creates a TTL index so expired leases of crashed instances are removed,
+     * and starts renewing held leases.
+     */
+    @PostConstruct
+    void start() {
+        if (!leaseEnabled) {
+            return;
+        }
+        try {
+            mongoTemplate.indexOps(LEASE_COLLECTION).ensureIndex(new Index()
+                    .on(EXPIRES_AT_FIELD, Sort.Direction.ASC)
+                    .expire(0, TimeUnit.SECONDS)
+                    .named("expiresAt_ttl"));
+        } catch (RuntimeException e) {
+            log.warn("Could not create TTL index for system locks: {}", e.getMessage());
+        }
+        long renewIntervalMs = Math.max(1, leaseTtlMs / 3);
+        renewExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "system-lock-renewer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        renewExecutor.scheduleWithFixedDelay(this::renewLeases, renewIntervalMs, renewIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (renewExecutor != null) {
+            renewExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the action while holding the lock for the given system code.
+     *
+     * @param systemCode the system code to lock
+     * @param action     the work to run
+     * @param <T>        the result type
+     * @return the value returned by the action
+     * @throws ConcurrentOperationException if the lock could not be acquired
+     *                                      within the configured timeout
+     */
+    public <T> T executeWithLock(String systemCode, Supplier<T> action) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs);
+        KeyLock keyLock = locks.compute(systemCode, (code, existing) -> {
+            KeyLock lock = existing != null ? existing : new KeyLock();
+            lock.users++;
+            return lock;
+        });
+        try {
+            if (!keyLock.lock.tryLock(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw busy(systemCode);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unuse(systemCode);
+            throw busy(systemCode);
+        } catch (ConcurrentOperationException e) {
+            unuse(systemCode);
+            throw e;
+        }
+        try {
+            // Nested calls already hold the lease through the outermost call
+            if (!leaseEnabled || keyLock.lock.getHoldCount() > 1) {
+                return action.get();
+            }
+            acquireLease(systemCode, deadline);
+            try {
+                return action.get();
+            } finally {
+                releaseLease(systemCode);
+            }
+        } finally {
+            keyLock.lock.unlock();
+            unuse(systemCode);
+        }
+    }
+
+    /**
+     * Runs the action while holding the lock for the given system code.
+     *
+     * @param systemCode the system code to lock
+     * @param action     the work to run
+     * @throws ConcurrentOperationException if the lock could not be acquired
+     *                                      within the configured timeout
+     */
+    public void runWithLock(String systemCode, Runnable action) {
+        executeWithLock(systemCode, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Fencing check for work done under {@link #executeWithLock}: extends this
+     * instance's lease only if it still owns it. Called inside a transaction,
+     * the write makes the transaction conflict with another instance taking
+     * over the lease, so work cannot commit after its lease was lost.
+     *
+     * @param systemCode the locked system code
+     * @throws ConcurrentOperationException if the lease was lost
+     * @throws IllegalStateException        if the lock is not held
+     */
+    public void checkLease(String systemCode) {
+        if (!leaseEnabled) {
+            return;
+        }
+        HeldLease held = heldLeases.get(systemCode);
+        if (held == null) {
+            throw new IllegalStateException("The lock for system '" + systemCode + "' is not held");
+        }
+        if (held.lost || !renew(systemCode, held)) {
+            throw leaseLost(systemCode);
+        }
+    }
+
+    /**
+     * @return the number of system codes with a local lock in use
+     */
+    int lockedSystemCodeCount() {
+        return locks.size();
+    }
+
+    /**
+     * Extends every lease held by this instance. Runs every third of the lease
+     * TTL; a lease found taken over is marked lost so {@link #checkLease}
+     * fails.
+     */
+    void renewLeases() {
+        heldLeases.forEach((systemCode, held) -> {
+            try {
+                if (!held.lost && !renew(systemCode, held)) {
+                    held.lost = true;
+                    log.warn("Lost the lease on system {}; its operation will not commit", systemCode);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to renew lease on system {}: {}", systemCode, e.getMessage());
+            }
+        });
+    }
+
+    private boolean renew(String systemCode, HeldLease held) {
+        UpdateResult result = mongoTemplate.updateFirst(
+                new Query(Criteria.where(ID_FIELD).is(systemCode).and(OWNER_FIELD).is(held.token)),
+                new Update().set(EXPIRES_AT_FIELD, new Date(System.currentTimeMillis() + leaseTtlMs)),
+                LEASE_COLLECTION);
+        return result.getMatchedCount() > 0;
+    }
+
+    private void unuse(String systemCode) {
+        locks.computeIfPresent(systemCode, (code, lock) -> --lock.users == 0 ? null : lock);
+    }
+
+    private void acquireLease(String systemCode, long deadline) {
+        String token = UUID.randomUUID().toString();
+        while (!tryAcquireLease(systemCode, token)) {
+            if (System.nanoTime() >= deadline) {
+                throw busy(systemCode);
+            }
+            try {
+                Thread.sleep(retryIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw busy(systemCode);
+            }
+        }
+        heldLeases.put(systemCode, new HeldLease(token));
+    }
+
+    private boolean tryAcquireLease(String systemCode, String token) {
+        Date now = new Date();
+        Query query = new Query(Criteria.where(ID_FIELD).is(systemCode)
+                .and(EXPIRES_AT_FIELD).lt(now));
+        Update update = new Update()
+                .set(OWNER_FIELD, token)
+                .set(EXPIRES_AT_FIELD, new Date(now.getTime() + leaseTtlMs));
+        try {
+            // Matches only an expired lease; when a live lease exists the upsert
+            // tries to insert a second document with the same _id and fails.
+            mongoTemplate.upsert(query, update, LEASE_COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private void releaseLease(String systemCode) {
+        HeldLease held = heldLeases.remove(systemCode);
+        if (held == null) {
+            return;
+        }
+        try {
+            mongoTemplate.remove(new Query(Criteria.where(ID_FIELD).is(systemCode)
+                    .and(OWNER_FIELD).is(held.token)), LEASE_COLLECTION);
+        } catch (RuntimeException e) {
+            // The lease expires on its own; do not fail the completed operation.
+            log.warn("Failed to release lock for system {}: {}", systemCode, e.getMessage());
+        }
+    }
+
+    private ConcurrentOperationException busy(String systemCode) {
+        return new ConcurrentOperationException(String.format(
+                "Another operation on system '%s' is in progress. Please retry.", systemCode));
+    }
+
+    private ConcurrentOperationException leaseLost(String systemCode) {
+        return new ConcurrentOperationException(String.format(
+                "The lock on system '%s' expired before the operation finished. Please retry.", systemCode));
+    }
+
+    private static final class KeyLock {
+        private final ReentrantLock lock = new ReentrantLock();
+        // Guarded by the map's compute functions
+        private int users;
+    }
+
+    private static final class HeldLease {
+        private final String token;
+        private volatile boolean lost;
+
+        private HeldLease(String token) {
+            this.token = token;
+        }
+    }
+}
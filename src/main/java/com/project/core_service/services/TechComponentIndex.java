@@ -0,0 +1,85 @@
+package com.project.core_service.services;
+
+import com.project.core_service.dto.TechComponentLookupDTO;
+import com.project.core_service.dto.TechProductDTO;
+
+import java.util.*;
+
+/**
+ * The tech components of one lookup version grouped by product, with a
+ * {@link PrefixIndex} over the product names.
+ *
+ * <p>
+ * Products are matched by name ignoring case, so "Spring Boot" and
+ * "spring boot" rows form one product under the first spelling seen.
+ * Versions keep the order in which they first appear; duplicate and empty
+ * versions are dropped.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable once built and safe to share between threads.
+ * </p>
+ */
+final class TechComponentIndex {
+
+    private final List<TechProductDTO> products;
+    private final Map<String, TechProductDTO> productsByName;
+    private final PrefixIndex names;
+
+    private TechComponentIndex(List<TechProductDTO> products, Map<String, TechProductDTO> productsByName,
+            PrefixIndex names) {
+        this.products = products;
+        this.productsByName = productsByName;
+        this.names = names;
+    }
+
+    static TechComponentIndex of(List<TechComponentLookupDTO> components) {
+        Map<String, String> spellings = new LinkedHashMap<>();
+        Map<String, Set<String>> versions = new HashMap<>();
+        for (TechComponentLookupDTO component : components) {
+            String name = component.getProductName() == null ? "" : component.getProductName().trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            String key = key(name);
+            spellings.putIfAbsent(key, name);
+            Set<String> productVersions = versions.computeIfAbsent(key, k -> new LinkedHashSet<>());
+            if (component.getProductVersion() != null && !component.getProductVersion().isBlank()) {
+                productVersions.add(component.getProductVersion().trim());
+            }
+        }
+
+        List<TechProductDTO> products = new ArrayList<>(spellings.size());
+        Map<String, TechProductDTO> productsByName = new HashMap<>();
+        spellings.forEach((key, name) -> {
+            TechProductDTO product = new TechProductDTO(name, List.copyOf(versions.get(key)));
+            products.add(product);
+            productsByName.put(key, product);
+        });
+        return new TechComponentIndex(List.copyOf(products), Map.copyOf(productsByName),
+                PrefixIndex.of(products.stream().map(TechProductDTO::getProductName).toList()));
+    }
+
+    /**
+     * Finds products whose name, or a word in it, starts with the prefix,
+     * ignoring case; names starting with it come first.
+     *
+     * @param prefix what the user typed so far
+     * @param limit  the most products to return
+     * @return up to {@code limit} products with their versions; empty for a blank prefix
+     */
+    List<TechProductDTO> search(String prefix, int limit) {
+        return names.search(prefix, limit).stream().map(products::get).toList();
+    }
+
+    /**
+     * @return the product with the given name, ignoring case, if any
+     */
+    Optional<TechProductDTO> product(String productName) {
+        return productName == null ? Optional.empty() : Optional.ofNullable(productsByName.get(key(productName.trim())));
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
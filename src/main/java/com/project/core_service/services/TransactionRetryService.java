@@ -0,0 +1,126 @@
+package com.project.core_service.services;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mongodb.MongoException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs callbacks inside a MongoDB multi-document transaction and retries them
+ * when the server reports a transient failure.
+ * 
+ * <p>
+ * A transaction is retried when any exception in the cause chain carries the
+ * {@code TransientTransactionError} error label, up to
+ * {@code mongodb.transactions.max-attempts} attempts. The whole callback is
+ * re-executed on every attempt, so callbacks must read the state they depend
+ * on inside the callback rather than capture it up front.
+ * 
+ * <p>
+ * {@code UnknownTransactionCommitResult} is not retried here: the commit may
+ * have been applied, and replaying the callback would then repeat its work or
+ * report a committed transition as failed. The transaction manager retries
+ * just the commit instead (see
+ * {@link com.project.core_service.config.CommitRetryingMongoTransactionManager}).
+ * 
+ * <p>
+ * When no transaction manager is configured (see
+ * {@link com.project.core_service.config.MongoConfig}), callbacks are executed
+ * directly.
+ */
+@Service
+@Slf4j
+public class TransactionRetryService {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    public TransactionRetryService(ObjectProvider<PlatformTransactionManager> transactionManagerProvider,
+            @Value("${mongodb.transactions.max-attempts:3}") int maxAttempts,
+            @Value("${mongodb.transactions.retry-backoff-ms:25}") long retryBackoffMs) {
+        PlatformTransactionManager transactionManager = transactionManagerProvider.getIfAvailable();
+        this.transactionTemplate = transactionManager != null ? new TransactionTemplate(transactionManager) : null;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = Math.max(0, retryBackoffMs);
+    }
+
+    /**
+     * Executes the given action in a transaction, retrying on transient errors.
+     * 
+     * @param action the work to run inside the transaction
+     * @param <T>    the result type
+     * @return the value returned by the action
+     */
+    public <T> T executeInTransaction(Supplier<T> action) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return transactionTemplate != null
+                        ? transactionTemplate.execute(status -> action.get())
+                        : action.get();
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || !isRetryable(e)) {
+                    throw e;
+                }
+                log.warn("Transient transaction failure on attempt {}/{}, retrying: {}",
+                        attempt, maxAttempts, e.getMessage());
+                backoff(attempt);
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Executes the given action in a transaction, retrying on transient errors.
+     * 
+     * @param action the work to run inside the transaction
+     */
+    public void runInTransaction(Runnable action) {
+        executeInTransaction(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Checks whether the exception, or any of its causes, is a MongoDB error
+     * labelled as safe to retry from the start of the transaction.
+     * 
+     * @param throwable the failure to inspect
+     * @return true if the transaction can be retried
+     */
+    boolean isRetryable(Throwable throwable) {
+        Throwable current = throwable;
+        while (current != null) {
+            if (current instanceof MongoException mongoException
+                    && mongoException.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL)) {
+                return true;
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+            current = current.getCause();
+        }
+        return false;
+    }
+
+    private void backoff(int attempt) {
+        if (retryBackoffMs == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(retryBackoffMs * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry transaction", e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.project.core_service.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+
+import com.mongodb.MongoException;
+
+/**
+ * Unit tests for {@link CommitRetryingMongoTransactionManager}.
+ */
+class CommitRetryingMongoTransactionManagerTest {
+
+    private final CommitRetryingMongoTransactionManager manager =
+            new CommitRetryingMongoTransactionManager(mock(MongoDatabaseFactory.class), 3, 0);
+
+    private static MongoException labelledException(String label) {
+        MongoException exception = new MongoException(91, "ShutdownInProgress");
+        exception.addLabel(label);
+        return exception;
+    }
+
+    @Test
+    @DisplayName("Should re-send the commit while its result is unknown")
+    void shouldRetryCommitOnUnknownResult() throws InterruptedException {
+        AtomicInteger commits = new AtomicInteger();
+
+        manager.commitWithRetry(() -> {
+            if (commits.incrementAndGet() < 3) {
+                throw labelledException(MongoException.UNKNOWN_TRANSACTION_COMMIT_RESULT_LABEL);
+            }
+        });
+
+        assertEquals(3, commits.get());
+    }
+
+    @Test
+    @DisplayName("Should give up on the commit after the configured number of attempts")
+    void shouldStopAfterMaxAttempts() {
+        AtomicInteger commits = new AtomicInteger();
+        MongoException failure = labelledException(MongoException.UNKNOWN_TRANSACTION_COMMIT_RESULT_LABEL);
+
+        MongoException thrown = assertThrows(MongoException.class, () -> manager.commitWithRetry(() -> {
+            commits.incrementAndGet();
+            throw failure;
+        }));
+
+        assertSame(failure, thrown);
+        assertEquals(3, commits.get());
+    }
+
+    @Test
+    @DisplayName("Should not retry commits failing for other reasons")
+    void shouldNotRetryOtherFailures() {
+        AtomicInteger commits = new AtomicInteger();
+
+        assertThrows(MongoException.class, () -> manager.commitWithRetry(() -> {
+            commits.incrementAndGet();
+            throw labelledException(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL);
+        }));
+
+        assertEquals(1, commits.get());
+    }
+}
@@ -1,13 +1,19 @@
 package com.project.core_service.controllers;
 
 import com.project.core_service.dto.BusinessCapabilityLookupDTO;
+import com.project.core_service.dto.BusinessCapabilityNodeDTO;
+import com.project.core_service.dto.DropdownOptionDTO;
 import com.project.core_service.dto.TechComponentLookupDTO;
+import com.project.core_service.dto.TechProductDTO;
 import com.project.core_service.exceptions.NotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.core_service.services.DropdownService;
+import com.project.core_service.services.DropdownService.CachedDropdown;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -25,6 +31,9 @@ class DropdownControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @MockitoBean
     private DropdownService dropdownService;
 
@@ -39,7 +48,7 @@ class DropdownControllerTest {
             new BusinessCapabilityLookupDTO("Customer Management", "Customer Onboarding", "Customer Registration")
         );
 
-        when(dropdownService.getBusinessCapabilities()).thenReturn(expectedCapabilities);
+        when(dropdownService.getBusinessCapabilitiesDropdown()).thenReturn(CachedDropdown.of(expectedCapabilities, objectMapper));
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/dropdowns/business-capabilities"))
@@ -60,7 +69,7 @@ class DropdownControllerTest {
     @Test
     void getBusinessCapabilities_EmptyList_Success() throws Exception {
         // Arrange
-        when(dropdownService.getBusinessCapabilities()).thenReturn(Arrays.asList());
+        when(dropdownService.getBusinessCapabilitiesDropdown()).thenReturn(CachedDropdown.of(Arrays.asList(), objectMapper));
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/dropdowns/business-capabilities"))
@@ -72,7 +81,7 @@ class DropdownControllerTest {
     @Test
     void getBusinessCapabilities_NotFound_ThrowsException() throws Exception {
         // Arrange
-        when(dropdownService.getBusinessCapabilities()).thenThrow(new NotFoundException("Business capabilities lookup not found"));
+        when(dropdownService.getBusinessCapabilitiesDropdown()).thenThrow(new NotFoundException("Business capabilities lookup not found"));
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/dropdowns/business-capabilities"))
@@ -88,7 +97,7 @@ class DropdownControllerTest {
             new BusinessCapabilityLookupDTO("Customer Management", "Customer Onboarding", "Customer Registration")
         );
 
-        when(dropdownService.getBusinessCapabilities()).thenReturn(capabilitiesWithNulls);
+        when(dropdownService.getBusinessCapabilitiesDropdown()).thenReturn(CachedDropdown.of(capabilitiesWithNulls, objectMapper));
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/dropdowns/business-capabilities"))
@@ -103,6 +112,66 @@ class DropdownControllerTest {
             .andExpect(jsonPath("$[1].l3").doesNotExist());
     }
 
+    @Test
+    void getBusinessCapabilities_SendsETagAndNotModifiedWhenItMatches() throws Exception {
+        // Arrange
+        CachedDropdown<BusinessCapabilityLookupDTO> dropdown = CachedDropdown.of(List.of(
+            new BusinessCapabilityLookupDTO("Policy Management", "Policy Administration", "Policy Issuance")), objectMapper);
+        when(dropdownService.getBusinessCapabilitiesDropdown()).thenReturn(dropdown);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/dropdowns/business-capabilities"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", dropdown.etag()))
+            .andExpect(header().string("Cache-Control", "no-cache"))
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+        mockMvc.perform(get("/api/v1/dropdowns/business-capabilities").header("If-None-Match", dropdown.etag()))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    void getBusinessCapabilityTree_Success() throws Exception {
+        // Arrange
+        when(dropdownService.getBusinessCapabilityTreeDropdown()).thenReturn(CachedDropdown.of(List.of(
+            new BusinessCapabilityNodeDTO("Policy Management", List.of(
+                new BusinessCapabilityNodeDTO("Policy Administration", List.of(
+                    new BusinessCapabilityNodeDTO("Policy Issuance", List.of())))))), objectMapper));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/dropdowns/business-capabilities/tree"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("ETag"))
+            .andExpect(jsonPath("$[0].name").value("Policy Management"))
+            .andExpect(jsonPath("$[0].children[0].name").value("Policy Administration"))
+            .andExpect(jsonPath("$[0].children[0].children[0].name").value("Policy Issuance"));
+    }
+
+    @Test
+    void searchBusinessCapabilities_Success() throws Exception {
+        // Arrange
+        when(dropdownService.searchBusinessCapabilities("iss", 5)).thenReturn(List.of(
+            new BusinessCapabilityLookupDTO("Policy Management", "Policy Administration", "Policy Issuance")));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/dropdowns/business-capabilities/search").param("q", "iss").param("limit", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].l3").value("Policy Issuance"));
+    }
+
+    @Test
+    void searchBusinessCapabilities_InvalidLimit_ReturnsBadRequest() throws Exception {
+        // Arrange
+        when(dropdownService.searchBusinessCapabilities("iss", 0))
+            .thenThrow(new IllegalArgumentException("Limit must be between 1 and 50"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/dropdowns/business-capabilities/search").param("q", "iss").param("limit", "0"))
+            .andExpect(status().isBadRequest());
+    }
+
     // ===== Tech Components Tests =====
 
     @Test
@@ -114,7 +183,7 @@ class DropdownControllerTest {
             new TechComponentLookupDTO(".NET Core", "8")
         );
 
-        when(dropdownService.getTechComponents()).thenReturn(expectedComponents);
+        when(dropdownService.getTechComponentsDropdown()).thenReturn(CachedDropdown.of(expectedComponents, objectMapper));
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/dropdowns/tech-components"))
@@ -132,7 +201,7 @@ class DropdownControllerTest {
     @Test
     void getTechComponents_EmptyList_Success() throws Exception {
         // Arrange
-        when(dropdownService.getTechComponents()).thenReturn(Arrays.asList());
+        when(dropdownService.getTechComponentsDropdown()).thenReturn(CachedDropdown.of(Arrays.asList(), objectMapper));
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/dropdowns/tech-components"))
@@ -144,7 +213,7 @@ class DropdownControllerTest {
     @Test
     void getTechComponents_NotFound_ThrowsException() throws Exception {
         // Arrange
-        when(dropdownService.getTechComponents()).thenThrow(new NotFoundException("Tech components lookup not found"));
+        when(dropdownService.getTechComponentsDropdown()).thenThrow(new NotFoundException("Tech components lookup not found"));
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/dropdowns/tech-components"))
@@ -160,7 +229,7 @@ class DropdownControllerTest {
             new TechComponentLookupDTO(".NET Core", "8")
         );
 
-        when(dropdownService.getTechComponents()).thenReturn(componentsWithNulls);
+        when(dropdownService.getTechComponentsDropdown()).thenReturn(CachedDropdown.of(componentsWithNulls, objectMapper));
 
         // Act & Assert
         mockMvc.perform(get("/api/v1/dropdowns/tech-components"))
@@ -174,4 +243,79 @@ class DropdownControllerTest {
             .andExpect(jsonPath("$[2].productName").value(".NET Core"))
             .andExpect(jsonPath("$[2].productVersion").value("8"));
     }
+
+    @Test
+    void searchTechComponents_Success() throws Exception {
+        // Arrange
+        when(dropdownService.searchTechComponents("spr", 10)).thenReturn(List.of(
+            new TechProductDTO("Spring Boot", List.of("3.2", "2.7"))));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/dropdowns/tech-components/search").param("q", "spr"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].productName").value("Spring Boot"))
+            .andExpect(jsonPath("$[0].versions[1]").value("2.7"));
+    }
+
+    @Test
+    void getTechComponentVersions_Success() throws Exception {
+        // Arrange
+        when(dropdownService.getTechComponentVersions("Spring Boot")).thenReturn(List.of("3.2", "2.7"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/dropdowns/tech-components/versions").param("productName", "Spring Boot"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0]").value("3.2"))
+            .andExpect(jsonPath("$[1]").value("2.7"));
+    }
+
+    @Test
+    void getTechComponentVersions_UnknownProduct_ReturnsNotFound() throws Exception {
+        // Arrange
+        when(dropdownService.getTechComponentVersions("Python"))
+            .thenThrow(new NotFoundException("Tech component 'Python' not found"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/dropdowns/tech-components/versions").param("productName", "Python"))
+            .andExpect(status().isNotFound());
+    }
+
+    // ===== Registered Dropdown Tests =====
+
+    @Test
+    void getRegisteredDropdown_Success() throws Exception {
+        // Arrange
+        CachedDropdown<DropdownOptionDTO> dropdown = CachedDropdown.of(List.of(
+            new DropdownOptionDTO("Spring Boot", "Spring Boot", null)), objectMapper);
+        when(dropdownService.getRegisteredDropdown("products")).thenReturn(dropdown);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/dropdowns/products"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", dropdown.etag()))
+            .andExpect(jsonPath("$[0].value").value("Spring Boot"))
+            .andExpect(jsonPath("$[0].label").value("Spring Boot"));
+    }
+
+    @Test
+    void getRegisteredDropdown_NotDeclared_ReturnsNotFound() throws Exception {
+        // Arrange
+        when(dropdownService.getRegisteredDropdown("unknown")).thenThrow(new NotFoundException("Dropdown 'unknown' not found"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/dropdowns/unknown"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getRegisteredDropdownNames_Success() throws Exception {
+        // Arrange
+        when(dropdownService.getRegisteredDropdownNames()).thenReturn(List.of("products"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/dropdowns"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0]").value("products"));
+    }
 }
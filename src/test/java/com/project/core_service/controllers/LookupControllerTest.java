@@ -4,11 +4,19 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.project.core_service.dto.CreateLookupDTO;
 import com.project.core_service.dto.LookupDTO;
 import com.project.core_service.dto.LookupFieldDescriptionsDTO;
+import com.project.core_service.dto.LookupKeyMatchDTO;
+import com.project.core_service.dto.LookupMigrationDTO;
+import com.project.core_service.dto.LookupRowsPageDTO;
+import com.project.core_service.dto.LookupRowsQueryDTO;
+import com.project.core_service.dto.LookupUploadJobDTO;
 import com.project.core_service.dto.LookupWODataDTO;
 import com.project.core_service.dto.UpdateLookupDTO;
 import com.project.core_service.exceptions.NotFoundException;
+import com.project.core_service.models.lookup.LookupUploadJobState;
 import com.project.core_service.services.LookupService;
+import com.project.core_service.services.LookupUploadJobService;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -25,7 +33,10 @@ import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -40,6 +51,9 @@ class LookupControllerTest {
     @MockitoBean
     private LookupService lookupService;
 
+    @MockitoBean
+    private LookupUploadJobService lookupUploadJobService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -412,4 +426,157 @@ class LookupControllerTest {
             .andExpect(jsonPath("$.lookupName").value(lookupName))
             .andExpect(jsonPath("$.description").value("Updated description only"));
     }
+
+    @Test
+    void getLookupRows_PassesPagingFiltersAndColumns() throws Exception {
+        // Arrange
+        LookupRowsPageDTO page = LookupRowsPageDTO.builder()
+            .lookupName("employees")
+            .recordCount(3)
+            .limit(2)
+            .rows(List.of(Map.of("name", "Doe, John")))
+            .nextCursor("next")
+            .build();
+        when(lookupService.getLookupRows(eq("employees"), any(LookupRowsQueryDTO.class))).thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/lookups/{lookupName}/rows", "employees")
+                .param("limit", "2")
+                .param("cursor", "abc")
+                .param("columns", "name,age")
+                .param("eq", "name:Doe, John")
+                .param("prefix", "department:Eng")
+                .param("prefix", "age:3"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.recordCount").value(3))
+            .andExpect(jsonPath("$.rows[0].name").value("Doe, John"))
+            .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        ArgumentCaptor<LookupRowsQueryDTO> queryCaptor = ArgumentCaptor.forClass(LookupRowsQueryDTO.class);
+        verify(lookupService).getLookupRows(eq("employees"), queryCaptor.capture());
+        LookupRowsQueryDTO query = queryCaptor.getValue();
+        assertNull(query.getOffset());
+        assertEquals(2, query.getLimit());
+        assertEquals("abc", query.getCursor());
+        assertEquals(List.of("name", "age"), query.getColumns());
+        assertEquals(List.of("name:Doe, John"), query.getEq());
+        assertEquals(List.of("department:Eng", "age:3"), query.getPrefix());
+    }
+
+    @Test
+    void getLookupRows_InvalidQuery_ReturnsBadRequest() throws Exception {
+        // Arrange
+        when(lookupService.getLookupRows(eq("employees"), any(LookupRowsQueryDTO.class)))
+            .thenThrow(new IllegalArgumentException("Use either offset or cursor, not both"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/lookups/{lookupName}/rows", "employees")
+                .param("offset", "10")
+                .param("cursor", "abc"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getLookupRowsByKey_Success() throws Exception {
+        // Arrange
+        LookupKeyMatchDTO match = LookupKeyMatchDTO.builder()
+            .lookupName("employees")
+            .column("name")
+            .value("John Doe")
+            .rows(List.of(Map.of("name", "John Doe", "age", "30")))
+            .build();
+        when(lookupService.findRowsByKey("employees", "name", "John Doe")).thenReturn(match);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/lookups/{lookupName}/by-key/{column}/{value}", "employees", "name", "John Doe"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.column").value("name"))
+            .andExpect(jsonPath("$.rows[0].age").value("30"));
+    }
+
+    @Test
+    void getLookupRowsByKey_NoMatch_ReturnsNotFound() throws Exception {
+        // Arrange
+        when(lookupService.findRowsByKey("employees", "name", "Nobody"))
+            .thenThrow(new NotFoundException("No row of lookup 'employees' has name 'Nobody'"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/lookups/{lookupName}/by-key/{column}/{value}", "employees", "name", "Nobody"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void migrateToChunkedRows_ReturnsFlaggedQueries() throws Exception {
+        // Arrange
+        when(lookupService.migrateToChunkedRows("employees")).thenReturn(LookupMigrationDTO.builder()
+            .lookupName("employees")
+            .rowsUploadId("upload-1")
+            .recordCount(2)
+            .flaggedQueries(List.of("headcount"))
+            .build());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/lookups/{lookupName}/migrate-to-rows", "employees"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rowsUploadId").value("upload-1"))
+            .andExpect(jsonPath("$.flaggedQueries[0]").value("headcount"));
+    }
+
+    @Test
+    void createLookupAsync_ReturnsAcceptedJob() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("lookupFile", "test.csv", "text/csv",
+            "name,age\nJohn,30".getBytes());
+        when(lookupUploadJobService.submitCreate(any(CreateLookupDTO.class))).thenReturn(LookupUploadJobDTO.builder()
+            .jobId("job-1")
+            .lookupName("employees")
+            .operation("CREATE")
+            .state(LookupUploadJobState.QUEUED)
+            .rowsProcessed(0)
+            .build());
+
+        // Act & Assert
+        mockMvc.perform(multipart("/api/v1/lookups/upload-jobs")
+                .file(file)
+                .param("lookupName", "employees")
+                .param("description", "Employee data"))
+            .andExpect(status().isAccepted())
+            .andExpect(header().string("Location", "/api/v1/lookups/upload-jobs/job-1"))
+            .andExpect(jsonPath("$.jobId").value("job-1"))
+            .andExpect(jsonPath("$.state").value("QUEUED"));
+
+        ArgumentCaptor<CreateLookupDTO> dtoCaptor = ArgumentCaptor.forClass(CreateLookupDTO.class);
+        verify(lookupUploadJobService).submitCreate(dtoCaptor.capture());
+        assertEquals("employees", dtoCaptor.getValue().getLookupName());
+        assertEquals("test.csv", dtoCaptor.getValue().getLookupFile().getOriginalFilename());
+    }
+
+    @Test
+    void getUploadJob_ReturnsProgress() throws Exception {
+        // Arrange
+        when(lookupUploadJobService.getJob("job-1")).thenReturn(LookupUploadJobDTO.builder()
+            .jobId("job-1")
+            .state(LookupUploadJobState.RUNNING)
+            .rowsProcessed(12000)
+            .rowsPerSecond(4000.0)
+            .build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/lookups/upload-jobs/{jobId}", "job-1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.state").value("RUNNING"))
+            .andExpect(jsonPath("$.rowsProcessed").value(12000))
+            .andExpect(jsonPath("$.rowsPerSecond").value(4000.0));
+    }
+
+    @Test
+    void getUploadJob_Unknown_ReturnsNotFound() throws Exception {
+        // Arrange
+        when(lookupUploadJobService.getJob("missing"))
+            .thenThrow(new NotFoundException("Lookup upload job 'missing' not found"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/lookups/upload-jobs/{jobId}", "missing"))
+            .andExpect(status().isNotFound());
+    }
 }
@@ -0,0 +1,112 @@
+package com.project.core_service.controllers;
+
+import com.project.core_service.dto.TransitionThroughputDTO;
+import com.project.core_service.models.review_transition.ReviewTransition;
+import com.project.core_service.models.solutions_review.DocumentState;
+import com.project.core_service.services.ReviewAuditService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReviewTransitionController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class ReviewTransitionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ReviewAuditService reviewAuditService;
+
+    private ReviewTransition transition() {
+        return ReviewTransition.builder()
+            .id("t-1")
+            .documentId("sr-1")
+            .systemCode("SYS-001")
+            .operation(DocumentState.StateOperation.APPROVE)
+            .fromState(DocumentState.SUBMITTED)
+            .toState(DocumentState.APPROVED)
+            .modifiedBy("reviewer")
+            .comment("Looks good")
+            .transitionedAt(LocalDateTime.of(2025, 1, 2, 10, 30))
+            .build();
+    }
+
+    @Test
+    void getDocumentHistory_Success() throws Exception {
+        when(reviewAuditService.getDocumentHistory("sr-1")).thenReturn(List.of(transition()));
+
+        mockMvc.perform(get("/api/v1/review-transitions/document/sr-1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].documentId").value("sr-1"))
+            .andExpect(jsonPath("$[0].fromState").value("SUBMITTED"))
+            .andExpect(jsonPath("$[0].toState").value("APPROVED"))
+            .andExpect(jsonPath("$[0].modifiedBy").value("reviewer"))
+            .andExpect(jsonPath("$[0].comment").value("Looks good"));
+    }
+
+    @Test
+    void getSystemHistory_UsesPaging() throws Exception {
+        when(reviewAuditService.getSystemHistory(eq("SYS-001"), any()))
+            .thenReturn(new PageImpl<>(List.of(transition()), PageRequest.of(1, 5), 6));
+
+        mockMvc.perform(get("/api/v1/review-transitions/system/SYS-001")
+                .param("page", "1")
+                .param("size", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].systemCode").value("SYS-001"));
+
+        verify(reviewAuditService).getSystemHistory("SYS-001", PageRequest.of(1, 5));
+    }
+
+    @Test
+    void getThroughput_WithRange() throws Exception {
+        when(reviewAuditService.getThroughput(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 7)))
+            .thenReturn(List.of(new TransitionThroughputDTO("2025-01-02", 3)));
+
+        mockMvc.perform(get("/api/v1/review-transitions/throughput")
+                .param("from", "2025-01-01")
+                .param("to", "2025-01-07"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].day").value("2025-01-02"))
+            .andExpect(jsonPath("$[0].count").value(3));
+    }
+
+    @Test
+    void getThroughput_DefaultsToLast30Days() throws Exception {
+        LocalDate today = LocalDate.now();
+        when(reviewAuditService.getThroughput(today.minusDays(29), today)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/v1/review-transitions/throughput"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void getThroughput_InvalidRange_ReturnsBadRequest() throws Exception {
+        when(reviewAuditService.getThroughput(any(), any()))
+            .thenThrow(new IllegalArgumentException("'from' must not be after 'to'"));
+
+        mockMvc.perform(get("/api/v1/review-transitions/throughput")
+                .param("from", "2025-02-01")
+                .param("to", "2025-01-01"))
+            .andExpect(status().isBadRequest());
+    }
+}
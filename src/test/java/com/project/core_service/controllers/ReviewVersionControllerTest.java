@@ -0,0 +1,107 @@
+package com.project.core_service.controllers;
+
+import com.project.core_service.dto.SolutionReviewDTO;
+import com.project.core_service.exceptions.NotFoundException;
+import com.project.core_service.models.review_version.ReviewChange;
+import com.project.core_service.models.review_version.ReviewVersion;
+import com.project.core_service.models.solutions_review.DocumentState;
+import com.project.core_service.services.ReviewVersionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReviewVersionController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class ReviewVersionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ReviewVersionService reviewVersionService;
+
+    @Test
+    void getVersions_Success() throws Exception {
+        ReviewVersion version = ReviewVersion.builder()
+            .systemCode("SYS-001")
+            .version(2)
+            .documentId("sr-2")
+            .documentState(DocumentState.ACTIVE)
+            .recordedAt(LocalDateTime.of(2025, 1, 2, 10, 30))
+            .build();
+        when(reviewVersionService.getVersions("SYS-001")).thenReturn(List.of(version));
+
+        mockMvc.perform(get("/api/v1/review-versions/SYS-001"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].version").value(2))
+            .andExpect(jsonPath("$[0].documentId").value("sr-2"));
+    }
+
+    @Test
+    void getVersion_Success() throws Exception {
+        SolutionReviewDTO dto = new SolutionReviewDTO();
+        dto.setSystemCode("SYS-001");
+        when(reviewVersionService.getVersion("SYS-001", 1)).thenReturn(dto);
+
+        mockMvc.perform(get("/api/v1/review-versions/SYS-001/1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.systemCode").value("SYS-001"));
+    }
+
+    @Test
+    void getVersion_NotFound() throws Exception {
+        when(reviewVersionService.getVersion("SYS-001", 9))
+            .thenThrow(new NotFoundException("Version 9 of system 'SYS-001' not found"));
+
+        mockMvc.perform(get("/api/v1/review-versions/SYS-001/9"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getDiff_StreamsOneChangePerLine() throws Exception {
+        when(reviewVersionService.diffVersions("SYS-001", 1, 2)).thenReturn(List.of(
+            new ReviewChange(ReviewChange.Type.REMOVE, "dataAssets", "asset-1", null),
+            new ReviewChange(ReviewChange.Type.ADD, "dataAssets", "asset-2", Map.of("id", "asset-2"))));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/review-versions/SYS-001/diff")
+                .param("from", "1")
+                .param("to", "2"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"type\":\"REMOVE\""));
+        assertTrue(lines[1].contains("\"elementKey\":\"asset-2\""));
+    }
+
+    @Test
+    void getDiff_NotFound() throws Exception {
+        when(reviewVersionService.diffVersions("SYS-001", 1, 9))
+            .thenThrow(new NotFoundException("Version 9 of system 'SYS-001' not found"));
+
+        mockMvc.perform(get("/api/v1/review-versions/SYS-001/diff")
+                .param("from", "1")
+                .param("to", "9"))
+            .andExpect(status().isNotFound());
+    }
+}
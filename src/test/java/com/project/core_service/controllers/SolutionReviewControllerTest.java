@@ -3,7 +3,16 @@ package com.project.core_service.controllers;
 import com.project.core_service.exceptions.IllegalOperationException;
 import com.project.core_service.exceptions.IllegalStateTransitionException;
 import com.project.core_service.exceptions.NotFoundException;
+import com.project.core_service.models.integration_flow.CounterpartSystemRole;
+import com.project.core_service.models.integration_flow.IntegrationFlow;
+import com.project.core_service.models.integration_flow.IntegrationMethod;
+import com.project.core_service.models.integration_flow.Middleware;
+import com.project.core_service.models.shared.Frequency;
+import com.project.core_service.models.solutions_review.ReviewSection;
+import com.project.core_service.models.solutions_review.SolutionReview;
+import com.project.core_service.services.DraftAutosaveService;
 import com.project.core_service.services.SolutionReviewLifecycleService;
+import com.project.core_service.services.SolutionReviewSectionService;
 import com.project.core_service.services.SolutionReviewService;
 
 import org.junit.jupiter.api.DisplayName;
@@ -13,6 +22,8 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.stream.Stream;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -43,6 +54,12 @@ class SolutionReviewControllerTest {
     @MockitoBean
     private SolutionReviewService solutionReviewService;
 
+    @MockitoBean
+    private SolutionReviewSectionService sectionService;
+
+    @MockitoBean
+    private DraftAutosaveService draftAutosaveService;
+
     @Nested
     @DisplayName("POST /api/v1/solution-review/lifecycle/transition")
     class TransitionEndpoint {
@@ -595,4 +612,189 @@ class SolutionReviewControllerTest {
             verify(lifecycleService, times(1)).executeTransition(any());
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("Section endpoints /api/v1/solution-review/{id}/{section}")
+    class SectionEndpoints {
+
+        private IntegrationFlow flow(String id) {
+            return IntegrationFlow.builder()
+                    .id(id)
+                    .componentName("Payment Gateway")
+                    .counterpartSystemCode("SYS-002")
+                    .counterpartSystemRole(CounterpartSystemRole.CONSUMER)
+                    .integrationMethod(IntegrationMethod.API)
+                    .frequency(Frequency.DAILY)
+                    .purpose("Payments")
+                    .middleware(Middleware.NONE)
+                    .build();
+        }
+
+        @Test
+        @DisplayName("PATCH should replace the section and return the written elements")
+        void shouldReplaceSection() throws Exception {
+            when(sectionService.replaceSection(eq("review-1"), eq(ReviewSection.INTEGRATION_FLOWS), anyList()))
+                    .thenReturn(List.of(flow("flow-1")));
+
+            mockMvc.perform(patch("/api/v1/solution-review/review-1/integration-flows")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[{\"componentName\": \"Payment Gateway\"}]"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].id").value("flow-1"))
+                    .andExpect(jsonPath("$[0].componentName").value("Payment Gateway"));
+
+            verify(sectionService).replaceSection(eq("review-1"), eq(ReviewSection.INTEGRATION_FLOWS), anyList());
+        }
+
+        @Test
+        @DisplayName("POST should add an element and return 201 Created")
+        void shouldAddElement() throws Exception {
+            when(sectionService.addElement(eq("review-1"), eq(ReviewSection.INTEGRATION_FLOWS), any()))
+                    .thenReturn(flow("flow-1"));
+
+            mockMvc.perform(post("/api/v1/solution-review/review-1/integration-flows")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"componentName\": \"Payment Gateway\"}"))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").value("flow-1"));
+        }
+
+        @Test
+        @DisplayName("PUT should replace a single element")
+        void shouldReplaceElement() throws Exception {
+            when(sectionService.replaceElement(eq("review-1"), eq(ReviewSection.INTEGRATION_FLOWS), eq("flow-1"), any()))
+                    .thenReturn(flow("flow-1"));
+
+            mockMvc.perform(put("/api/v1/solution-review/review-1/integration-flows/flow-1")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"componentName\": \"Payment Gateway\"}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value("flow-1"));
+        }
+
+        @Test
+        @DisplayName("DELETE should remove a single element and return 204 No Content")
+        void shouldRemoveElement() throws Exception {
+            mockMvc.perform(delete("/api/v1/solution-review/review-1/integration-flows/flow-1"))
+                    .andExpect(status().isNoContent());
+
+            verify(sectionService).removeElement("review-1", ReviewSection.INTEGRATION_FLOWS, "flow-1");
+        }
+
+        @Test
+        @DisplayName("Should return 400 Bad Request for an unknown section")
+        void shouldRejectUnknownSection() throws Exception {
+            mockMvc.perform(post("/api/v1/solution-review/review-1/unknown-section")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.status").value("BAD_REQUEST"));
+
+            verifyNoInteractions(sectionService);
+        }
+
+        @Test
+        @DisplayName("Should return 500 when the review is not in DRAFT state")
+        void shouldRejectEditsOnNonDraftReview() throws Exception {
+            doThrow(new IllegalStateException("Only DRAFT reviews can be modified"))
+                    .when(sectionService).removeElement("review-1", ReviewSection.INTEGRATION_FLOWS, "flow-1");
+
+            mockMvc.perform(delete("/api/v1/solution-review/review-1/integration-flows/flow-1"))
+                    .andExpect(status().isInternalServerError())
+                    .andExpect(jsonPath("$.message").value("Only DRAFT reviews can be modified"));
+        }
+
+        @Test
+        @DisplayName("Should return 404 Not Found when the element does not exist")
+        void shouldReturnNotFoundForMissingElement() throws Exception {
+            doThrow(new NotFoundException("Element 'flow-9' not found"))
+                    .when(sectionService).removeElement("review-1", ReviewSection.INTEGRATION_FLOWS, "flow-9");
+
+            mockMvc.perform(delete("/api/v1/solution-review/review-1/integration-flows/flow-9"))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.status").value("NOT_FOUND"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Autosave endpoints /api/v1/solution-review/autosave")
+    class AutosaveEndpoints {
+
+        @Test
+        @DisplayName("PUT /autosave should buffer the update and return 202 Accepted")
+        void shouldBufferAutosave() throws Exception {
+            mockMvc.perform(put("/api/v1/solution-review/autosave")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"id\": \"review-1\", \"systemCode\": \"SYS-001\"}"))
+                    .andExpect(status().isAccepted());
+
+            verify(draftAutosaveService).buffer(argThat(dto -> "review-1".equals(dto.getId())));
+            verifyNoInteractions(solutionReviewService);
+        }
+
+        @Test
+        @DisplayName("PUT /autosave should return 400 Bad Request without a review ID")
+        void shouldRejectAutosaveWithoutId() throws Exception {
+            doThrow(new IllegalArgumentException("Autosave requires a solution review ID"))
+                    .when(draftAutosaveService).buffer(any());
+
+            mockMvc.perform(put("/api/v1/solution-review/autosave")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"systemCode\": \"SYS-001\"}"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("PUT should save through the autosave buffer")
+        void shouldSaveThroughAutosaveBuffer() throws Exception {
+            SolutionReview saved = new SolutionReview();
+            saved.setId("review-1");
+            when(draftAutosaveService.save(any())).thenReturn(saved);
+
+            mockMvc.perform(put("/api/v1/solution-review")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"id\": \"review-1\", \"systemCode\": \"SYS-001\"}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value("review-1"));
+
+            verify(draftAutosaveService).save(any());
+        }
+
+        @Test
+        @DisplayName("POST /autosave/{id}/flush should return the written review")
+        void shouldFlushAutosave() throws Exception {
+            SolutionReview saved = new SolutionReview();
+            saved.setId("review-1");
+            when(draftAutosaveService.flush("review-1")).thenReturn(Optional.of(saved));
+
+            mockMvc.perform(post("/api/v1/solution-review/autosave/review-1/flush"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value("review-1"));
+
+            verify(solutionReviewService, never()).getSolutionReviewById(any());
+        }
+
+        @Test
+        @DisplayName("POST /autosave/{id}/flush should return the stored review when nothing is pending")
+        void shouldReturnStoredReviewWhenNothingPending() throws Exception {
+            SolutionReview stored = new SolutionReview();
+            stored.setId("review-1");
+            when(draftAutosaveService.flush("review-1")).thenReturn(Optional.empty());
+            when(solutionReviewService.getSolutionReviewById("review-1")).thenReturn(Optional.of(stored));
+
+            mockMvc.perform(post("/api/v1/solution-review/autosave/review-1/flush"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value("review-1"));
+        }
+
+        @Test
+        @DisplayName("POST /autosave/{id}/flush should return 404 for an unknown review")
+        void shouldReturnNotFoundForUnknownReview() throws Exception {
+            when(draftAutosaveService.flush("missing")).thenReturn(Optional.empty());
+            when(solutionReviewService.getSolutionReviewById("missing")).thenReturn(Optional.empty());
+
+            mockMvc.perform(post("/api/v1/solution-review/autosave/missing/flush"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+}
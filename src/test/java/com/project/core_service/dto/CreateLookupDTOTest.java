@@ -7,6 +7,8 @@ import org.junit.jupiter.api.Nested;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("CreateLookupDTO Tests")
@@ -45,13 +47,14 @@ class CreateLookupDTOTest {
         @DisplayName("Should create DTO with all-args constructor")
         void shouldCreateDTOWithAllArgsConstructor() {
             // Act
-            CreateLookupDTO dto = new CreateLookupDTO("employees", "Employee data", mockFile);
+            CreateLookupDTO dto = new CreateLookupDTO("employees", "Employee data", mockFile, List.of("name"));
 
             // Assert
             assertNotNull(dto);
             assertEquals("employees", dto.getLookupName());
             assertEquals("Employee data", dto.getDescription());
             assertEquals(mockFile, dto.getLookupFile());
+            assertEquals(List.of("name"), dto.getKeyColumns());
         }
 
         @Test
@@ -7,6 +7,8 @@ import org.junit.jupiter.api.Nested;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("UpdateLookupDTO Tests")
@@ -44,12 +46,14 @@ class UpdateLookupDTOTest {
         @DisplayName("Should create DTO with all-args constructor")
         void shouldCreateDTOWithAllArgsConstructor() {
             // Act
-            UpdateLookupDTO dto = new UpdateLookupDTO("Updated description", mockFile);
+            UpdateLookupDTO dto = new UpdateLookupDTO("Updated description", mockFile, List.of("name"), "name");
 
             // Assert
             assertNotNull(dto);
             assertEquals("Updated description", dto.getDescription());
             assertEquals(mockFile, dto.getLookupFile());
+            assertEquals(List.of("name"), dto.getKeyColumns());
+            assertEquals("name", dto.getDiffKeyColumn());
         }
 
         @Test
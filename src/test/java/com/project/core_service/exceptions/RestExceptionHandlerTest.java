@@ -353,6 +353,49 @@ class RestExceptionHandlerTest {
         }
     }
 
+    @Nested
+    @DisplayName("ConcurrentOperationException Tests")
+    class ConcurrentOperationExceptionTests {
+
+        @Test
+        @DisplayName("Should handle ConcurrentOperationException with message")
+        @SuppressWarnings("unchecked")
+        void shouldHandleConcurrentOperationExceptionWithMessage() {
+            // Arrange
+            ConcurrentOperationException exception = new ConcurrentOperationException("System SYS-001 is busy");
+
+            // Act
+            ResponseEntity<Object> response = exceptionHandler.handleConcurrentOperationException(exception);
+
+            // Assert
+            assertNotNull(response);
+            assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+
+            Map<String, Object> body = (Map<String, Object>) response.getBody();
+            assertNotNull(body);
+            assertEquals(HttpStatus.CONFLICT, body.get("status"));
+            assertEquals("System SYS-001 is busy", body.get("message"));
+            assertNotNull(body.get("timestamp"));
+        }
+
+        @Test
+        @DisplayName("Should handle ConcurrentOperationException with null message")
+        @SuppressWarnings("unchecked")
+        void shouldHandleConcurrentOperationExceptionWithNullMessage() {
+            // Arrange
+            ConcurrentOperationException exception = new ConcurrentOperationException(null);
+
+            // Act
+            ResponseEntity<Object> response = exceptionHandler.handleConcurrentOperationException(exception);
+
+            // Assert
+            assertNotNull(response);
+            Map<String, Object> body = (Map<String, Object>) response.getBody();
+            assertNotNull(body);
+            assertEquals("Another operation is in progress", body.get("message"));
+        }
+    }
+
     @Nested
     @DisplayName("DataIntegrityViolationException Tests")
     class DataIntegrityViolationExceptionTests {
@@ -1,12 +1,14 @@
 package com.project.core_service.integration;
 
 import com.project.core_service.dto.LookupFieldDescriptionsDTO;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.project.core_service.models.lookup.Lookup;
 import io.qameta.allure.Description;
 import io.qameta.allure.Feature;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
+import org.bson.Document;
 import org.springframework.mock.web.MockMultipartFile;
 
 import java.util.HashMap;
@@ -213,7 +215,15 @@ class LookupControllerIntegrationTest extends BaseIntegrationTest {
         List<Lookup> updatedLookups = mongoTemplate.findAll(Lookup.class, "lookups");
         assertThat(updatedLookups).hasSize(1);
         assertThat(updatedLookups.get(0).getRecordCount()).isEqualTo(3);
-        assertThat(updatedLookups.get(0).getData()).hasSize(3);
+        // The lookup points at the new upload; the previous one is retired, not yet deleted
+        String rowsUploadId = mongoTemplate.findById("employees", Document.class, "lookups")
+            .getString("rowsUploadId");
+        assertThat(mongoTemplate.count(query(where("lookupId").is("employees").and("uploadId").is(rowsUploadId)),
+            "lookupRows")).isEqualTo(3);
+        assertThat(mongoTemplate.count(query(where("lookupId").is("employees").and("state").is("RETIRED")),
+            "lookupVersions")).isEqualTo(1);
+        assertThat(mongoTemplate.count(query(where("_id").is(rowsUploadId).and("state").is("ACTIVE")),
+            "lookupVersions")).isEqualTo(1);
     }
 
     @Test
@@ -338,6 +348,226 @@ class LookupControllerIntegrationTest extends BaseIntegrationTest {
             .andExpect(jsonPath("$.message").value("Lookup with name 'non-existent' not found"));
     }
 
+    // ===== Lookup Rows Tests =====
+
+    @Test
+    @DisplayName("Should page through filtered lookup rows with a cursor")
+    @Description("Tests reading selected columns of rows matching a prefix filter, one page at a time")
+    void getLookupRows_FilteredPagesWithCursor() throws Exception {
+        // Arrange
+        uploadLookup("employees", "name,age,department\nJohn,30,Engineering\nJane,25,Marketing\n"
+            + "Bob,35,Engineering\nAlice,28,Engineering Ops\nCharlie,32,Sales");
+
+        // Act & Assert - first page
+        String firstPage = mockMvc.perform(get(BASE_URL + "/employees/rows")
+                .param("prefix", "department:Engineering")
+                .param("columns", "name")
+                .param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.recordCount").value(5))
+            .andExpect(jsonPath("$.rows.length()").value(2))
+            .andExpect(jsonPath("$.rows[0].name").value("John"))
+            .andExpect(jsonPath("$.rows[0].department").doesNotExist())
+            .andExpect(jsonPath("$.rows[1].name").value("Bob"))
+            .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+            .andReturn().getResponse().getContentAsString();
+        JsonNode firstPageJson = objectMapper.readTree(firstPage);
+
+        // Act & Assert - last page
+        mockMvc.perform(get(BASE_URL + "/employees/rows")
+                .param("prefix", "department:Engineering")
+                .param("columns", "name")
+                .param("limit", "2")
+                .param("cursor", firstPageJson.get("nextCursor").asText()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows.length()").value(1))
+            .andExpect(jsonPath("$.rows[0].name").value("Alice"))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        // Act & Assert - exact match with offset
+        mockMvc.perform(get(BASE_URL + "/employees/rows")
+                .param("eq", "department:Engineering")
+                .param("offset", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows.length()").value(1))
+            .andExpect(jsonPath("$.rows[0].name").value("Bob"))
+            .andExpect(jsonPath("$.rows[0].age").value("35"));
+    }
+
+    @Test
+    @DisplayName("Should serve rows of a lookup stored in the embedded layout")
+    @Description("Tests that a lookup saved with an embedded data array is migrated and paged")
+    void getLookupRows_EmbeddedLookup_MigratesAndPages() throws Exception {
+        // Arrange - a lookup written before rows were stored separately
+        mongoTemplate.insert(new Document("_id", "legacy")
+            .append("lookupName", "legacy")
+            .append("data", List.of(Map.of("code", "A"), Map.of("code", "B"), Map.of("code", "C")))
+            .append("uploadedAt", new java.util.Date())
+            .append("recordCount", 3)
+            .append("description", "Legacy lookup")
+            .append("fieldDescriptions", Map.of("code", "")), "lookups");
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/legacy/rows").param("offset", "1").param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows[0].code").value("B"))
+            .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+
+        assertThat(mongoTemplate.count(query(where("lookupId").is("legacy")), "lookupRows")).isEqualTo(3);
+        assertThat(mongoTemplate.getCollection("lookups").find(new Document("_id", "legacy")).first())
+            .doesNotContainKey("data");
+    }
+
+    @Test
+    @DisplayName("Should reject rows requests for unknown columns")
+    @Description("Tests that filtering on a column the lookup does not have returns 400")
+    void getLookupRows_UnknownColumn_BadRequest() throws Exception {
+        // Arrange
+        uploadLookup("employees", "name,age\nJohn,30");
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/employees/rows").param("eq", "salary:100"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should store inferred column types and filter them by range")
+    @Description("Tests that integer and date columns are stored natively and compared by value, not as text")
+    void getLookupRows_TypedColumns_RangeFiltersCompareValues() throws Exception {
+        // Arrange
+        uploadLookup("tech_eol", "product,major,eolDate
+Java,8,2030-12-31
+Java,11,2026-09-30
+"
+            + "Java,17,2029-09-30
+Java,21,");
+
+        // Assert - values are native BSON types, the schema sits next to fieldDescriptions
+        Document lookup = mongoTemplate.findById("tech_eol", Document.class, "lookups");
+        assertThat(lookup.get("columnTypes", Document.class))
+            .containsEntry("product", "STRING")
+            .containsEntry("major", "INTEGER")
+            .containsEntry("eolDate", "DATE");
+        Document row = mongoTemplate.getCollection("lookupRows")
+            .find(new Document("lookupId", "tech_eol").append("rowNumber", 0)).first();
+        assertThat(row.get("fields", Document.class).get("major")).isEqualTo(8L);
+        assertThat(row.get("fields", Document.class).get("eolDate")).isInstanceOf(java.util.Date.class);
+
+        // Act & Assert - 9 to 20 is numeric, so 11 and 17 match but not 8
+        mockMvc.perform(get(BASE_URL + "/tech_eol/rows")
+                .param("from", "major:9")
+                .param("to", "major:20"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows.length()").value(2))
+            .andExpect(jsonPath("$.rows[0].major").value("11"))
+            .andExpect(jsonPath("$.rows[1].major").value("17"));
+
+        // Act & Assert - dates read back as uploaded; empty cells never match a range
+        mockMvc.perform(get(BASE_URL + "/tech_eol/rows")
+                .param("to", "eolDate:2029-12-31"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows.length()").value(2))
+            .andExpect(jsonPath("$.rows[0].eolDate").value("2026-09-30"))
+            .andExpect(jsonPath("$.rows[1].eolDate").value("2029-09-30"));
+        mockMvc.perform(get(BASE_URL + "/tech_eol/rows").param("eq", "major:21"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows[0].eolDate").value(""));
+
+        mockMvc.perform(get(BASE_URL + "/tech_eol/rows").param("from", "eolDate:soon"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should apply a diff upload in place")
+    @Description("Tests that a re-upload with a diff key only writes inserted, changed and removed rows")
+    void updateLookup_WithDiffKey_WritesOnlyChanges() throws Exception {
+        // Arrange
+        uploadLookup("employees", "id,name\n1,John\n2,Jane\n3,Bob");
+        String rowsUploadId = mongoTemplate.findById("employees", Document.class, "lookups")
+            .getString("rowsUploadId");
+        MockMultipartFile newFile = new MockMultipartFile(
+            "lookupFile",
+            "employees.csv",
+            "text/csv",
+            "id,name\n1,John\n2,Janet\n4,Alice".getBytes()
+        );
+
+        // Act & Assert
+        mockMvc.perform(multipart(BASE_URL + "/employees")
+                .file(newFile)
+                .param("diffKeyColumn", "id")
+                .with(request -> {
+                    request.setMethod("PUT");
+                    return request;
+                }))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.recordCount").value(3))
+            .andExpect(jsonPath("$.diff.inserted").value(1))
+            .andExpect(jsonPath("$.diff.updated").value(1))
+            .andExpect(jsonPath("$.diff.deleted").value(1))
+            .andExpect(jsonPath("$.diff.unchanged").value(1));
+
+        // Assert - same upload, changed in place; new rows come last
+        assertThat(mongoTemplate.findById("employees", Document.class, "lookups").getString("rowsUploadId"))
+            .isEqualTo(rowsUploadId);
+        mockMvc.perform(get(BASE_URL + "/employees/rows"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.recordCount").value(3))
+            .andExpect(jsonPath("$.rows[0].name").value("John"))
+            .andExpect(jsonPath("$.rows[1].name").value("Janet"))
+            .andExpect(jsonPath("$.rows[2].name").value("Alice"));
+    }
+
+    // ===== Key Lookup Tests =====
+
+    @Test
+    @DisplayName("Should find rows by the value of a key column")
+    @Description("Tests point reads on key columns, including after the key columns are changed")
+    void getLookupRowsByKey_KeyColumnsUpdated_ServesNewKeys() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile(
+            "lookupFile",
+            "employees.csv",
+            "text/csv",
+            "name,age\nJohn,30\nJane,25\nJane,41".getBytes()
+        );
+        mockMvc.perform(multipart(BASE_URL)
+                .file(file)
+                .param("lookupName", "employees")
+                .param("description", "Employees")
+                .param("keyColumns", "name"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.keyColumns[0]").value("name"));
+
+        // Act & Assert - duplicate keys return every matching row
+        mockMvc.perform(get(BASE_URL + "/employees/by-key/name/Jane"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows.length()").value(2))
+            .andExpect(jsonPath("$.rows[1].age").value("41"));
+        mockMvc.perform(get(BASE_URL + "/employees/by-key/name/Nobody"))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get(BASE_URL + "/employees/by-key/age/25"))
+            .andExpect(status().isBadRequest());
+
+        // Act - index age instead of name, without re-uploading
+        mockMvc.perform(multipart(BASE_URL + "/employees")
+                .param("keyColumns", "age")
+                .with(request -> {
+                    request.setMethod("PUT");
+                    return request;
+                }))
+            .andExpect(status().isOk());
+
+        // Assert
+        mockMvc.perform(get(BASE_URL + "/employees/by-key/age/25"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rows[0].name").value("Jane"));
+        assertThat(mongoTemplate.count(query(where("lookupId").is("employees").and("keys").is("age\u001f25")),
+            "lookupRows")).isEqualTo(1);
+        assertThat(mongoTemplate.count(query(where("lookupId").is("employees").and("keys").is("name\u001fJane")),
+            "lookupRows")).isZero();
+    }
+
     // ===== Helper Methods =====
 
     private void uploadLookup(String lookupName, String csvContent) throws Exception {
@@ -0,0 +1,112 @@
+package com.project.core_service.integration;
+
+import com.project.core_service.commands.LifecycleTransitionCommand;
+import com.project.core_service.models.solutions_review.DocumentState;
+import com.project.core_service.models.solutions_review.SolutionReview;
+import com.project.core_service.services.ReviewAuditService;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@DisplayName("Review Transition Controller Integration Tests")
+@Feature("Lifecycle Audit Trail")
+class ReviewTransitionControllerIntegrationTest extends BaseIntegrationTest {
+
+    private static final String BASE_URL = "/api/v1/review-transitions";
+    private static final String TRANSITION_URL = "/api/v1/solution-review/lifecycle/transition";
+
+    @Autowired
+    private ReviewAuditService reviewAuditService;
+
+    @BeforeEach
+    void setup() {
+        TestDataFactory.reset();
+    }
+
+    private void transition(String documentId, String operation, String comment) throws Exception {
+        LifecycleTransitionCommand command = new LifecycleTransitionCommand(
+            documentId, operation, TestDataFactory.TestUsers.ARCHITECT, comment);
+        mockMvc.perform(post(TRANSITION_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJson(command)))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should record every transition of a document with user and comment")
+    @Description("Submits and approves a review, then reads its audit history")
+    void getDocumentHistory_AfterTransitions_ReturnsNewestFirst() throws Exception {
+        // Arrange
+        String systemCode = TestDataFactory.createSystemCode();
+        SolutionReview review = createAndSaveSolutionReview(systemCode, DocumentState.DRAFT);
+        transition(review.getId(), "SUBMIT", "Ready for review");
+        transition(review.getId(), "APPROVE", "Approved by board");
+        reviewAuditService.flush();
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/document/" + review.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].operation").value("APPROVE"))
+            .andExpect(jsonPath("$[0].fromState").value("SUBMITTED"))
+            .andExpect(jsonPath("$[0].toState").value("APPROVED"))
+            .andExpect(jsonPath("$[0].comment").value("Approved by board"))
+            .andExpect(jsonPath("$[1].operation").value("SUBMIT"))
+            .andExpect(jsonPath("$[1].modifiedBy").value(TestDataFactory.TestUsers.ARCHITECT))
+            .andExpect(jsonPath("$[1].systemCode").value(systemCode));
+    }
+
+    @Test
+    @DisplayName("Should page the history of a system and count transitions per day")
+    @Description("Reads system history and today's throughput after a single transition")
+    void getSystemHistoryAndThroughput_AfterTransition() throws Exception {
+        // Arrange
+        String systemCode = TestDataFactory.createSystemCode();
+        SolutionReview review = createAndSaveSolutionReview(systemCode, DocumentState.DRAFT);
+        transition(review.getId(), "SUBMIT", "Ready for review");
+        reviewAuditService.flush();
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/system/" + systemCode).param("page", "0").param("size", "10"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content.length()").value(1))
+            .andExpect(jsonPath("$.content[0].documentId").value(review.getId()));
+
+        mockMvc.perform(get(BASE_URL + "/throughput")
+                .param("from", LocalDate.now().minusDays(1).toString())
+                .param("to", LocalDate.now().plusDays(1).toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].count").value(1));
+    }
+
+    @Test
+    @DisplayName("Should not record a rejected transition")
+    @Description("An invalid transition must not appear in the audit trail")
+    void getDocumentHistory_AfterRejectedTransition_IsEmpty() throws Exception {
+        // Arrange
+        String systemCode = TestDataFactory.createSystemCode();
+        SolutionReview review = createAndSaveSolutionReview(systemCode, DocumentState.DRAFT);
+        LifecycleTransitionCommand command = new LifecycleTransitionCommand(
+            review.getId(), "ACTIVATE", TestDataFactory.TestUsers.ADMIN, "Too early");
+        mockMvc.perform(post(TRANSITION_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJson(command)))
+            .andExpect(status().isBadRequest());
+        reviewAuditService.flush();
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/document/" + review.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(0));
+    }
+}
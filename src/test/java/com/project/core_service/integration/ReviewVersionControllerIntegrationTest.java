@@ -0,0 +1,80 @@
+package com.project.core_service.integration;
+
+import com.project.core_service.commands.LifecycleTransitionCommand;
+import com.project.core_service.models.solutions_review.DocumentState;
+import com.project.core_service.models.solutions_review.SolutionReview;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@DisplayName("Review Version Controller Integration Tests")
+@Feature("Review Version History")
+class ReviewVersionControllerIntegrationTest extends BaseIntegrationTest {
+
+    private static final String BASE_URL = "/api/v1/review-versions";
+    private static final String TRANSITION_URL = "/api/v1/solution-review/lifecycle/transition";
+
+    @BeforeEach
+    void setup() {
+        TestDataFactory.reset();
+    }
+
+    private void activate(String documentId) throws Exception {
+        LifecycleTransitionCommand command = new LifecycleTransitionCommand(
+            documentId, "ACTIVATE", TestDataFactory.TestUsers.ADMIN, "Activating solution");
+        mockMvc.perform(post(TRANSITION_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJson(command)))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should record a version each time a review of the system is activated")
+    @Description("Activates two reviews of one system, then lists, reads and diffs its versions")
+    void activations_RecordVersions() throws Exception {
+        // Arrange
+        String systemCode = TestDataFactory.createSystemCode();
+        SolutionReview first = createAndSaveSolutionReview(systemCode, DocumentState.APPROVED);
+        activate(first.getId());
+        SolutionReview second = createAndSaveSolutionReview(systemCode, DocumentState.APPROVED);
+        activate(second.getId());
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/" + systemCode))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].version").value(2))
+            .andExpect(jsonPath("$[0].documentId").value(second.getId()))
+            .andExpect(jsonPath("$[0].keyframe").value(false))
+            .andExpect(jsonPath("$[1].version").value(1))
+            .andExpect(jsonPath("$[1].keyframe").value(true));
+
+        mockMvc.perform(get(BASE_URL + "/" + systemCode + "/2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.systemCode").value(systemCode));
+
+        MvcResult diff = mockMvc.perform(get(BASE_URL + "/" + systemCode + "/diff")
+                .param("from", "1")
+                .param("to", "2"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(diff))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"));
+    }
+
+    @Test
+    @DisplayName("Should return 404 for a version that was never recorded")
+    @Description("Reads a version of a system without history")
+    void getVersion_Unknown_Returns404() throws Exception {
+        mockMvc.perform(get(BASE_URL + "/" + TestDataFactory.createSystemCode() + "/1"))
+            .andExpect(status().isNotFound());
+    }
+}
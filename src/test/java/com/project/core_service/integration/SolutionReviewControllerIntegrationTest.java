@@ -2,6 +2,7 @@ package com.project.core_service.integration;
 
 import com.project.core_service.dto.NewSolutionOverviewRequestDTO;
 import com.project.core_service.dto.SolutionReviewDTO;
+import com.project.core_service.models.business_capabilities.BusinessCapability;
 import com.project.core_service.models.solutions_review.DocumentState;
 import com.project.core_service.models.solutions_review.SolutionReview;
 import com.project.core_service.repositories.SolutionReviewRepository;
@@ -179,6 +180,80 @@ class SolutionReviewControllerIntegrationTest extends BaseIntegrationTest {
             assertThat(reviews).hasSize(2);
         }
 
+        @Test
+        @DisplayName("Should copy content into the new DRAFT keeping element IDs")
+        @Description("Verifies the server-side clone keeps element IDs and resets state and timestamps")
+        @Severity(SeverityLevel.NORMAL)
+        void shouldCloneContentKeepingElementIds() throws Exception {
+            // Given - an ACTIVE review with a business capability
+            String systemCode = TestDataFactory.createSystemCode();
+            SolutionReview activeReview = createAndSaveSolutionReview(systemCode, DocumentState.ACTIVE);
+            activeReview.setBusinessCapabilities(List.of(new BusinessCapability("cap-1", "L1", "L2", "L3", null)));
+            solutionReviewRepository.save(activeReview);
+
+            // When
+            String response = mockMvc.perform(post("/api/v1/solution-review/existing/{systemCode}", systemCode)
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            String draftId = objectMapper.readTree(response).get("id").asText();
+
+            // Then
+            SolutionReview draft = solutionReviewRepository.findById(draftId).orElseThrow();
+            assertThat(draft.getDocumentState()).isEqualTo(DocumentState.DRAFT);
+            assertThat(draft.getSystemCode()).isEqualTo(systemCode);
+            assertThat(draft.getCreatedAt()).isNotNull();
+            assertThat(draft.getSolutionOverview().getId()).isNull();
+            assertThat(draft.getSolutionOverview().getSolutionDetails().getSolutionName())
+                    .isEqualTo(activeReview.getSolutionOverview().getSolutionDetails().getSolutionName());
+            assertThat(draft.getBusinessCapabilities()).hasSize(1);
+            assertThat(draft.getBusinessCapabilities().get(0).getId()).isEqualTo("cap-1");
+            assertThat(draft.getBusinessCapabilities().get(0).getL1Capability()).isEqualTo("L1");
+
+            // The ACTIVE review is left untouched
+            SolutionReview active = solutionReviewRepository.findById(activeReview.getId()).orElseThrow();
+            assertThat(active.getDocumentState()).isEqualTo(DocumentState.ACTIVE);
+            assertThat(active.getBusinessCapabilities().get(0).getId()).isEqualTo("cap-1");
+        }
+
+        @Test
+        @DisplayName("Should edit single elements of a cloned DRAFT")
+        @Description("Elements copied from the ACTIVE review, with or without an ID, can be replaced and removed")
+        @Severity(SeverityLevel.CRITICAL)
+        void shouldEditElementsOfClonedDraft() throws Exception {
+            // Given - an ACTIVE review with one element stored without an ID
+            String systemCode = TestDataFactory.createSystemCode();
+            SolutionReview activeReview = createAndSaveSolutionReview(systemCode, DocumentState.ACTIVE);
+            activeReview.setBusinessCapabilities(List.of(
+                    new BusinessCapability("cap-1", "L1", "L2", "L3", null),
+                    new BusinessCapability(null, "L1", "L2", "Legacy", null)));
+            solutionReviewRepository.save(activeReview);
+
+            String response = mockMvc.perform(post("/api/v1/solution-review/existing/{systemCode}", systemCode)
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            String draftId = objectMapper.readTree(response).get("id").asText();
+            String legacyId = solutionReviewRepository.findById(draftId).orElseThrow()
+                    .getBusinessCapabilities().get(1).getId();
+            assertThat(legacyId).isNotBlank();
+
+            // When - replace the element that had an ID and remove the one that had none
+            mockMvc.perform(put("/api/v1/solution-review/{id}/business-capabilities/{elementId}", draftId, "cap-1")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"l1Capability\": \"L1\", \"l2Capability\": \"L2\", \"l3Capability\": \"Renamed\"}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value("cap-1"));
+            mockMvc.perform(delete("/api/v1/solution-review/{id}/business-capabilities/{elementId}", draftId,
+                    legacyId))
+                    .andExpect(status().isNoContent());
+
+            // Then
+            SolutionReview draft = solutionReviewRepository.findById(draftId).orElseThrow();
+            assertThat(draft.getBusinessCapabilities()).extracting("id").containsExactly("cap-1");
+            assertThat(draft.getBusinessCapabilities().get(0).getL3Capability()).isEqualTo("Renamed");
+        }
+
         @Test
         @DisplayName("Should fail when no ACTIVE solution exists")
         @Description("Validates that creating from existing requires an ACTIVE version to exist")
@@ -416,6 +491,36 @@ class SolutionReviewControllerIntegrationTest extends BaseIntegrationTest {
             assertThat(updated.getSolutionOverview().getValueOutcome()).isEqualTo("Updated value outcome");
         }
 
+        @Test
+        @DisplayName("Should not rewrite a DRAFT review when the content is unchanged")
+        @Description("Repeated autosaves with identical content leave the stored document untouched")
+        @Severity(SeverityLevel.NORMAL)
+        void shouldSkipWriteWhenContentUnchanged() throws Exception {
+            // Given
+            String systemCode = TestDataFactory.createSystemCode();
+            SolutionReview review = createAndSaveSolutionReview(systemCode, DocumentState.DRAFT);
+            SolutionReviewDTO dto = new SolutionReviewDTO(review);
+            dto.getSolutionOverview().setValueOutcome("Autosaved value outcome");
+
+            mockMvc.perform(put("/api/v1/solution-review")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(toJson(dto)))
+                    .andExpect(status().isOk());
+            SolutionReview firstSave = solutionReviewRepository.findById(review.getId()).orElseThrow();
+            assertThat(firstSave.getContentHash()).isNotNull();
+
+            // When - the same content is sent again
+            mockMvc.perform(put("/api/v1/solution-review")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(toJson(new SolutionReviewDTO(firstSave))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(review.getId()));
+
+            // Then
+            SolutionReview secondSave = solutionReviewRepository.findById(review.getId()).orElseThrow();
+            assertThat(secondSave.getLastModifiedAt()).isEqualTo(firstSave.getLastModifiedAt());
+        }
+
         @Test
         @DisplayName("Should fail to update non-DRAFT solution review")
         @Description("Validates that only DRAFT reviews can be fully updated")
@@ -482,6 +587,194 @@ class SolutionReviewControllerIntegrationTest extends BaseIntegrationTest {
         }
     }
 
+    // ==================== SECTION OPERATIONS ====================
+
+    @Nested
+    @DisplayName("Section Operations - Edit a single section of a DRAFT review")
+    @Story("Edit Solution Review Sections")
+    class SectionOperationTests {
+
+        private static final String FLOW_JSON = """
+                {
+                    "componentName": "%s",
+                    "counterpartSystemCode": "SYS-PARTNER",
+                    "counterpartSystemRole": "CONSUMER",
+                    "integrationMethod": "API",
+                    "frequency": "DAILY",
+                    "purpose": "Payments",
+                    "middleware": "NONE"
+                }
+                """;
+
+        @Test
+        @DisplayName("Should add, replace and remove an integration flow")
+        @Description("Edits one element of the integrationFlows section without sending the whole review")
+        @Severity(SeverityLevel.CRITICAL)
+        void shouldEditSingleElement() throws Exception {
+            // Given
+            String systemCode = TestDataFactory.createSystemCode();
+            SolutionReview review = createAndSaveSolutionReview(systemCode, DocumentState.DRAFT);
+
+            // When - add
+            String response = mockMvc.perform(post("/api/v1/solution-review/{id}/integration-flows", review.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(FLOW_JSON.formatted("Gateway")))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").exists())
+                    .andReturn().getResponse().getContentAsString();
+            String flowId = objectMapper.readTree(response).get("id").asText();
+
+            // When - replace
+            mockMvc.perform(put("/api/v1/solution-review/{id}/integration-flows/{flowId}", review.getId(), flowId)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(FLOW_JSON.formatted("Renamed Gateway")))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(flowId));
+
+            SolutionReview updated = solutionReviewRepository.findById(review.getId()).orElseThrow();
+            assertThat(updated.getIntegrationFlows()).hasSize(1);
+            assertThat(updated.getIntegrationFlows().get(0).getComponentName()).isEqualTo("Renamed Gateway");
+            assertThat(updated.getSystemCode()).isEqualTo(systemCode);
+
+            // When - remove
+            mockMvc.perform(delete("/api/v1/solution-review/{id}/integration-flows/{flowId}", review.getId(), flowId))
+                    .andExpect(status().isNoContent());
+
+            assertThat(solutionReviewRepository.findById(review.getId()).orElseThrow().getIntegrationFlows())
+                    .isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should replace a whole section with PATCH")
+        @Description("Replaces the integrationFlows array and assigns IDs to the new elements")
+        @Severity(SeverityLevel.NORMAL)
+        void shouldReplaceSection() throws Exception {
+            // Given
+            String systemCode = TestDataFactory.createSystemCode();
+            SolutionReview review = createAndSaveSolutionReview(systemCode, DocumentState.DRAFT);
+
+            // When & Then
+            mockMvc.perform(patch("/api/v1/solution-review/{id}/integration-flows", review.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[" + FLOW_JSON.formatted("First") + "," + FLOW_JSON.formatted("Second") + "]"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[0].id").exists());
+
+            SolutionReview updated = solutionReviewRepository.findById(review.getId()).orElseThrow();
+            assertThat(updated.getIntegrationFlows())
+                    .extracting("componentName")
+                    .containsExactly("First", "Second");
+        }
+
+        @Test
+        @DisplayName("Should fail to edit a section of a non-DRAFT review")
+        @Description("Validates that section edits are guarded by the DRAFT state")
+        @Severity(SeverityLevel.CRITICAL)
+        void shouldFailToEditNonDraftReview() throws Exception {
+            // Given
+            String systemCode = TestDataFactory.createSystemCode();
+            SolutionReview review = createAndSaveSolutionReview(systemCode, DocumentState.SUBMITTED);
+
+            // When & Then
+            mockMvc.perform(post("/api/v1/solution-review/{id}/integration-flows", review.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(FLOW_JSON.formatted("Gateway")))
+                    .andExpect(status().isInternalServerError())
+                    .andExpect(jsonPath("$.message").value(containsString("Only DRAFT reviews can be modified")));
+        }
+
+        @Test
+        @DisplayName("Should return 404 when editing a non-existent review")
+        @Description("Validates the error for an unknown review ID")
+        @Severity(SeverityLevel.NORMAL)
+        void shouldReturn404ForUnknownReview() throws Exception {
+            mockMvc.perform(delete("/api/v1/solution-review/{id}/integration-flows/{flowId}", "non-existent-id",
+                    "flow-1"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    // ==================== AUTOSAVE OPERATIONS ====================
+
+    @Nested
+    @DisplayName("Autosave Operations - Buffer and flush DRAFT updates")
+    @Story("Autosave Solution Reviews")
+    class AutosaveOperationTests {
+
+        @Test
+        @DisplayName("Should merge buffered autosaves and write them on flush")
+        @Description("Two autosaves touching different sections are written as one update")
+        @Severity(SeverityLevel.CRITICAL)
+        void shouldMergeAutosavesOnFlush() throws Exception {
+            // Given
+            String systemCode = TestDataFactory.createSystemCode();
+            SolutionReview review = createAndSaveSolutionReview(systemCode, DocumentState.DRAFT);
+
+            SolutionReviewDTO overviewEdit = new SolutionReviewDTO(review);
+            overviewEdit.getSolutionOverview().setValueOutcome("Autosaved outcome");
+            SolutionReviewDTO capabilityEdit = SolutionReviewDTO.builder()
+                    .id(review.getId())
+                    .systemCode(systemCode)
+                    .businessCapabilities(List.of(new BusinessCapability("cap-1", "L1", "L2", "L3", null)))
+                    .build();
+
+            // When
+            mockMvc.perform(put("/api/v1/solution-review/autosave")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(toJson(overviewEdit)))
+                    .andExpect(status().isAccepted());
+            mockMvc.perform(put("/api/v1/solution-review/autosave")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(toJson(capabilityEdit)))
+                    .andExpect(status().isAccepted());
+
+            mockMvc.perform(post("/api/v1/solution-review/autosave/{id}/flush", review.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.solutionOverview.valueOutcome").value("Autosaved outcome"))
+                    .andExpect(jsonPath("$.businessCapabilities", hasSize(1)));
+
+            // Then
+            SolutionReview updated = solutionReviewRepository.findById(review.getId()).orElseThrow();
+            assertThat(updated.getSolutionOverview().getValueOutcome()).isEqualTo("Autosaved outcome");
+            assertThat(updated.getBusinessCapabilities()).extracting("id").containsExactly("cap-1");
+        }
+
+        @Test
+        @DisplayName("Should keep a section edit when an older autosave is flushed")
+        @Description("A section PATCH writes the buffered autosave first, so the later flush cannot overwrite it")
+        @Severity(SeverityLevel.CRITICAL)
+        void shouldKeepSectionEditOverBufferedAutosave() throws Exception {
+            // Given
+            String systemCode = TestDataFactory.createSystemCode();
+            SolutionReview review = createAndSaveSolutionReview(systemCode, DocumentState.DRAFT);
+
+            SolutionReviewDTO olderEdit = new SolutionReviewDTO(review);
+            olderEdit.getSolutionOverview().setValueOutcome("Autosaved outcome");
+            olderEdit.setBusinessCapabilities(List.of(new BusinessCapability("cap-1", "Stale", "L2", "L3", null)));
+            mockMvc.perform(put("/api/v1/solution-review/autosave")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(toJson(olderEdit)))
+                    .andExpect(status().isAccepted());
+
+            // When
+            mockMvc.perform(patch("/api/v1/solution-review/{id}/business-capabilities", review.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(toJson(List.of(new BusinessCapability("cap-1", "Patched", "L2", "L3", null)))))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(post("/api/v1/solution-review/autosave/{id}/flush", review.getId()))
+                    .andExpect(status().isOk());
+
+            // Then
+            SolutionReview updated = solutionReviewRepository.findById(review.getId()).orElseThrow();
+            assertThat(updated.getSolutionOverview().getValueOutcome()).isEqualTo("Autosaved outcome");
+            assertThat(updated.getBusinessCapabilities())
+                    .extracting("l1Capability")
+                    .containsExactly("Patched");
+        }
+    }
+
     // ==================== DELETE OPERATIONS ====================
 
     @Nested
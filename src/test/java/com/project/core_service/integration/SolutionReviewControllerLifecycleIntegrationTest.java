@@ -1,6 +1,7 @@
 package com.project.core_service.integration;
 
 import com.project.core_service.commands.LifecycleTransitionCommand;
+import com.project.core_service.dto.SolutionReviewDTO;
 import com.project.core_service.models.solutions_review.DocumentState;
 import com.project.core_service.models.solutions_review.SolutionReview;
 import com.project.core_service.repositories.SolutionReviewRepository;
@@ -86,6 +87,39 @@ class SolutionReviewControllerLifecycleIntegrationTest extends BaseIntegrationTe
             assertThat(updated.getLastModifiedBy()).isEqualTo(TestDataFactory.TestUsers.ARCHITECT);
         }
 
+        @Test
+        @DisplayName("Should write buffered autosaves before submitting")
+        @Description("A SUBMIT flushes pending autosaves so the submitted review has the latest content")
+        @Severity(SeverityLevel.CRITICAL)
+        void shouldFlushAutosaveBeforeSubmit() throws Exception {
+            // Given - a DRAFT review with an autosave still buffered
+            String systemCode = TestDataFactory.createSystemCode();
+            SolutionReview review = createAndSaveSolutionReview(systemCode, DocumentState.DRAFT);
+            SolutionReviewDTO autosave = new SolutionReviewDTO(review);
+            autosave.getSolutionOverview().setValueOutcome("Last autosaved outcome");
+            mockMvc.perform(put("/api/v1/solution-review/autosave")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(toJson(autosave)))
+                    .andExpect(status().isAccepted());
+
+            LifecycleTransitionCommand command = new LifecycleTransitionCommand(
+                    review.getId(),
+                    "SUBMIT",
+                    TestDataFactory.TestUsers.ARCHITECT,
+                    "Submitting right after editing");
+
+            // When
+            mockMvc.perform(post("/api/v1/solution-review/lifecycle/transition")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(toJson(command)))
+                    .andExpect(status().isOk());
+
+            // Then
+            SolutionReview updated = solutionReviewRepository.findById(review.getId()).orElseThrow();
+            assertThat(updated.getDocumentState()).isEqualTo(DocumentState.SUBMITTED);
+            assertThat(updated.getSolutionOverview().getValueOutcome()).isEqualTo("Last autosaved outcome");
+        }
+
         @Test
         @DisplayName("Should transition from SUBMITTED to APPROVED")
         @Description("Approves a SUBMITTED solution review")
@@ -1094,6 +1128,98 @@ class SolutionReviewControllerLifecycleIntegrationTest extends BaseIntegrationTe
             assertThat(updatedA.getSystemCode()).isEqualTo(systemA);
             assertThat(updatedB.getSystemCode()).isEqualTo(systemB);
         }
+
+        @Test
+        @DisplayName("Should leave exactly one ACTIVE review when activations run in parallel")
+        @Description("Runs two ACTIVATE transitions for the same system at the same time; the transaction "
+                + "write conflict is retried so both succeed and only one review ends up ACTIVE")
+        @Severity(SeverityLevel.BLOCKER)
+        void shouldKeepSingleActiveUnderParallelActivation() throws Exception {
+            // Given - one ACTIVE review and two APPROVED reviews for the same system
+            String systemCode = TestDataFactory.createSystemCode();
+            SolutionReview active = createAndSaveSolutionReview(systemCode, DocumentState.ACTIVE);
+            SolutionReview approvedA = createAndSaveSolutionReview(systemCode, DocumentState.APPROVED);
+            SolutionReview approvedB = createAndSaveSolutionReview(systemCode, DocumentState.APPROVED);
+
+            java.util.concurrent.CountDownLatch start = new java.util.concurrent.CountDownLatch(1);
+            java.util.concurrent.ExecutorService executor = java.util.concurrent.Executors.newFixedThreadPool(2);
+            try {
+                java.util.List<java.util.concurrent.Future<Integer>> results = new java.util.ArrayList<>();
+                for (SolutionReview review : java.util.List.of(approvedA, approvedB)) {
+                    LifecycleTransitionCommand command = new LifecycleTransitionCommand(
+                            review.getId(),
+                            "ACTIVATE",
+                            TestDataFactory.TestUsers.ADMIN,
+                            "Parallel activation");
+                    String body = toJson(command);
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return mockMvc.perform(post("/api/v1/solution-review/lifecycle/transition")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                                .andReturn().getResponse().getStatus();
+                    }));
+                }
+
+                // When
+                start.countDown();
+
+                // Then - both requests succeed
+                for (java.util.concurrent.Future<Integer> result : results) {
+                    assertThat(result.get(30, java.util.concurrent.TimeUnit.SECONDS)).isEqualTo(200);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            long activeCount = solutionReviewRepository.findAllBySystemCode(systemCode)
+                    .stream()
+                    .filter(r -> r.getDocumentState() == DocumentState.ACTIVE)
+                    .count();
+            assertThat(activeCount).isEqualTo(1);
+            assertThat(solutionReviewRepository.findById(active.getId()).orElseThrow().getDocumentState())
+                    .isEqualTo(DocumentState.OUTDATED);
+        }
+
+        @Test
+        @DisplayName("Should create only one DRAFT when creates for the same system run in parallel")
+        @Description("Fires several create requests for one system at the same time; the per-system lock "
+                + "makes the exclusive-state check and insert atomic so exactly one succeeds")
+        @Severity(SeverityLevel.BLOCKER)
+        void shouldCreateSingleDraftUnderParallelCreates() throws Exception {
+            // Given
+            String systemCode = TestDataFactory.createSystemCode();
+            int requests = 4;
+            java.util.concurrent.CountDownLatch start = new java.util.concurrent.CountDownLatch(1);
+            java.util.concurrent.ExecutorService executor = java.util.concurrent.Executors.newFixedThreadPool(requests);
+            java.util.List<Integer> statuses = new java.util.ArrayList<>();
+            try {
+                java.util.List<java.util.concurrent.Future<Integer>> results = new java.util.ArrayList<>();
+                for (int i = 0; i < requests; i++) {
+                    String body = toJson(TestDataFactory.createSolutionOverviewDTO("Parallel Solution " + i));
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return mockMvc.perform(post("/api/v1/solution-review/{systemCode}", systemCode)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                                .andReturn().getResponse().getStatus();
+                    }));
+                }
+
+                // When
+                start.countDown();
+                for (java.util.concurrent.Future<Integer> result : results) {
+                    statuses.add(result.get(30, java.util.concurrent.TimeUnit.SECONDS));
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            // Then - one create wins, the rest are rejected by the exclusive-state check
+            assertThat(statuses).filteredOn(status -> status == 201).hasSize(1);
+            assertThat(statuses).filteredOn(status -> status == 400).hasSize(requests - 1);
+            assertThat(solutionReviewRepository.findAllBySystemCode(systemCode)).hasSize(1);
+        }
     }
 
     // ==================== DATABASE CONNECTION FAILURE SCENARIOS
@@ -0,0 +1,57 @@
+package com.project.core_service.models.lookup;
+
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LookupColumnTypeTest {
+
+    @Test
+    void accepts_CanonicalValuesOnly() {
+        assertTrue(LookupColumnType.INTEGER.accepts("-42"));
+        assertFalse(LookupColumnType.INTEGER.accepts("042"));
+        assertFalse(LookupColumnType.INTEGER.accepts("+42"));
+        assertFalse(LookupColumnType.INTEGER.accepts("99999999999999999999"));
+
+        assertTrue(LookupColumnType.DECIMAL.accepts("3.50"));
+        assertTrue(LookupColumnType.DECIMAL.accepts("7"));
+        assertFalse(LookupColumnType.DECIMAL.accepts("3,50"));
+        assertFalse(LookupColumnType.DECIMAL.accepts(".5"));
+
+        assertTrue(LookupColumnType.BOOLEAN.accepts("false"));
+        assertFalse(LookupColumnType.BOOLEAN.accepts("TRUE"));
+        assertFalse(LookupColumnType.BOOLEAN.accepts("yes"));
+
+        assertTrue(LookupColumnType.DATE.accepts("2025-12-31"));
+        assertFalse(LookupColumnType.DATE.accepts("2025-2-1"));
+        assertFalse(LookupColumnType.DATE.accepts("2025-02-30"));
+        assertFalse(LookupColumnType.DATE.accepts("31/12/2025"));
+
+        assertTrue(LookupColumnType.STRING.accepts("anything"));
+    }
+
+    @Test
+    void parse_ReturnsNativeValuesThatReadBackUnchanged() {
+        assertEquals(-42L, LookupColumnType.INTEGER.parse("-42"));
+        assertEquals(new Decimal128(new BigDecimal("3.50")), LookupColumnType.DECIMAL.parse("3.50"));
+        assertEquals(Boolean.TRUE, LookupColumnType.BOOLEAN.parse("true"));
+        Object date = LookupColumnType.DATE.parse("2025-12-31");
+        assertInstanceOf(Date.class, date);
+
+        assertEquals("3.50", LookupColumnType.text(LookupColumnType.DECIMAL.parse("3.50")));
+        assertEquals("2025-12-31", LookupColumnType.text(date));
+        assertEquals("", LookupColumnType.text(null));
+    }
+
+    @Test
+    void parse_InvalidValue_ThrowsIllegalArgumentException() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> LookupColumnType.DATE.parse("tomorrow"));
+        assertEquals("'tomorrow' is not a valid DATE", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> LookupColumnType.BOOLEAN.parse("1"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.project.core_service.models.lookup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LookupKeyIndexTest {
+
+    private final LookupTable table = LookupTable.of(List.of(
+            row("id", "1", "name", "John"),
+            row("id", "2", "name", "Jane"),
+            row("id", "3", "name", "Jane"),
+            row("name", "Bob")));
+
+    @Test
+    void rows_UniqueKey_ReturnsSingleRow() {
+        LookupKeyIndex index = LookupKeyIndex.build(table, List.of("id", "name"));
+
+        assertEquals(List.of(row("id", "2", "name", "Jane")), index.rows("id", "2"));
+        assertEquals(List.of("id", "name"), index.keyColumns());
+    }
+
+    @Test
+    void rows_DuplicateKey_ReturnsRowsInTableOrder() {
+        LookupKeyIndex index = LookupKeyIndex.build(table, List.of("name"));
+
+        assertEquals(List.of(row("id", "2", "name", "Jane"), row("id", "3", "name", "Jane")),
+                index.rows("name", "Jane"));
+    }
+
+    @Test
+    void rows_NoMatchOrNotIndexed_ReturnsEmpty() {
+        LookupKeyIndex index = LookupKeyIndex.build(table, List.of("name", "email"));
+
+        assertTrue(index.rows("name", "Alice").isEmpty());
+        assertTrue(index.rows("id", "1").isEmpty());
+        assertTrue(index.rows("email", "john@example.com").isEmpty());
+        assertTrue(index.isKeyColumn("email"));
+        assertFalse(index.isKeyColumn("id"));
+    }
+
+    @Test
+    void rows_MissingCellsAreNotIndexed() {
+        LookupKeyIndex index = LookupKeyIndex.build(table, List.of("id"));
+
+        assertEquals(3, index.rows("id", "1").size() + index.rows("id", "2").size() + index.rows("id", "3").size());
+        assertSame(table, index.table());
+    }
+
+    private static Map<String, String> row(String... keyValues) {
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            row.put(keyValues[i], keyValues[i + 1]);
+        }
+        return row;
+    }
+}
@@ -0,0 +1,47 @@
+package com.project.core_service.models.lookup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LookupRowFilterTest {
+
+    private static final Map<String, LookupColumnType> TYPES = Map.of(
+            "price", LookupColumnType.DECIMAL, "since", LookupColumnType.DATE);
+
+    @Test
+    void matches_ComparesTypedColumnsAsTheirType() {
+        LookupRowFilter filter = new LookupRowFilter(Map.of("price", "3.5"), Map.of(), Map.of("since", "2025-01-01"),
+                Map.of("name", "K"), List.of(), TYPES);
+
+        assertTrue(filter.matches(Map.of("name", "Jane", "price", "3.50", "since", "2025-06-30")));
+        // 3.50 equals 3.5 as a decimal; names compare as text
+        assertFalse(filter.matches(Map.of("name", "Tom", "price", "3.50", "since", "2025-06-30")));
+        assertFalse(filter.matches(Map.of("name", "Jane", "price", "3.6", "since", "2025-06-30")));
+        assertFalse(filter.matches(Map.of("name", "Jane", "price", "3.5", "since", "2024-12-31")));
+    }
+
+    @Test
+    void matches_EmptyTypedCells_AreOutsideRangesAndOnlyEqualEmptyValues() {
+        LookupRowFilter range = new LookupRowFilter(Map.of(), Map.of(), Map.of(), Map.of("since", "2030-01-01"),
+                List.of(), TYPES);
+        LookupRowFilter empty = new LookupRowFilter(Map.of("price", ""), Map.of(), Map.of(), Map.of(),
+                List.of(), TYPES);
+
+        assertFalse(range.matches(Map.of("since", "")));
+        assertFalse(range.matches(Map.of()));
+        assertTrue(empty.matches(Map.of("price", "")));
+        assertFalse(empty.matches(Map.of("price", "0")));
+    }
+
+    @Test
+    void matches_PrefixesMatchText() {
+        LookupRowFilter filter = new LookupRowFilter(Map.of(), Map.of("price", "1"), List.of());
+
+        assertTrue(filter.matches(Map.of("price", "12.00")));
+        assertFalse(filter.matches(Map.of("price", "21")));
+    }
+}
@@ -0,0 +1,45 @@
+package com.project.core_service.models.lookup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LookupSchemaInferenceTest {
+
+    @Test
+    void columnTypes_InfersNarrowestTypeOfEveryColumn() {
+        LookupSchemaInference inference = new LookupSchemaInference();
+        inference.observe(row("id", "1", "price", "10", "active", "true", "eol", "2025-12-31", "name", "2"));
+        inference.observe(row("id", "2", "price", "9.99", "active", "false", "eol", "", "name", "Jane"));
+
+        assertEquals(List.of("id", "price", "active", "eol", "name"),
+                List.copyOf(inference.columnTypes().keySet()));
+        assertEquals(LookupColumnType.INTEGER, inference.columnTypes().get("id"));
+        assertEquals(LookupColumnType.DECIMAL, inference.columnTypes().get("price"));
+        assertEquals(LookupColumnType.BOOLEAN, inference.columnTypes().get("active"));
+        assertEquals(LookupColumnType.DATE, inference.columnTypes().get("eol"));
+        assertEquals(LookupColumnType.STRING, inference.columnTypes().get("name"));
+    }
+
+    @Test
+    void columnTypes_EmptyOrNonCanonicalColumns_AreStrings() {
+        LookupSchemaInference inference = new LookupSchemaInference();
+        inference.observe(row("empty", "", "code", "007"));
+        inference.observe(row("empty", "", "code", "12"));
+
+        assertEquals(Map.of("empty", LookupColumnType.STRING, "code", LookupColumnType.STRING),
+                inference.columnTypes());
+    }
+
+    private static Map<String, String> row(String... keyValues) {
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            row.put(keyValues[i], keyValues[i + 1]);
+        }
+        return row;
+    }
+}
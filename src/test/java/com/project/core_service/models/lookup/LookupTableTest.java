@@ -0,0 +1,110 @@
+package com.project.core_service.models.lookup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LookupTableTest {
+
+    @Test
+    void of_EncodesRepeatedValuesOncePerColumn() {
+        LookupTable table = LookupTable.of(List.of(
+                row("L1", "Finance", "L2", "Payments"),
+                row("L1", "Finance", "L2", "Treasury"),
+                row("L1", "Operations", "L2", "Payments")));
+
+        assertEquals(3, table.size());
+        assertEquals(List.of("L1", "L2"), table.columns());
+        int l1 = table.columnIndex("L1");
+        int l2 = table.columnIndex("L2");
+        assertEquals(2, table.distinctValues(l1));
+        assertEquals(2, table.distinctValues(l2));
+        assertEquals(table.code(0, l1), table.code(1, l1));
+        assertEquals(table.code(0, l2), table.code(2, l2));
+        assertSame(table.value(0, l1), table.value(1, l1));
+        assertEquals("Operations", table.value(2, "L1"));
+    }
+
+    @Test
+    void of_InconsistentSchemas_MissingCellsReadAsNull() {
+        LookupTable table = LookupTable.of(List.of(
+                row("L1", "Finance"),
+                row("L1", "Finance", "L3", "Invoicing")));
+
+        assertEquals(List.of("L1", "L3"), table.columns());
+        assertEquals(LookupTable.MISSING, table.code(0, table.columnIndex("L3")));
+        assertNull(table.value(0, "L3"));
+        assertNull(table.value(0, "Unknown"));
+        assertEquals(-1, table.columnIndex("Unknown"));
+        assertEquals(Map.of("L1", "Finance"), table.row(0));
+        assertEquals(1, table.row(0).size());
+        assertFalse(table.row(0).containsKey("L3"));
+    }
+
+    @Test
+    void rows_AreMapViewsEqualToTheirSource() {
+        List<Map<String, String>> source = List.of(
+                row("name", "John", "age", "30"),
+                row("name", "Jane", "age", "25"));
+
+        LookupTable table = LookupTable.of(source);
+
+        assertEquals(source, table.rows());
+        assertEquals(source.get(1).hashCode(), table.rows().get(1).hashCode());
+        assertEquals(List.of("name", "age"), List.copyOf(table.row(0).keySet()));
+        assertThrows(UnsupportedOperationException.class, () -> table.row(0).put("name", "Jim"));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.row(2));
+    }
+
+    @Test
+    void of_RowViews_ReusesBackingTable() {
+        LookupTable table = LookupTable.of(List.of(row("name", "John")));
+
+        assertSame(table, LookupTable.of(table.rows()));
+    }
+
+    @Test
+    void from_Stream_GrowsPastInitialCapacity() {
+        LookupTable table = LookupTable.from(Stream.iterate(0, i -> i + 1)
+                .limit(1000)
+                .map(i -> row("id", String.valueOf(i), "group", String.valueOf(i % 10))));
+
+        assertEquals(1000, table.size());
+        assertEquals("999", table.value(999, "id"));
+        assertEquals(1000, table.distinctValues(table.columnIndex("id")));
+        assertEquals(10, table.distinctValues(table.columnIndex("group")));
+    }
+
+    @Test
+    void builder_NullValues_TreatedAsMissing() {
+        Map<String, String> withNull = new HashMap<>();
+        withNull.put("name", null);
+
+        LookupTable table = LookupTable.builder().addRow(withNull).addRow(row("name", "Jane")).build();
+
+        assertNull(table.value(0, "name"));
+        assertTrue(table.row(0).isEmpty());
+        assertEquals("Jane", table.value(1, "name"));
+    }
+
+    @Test
+    void of_NullOrEmpty_ReturnsEmptyTable() {
+        assertTrue(LookupTable.of(null).isEmpty());
+        assertTrue(LookupTable.of(List.of()).isEmpty());
+        assertTrue(LookupTable.empty().columns().isEmpty());
+    }
+
+    private static Map<String, String> row(String... keyValues) {
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            row.put(keyValues[i], keyValues[i + 1]);
+        }
+        return row;
+    }
+}
@@ -125,7 +125,8 @@ class LookupTest {
         Map<String, String> fieldsDesc = Map.of("key", "Field description");
 
         // Act
-        Lookup lookup = new Lookup("test-id", "Test Name", data, date, 1, "Test description", fieldsDesc);
+        Lookup lookup = new Lookup("test-id", "Test Name", data, date, 1, "Test description", fieldsDesc,
+                List.of("key"), Map.of("key", LookupColumnType.STRING));
 
         // Assert
         assertEquals("test-id", lookup.getId());
@@ -135,6 +136,8 @@ class LookupTest {
         assertEquals(1, lookup.getRecordCount());
         assertEquals("Test description", lookup.getDescription());
         assertEquals(fieldsDesc, lookup.getFieldDescriptions());
+        assertEquals(List.of("key"), lookup.getKeyColumns());
+        assertEquals(Map.of("key", LookupColumnType.STRING), lookup.getColumnTypes());
     }
 
     @Test
@@ -0,0 +1,59 @@
+package com.project.core_service.models.review_transition;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.core_service.models.solutions_review.DocumentState;
+
+/**
+ * Unit tests for {@link ReviewTransition} model.
+ */
+class ReviewTransitionTest {
+
+    @Test
+    void builderSetsFieldsCorrectly() {
+        LocalDateTime now = LocalDateTime.now();
+        ReviewTransition transition = ReviewTransition.builder()
+                .documentId("sr-1")
+                .systemCode("SYS-001")
+                .operation(DocumentState.StateOperation.ACTIVATE)
+                .fromState(DocumentState.APPROVED)
+                .toState(DocumentState.ACTIVE)
+                .modifiedBy("admin")
+                .comment("Go live")
+                .transitionedAt(now)
+                .build();
+
+        assertNull(transition.getId());
+        assertEquals("sr-1", transition.getDocumentId());
+        assertEquals("SYS-001", transition.getSystemCode());
+        assertEquals(DocumentState.StateOperation.ACTIVATE, transition.getOperation());
+        assertEquals(DocumentState.APPROVED, transition.getFromState());
+        assertEquals(DocumentState.ACTIVE, transition.getToState());
+        assertEquals("admin", transition.getModifiedBy());
+        assertEquals("Go live", transition.getComment());
+        assertEquals(now, transition.getTransitionedAt());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenSettingNullForNonNullFields() {
+        ReviewTransition transition = new ReviewTransition();
+
+        assertThatThrownBy(() -> transition.setDocumentId(null)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> transition.setSystemCode(null)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> transition.setOperation(null)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> transition.setTransitionedAt(null)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void optionalFieldsAcceptNull() {
+        ReviewTransition transition = new ReviewTransition();
+
+        assertDoesNotThrow(() -> transition.setComment(null));
+        assertDoesNotThrow(() -> transition.setModifiedBy(null));
+    }
+}
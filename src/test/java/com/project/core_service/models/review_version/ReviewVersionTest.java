@@ -0,0 +1,69 @@
+package com.project.core_service.models.review_version;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.core_service.models.solutions_review.DocumentState;
+
+/**
+ * Unit tests for {@link ReviewVersion} and {@link ReviewChange} models.
+ */
+class ReviewVersionTest {
+
+    @Test
+    void builderSetsFieldsCorrectly() {
+        LocalDateTime now = LocalDateTime.now();
+        ReviewVersion version = ReviewVersion.builder()
+                .systemCode("SYS-001")
+                .version(3)
+                .documentId("sr-1")
+                .documentState(DocumentState.ACTIVE)
+                .keyframe(false)
+                .changes(List.of(new ReviewChange(ReviewChange.Type.REMOVE, "dataAssets", "asset-1", null)))
+                .recordedBy("admin")
+                .recordedAt(now)
+                .build();
+
+        assertNull(version.getId());
+        assertEquals("SYS-001", version.getSystemCode());
+        assertEquals(3, version.getVersion());
+        assertEquals("sr-1", version.getDocumentId());
+        assertFalse(version.isKeyframe());
+        assertNull(version.getSnapshot());
+        assertEquals(ReviewChange.Type.REMOVE, version.getChanges().get(0).getType());
+        assertEquals(now, version.getRecordedAt());
+    }
+
+    @Test
+    void keyframeHoldsSnapshot() {
+        ReviewVersion version = ReviewVersion.builder()
+                .systemCode("SYS-001")
+                .version(1)
+                .documentId("sr-1")
+                .documentState(DocumentState.ACTIVE)
+                .keyframe(true)
+                .snapshot(Map.of("dataAssets", List.of()))
+                .recordedAt(LocalDateTime.now())
+                .build();
+
+        assertTrue(version.isKeyframe());
+        assertNull(version.getChanges());
+        assertTrue(version.getSnapshot().containsKey("dataAssets"));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenSettingNullForNonNullFields() {
+        ReviewVersion version = new ReviewVersion();
+
+        assertThatThrownBy(() -> version.setSystemCode(null)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> version.setDocumentId(null)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> version.setDocumentState(null)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> version.setRecordedAt(null)).isInstanceOf(NullPointerException.class);
+    }
+}
@@ -0,0 +1,48 @@
+package com.project.core_service.models.solutions_review;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ReviewSection enum.
+ */
+class ReviewSectionTest {
+
+    @ParameterizedTest
+    @EnumSource(ReviewSection.class)
+    @DisplayName("Should resolve every section from its path")
+    void shouldResolveFromPath(ReviewSection section) {
+        assertEquals(section, ReviewSection.fromPath(section.getPath()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ReviewSection.class)
+    @DisplayName("Should map every section to a SolutionReview field")
+    void shouldMapToSolutionReviewField(ReviewSection section) {
+        assertDoesNotThrow(() -> SolutionReview.class.getDeclaredField(section.getFieldName()));
+        assertTrue(ReviewSectionElement.class.isAssignableFrom(section.getElementType()));
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown path and list the valid ones")
+    void shouldRejectUnknownPath() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ReviewSection.fromPath("unknown"));
+
+        assertTrue(exception.getMessage().contains("unknown"));
+        Arrays.stream(ReviewSection.values())
+                .forEach(section -> assertTrue(exception.getMessage().contains(section.getPath())));
+    }
+
+    @Test
+    @DisplayName("Should reject a null path")
+    void shouldRejectNullPath() {
+        assertThrows(IllegalArgumentException.class, () -> ReviewSection.fromPath(null));
+    }
+}
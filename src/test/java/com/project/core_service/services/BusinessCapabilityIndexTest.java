@@ -0,0 +1,86 @@
+package com.project.core_service.services;
+
+import com.project.core_service.dto.BusinessCapabilityLookupDTO;
+import com.project.core_service.dto.BusinessCapabilityNodeDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BusinessCapabilityIndexTest {
+
+    private final BusinessCapabilityIndex index = BusinessCapabilityIndex.of(List.of(
+        new BusinessCapabilityLookupDTO("Policy Management", "Policy Administration", "Policy Issuance"),
+        new BusinessCapabilityLookupDTO("Policy Management", "Policy Administration", "Policy Renewal"),
+        new BusinessCapabilityLookupDTO("Policy Management", "Policy Administration", "Policy Issuance"),
+        new BusinessCapabilityLookupDTO("Claims Management", "Claims Processing", "First Notice of Loss"),
+        new BusinessCapabilityLookupDTO("Claims Management", "Claims Processing", null),
+        new BusinessCapabilityLookupDTO("Claims Management", null, null),
+        new BusinessCapabilityLookupDTO(null, "Orphan", "Orphan Leaf")
+    ));
+
+    @Test
+    void tree_DeduplicatesChildrenAndKeepsFirstSeenOrder() {
+        // Act
+        List<BusinessCapabilityNodeDTO> tree = index.tree();
+
+        // Assert
+        assertEquals(List.of("Policy Management", "Claims Management"),
+            tree.stream().map(BusinessCapabilityNodeDTO::getName).toList());
+
+        BusinessCapabilityNodeDTO administration = tree.get(0).getChildren().get(0);
+        assertEquals("Policy Administration", administration.getName());
+        assertEquals(List.of("Policy Issuance", "Policy Renewal"),
+            administration.getChildren().stream().map(BusinessCapabilityNodeDTO::getName).toList());
+
+        BusinessCapabilityNodeDTO processing = tree.get(1).getChildren().get(0);
+        assertEquals(1, tree.get(1).getChildren().size());
+        assertEquals(List.of("First Notice of Loss"),
+            processing.getChildren().stream().map(BusinessCapabilityNodeDTO::getName).toList());
+        assertTrue(processing.getChildren().get(0).getChildren().isEmpty());
+    }
+
+    @Test
+    void search_MatchesNamePrefixIgnoringCase() {
+        // Act
+        List<BusinessCapabilityLookupDTO> matches = index.search("CLAIMS", 10);
+
+        // Assert
+        assertEquals(List.of(
+            new BusinessCapabilityLookupDTO("Claims Management", null, null),
+            new BusinessCapabilityLookupDTO("Claims Management", "Claims Processing", null)
+        ), matches);
+    }
+
+    @Test
+    void search_MatchesWordsInsideNames() {
+        // Act
+        List<BusinessCapabilityLookupDTO> matches = index.search("iss", 10);
+
+        // Assert
+        assertEquals(List.of(
+            new BusinessCapabilityLookupDTO("Policy Management", "Policy Administration", "Policy Issuance")
+        ), matches);
+    }
+
+    @Test
+    void search_ReturnsEachCapabilityOnceUpToLimit() {
+        // Act
+        List<BusinessCapabilityLookupDTO> policies = index.search("policy", 10);
+        List<BusinessCapabilityLookupDTO> limited = index.search("policy", 2);
+
+        // Assert
+        assertEquals(4, policies.size());
+        assertEquals(policies.subList(0, 2), limited);
+        assertEquals(2, index.search("management", 10).size());
+    }
+
+    @Test
+    void search_BlankOrUnknownPrefix_ReturnsNothing() {
+        assertTrue(index.search("  ", 10).isEmpty());
+        assertTrue(index.search(null, 10).isEmpty());
+        assertTrue(index.search("underwriting", 10).isEmpty());
+        assertTrue(index.search("orphan", 10).isEmpty());
+    }
+}
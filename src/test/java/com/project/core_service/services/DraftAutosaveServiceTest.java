@@ -0,0 +1,262 @@
+package com.project.core_service.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.project.core_service.dto.SolutionReviewDTO;
+import com.project.core_service.exceptions.NotFoundException;
+import com.project.core_service.models.business_capabilities.BusinessCapability;
+import com.project.core_service.models.solution_overview.SolutionOverview;
+import com.project.core_service.models.solutions_review.SolutionReview;
+
+/**
+ * Unit tests for {@link DraftAutosaveService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class DraftAutosaveServiceTest {
+
+    @Mock
+    private SolutionReviewService solutionReviewService;
+
+    private DraftAutosaveService autosaveService;
+
+    private DraftAutosaveService createService(long debounceMs) {
+        return createService(debounceMs, 60_000);
+    }
+
+    private DraftAutosaveService createService(long debounceMs, long maxWaitMs) {
+        autosaveService = new DraftAutosaveService(solutionReviewService, debounceMs, maxWaitMs);
+        autosaveService.start();
+        return autosaveService;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (autosaveService != null) {
+            autosaveService.stop();
+        }
+    }
+
+    private static SolutionReviewDTO update(String id) {
+        SolutionReviewDTO dto = new SolutionReviewDTO();
+        dto.setId(id);
+        return dto;
+    }
+
+    private static BusinessCapability capability(String id) {
+        return new BusinessCapability(id, "L1", "L2", "L3", null);
+    }
+
+    @Test
+    void buffer_CoalescesBurstIntoSingleWrite() {
+        DraftAutosaveService service = createService(50);
+        SolutionOverview overview = new SolutionOverview();
+        SolutionReviewDTO first = update("rev-1");
+        first.setSolutionOverview(overview);
+        SolutionReviewDTO second = update("rev-1");
+        second.setBusinessCapabilities(List.of(capability("cap-1")));
+        SolutionReviewDTO third = update("rev-1");
+        third.setBusinessCapabilities(List.of(capability("cap-2")));
+
+        service.buffer(first);
+        service.buffer(second);
+        service.buffer(third);
+
+        ArgumentCaptor<SolutionReviewDTO> captor = ArgumentCaptor.forClass(SolutionReviewDTO.class);
+        verify(solutionReviewService, timeout(2_000).times(1)).updateSolutionReview(captor.capture());
+        SolutionReviewDTO written = captor.getValue();
+        assertSame(overview, written.getSolutionOverview());
+        assertEquals("cap-2", written.getBusinessCapabilities().get(0).getId());
+        assertEquals(0, service.pendingCount());
+    }
+
+    @Test
+    void buffer_RejectsUpdateWithoutId() {
+        DraftAutosaveService service = createService(50);
+
+        assertThrows(IllegalArgumentException.class, () -> service.buffer(update(null)));
+        assertThrows(IllegalArgumentException.class, () -> service.buffer(null));
+    }
+
+    @Test
+    void buffer_RejectsMissingOrNonDraftReview() {
+        DraftAutosaveService service = createService(50);
+        doThrow(new NotFoundException("rev-404")).when(solutionReviewService).requireDraft("rev-404");
+        doThrow(new IllegalStateException("Only DRAFT reviews can be modified"))
+                .when(solutionReviewService).requireDraft("rev-submitted");
+
+        assertThrows(NotFoundException.class, () -> service.buffer(update("rev-404")));
+        assertThrows(IllegalStateException.class, () -> service.buffer(update("rev-submitted")));
+        assertEquals(0, service.pendingCount());
+    }
+
+    @Test
+    void buffer_ChecksReviewOnlyWhenStartingDraft() {
+        DraftAutosaveService service = createService(60_000);
+
+        service.buffer(update("rev-1"));
+        service.buffer(update("rev-1"));
+
+        verify(solutionReviewService, times(1)).requireDraft("rev-1");
+    }
+
+    @Test
+    void buffer_WritesAfterMaxWaitDespiteContinuousAutosaves() throws InterruptedException {
+        DraftAutosaveService service = createService(100, 300);
+
+        long end = System.currentTimeMillis() + 600;
+        while (System.currentTimeMillis() < end) {
+            service.buffer(update("rev-1"));
+            Thread.sleep(20);
+        }
+
+        verify(solutionReviewService, atLeastOnce()).updateSolutionReview(any());
+    }
+
+    @Test
+    void flush_WritesPendingDraftImmediately() {
+        DraftAutosaveService service = createService(60_000);
+        SolutionReview stored = new SolutionReview();
+        when(solutionReviewService.updateSolutionReview(any())).thenReturn(stored);
+
+        service.buffer(update("rev-1"));
+
+        assertSame(stored, service.flush("rev-1").orElseThrow());
+        assertTrue(service.flush("rev-1").isEmpty());
+        verify(solutionReviewService, times(1)).updateSolutionReview(any());
+    }
+
+    @Test
+    void save_MergesPendingDraftWithExplicitSave() {
+        DraftAutosaveService service = createService(60_000);
+        SolutionOverview overview = new SolutionOverview();
+        SolutionReviewDTO autosave = update("rev-1");
+        autosave.setSolutionOverview(overview);
+        SolutionReviewDTO explicitSave = update("rev-1");
+        explicitSave.setBusinessCapabilities(List.of(capability("cap-1")));
+
+        service.buffer(autosave);
+        service.save(explicitSave);
+
+        ArgumentCaptor<SolutionReviewDTO> captor = ArgumentCaptor.forClass(SolutionReviewDTO.class);
+        verify(solutionReviewService).updateSolutionReview(captor.capture());
+        assertSame(overview, captor.getValue().getSolutionOverview());
+        assertEquals(1, captor.getValue().getBusinessCapabilities().size());
+        assertEquals(0, service.pendingCount());
+    }
+
+    @Test
+    void save_WithoutPendingDraftPassesUpdateThrough() {
+        DraftAutosaveService service = createService(60_000);
+        SolutionReviewDTO explicitSave = update("rev-1");
+
+        service.save(explicitSave);
+
+        verify(solutionReviewService).updateSolutionReview(explicitSave);
+    }
+
+    @Test
+    void discard_DropsPendingDraft() {
+        DraftAutosaveService service = createService(60_000);
+
+        service.buffer(update("rev-1"));
+        service.discard("rev-1");
+
+        assertEquals(0, service.pendingCount());
+        assertTrue(service.flush("rev-1").isEmpty());
+        verify(solutionReviewService, never()).updateSolutionReview(any());
+    }
+
+    @Test
+    void stop_FlushesAllPendingDrafts() {
+        DraftAutosaveService service = createService(60_000);
+
+        service.buffer(update("rev-1"));
+        service.buffer(update("rev-2"));
+        service.stop();
+        autosaveService = null;
+
+        verify(solutionReviewService, times(2)).updateSolutionReview(any());
+    }
+
+    @Test
+    void flushAll_KeepsGoingWhenOneDraftFails() {
+        DraftAutosaveService service = createService(60_000);
+        when(solutionReviewService.updateSolutionReview(any()))
+                .thenThrow(new IllegalStateException("Only DRAFT reviews can be modified"))
+                .thenReturn(new SolutionReview());
+
+        service.buffer(update("rev-1"));
+        service.buffer(update("rev-2"));
+
+        assertEquals(1, service.flushAll());
+        assertEquals(1, service.pendingCount());
+    }
+
+    @Test
+    void flush_KeepsFailedDraftAndReportsFailureOnNextFlush() {
+        DraftAutosaveService service = createService(60_000);
+        SolutionOverview overview = new SolutionOverview();
+        SolutionReviewDTO autosave = update("rev-1");
+        autosave.setSolutionOverview(overview);
+        SolutionReview stored = new SolutionReview();
+        when(solutionReviewService.updateSolutionReview(any()))
+                .thenThrow(new RuntimeException("Mongo unavailable"))
+                .thenThrow(new RuntimeException("Mongo unavailable"))
+                .thenReturn(stored);
+
+        service.buffer(autosave);
+
+        assertThrows(RuntimeException.class, () -> service.flush("rev-1"));
+        assertThrows(RuntimeException.class, () -> service.flush("rev-1"));
+        assertEquals(1, service.pendingCount());
+        assertSame(stored, service.flush("rev-1").orElseThrow());
+
+        ArgumentCaptor<SolutionReviewDTO> captor = ArgumentCaptor.forClass(SolutionReviewDTO.class);
+        verify(solutionReviewService, times(3)).updateSolutionReview(captor.capture());
+        assertSame(overview, captor.getValue().getSolutionOverview());
+        assertEquals(0, service.pendingCount());
+    }
+
+    @Test
+    void buffer_AfterFailedWrite_WritesImmediatelyAndReportsFailure() {
+        DraftAutosaveService service = createService(60_000);
+        SolutionOverview overview = new SolutionOverview();
+        SolutionReviewDTO autosave = update("rev-1");
+        autosave.setSolutionOverview(overview);
+        SolutionReviewDTO nextAutosave = update("rev-1");
+        nextAutosave.setBusinessCapabilities(List.of(capability("cap-1")));
+        when(solutionReviewService.updateSolutionReview(any()))
+                .thenThrow(new IllegalStateException("Only DRAFT reviews can be modified"));
+
+        service.buffer(autosave);
+        assertEquals(0, service.flushAll());
+
+        assertThrows(IllegalStateException.class, () -> service.buffer(nextAutosave));
+
+        ArgumentCaptor<SolutionReviewDTO> captor = ArgumentCaptor.forClass(SolutionReviewDTO.class);
+        verify(solutionReviewService, times(2)).updateSolutionReview(captor.capture());
+        assertSame(overview, captor.getValue().getSolutionOverview());
+        assertEquals("cap-1", captor.getValue().getBusinessCapabilities().get(0).getId());
+        assertEquals(1, service.pendingCount());
+    }
+}
@@ -1,58 +1,50 @@
 package com.project.core_service.services;
 
-import com.mongodb.client.FindIterable;
-import com.mongodb.client.MongoCollection;
-import com.mongodb.client.MongoDatabase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.core_service.config.DropdownRegistryProperties;
+import com.project.core_service.config.DropdownRegistryProperties.DropdownDefinition;
+import com.project.core_service.config.DropdownRegistryProperties.DropdownSort;
 import com.project.core_service.dto.BusinessCapabilityLookupDTO;
+import com.project.core_service.dto.BusinessCapabilityNodeDTO;
+import com.project.core_service.dto.DropdownOptionDTO;
 import com.project.core_service.dto.TechComponentLookupDTO;
+import com.project.core_service.dto.TechProductDTO;
+import com.project.core_service.exceptions.CsvProcessingException;
 import com.project.core_service.exceptions.NotFoundException;
-import org.bson.Document;
-import org.bson.conversions.Bson;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class DropdownServiceTest {
 
     @Mock
-    private MongoDatabase mongoDatabase;
+    private LookupService lookupService;
 
-    @Mock
-    private MongoCollection<Document> mongoCollection;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
 
-    @Mock
-    private FindIterable<Document> findIterable;
+    @Spy
+    private DropdownRegistryProperties registryProperties = new DropdownRegistryProperties();
 
     @InjectMocks
     private DropdownService dropdownService;
 
-    private final String collectionName = "test_lookups";
-
-    @BeforeEach
-    void setUp() {
-        ReflectionTestUtils.setField(dropdownService, "collectionName", collectionName);
-    }
-
     // ===== Business Capabilities Tests =====
 
     @Test
     void getBusinessCapabilities_Success() {
         // Arrange
-        Document businessCapDoc = createBusinessCapabilitiesDocument();
-        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
-        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
-        when(findIterable.first()).thenReturn(businessCapDoc);
+        when(lookupService.streamRows("business-capabilities", 0)).thenReturn(createBusinessCapabilitiesRows());
 
         // Act
         List<BusinessCapabilityLookupDTO> result = dropdownService.getBusinessCapabilities();
@@ -70,9 +62,8 @@ class DropdownServiceTest {
     @Test
     void getBusinessCapabilities_NotFound_ThrowsNotFoundException() {
         // Arrange
-        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
-        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
-        when(findIterable.first()).thenReturn(null);
+        when(lookupService.streamRows("business-capabilities", 0))
+            .thenThrow(new NotFoundException("Lookup with name 'business-capabilities' not found"));
 
         // Act & Assert
         NotFoundException exception = assertThrows(NotFoundException.class,
@@ -84,16 +75,7 @@ class DropdownServiceTest {
     @Test
     void getBusinessCapabilities_EmptyData_ReturnsEmptyList() {
         // Arrange
-        Document emptyDoc = new Document();
-        emptyDoc.put("id", "business-capabilities");
-        emptyDoc.put("lookupName", "business-capabilities");
-        emptyDoc.put("data", new ArrayList<>());
-        emptyDoc.put("uploadedAt", new Date());
-        emptyDoc.put("recordCount", 0);
-
-        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
-        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
-        when(findIterable.first()).thenReturn(emptyDoc);
+        when(lookupService.streamRows("business-capabilities", 0)).thenReturn(Stream.empty());
 
         // Act
         List<BusinessCapabilityLookupDTO> result = dropdownService.getBusinessCapabilities();
@@ -103,15 +85,100 @@ class DropdownServiceTest {
         assertEquals(0, result.size());
     }
 
+    @Test
+    void getBusinessCapabilities_SecondCall_ServedFromCache() {
+        // Arrange
+        when(lookupService.streamRows("business-capabilities", 0)).thenReturn(createBusinessCapabilitiesRows());
+
+        // Act
+        DropdownService.CachedDropdown<BusinessCapabilityLookupDTO> first = dropdownService.getBusinessCapabilitiesDropdown();
+        DropdownService.CachedDropdown<BusinessCapabilityLookupDTO> second = dropdownService.getBusinessCapabilitiesDropdown();
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(3, second.items().size());
+        assertTrue(new String(second.json()).contains("Policy Issuance"));
+        verify(lookupService, times(1)).streamRows("business-capabilities", 0);
+    }
+
+    @Test
+    void getBusinessCapabilities_NotFound_IsNotCached() {
+        // Arrange
+        when(lookupService.streamRows("business-capabilities", 0))
+            .thenThrow(new NotFoundException("Lookup with name 'business-capabilities' not found"))
+            .thenReturn(createBusinessCapabilitiesRows());
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> dropdownService.getBusinessCapabilities());
+        assertEquals(3, dropdownService.getBusinessCapabilities().size());
+    }
+
+    @Test
+    void onLookupChanged_DropsOnlyTheChangedLookup() {
+        // Arrange
+        when(lookupService.streamRows("business-capabilities", 0))
+            .thenReturn(createBusinessCapabilitiesRows(), createBusinessCapabilitiesRows());
+        when(lookupService.streamRows("tech_eol", 0)).thenReturn(createTechComponentsRows());
+        String etag = dropdownService.getBusinessCapabilitiesDropdown().etag();
+        dropdownService.getTechComponentsDropdown();
+
+        // Act
+        dropdownService.onLookupChanged(new LookupChangedEvent("business-capabilities"));
+        DropdownService.CachedDropdown<BusinessCapabilityLookupDTO> reloaded = dropdownService.getBusinessCapabilitiesDropdown();
+        dropdownService.getTechComponentsDropdown();
+
+        // Assert - same rows give the same ETag
+        assertEquals(etag, reloaded.etag());
+        verify(lookupService, times(2)).streamRows("business-capabilities", 0);
+        verify(lookupService, times(1)).streamRows("tech_eol", 0);
+    }
+
+    @Test
+    void getBusinessCapabilityTree_BuiltOncePerCachedVersion() {
+        // Arrange
+        when(lookupService.streamRows("business-capabilities", 0))
+            .thenReturn(createBusinessCapabilitiesRows(), createBusinessCapabilitiesRows());
+
+        // Act
+        DropdownService.CachedDropdown<BusinessCapabilityNodeDTO> first = dropdownService.getBusinessCapabilityTreeDropdown();
+        DropdownService.CachedDropdown<BusinessCapabilityNodeDTO> second = dropdownService.getBusinessCapabilityTreeDropdown();
+        dropdownService.onLookupChanged(new LookupChangedEvent("business-capabilities"));
+        DropdownService.CachedDropdown<BusinessCapabilityNodeDTO> rebuilt = dropdownService.getBusinessCapabilityTreeDropdown();
+
+        // Assert
+        assertSame(first, second);
+        assertNotSame(first, rebuilt);
+        assertEquals(first.etag(), rebuilt.etag());
+        assertEquals(3, first.items().size());
+        assertEquals("Policy Administration", first.items().get(0).getChildren().get(0).getName());
+    }
+
+    @Test
+    void searchBusinessCapabilities_ReturnsMatchingPaths() {
+        // Arrange
+        when(lookupService.streamRows("business-capabilities", 0)).thenReturn(createBusinessCapabilitiesRows());
+
+        // Act
+        List<BusinessCapabilityLookupDTO> result = dropdownService.searchBusinessCapabilities("first", 5);
+
+        // Assert
+        assertEquals(List.of(new BusinessCapabilityLookupDTO("Claims Management", "Claims Processing", "First Notice of Loss")),
+            result);
+    }
+
+    @Test
+    void searchBusinessCapabilities_LimitOutOfRange_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> dropdownService.searchBusinessCapabilities("policy", 0));
+        assertThrows(IllegalArgumentException.class, () -> dropdownService.searchBusinessCapabilities("policy", 51));
+        verifyNoInteractions(lookupService);
+    }
+
     // ===== Tech Components Tests =====
 
     @Test
     void getTechComponents_Success() {
         // Arrange
-        Document techComponentsDoc = createTechComponentsDocument();
-        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
-        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
-        when(findIterable.first()).thenReturn(techComponentsDoc);
+        when(lookupService.streamRows("tech_eol", 0)).thenReturn(createTechComponentsRows());
 
         // Act
         List<TechComponentLookupDTO> result = dropdownService.getTechComponents();
@@ -128,9 +195,8 @@ class DropdownServiceTest {
     @Test
     void getTechComponents_NotFound_ThrowsNotFoundException() {
         // Arrange
-        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
-        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
-        when(findIterable.first()).thenReturn(null);
+        when(lookupService.streamRows("tech_eol", 0))
+            .thenThrow(new NotFoundException("Lookup with name 'tech_eol' not found"));
 
         // Act & Assert
         NotFoundException exception = assertThrows(NotFoundException.class,
@@ -142,16 +208,7 @@ class DropdownServiceTest {
     @Test
     void getTechComponents_EmptyData_ReturnsEmptyList() {
         // Arrange
-        Document emptyDoc = new Document();
-        emptyDoc.put("id", "tech_eol");
-        emptyDoc.put("lookupName", "tech_eol");
-        emptyDoc.put("data", new ArrayList<>());
-        emptyDoc.put("uploadedAt", new Date());
-        emptyDoc.put("recordCount", 0);
-
-        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
-        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
-        when(findIterable.first()).thenReturn(emptyDoc);
+        when(lookupService.streamRows("tech_eol", 0)).thenReturn(Stream.empty());
 
         // Act
         List<TechComponentLookupDTO> result = dropdownService.getTechComponents();
@@ -164,22 +221,12 @@ class DropdownServiceTest {
     @Test
     void getTechComponents_WithNullProductName_SkipsEntry() {
         // Arrange
-        List<Map<String, String>> techComponentData = Arrays.asList(
+        Stream<Map<String, String>> techComponentRows = Stream.of(
             Map.of("Product Name", "Spring Boot", "Product Version", "3.2"),
             Map.of("Product Version", "20.x"), // Missing Product Name
             Map.of("Product Name", ".NET Core", "Product Version", "8")
         );
-
-        Document techDoc = new Document();
-        techDoc.put("id", "tech_eol");
-        techDoc.put("lookupName", "tech_eol");
-        techDoc.put("data", techComponentData);
-        techDoc.put("uploadedAt", new Date());
-        techDoc.put("recordCount", 3);
-
-        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
-        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
-        when(findIterable.first()).thenReturn(techDoc);
+        when(lookupService.streamRows("tech_eol", 0)).thenReturn(techComponentRows);
 
         // Act
         List<TechComponentLookupDTO> result = dropdownService.getTechComponents();
@@ -191,41 +238,152 @@ class DropdownServiceTest {
         assertEquals(".NET Core", result.get(1).getProductName());
     }
 
+    @Test
+    void searchTechComponents_ReturnsProductsWithVersions() {
+        // Arrange
+        when(lookupService.streamRows("tech_eol", 0)).thenReturn(Stream.of(
+            Map.of("Product Name", "Spring Boot", "Product Version", "3.2"),
+            Map.of("Product Name", "Node.js", "Product Version", "20.x"),
+            Map.of("Product Name", "Spring Boot", "Product Version", "2.7")
+        ));
+
+        // Act
+        List<TechProductDTO> result = dropdownService.searchTechComponents("spr", 10);
+        List<String> versions = dropdownService.getTechComponentVersions("Spring Boot");
+
+        // Assert
+        assertEquals(List.of(new TechProductDTO("Spring Boot", List.of("3.2", "2.7"))), result);
+        assertEquals(List.of("3.2", "2.7"), versions);
+        verify(lookupService, times(1)).streamRows("tech_eol", 0);
+    }
+
+    @Test
+    void getTechComponentVersions_UnknownProduct_ThrowsNotFoundException() {
+        // Arrange
+        when(lookupService.streamRows("tech_eol", 0)).thenReturn(createTechComponentsRows());
+
+        // Act & Assert
+        NotFoundException exception = assertThrows(NotFoundException.class,
+            () -> dropdownService.getTechComponentVersions("Python"));
+
+        assertEquals("Tech component 'Python' not found", exception.getMessage());
+    }
+
+    @Test
+    void searchTechComponents_LimitOutOfRange_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> dropdownService.searchTechComponents("spring", 0));
+        verifyNoInteractions(lookupService);
+    }
+
+    // ===== Registered Dropdown Tests =====
+
+    @Test
+    void getRegisteredDropdown_GroupsDeduplicatesAndSorts() {
+        // Arrange
+        register("capabilities", "business-capabilities", "L3", null, "L1", DropdownSort.LABEL);
+        when(lookupService.streamRows("business-capabilities", 0)).thenReturn(Stream.of(
+            Map.of("L1", "Policy Management", "L3", "Policy Renewal"),
+            Map.of("L1", "Claims Management", "L3", "First Notice of Loss"),
+            Map.of("L1", "Policy Management", "L3", "Policy Issuance"),
+            Map.of("L1", "Policy Management", "L3", "Policy Renewal"),
+            Map.of("L1", "Claims Management")
+        ));
+
+        // Act
+        List<DropdownOptionDTO> result = dropdownService.getRegisteredDropdown("capabilities").items();
+
+        // Assert
+        assertEquals(List.of(
+            new DropdownOptionDTO("First Notice of Loss", "First Notice of Loss", "Claims Management"),
+            new DropdownOptionDTO("Policy Issuance", "Policy Issuance", "Policy Management"),
+            new DropdownOptionDTO("Policy Renewal", "Policy Renewal", "Policy Management")
+        ), result);
+    }
+
+    @Test
+    void getRegisteredDropdown_UsesLabelColumnAndKeepsLookupOrder() {
+        // Arrange
+        register("versions", "tech_eol", "Product Version", "Product Name", null, DropdownSort.NONE);
+        when(lookupService.streamRows("tech_eol", 0)).thenReturn(createTechComponentsRows());
+
+        // Act
+        List<DropdownOptionDTO> result = dropdownService.getRegisteredDropdown("versions").items();
+
+        // Assert
+        assertEquals(List.of("3.2", "20.x", "8"), result.stream().map(DropdownOptionDTO::getValue).toList());
+        assertEquals("Spring Boot", result.get(0).getLabel());
+        assertNull(result.get(0).getGroup());
+    }
+
+    @Test
+    void getRegisteredDropdown_SharesCacheInvalidationWithLookup() {
+        // Arrange
+        register("products", "tech_eol", "Product Name", null, null, DropdownSort.VALUE);
+        when(lookupService.streamRows("tech_eol", 0)).thenReturn(createTechComponentsRows(), createTechComponentsRows());
+
+        // Act
+        DropdownService.CachedDropdown<DropdownOptionDTO> first = dropdownService.getRegisteredDropdown("products");
+        DropdownService.CachedDropdown<DropdownOptionDTO> cached = dropdownService.getRegisteredDropdown("products");
+        dropdownService.onLookupChanged(new LookupChangedEvent("business-capabilities"));
+        DropdownService.CachedDropdown<DropdownOptionDTO> unaffected = dropdownService.getRegisteredDropdown("products");
+        dropdownService.onLookupChanged(new LookupChangedEvent("tech_eol"));
+        DropdownService.CachedDropdown<DropdownOptionDTO> reloaded = dropdownService.getRegisteredDropdown("products");
+
+        // Assert
+        assertSame(first, cached);
+        assertSame(first, unaffected);
+        assertNotSame(first, reloaded);
+        assertEquals(List.of(".NET Core", "Node.js", "Spring Boot"),
+            reloaded.items().stream().map(DropdownOptionDTO::getValue).toList());
+        verify(lookupService, times(2)).streamRows("tech_eol", 0);
+    }
+
+    @Test
+    void getRegisteredDropdown_NotDeclared_ThrowsNotFoundException() {
+        // Act & Assert
+        NotFoundException exception = assertThrows(NotFoundException.class,
+            () -> dropdownService.getRegisteredDropdown("unknown"));
+
+        assertEquals("Dropdown 'unknown' not found", exception.getMessage());
+        verifyNoInteractions(lookupService);
+    }
+
+    @Test
+    void getRegisteredDropdown_MissingValueColumn_ThrowsCsvProcessingException() {
+        // Arrange
+        register("broken", "tech_eol", "Vendor", null, null, DropdownSort.LABEL);
+        when(lookupService.streamRows("tech_eol", 0)).thenReturn(createTechComponentsRows());
+
+        // Act & Assert
+        assertThrows(CsvProcessingException.class, () -> dropdownService.getRegisteredDropdown("broken"));
+    }
+
     // ===== Helper Methods =====
 
-    private Document createBusinessCapabilitiesDocument() {
-        List<Map<String, String>> businessCapData = Arrays.asList(
+    private void register(String name, String lookupName, String valueColumn, String labelColumn,
+                          String groupColumn, DropdownSort sort) {
+        DropdownDefinition definition = new DropdownDefinition();
+        definition.setLookupName(lookupName);
+        definition.setValueColumn(valueColumn);
+        definition.setLabelColumn(labelColumn);
+        definition.setGroupColumn(groupColumn);
+        definition.setSort(sort);
+        registryProperties.getRegistry().put(name, definition);
+    }
+
+    private Stream<Map<String, String>> createBusinessCapabilitiesRows() {
+        return Stream.of(
             Map.of("L1", "Policy Management", "L2", "Policy Administration", "L3", "Policy Issuance"),
             Map.of("L1", "Claims Management", "L2", "Claims Processing", "L3", "First Notice of Loss"),
             Map.of("L1", "Customer Management", "L2", "Customer Onboarding", "L3", "Customer Registration")
         );
-
-        Document doc = new Document();
-        doc.put("id", "business-capabilities");
-        doc.put("lookupName", "business-capabilities");
-        doc.put("data", businessCapData);
-        doc.put("uploadedAt", new Date());
-        doc.put("recordCount", 3);
-        doc.put("description", "Business capabilities lookup");
-
-        return doc;
     }
 
-    private Document createTechComponentsDocument() {
-        List<Map<String, String>> techComponentData = Arrays.asList(
+    private Stream<Map<String, String>> createTechComponentsRows() {
+        return Stream.of(
             Map.of("Product Name", "Spring Boot", "Product Version", "3.2"),
             Map.of("Product Name", "Node.js", "Product Version", "20.x"),
             Map.of("Product Name", ".NET Core", "Product Version", "8")
         );
-
-        Document doc = new Document();
-        doc.put("id", "tech_eol");
-        doc.put("lookupName", "tech_eol");
-        doc.put("data", techComponentData);
-        doc.put("uploadedAt", new Date());
-        doc.put("recordCount", 3);
-        doc.put("description", "Tech components lookup");
-
-        return doc;
     }
 }
@@ -0,0 +1,212 @@
+package com.project.core_service.services;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LookupChangeListenerTest {
+
+    @Mock
+    private MongoDatabase mongoDatabase;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MongoCollection<Document> lookupsCollection;
+
+    @Mock
+    private MongoCollection<Document> tokensCollection;
+
+    @Mock
+    private FindIterable<Document> findIterable;
+
+    @InjectMocks
+    private LookupChangeListener listener;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(listener, "lookupsCollectionName", "lookups");
+        lenient().when(mongoDatabase.getCollection("lookups")).thenReturn(lookupsCollection);
+        lenient().when(mongoDatabase.getCollection("lookupChangeTokens")).thenReturn(tokensCollection);
+    }
+
+    @Test
+    void handleChange_PublishesEventForChangedLookup() {
+        // Arrange
+        @SuppressWarnings("unchecked")
+        ChangeStreamDocument<Document> change = mock(ChangeStreamDocument.class);
+        when(change.getDocumentKey()).thenReturn(new BsonDocument("_id", new BsonString("employees")));
+
+        // Act
+        listener.handleChange(change);
+
+        // Assert
+        verify(eventPublisher).publishEvent(new LookupChangedEvent("employees"));
+    }
+
+    @Test
+    void handleChange_WithoutDocumentKey_PublishesEventForAllLookups() {
+        // Arrange
+        @SuppressWarnings("unchecked")
+        ChangeStreamDocument<Document> change = mock(ChangeStreamDocument.class);
+
+        // Act
+        listener.handleChange(change);
+
+        // Assert
+        verify(eventPublisher).publishEvent(LookupChangedEvent.all());
+    }
+
+    @Test
+    void handleStreamError_HistoryLost_DropsTokenAndInvalidatesAll() {
+        // Arrange
+        ReflectionTestUtils.setField(listener, "resumeToken", new BsonDocument("_data", new BsonString("82AB")));
+        MongoCommandException historyLost = new MongoCommandException(
+            new BsonDocument("ok", new BsonInt32(0)).append("code", new BsonInt32(286))
+                .append("errmsg", new BsonString("Resume of change stream was not possible")),
+            new ServerAddress());
+
+        // Act
+        boolean reopen = listener.handleStreamError(historyLost);
+
+        // Assert
+        assertTrue(reopen);
+        assertNull(ReflectionTestUtils.getField(listener, "resumeToken"));
+        verify(eventPublisher).publishEvent(LookupChangedEvent.all());
+        ArgumentCaptor<Document> tokenCaptor = ArgumentCaptor.forClass(Document.class);
+        verify(tokensCollection).replaceOne(any(Bson.class), tokenCaptor.capture(), any(ReplaceOptions.class));
+        assertNull(tokenCaptor.getValue().get("resumeToken"));
+    }
+
+    @Test
+    void handleStreamError_OtherError_RetriesWithoutInvalidating() {
+        // Arrange
+        MongoCommandException interrupted = new MongoCommandException(
+            new BsonDocument("ok", new BsonInt32(0)).append("code", new BsonInt32(11601)),
+            new ServerAddress());
+
+        // Act & Assert
+        assertFalse(listener.handleStreamError(interrupted));
+        verifyNoInteractions(eventPublisher, tokensCollection);
+    }
+
+    @Test
+    void followNext_BatchWithoutChanges_SavesPostBatchToken() {
+        // Arrange
+        BsonDocument postBatchToken = new BsonDocument("_data", new BsonString("82AC"));
+        @SuppressWarnings("unchecked")
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = mock(MongoChangeStreamCursor.class);
+        when(cursor.getResumeToken()).thenReturn(postBatchToken);
+
+        // Act
+        boolean keepFollowing = listener.followNext(cursor);
+
+        // Assert
+        assertTrue(keepFollowing);
+        verifyNoInteractions(eventPublisher);
+        ArgumentCaptor<Document> tokenCaptor = ArgumentCaptor.forClass(Document.class);
+        verify(tokensCollection).replaceOne(any(Bson.class), tokenCaptor.capture(), any(ReplaceOptions.class));
+        assertEquals(postBatchToken, tokenCaptor.getValue().get("resumeToken"));
+    }
+
+    @Test
+    void followNext_TokenUnchanged_DoesNotSaveAgain() {
+        // Arrange
+        BsonDocument token = new BsonDocument("_data", new BsonString("82AC"));
+        @SuppressWarnings("unchecked")
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = mock(MongoChangeStreamCursor.class);
+        when(cursor.getResumeToken()).thenReturn(token);
+
+        // Act
+        listener.followNext(cursor);
+        listener.followNext(cursor);
+
+        // Assert
+        verify(tokensCollection, times(1)).replaceOne(any(Bson.class), any(Document.class), any(ReplaceOptions.class));
+    }
+
+    @Test
+    void followNext_Invalidate_PublishesEventAndStops() {
+        // Arrange
+        @SuppressWarnings("unchecked")
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = mock(MongoChangeStreamCursor.class);
+        @SuppressWarnings("unchecked")
+        ChangeStreamDocument<Document> change = mock(ChangeStreamDocument.class);
+        when(change.getOperationType()).thenReturn(OperationType.INVALIDATE);
+        when(cursor.tryNext()).thenReturn(change);
+        when(cursor.getResumeToken()).thenReturn(new BsonDocument("_data", new BsonString("82AD")));
+
+        // Act & Assert
+        assertFalse(listener.followNext(cursor));
+        verify(eventPublisher).publishEvent(LookupChangedEvent.all());
+        verify(tokensCollection).replaceOne(any(Bson.class), any(Document.class), any(ReplaceOptions.class));
+    }
+
+    @Test
+    void poll_PublishesEventsForAddedChangedAndRemovedLookups() {
+        // Arrange
+        when(lookupsCollection.find()).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        stubPoll(
+            List.of(lookup("employees", "Staff"), lookup("departments", "Teams")),
+            List.of(lookup("employees", "Staff"), lookup("departments", "Org units"), lookup("sites", "Offices")),
+            List.of(lookup("departments", "Org units"), lookup("sites", "Offices")));
+
+        // Act & Assert - the first poll only records the lookups
+        listener.poll();
+        verifyNoInteractions(eventPublisher);
+
+        listener.poll();
+        verify(eventPublisher).publishEvent(new LookupChangedEvent("departments"));
+        verify(eventPublisher).publishEvent(new LookupChangedEvent("sites"));
+        verifyNoMoreInteractions(eventPublisher);
+
+        listener.poll();
+        verify(eventPublisher).publishEvent(new LookupChangedEvent("employees"));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private void stubPoll(List<Document>... polls) {
+        Iterator<List<Document>> results = Arrays.asList(polls).iterator();
+        when(findIterable.into(anyCollection())).thenAnswer(invocation -> {
+            Collection<Document> target = invocation.getArgument(0);
+            target.addAll(results.next());
+            return target;
+        });
+    }
+
+    private static Document lookup(String name, String description) {
+        return new Document("_id", name).append("description", description);
+    }
+}
@@ -0,0 +1,205 @@
+package com.project.core_service.services;
+
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LookupCsvParserTest {
+
+    private static final String CSV = "id,name,notes\n"
+            + "1,John,plain\n"
+            + "2,\"Doe, Jane\",\"says \"\"hi\"\"\"\n"
+            + "3,Bob,\"line one\nline two\"\r\n"
+            + "4,Alice,\"trailing\" \n"
+            + "5,Ünïcode,✓\n";
+
+    private LookupCsvParser sequentialParser;
+    private LookupCsvParser parallelParser;
+
+    @BeforeEach
+    void setUp() {
+        sequentialParser = new LookupCsvParser(false, 1, Long.MAX_VALUE, 1);
+        // Tiny chunks so nearly every record is parsed as its own chunk
+        parallelParser = new LookupCsvParser(true, 3, 0, 1);
+        parallelParser.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        parallelParser.stop();
+    }
+
+    @Test
+    void nextRecordStart_SkipsQuotedLineBreaksAndEscapedQuotes() {
+        byte[] csv = bytes("a,\"x\ny\",\"he said \"\"no\"\"\"\nb\n");
+
+        int first = LookupCsvParser.nextRecordStart(ByteBuffer.wrap(csv), 0);
+
+        assertEquals("b\n", new String(csv, first, csv.length - first, StandardCharsets.UTF_8));
+        assertEquals(csv.length, LookupCsvParser.nextRecordStart(ByteBuffer.wrap(csv), first));
+    }
+
+    @Test
+    void nextRecordStart_QuoteInsideUnquotedField_IsLiteral() {
+        byte[] csv = bytes("5\"3,x\nnext\n");
+
+        assertEquals(6, LookupCsvParser.nextRecordStart(ByteBuffer.wrap(csv), 0));
+    }
+
+    @Test
+    void nextRecordStart_PathologicalQuoting_ReturnsMinusOne() {
+        assertEquals(-1, LookupCsvParser.nextRecordStart(ByteBuffer.wrap(bytes("a,\"never closed\nb\n")), 0));
+        assertEquals(-1, LookupCsvParser.nextRecordStart(ByteBuffer.wrap(bytes("a,\"quoted\"text\nb\n")), 0));
+    }
+
+    @Test
+    void chunkStarts_CutsOnlyAtRecordBoundaries() {
+        byte[] csv = bytes(CSV);
+        int from = LookupCsvParser.nextRecordStart(ByteBuffer.wrap(csv), 0);
+
+        int[] starts = LookupCsvParser.chunkStarts(ByteBuffer.wrap(csv), from, 1);
+
+        assertNotNull(starts);
+        assertEquals(6, starts.length);
+        assertEquals(from, starts[0]);
+        assertEquals(csv.length, starts[starts.length - 1]);
+        for (int i = 1; i < starts.length - 1; i++) {
+            assertEquals('\n', csv[starts[i] - 1]);
+        }
+    }
+
+    @Test
+    void chunkStarts_LargeTarget_ReturnsSingleChunk() {
+        byte[] csv = bytes(CSV);
+        int from = LookupCsvParser.nextRecordStart(ByteBuffer.wrap(csv), 0);
+
+        assertArrayEquals(new int[] { from, csv.length },
+            LookupCsvParser.chunkStarts(ByteBuffer.wrap(csv), from, 1 << 20));
+    }
+
+    @Test
+    void chunkStarts_PathologicalQuoting_ReturnsNull() {
+        byte[] csv = bytes("id,name\n1,\"a\"b\n");
+
+        assertNull(LookupCsvParser.chunkStarts(ByteBuffer.wrap(csv), 8, 1));
+    }
+
+    @Test
+    void open_Parallel_MatchesSequential() throws IOException {
+        List<List<String>> sequential = read(sequentialParser, bytes(CSV));
+        List<List<String>> parallel = read(parallelParser, bytes(CSV));
+
+        assertEquals(5, sequential.size());
+        assertEquals(List.of("2", "Doe, Jane", "says \"hi\""), sequential.get(1));
+        assertEquals(List.of("3", "Bob", "line one\nline two"), sequential.get(2));
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void open_Parallel_ManyChunksKeepFileOrder() throws IOException {
+        StringBuilder csv = new StringBuilder("id,value\n");
+        for (int i = 0; i < 500; i++) {
+            csv.append(i).append(i % 7 == 0 ? ",\"multi\nline\"\n" : ",plain\n");
+        }
+
+        List<List<String>> parallel = read(parallelParser, bytes(csv.toString()));
+
+        assertEquals(read(sequentialParser, bytes(csv.toString())), parallel);
+        for (int i = 0; i < 500; i++) {
+            assertEquals(String.valueOf(i), parallel.get(i).get(0));
+        }
+    }
+
+    @Test
+    void open_Parallel_HeaderMapMatchesSequential() throws IOException {
+        try (LookupCsvParser.CsvRecords sequential = sequentialParser.open(ByteBuffer.wrap(bytes(CSV)));
+                LookupCsvParser.CsvRecords parallel = parallelParser.open(ByteBuffer.wrap(bytes(CSV)))) {
+            assertEquals(sequential.headerMap(), parallel.headerMap());
+            assertEquals(List.of("id", "name", "notes"), new ArrayList<>(parallel.headerMap().keySet()));
+        }
+    }
+
+    @Test
+    void open_PathologicalQuoting_FallsBackToSequential() throws IOException {
+        byte[] csv = bytes("id,name\n1,\"a\" \n2,\"b\"c\n");
+
+        try (LookupCsvParser.CsvRecords records = parallelParser.open(ByteBuffer.wrap(csv))) {
+            Iterator<CSVRecord> iterator = records.iterator();
+            assertEquals("a", iterator.next().get(1));
+            // The sequential parser reports the malformed record as before
+            assertThrows(RuntimeException.class, iterator::next);
+        }
+    }
+
+    @Test
+    void open_SmallMultipartFile_ParsesSequentially() throws IOException {
+        LookupCsvParser parser = new LookupCsvParser(true, 2, 1 << 20, 1);
+        parser.start();
+        try {
+            MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", bytes(CSV));
+
+            List<List<String>> rows = new ArrayList<>();
+            try (LookupCsvParser.CsvRecords records = parser.open(file)) {
+                records.forEach(csvRecord -> rows.add(csvRecord.toList()));
+            }
+
+            assertEquals(read(sequentialParser, bytes(CSV)), rows);
+        } finally {
+            parser.stop();
+        }
+    }
+
+    @Test
+    void open_LargeMultipartFile_ParsesMappedCopyInParallel() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", bytes(CSV));
+
+        List<List<String>> rows = new ArrayList<>();
+        try (LookupCsvParser.CsvRecords records = parallelParser.open(file)) {
+            records.forEach(csvRecord -> rows.add(csvRecord.toList()));
+        }
+
+        assertEquals(read(sequentialParser, bytes(CSV)), rows);
+    }
+
+    @Test
+    void open_SpooledFile_ParsesSpoolFileInParallel(@TempDir Path spoolDir) throws IOException {
+        Path spooled = Files.write(spoolDir.resolve("upload.csv"), bytes(CSV));
+        MultipartFile original = new MockMultipartFile("file", "test.csv", "text/csv", new byte[0]);
+
+        List<List<String>> rows = new ArrayList<>();
+        try (LookupCsvParser.CsvRecords records = parallelParser.open(
+                new LookupUploadJobService.SpooledCsvFile(spooled, original))) {
+            records.forEach(csvRecord -> rows.add(csvRecord.toList()));
+        }
+
+        assertEquals(read(sequentialParser, bytes(CSV)), rows);
+        assertTrue(Files.exists(spooled));
+    }
+
+    private static List<List<String>> read(LookupCsvParser parser, byte[] csv) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (LookupCsvParser.CsvRecords records = parser.open(ByteBuffer.wrap(csv))) {
+            for (CSVRecord csvRecord : records) {
+                rows.add(csvRecord.toList());
+            }
+        }
+        return rows;
+    }
+
+    private static byte[] bytes(String csv) {
+        return csv.getBytes(StandardCharsets.UTF_8);
+    }
+}
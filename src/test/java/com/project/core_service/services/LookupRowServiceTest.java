@@ -0,0 +1,573 @@
+package com.project.core_service.services;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.MongoClientSettings;
+import com.project.core_service.models.lookup.LookupColumnType;
+import com.project.core_service.models.lookup.LookupRowFilter;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LookupRowServiceTest {
+
+    @Mock
+    private MongoDatabase mongoDatabase;
+
+    @Mock
+    private MongoCollection<Document> rowsCollection;
+
+    @Mock
+    private MongoCollection<Document> blocksCollection;
+
+    @Mock
+    private FindIterable<Document> findIterable;
+
+    @Mock
+    private MongoCursor<Document> cursor;
+
+    @Mock
+    private AggregateIterable<Document> aggregateIterable;
+
+    @InjectMocks
+    private LookupRowService lookupRowService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(mongoDatabase.getCollection("lookupRows")).thenReturn(rowsCollection);
+        lenient().when(mongoDatabase.getCollection("lookupRowBlocks")).thenReturn(blocksCollection);
+    }
+
+    @Test
+    void insertRows_NumbersRowsAndInsertsUnordered() {
+        // Act
+        lookupRowService.insertRows("employees", "upload-1", 10,
+            List.of(new Document("name", "John"), new Document("name", "Jane")), List.of());
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Document>> rowsCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<InsertManyOptions> optionsCaptor = ArgumentCaptor.forClass(InsertManyOptions.class);
+        verify(rowsCollection).insertMany(rowsCaptor.capture(), optionsCaptor.capture());
+
+        List<Document> inserted = rowsCaptor.getValue();
+        assertEquals(2, inserted.size());
+        assertEquals("employees", inserted.get(0).getString("lookupId"));
+        assertEquals("upload-1", inserted.get(0).getString("uploadId"));
+        assertEquals(10, inserted.get(0).getInteger("rowNumber"));
+        assertEquals(11, inserted.get(1).getInteger("rowNumber"));
+        assertEquals("Jane", inserted.get(1).get("fields", Document.class).getString("name"));
+        assertFalse(optionsCaptor.getValue().isOrdered());
+        assertFalse(inserted.get(0).containsKey("keys"));
+        assertEquals(LookupRowService.rowHash(new Document("name", "John")), inserted.get(0).getLong("hash"));
+    }
+
+    @Test
+    void rowHash_DependsOnColumnsAndValues() {
+        long hash = LookupRowService.rowHash(new Document("name", "John").append("age", "30"));
+
+        Map<String, String> sameRow = new LinkedHashMap<>();
+        sameRow.put("name", "John");
+        sameRow.put("age", "30");
+        assertEquals(hash, LookupRowService.rowHash(sameRow));
+        assertNotEquals(hash, LookupRowService.rowHash(new Document("name", "John").append("age", "31")));
+        assertNotEquals(hash, LookupRowService.rowHash(new Document("name", "John30").append("age", "")));
+    }
+
+    @Test
+    void streamRowHashes_ReadsKeyAndHashOnly() {
+        // Arrange
+        when(rowsCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.sort(any())).thenReturn(findIterable);
+        when(findIterable.batchSize(anyInt())).thenReturn(findIterable);
+        when(findIterable.iterator()).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, true, false);
+        when(cursor.next()).thenReturn(
+            new Document("rowNumber", 0).append("hash", 42L).append("fields", new Document("id", "7")),
+            new Document("rowNumber", 1).append("fields", new Document()));
+
+        // Act
+        List<LookupRowService.RowHash> hashes;
+        try (Stream<LookupRowService.RowHash> stream = lookupRowService.streamRowHashes("employees", "upload-1", "id")) {
+            hashes = stream.toList();
+        }
+
+        // Assert - rows written before hashes were stored have none
+        assertEquals(List.of(new LookupRowService.RowHash(0, "7", 42L), new LookupRowService.RowHash(1, "", null)),
+            hashes);
+        ArgumentCaptor<Bson> projectionCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(findIterable).projection(projectionCaptor.capture());
+        BsonDocument projection = toBsonDocument(projectionCaptor.getValue());
+        assertTrue(projection.containsKey("fields.id"));
+        assertFalse(projection.containsKey("fields"));
+        verify(cursor).close();
+    }
+
+    @Test
+    void insertRowsByNumber_KeepsRowNumbersAndInsertsUnordered() {
+        // Act
+        lookupRowService.insertRows("employees", "upload-2",
+            Map.of(5, new Document("id", "9")), List.of("id"));
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Document>> rowsCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<InsertManyOptions> optionsCaptor = ArgumentCaptor.forClass(InsertManyOptions.class);
+        verify(rowsCollection).insertMany(rowsCaptor.capture(), optionsCaptor.capture());
+        Document inserted = rowsCaptor.getValue().get(0);
+        assertEquals(5, inserted.getInteger("rowNumber"));
+        assertEquals("upload-2", inserted.getString("uploadId"));
+        assertEquals(List.of("id\u001f9"), inserted.getList("keys", String.class));
+        assertFalse(optionsCaptor.getValue().isOrdered());
+    }
+
+    @Test
+    void insertRowsByNumber_NoRows_WritesNothing() {
+        // Act
+        lookupRowService.insertRows("employees", "upload-2", Map.of(), List.of());
+
+        // Assert
+        verifyNoInteractions(rowsCollection);
+    }
+
+    @Test
+    void copyRows_MergesRowsIntoNewUploadOnServer() {
+        // Arrange
+        when(rowsCollection.aggregate(anyList())).thenReturn(aggregateIterable);
+        when(aggregateIterable.allowDiskUse(true)).thenReturn(aggregateIterable);
+
+        // Act
+        lookupRowService.copyRows("employees", "upload-1", "upload-2", List.of(0, 1));
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Bson>> pipelineCaptor = ArgumentCaptor.forClass(List.class);
+        verify(rowsCollection).aggregate(pipelineCaptor.capture());
+        List<BsonDocument> pipeline = pipelineCaptor.getValue().stream()
+            .map(LookupRowServiceTest::toBsonDocument)
+            .toList();
+        String match = pipeline.get(0).toJson();
+        assertTrue(match.contains("\"uploadId\": \"upload-1\""));
+        assertTrue(match.contains("\"$nin\": [0, 1]"));
+        assertEquals(0, pipeline.get(1).getDocument("$project").getInt32("_id").getValue());
+        assertEquals("upload-2", pipeline.get(2).getDocument("$addFields").getDocument("uploadId")
+            .getString("$literal").getValue());
+        assertEquals("lookupRows", pipeline.get(3).getDocument("$merge").getString("into").getValue());
+        verify(aggregateIterable).toCollection();
+    }
+
+    @Test
+    void insertRows_WithKeyColumns_StoresKeyOfEachPresentColumn() {
+        // Act
+        lookupRowService.insertRows("employees", "upload-1", 0,
+            List.of(new Document("id", "7").append("name", "John"), new Document("name", "Jane")),
+            List.of("id", "name"));
+
+        // Assert - a row without a value for a key column has no key for it
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Document>> rowsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(rowsCollection).insertMany(rowsCaptor.capture(), any(InsertManyOptions.class));
+        assertEquals(List.of("id\u001f7", "name\u001fJohn"), rowsCaptor.getValue().get(0).getList("keys", String.class));
+        assertEquals(List.of("name\u001fJane"), rowsCaptor.getValue().get(1).getList("keys", String.class));
+    }
+
+    @Test
+    void insertRows_EmptyBatch_DoesNothing() {
+        // Act
+        lookupRowService.insertRows("employees", "upload-1", 0, List.of(), List.of());
+
+        // Assert
+        verifyNoInteractions(rowsCollection);
+    }
+
+    @Test
+    void streamRows_ReadsFieldsAndClosesCursor() {
+        // Arrange
+        when(rowsCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.sort(any())).thenReturn(findIterable);
+        when(findIterable.limit(anyInt())).thenReturn(findIterable);
+        when(findIterable.batchSize(anyInt())).thenReturn(findIterable);
+        when(findIterable.iterator()).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, true, false);
+        when(cursor.next()).thenReturn(
+            new Document("fields", new Document("name", "John").append("age", 30)),
+            new Document("fields", new Document("name", "Jane").append("age", null)));
+
+        // Act
+        List<Map<String, String>> rows;
+        try (Stream<Map<String, String>> stream = lookupRowService.streamRows("employees", "upload-1", 5)) {
+            rows = stream.toList();
+        }
+
+        // Assert
+        assertEquals(List.of(Map.of("name", "John", "age", "30"), Map.of("name", "Jane", "age", "")), rows);
+        verify(findIterable).limit(5);
+        verify(cursor).close();
+    }
+
+    @Test
+    void deleteRows_RemovesOnlyRowsOfTheUpload() {
+        // Arrange
+        when(rowsCollection.deleteMany(any(Bson.class))).thenReturn(DeleteResult.acknowledged(3L));
+
+        // Act
+        lookupRowService.deleteRows("employees", "upload-2");
+
+        // Assert
+        ArgumentCaptor<Bson> filterCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(rowsCollection).deleteMany(filterCaptor.capture());
+        BsonDocument filter = filterCaptor.getValue()
+            .toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+        assertEquals("employees", filter.getArray("$and").get(0).asDocument().getString("lookupId").getValue());
+        assertEquals("upload-2", filter.getArray("$and").get(1).asDocument().getString("uploadId").getValue());
+        // Blocks of a compressed upload go with it
+        verify(blocksCollection).deleteMany(filterCaptor.getValue());
+    }
+
+    @Test
+    void compressBlock_RoundTripsRowsInOrder() {
+        // Arrange
+        List<Document> rows = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            rows.add(new Document("id", String.valueOf(i)).append("department", "Sales").append("notes", ""));
+        }
+
+        // Act
+        byte[] block = LookupRowService.compressBlock(rows);
+
+        // Assert
+        assertEquals(rows, LookupRowService.decompressBlock(block));
+        // Repetitive rows shrink well below their BSON size
+        int bsonSize = new RawBsonDocument(new Document("rows", rows), new DocumentCodec())
+            .getByteBuffer().remaining();
+        assertTrue(block.length < bsonSize / 4);
+    }
+
+    @Test
+    void insertBlock_StoresRowRangeAndCompressedRows() {
+        // Act
+        lookupRowService.insertBlock("employees", "upload-1", 1000,
+            List.of(new Document("name", "John"), new Document("name", "Jane")));
+
+        // Assert
+        ArgumentCaptor<Document> blockCaptor = ArgumentCaptor.forClass(Document.class);
+        verify(blocksCollection).insertOne(blockCaptor.capture());
+        Document block = blockCaptor.getValue();
+        assertEquals("employees", block.getString("lookupId"));
+        assertEquals("upload-1", block.getString("uploadId"));
+        assertEquals(1000, block.getInteger("firstRowNumber"));
+        assertEquals(1001, block.getInteger("lastRowNumber"));
+        assertEquals(List.of(new Document("name", "John"), new Document("name", "Jane")),
+            LookupRowService.decompressBlock(block.get("block", Binary.class).getData()));
+        verifyNoInteractions(rowsCollection);
+    }
+
+    @Test
+    void streamBlockRows_DecompressesBlocksLazilyAndClosesCursor() {
+        // Arrange
+        when(blocksCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.sort(any())).thenReturn(findIterable);
+        when(findIterable.iterator()).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true);
+        when(cursor.next()).thenReturn(block(0, new Document("name", "John"), new Document("name", "Jane")));
+
+        // Act
+        List<Map<String, String>> rows;
+        try (Stream<Map<String, String>> stream = lookupRowService.streamBlockRows("employees", "upload-1", 1)) {
+            rows = stream.toList();
+        }
+
+        // Assert
+        assertEquals(List.of(Map.of("name", "John")), rows);
+        verify(cursor, times(1)).next();
+        verify(cursor).close();
+    }
+
+    @Test
+    void findBlockRows_FiltersDecompressedRowsAfterRowNumber() {
+        // Arrange
+        when(blocksCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.sort(any())).thenReturn(findIterable);
+        when(findIterable.iterator()).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, true, false);
+        when(cursor.next()).thenReturn(
+            block(0,
+                new Document("name", "John").append("age", "30"),
+                new Document("name", "Jane").append("age", "9"),
+                new Document("name", "Jim").append("age", "41")),
+            block(3,
+                new Document("name", "Joe").append("age", "12"),
+                new Document("name", "Ann").append("age", "25")));
+
+        LookupRowFilter filter = new LookupRowFilter(Map.of(), Map.of("name", "J"), Map.of("age", "10"),
+            Map.of(), List.of("name"), Map.of("age", LookupColumnType.INTEGER));
+
+        // Act
+        List<LookupRowService.Row> rows = lookupRowService.findBlockRows("employees", "upload-1", filter, 0, 0, 5);
+
+        // Assert
+        // Row 1 is 9, below the numeric range; text order would have kept it
+        assertEquals(List.of(
+            new LookupRowService.Row(2, Map.of("name", "Jim")),
+            new LookupRowService.Row(3, Map.of("name", "Joe"))), rows);
+        ArgumentCaptor<Bson> queryCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(blocksCollection).find(queryCaptor.capture());
+        assertTrue(toBsonDocument(queryCaptor.getValue()).toJson().contains("\"lastRowNumber\": {\"$gt\": 0}"));
+        verify(cursor).close();
+    }
+
+    @Test
+    void findRows_FiltersAfterRowNumberAndProjectsColumns() {
+        // Arrange
+        when(rowsCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.sort(any())).thenReturn(findIterable);
+        when(findIterable.skip(anyInt())).thenReturn(findIterable);
+        when(findIterable.limit(anyInt())).thenReturn(findIterable);
+        when(findIterable.iterator()).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, false);
+        when(cursor.next()).thenReturn(new Document("rowNumber", 8).append("fields", new Document("name", "Jane")));
+
+        LookupRowFilter filter = new LookupRowFilter(
+            Map.of("department", "Sales"), Map.of("name", "J.a"), List.of("name"));
+
+        // Act
+        List<LookupRowService.Row> rows = lookupRowService.findRows("employees", "upload-1", filter, 7, 0, 3);
+
+        // Assert
+        assertEquals(List.of(new LookupRowService.Row(8, Map.of("name", "Jane"))), rows);
+
+        ArgumentCaptor<Bson> queryCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(rowsCollection).find(queryCaptor.capture());
+        String query = toBsonDocument(queryCaptor.getValue()).toJson();
+        assertTrue(query.contains("\"rowNumber\": {\"$gt\": 7}"));
+        assertTrue(query.contains("\"fields.department\": \"Sales\""));
+        // Prefixes are matched literally
+        assertTrue(query.contains("^\\\\QJ.a\\\\E"));
+
+        ArgumentCaptor<Bson> projectionCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(findIterable).projection(projectionCaptor.capture());
+        BsonDocument projection = toBsonDocument(projectionCaptor.getValue());
+        assertTrue(projection.containsKey("fields.name"));
+        assertFalse(projection.containsKey("fields"));
+        verify(findIterable).limit(3);
+    }
+
+    @Test
+    void findRows_Prefix_UsesAnchoredRegexWithoutExpr() {
+        // Arrange
+        when(rowsCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.sort(any())).thenReturn(findIterable);
+        when(findIterable.skip(anyInt())).thenReturn(findIterable);
+        when(findIterable.limit(anyInt())).thenReturn(findIterable);
+        when(findIterable.iterator()).thenReturn(cursor);
+        LookupRowFilter filter = new LookupRowFilter(Map.of(), Map.of("code", "AB"), Map.of(), Map.of(), List.of(),
+            Map.of("code", LookupColumnType.STRING));
+
+        // Act
+        lookupRowService.findRows("employees", "upload-1", filter, -1, 0, 3);
+
+        // Assert - no $expr, so the wildcard index over fields can serve it
+        ArgumentCaptor<Bson> queryCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(rowsCollection).find(queryCaptor.capture());
+        String query = toBsonDocument(queryCaptor.getValue()).toJson();
+        assertTrue(query.contains("\"fields.code\": {\"$regularExpression\""));
+        assertFalse(query.contains("$expr"));
+    }
+
+    @Test
+    void findRows_ColumnNameWithDotOrDollar_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> lookupRowService.findRows("employees", "upload-1",
+            new LookupRowFilter(Map.of("version.major", "2"), Map.of(), List.of()), -1, 0, 3));
+        assertThrows(IllegalArgumentException.class, () -> lookupRowService.findRows("employees", "upload-1",
+            new LookupRowFilter(Map.of(), Map.of(), List.of("$price")), -1, 0, 3));
+        verifyNoInteractions(rowsCollection);
+    }
+
+    @Test
+    void ensureIndexes_WithoutCompoundWildcardSupport_IndexesFieldsAlone() {
+        // Arrange
+        when(rowsCollection.createIndex(any(Bson.class), any(IndexOptions.class))).thenAnswer(invocation -> {
+            IndexOptions options = invocation.getArgument(1);
+            if ("lookupId_uploadId_fields".equals(options.getName())) {
+                throw new MongoCommandException(new BsonDocument("errmsg", new BsonString("bad index key pattern")),
+                    new ServerAddress());
+            }
+            return options.getName();
+        });
+
+        // Act
+        lookupRowService.ensureIndexes();
+
+        // Assert
+        ArgumentCaptor<IndexOptions> optionsCaptor = ArgumentCaptor.forClass(IndexOptions.class);
+        verify(rowsCollection, times(4)).createIndex(any(Bson.class), optionsCaptor.capture());
+        assertEquals("fields", optionsCaptor.getAllValues().get(3).getName());
+        verify(blocksCollection).createIndex(any(Bson.class), any(IndexOptions.class));
+    }
+
+    @Test
+    void findRowsByKey_QueriesKeyOfColumnInRowOrder() {
+        // Arrange
+        when(rowsCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.sort(any())).thenReturn(findIterable);
+        when(findIterable.iterator()).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, false);
+        when(cursor.next()).thenReturn(new Document("fields", new Document("id", "7").append("name", "John")));
+
+        // Act
+        List<Map<String, String>> rows = lookupRowService.findRowsByKey("employees", "upload-1", "id", "7");
+
+        // Assert
+        assertEquals(List.of(Map.of("id", "7", "name", "John")), rows);
+        ArgumentCaptor<Bson> queryCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(rowsCollection).find(queryCaptor.capture());
+        BsonDocument keyFilter = toBsonDocument(queryCaptor.getValue()).getArray("$and").get(2).asDocument();
+        assertEquals("id\u001f7", keyFilter.getString("keys").getValue());
+        verify(cursor).close();
+    }
+
+    @Test
+    void rebuildKeys_ComputesKeysOnTheServer() {
+        // Act
+        lookupRowService.rebuildKeys("employees", "upload-1", List.of("id"));
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Bson>> pipelineCaptor = ArgumentCaptor.forClass(List.class);
+        verify(rowsCollection).updateMany(any(Bson.class), pipelineCaptor.capture());
+        String pipeline = toBsonDocument(pipelineCaptor.getValue().get(0)).toJson();
+        assertTrue(pipeline.contains("\"$filter\""));
+        assertTrue(pipeline.contains("\"$literal\": \"id\\u001f\""));
+    }
+
+    @Test
+    void rebuildKeys_NoKeyColumns_RemovesKeys() {
+        // Act
+        lookupRowService.rebuildKeys("employees", "upload-1", List.of());
+
+        // Assert
+        ArgumentCaptor<Bson> updateCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(rowsCollection).updateMany(any(Bson.class), updateCaptor.capture());
+        assertTrue(toBsonDocument(updateCaptor.getValue()).getDocument("$unset").containsKey("keys"));
+    }
+
+    @Test
+    void applyColumnTypes_ConvertsEachTypedColumnOnTheServer() {
+        // Arrange
+        Map<String, LookupColumnType> columnTypes = new LinkedHashMap<>();
+        columnTypes.put("eolDate", LookupColumnType.DATE);
+        columnTypes.put("version", LookupColumnType.STRING);
+
+        // Act
+        lookupRowService.applyColumnTypes("tech_eol", "upload-1", columnTypes, null);
+
+        // Assert - one $set stage per column, over every row of the upload
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Bson>> pipelineCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Bson> filterCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(rowsCollection).updateMany(filterCaptor.capture(), pipelineCaptor.capture());
+        assertFalse(toBsonDocument(filterCaptor.getValue()).toJson().contains("rowNumber"));
+        assertEquals(2, pipelineCaptor.getValue().size());
+        String date = toBsonDocument(pipelineCaptor.getValue().get(0)).toJson();
+        assertTrue(date.contains("\"$setField\""));
+        assertTrue(date.contains("\"$dateFromString\""));
+        String text = toBsonDocument(pipelineCaptor.getValue().get(1)).toJson();
+        assertTrue(text.contains("\"$dateToString\""));
+        assertTrue(text.contains("\"$ifNull\""));
+    }
+
+    @Test
+    void applyColumnTypes_RowNumbers_ConvertsOnlyThoseRows() {
+        // Act
+        lookupRowService.applyColumnTypes("tech_eol", "upload-1", Map.of("count", LookupColumnType.INTEGER),
+            List.of(3, 4));
+        lookupRowService.applyColumnTypes("tech_eol", "upload-1", Map.of("count", LookupColumnType.INTEGER),
+            List.of());
+
+        // Assert
+        ArgumentCaptor<Bson> filterCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(rowsCollection).updateMany(filterCaptor.capture(), anyList());
+        assertTrue(toBsonDocument(filterCaptor.getValue()).toJson().contains("\"rowNumber\": {\"$in\": [3, 4]}"));
+    }
+
+    @Test
+    void findRows_TypedColumns_ComparesNativeValuesAndReturnsText() {
+        // Arrange
+        when(rowsCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.sort(any())).thenReturn(findIterable);
+        when(findIterable.skip(anyInt())).thenReturn(findIterable);
+        when(findIterable.limit(anyInt())).thenReturn(findIterable);
+        when(findIterable.iterator()).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, false);
+        when(cursor.next()).thenReturn(new Document("rowNumber", 0).append("fields", new Document("count", 12L)
+            .append("eolDate", LookupColumnType.DATE.parse("2025-12-31"))
+            .append("cost", new Decimal128(new BigDecimal("1.50")))
+            .append("notes", null)));
+
+        LookupRowFilter filter = new LookupRowFilter(Map.of("count", "12"), Map.of(), Map.of("eolDate", "2025-01-01"),
+            Map.of("eolDate", "2025-12-31"), List.of(),
+            Map.of("count", LookupColumnType.INTEGER, "eolDate", LookupColumnType.DATE));
+
+        // Act
+        List<LookupRowService.Row> rows = lookupRowService.findRows("tech_eol", "upload-1", filter, -1, 0, 3);
+
+        // Assert
+        assertEquals(Map.of("count", "12", "eolDate", "2025-12-31", "cost", "1.50", "notes", ""),
+            rows.get(0).fields());
+        ArgumentCaptor<Bson> queryCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(rowsCollection).find(queryCaptor.capture());
+        String query = toBsonDocument(queryCaptor.getValue()).toJson();
+        // Rows uploaded before the column was typed still match
+        assertTrue(query.contains("\"fields.count\": {\"$in\": [12, \"12\"]}"));
+        assertTrue(query.contains("\"fields.eolDate\": {\"$gte\": {\"$date\": \"2025-01-01T00:00:00Z\"}}"));
+        assertTrue(query.contains("\"fields.eolDate\": {\"$lte\": {\"$date\": \"2025-12-31T00:00:00Z\"}}"));
+    }
+
+    private static BsonDocument toBsonDocument(Bson bson) {
+        return bson.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+    }
+
+    private static Document block(int firstRowNumber, Document... rows) {
+        return new Document("firstRowNumber", firstRowNumber)
+            .append("block", new Binary(LookupRowService.compressBlock(List.of(rows))));
+    }
+}
@@ -1,5 +1,7 @@
 package com.project.core_service.services;
 
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
@@ -8,26 +10,51 @@ import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 import com.project.core_service.dto.LookupDTO;
 import com.project.core_service.dto.LookupFieldDescriptionsDTO;
+import com.project.core_service.dto.LookupKeyMatchDTO;
+import com.project.core_service.dto.LookupMigrationDTO;
+import com.project.core_service.dto.LookupRowsPageDTO;
+import com.project.core_service.dto.LookupRowsQueryDTO;
 import com.project.core_service.dto.LookupWODataDTO;
 import com.project.core_service.dto.UpdateLookupDTO;
+import com.project.core_service.exceptions.ConcurrentOperationException;
 import com.project.core_service.exceptions.CsvProcessingException;
 import com.project.core_service.exceptions.InvalidFileException;
 import com.project.core_service.exceptions.NotFoundException;
+import com.project.core_service.models.lookup.Lookup;
+import com.project.core_service.models.lookup.LookupColumnType;
+import com.project.core_service.models.lookup.LookupRowFilter;
+import com.project.core_service.models.lookup.LookupStorageMode;
+import com.project.core_service.models.lookup.LookupVersion;
+import com.project.core_service.models.lookup.LookupVersionState;
+import com.mongodb.client.model.FindOneAndDeleteOptions;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,10 +72,32 @@ class LookupServiceTest {
     @Mock
     private MongoCursor<Document> mongoCursor;
 
+    @Mock
+    private MongoCollection<Document> stagingCollection;
+
+    @Mock
+    private AggregateIterable<Document> aggregateIterable;
+
+    @Mock
+    private LookupRowService lookupRowService;
+
+    @Mock
+    private LookupVersionService lookupVersionService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private QueryService queryService;
+
+    @Spy
+    private LookupCsvParser csvParser = new LookupCsvParser(false, 1, Long.MAX_VALUE, 1);
+
     @InjectMocks
     private LookupService lookupService;
 
     private final String collectionName = "test_lookups";
+    private final String stagingCollectionName = "test_lookups_staging";
 
     @BeforeEach
     void setUp() {
@@ -60,7 +109,10 @@ class LookupServiceTest {
     @Test
     void createLookup_ValidCsv_Success() {
         // Arrange
-        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        useStorageMode(LookupStorageMode.EMBEDDED);
+        when(mongoDatabase.getCollection(stagingCollectionName)).thenReturn(stagingCollection);
+        when(stagingCollection.aggregate(anyList())).thenReturn(aggregateIterable);
+        stubNoExistingLookup();
 
         String csvContent = "name,age,department\nJohn Doe,30,Engineering\nJane Smith,25,Marketing";
         MockMultipartFile file = new MockMultipartFile(
@@ -76,9 +128,6 @@ class LookupServiceTest {
             .lookupFile(file)
             .build();
 
-        UpdateResult updateResult = mock(UpdateResult.class);
-        when(mongoCollection.replaceOne(any(Bson.class), any(Document.class), any())).thenReturn(updateResult);
-
         // Act
         LookupDTO result = lookupService.createLookup(createLookupDTO);
 
@@ -87,9 +136,92 @@ class LookupServiceTest {
         assertEquals("employees", result.getLookupName());
         assertEquals(2, result.getRecordCount());
         assertEquals("Employee lookup", result.getDescription());
-        assertNotNull(result.getData());
-        assertNotNull(result.getFieldDescriptions());
-        verify(mongoCollection).replaceOne(any(Bson.class), any(Document.class), any());
+        assertNull(result.getData());
+        assertEquals(Set.of("name", "age", "department"), result.getFieldDescriptions().keySet());
+        verify(stagingCollection).insertOne(any(Document.class));
+        verify(aggregateIterable).toCollection();
+        verify(stagingCollection).deleteOne(any(Bson.class));
+        verify(lookupVersionService).retireVersions("employees", null);
+        verify(mongoCollection).find(any(Bson.class));
+        verifyNoMoreInteractions(mongoCollection);
+    }
+
+    @Test
+    void createLookup_StreamsRowsInBoundedBatches() {
+        // Arrange
+        useStorageMode(LookupStorageMode.EMBEDDED);
+        ReflectionTestUtils.setField(lookupService, "ingestBatchSize", 2);
+        when(mongoDatabase.getCollection(stagingCollectionName)).thenReturn(stagingCollection);
+        when(stagingCollection.aggregate(anyList())).thenReturn(aggregateIterable);
+        stubNoExistingLookup();
+
+        String csvContent = "\uFEFFname,age\nJohn,30\nJane,25\nBob,35\nAlice,28\nCharlie,32";
+        MockMultipartFile file = new MockMultipartFile(
+            "file",
+            "test.csv",
+            "text/csv",
+            csvContent.getBytes(java.nio.charset.StandardCharsets.UTF_8)
+        );
+
+        com.project.core_service.dto.CreateLookupDTO createLookupDTO = com.project.core_service.dto.CreateLookupDTO.builder()
+            .lookupName("employees")
+            .description("Employee lookup")
+            .lookupFile(file)
+            .build();
+
+        // Act
+        LookupDTO result = lookupService.createLookup(createLookupDTO);
+
+        // Assert - three $push batches (2 + 2 + 1 rows) and the final record count
+        assertEquals(5, result.getRecordCount());
+        ArgumentCaptor<Bson> updateCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(stagingCollection, times(4)).updateOne(any(Bson.class), updateCaptor.capture());
+        List<BsonDocument> updates = updateCaptor.getAllValues().stream()
+            .map(update -> update.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry()))
+            .toList();
+
+        BsonArray firstBatch = updates.get(0).getDocument("$push").getDocument("data").getArray("$each");
+        assertEquals(2, firstBatch.size());
+        assertEquals("John", firstBatch.get(0).asDocument().getString("name").getValue());
+        assertEquals(1, updates.get(2).getDocument("$push").getDocument("data").getArray("$each").size());
+        assertEquals(5, updates.get(3).getDocument("$set").getInt32("recordCount").getValue());
+        assertEquals("INTEGER", updates.get(3).getDocument("$set").getDocument("columnTypes").getString("age").getValue());
+        assertEquals(Map.of("name", LookupColumnType.STRING, "age", LookupColumnType.INTEGER), result.getColumnTypes());
+
+        // Only the typed column is converted, in every embedded row
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Bson>> pipelineCaptor = ArgumentCaptor.forClass(List.class);
+        verify(stagingCollection).updateOne(any(Bson.class), pipelineCaptor.capture());
+        String typedData = pipelineCaptor.getValue().get(0)
+            .toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry()).toJson();
+        assertTrue(typedData.contains("\"$map\""));
+        assertTrue(typedData.contains("\"$convert\""));
+        assertTrue(typedData.contains("\"age\""));
+        assertFalse(typedData.contains("\"name\""));
+    }
+
+    @Test
+    void createLookup_HeaderOnly_ThrowsAndDiscardsStagedUpload() {
+        // Arrange
+        useStorageMode(LookupStorageMode.EMBEDDED);
+        when(mongoDatabase.getCollection(stagingCollectionName)).thenReturn(stagingCollection);
+
+        MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", "name,age\n".getBytes());
+
+        com.project.core_service.dto.CreateLookupDTO createLookupDTO = com.project.core_service.dto.CreateLookupDTO.builder()
+            .lookupName("employees")
+            .description("Employee lookup")
+            .lookupFile(file)
+            .build();
+
+        // Act & Assert
+        CsvProcessingException exception = assertThrows(
+            CsvProcessingException.class,
+            () -> lookupService.createLookup(createLookupDTO)
+        );
+        assertEquals("CSV file contains no data rows", exception.getMessage());
+        verify(stagingCollection, never()).aggregate(anyList());
+        verify(stagingCollection).deleteOne(any(Bson.class));
     }
 
     @Test
@@ -148,6 +280,7 @@ class LookupServiceTest {
         );
 
         when(mongoCollection.find()).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
         when(findIterable.iterator()).thenReturn(mongoCursor);
         when(mongoCursor.hasNext()).thenReturn(true, true, false);
         when(mongoCursor.next()).thenReturn(documents.get(0), documents.get(1));
@@ -160,6 +293,60 @@ class LookupServiceTest {
         assertEquals(2, result.size());
         assertEquals("lookup1", result.get(0).getId());
         assertEquals("Lookup 1", result.get(0).getLookupName());
+
+        // Only the index fields are read, never the rows
+        ArgumentCaptor<Bson> projectionCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(findIterable).projection(projectionCaptor.capture());
+        BsonDocument projection = projectionCaptor.getValue()
+            .toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+        assertFalse(projection.containsKey("data"));
+        assertFalse(projection.containsKey("fieldDescriptions"));
+        assertTrue(projection.containsKey("recordCount"));
+    }
+
+    @Test
+    void getAllLookups_ServesCachedIndexUntilWrite() {
+        // Arrange
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find()).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.iterator()).thenReturn(mongoCursor);
+        when(mongoCursor.hasNext()).thenReturn(true, false, true, false);
+        when(mongoCursor.next()).thenReturn(
+            createValidMockDocument("lookup1", "Lookup 1", 10),
+            createValidMockDocument("lookup1", "Lookup 1", 12));
+        DeleteResult deleteResult = mock(DeleteResult.class);
+        when(deleteResult.getDeletedCount()).thenReturn(1L);
+        when(mongoCollection.deleteOne(any(Bson.class))).thenReturn(deleteResult);
+
+        // Act
+        List<LookupWODataDTO> first = lookupService.getAllLookups();
+        List<LookupWODataDTO> cached = lookupService.getAllLookups();
+        lookupService.deleteLookup("lookup2");
+        List<LookupWODataDTO> reloaded = lookupService.getAllLookups();
+
+        // Assert - one query before the write, one after
+        assertSame(first, cached);
+        assertEquals(12, reloaded.get(0).getRecordCount());
+        verify(mongoCollection, times(2)).find();
+    }
+
+    @Test
+    void getAllLookups_ZeroTtl_DisablesCache() {
+        // Arrange
+        ReflectionTestUtils.setField(lookupService, "indexCacheTtlMs", 0L);
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find()).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.iterator()).thenReturn(mongoCursor);
+        when(mongoCursor.hasNext()).thenReturn(false);
+
+        // Act
+        lookupService.getAllLookups();
+        lookupService.getAllLookups();
+
+        // Assert
+        verify(mongoCollection, times(2)).find();
     }
 
     // ===== Get Lookup By Name Tests =====
@@ -167,12 +354,14 @@ class LookupServiceTest {
     @Test
     void getLookupByName_ExistingLookup_Success() {
         // Arrange
+        useStorageMode(LookupStorageMode.EMBEDDED);
         when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
 
         String lookupName = "test-lookup";
         Document mockDoc = createValidMockDocument(lookupName, "Test Lookup", 5);
 
         when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
         when(findIterable.first()).thenReturn(mockDoc);
 
         // Act
@@ -183,6 +372,8 @@ class LookupServiceTest {
         assertEquals(lookupName, result.getId());
         assertEquals("Test Lookup", result.getLookupName());
         assertEquals(5, result.getRecordCount());
+        assertEquals(2, result.getData().size());
+        verifyNoInteractions(lookupRowService);
     }
 
     @Test
@@ -190,6 +381,7 @@ class LookupServiceTest {
         // Arrange
         when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
         when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
         when(findIterable.first()).thenReturn(null);
 
         // Act & Assert
@@ -208,13 +400,15 @@ class LookupServiceTest {
         when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
 
         String lookupName = "test-lookup";
-        DeleteResult deleteResult = mock(DeleteResult.class);
-        when(deleteResult.getDeletedCount()).thenReturn(1L);
-        when(mongoCollection.deleteOne(any(Bson.class))).thenReturn(deleteResult);
+        when(mongoCollection.findOneAndDelete(any(Bson.class), any(FindOneAndDeleteOptions.class)))
+            .thenReturn(new Document("_id", lookupName).append("rowsUploadId", "upload-1"));
 
         // Act & Assert (should not throw)
         assertDoesNotThrow(() -> lookupService.deleteLookup(lookupName));
-        verify(mongoCollection).deleteOne(any(Bson.class));
+
+        // The rows are retired rather than deleted, so reads in progress can finish
+        verify(lookupVersionService).retireVersions(lookupName, "upload-1");
+        verifyNoInteractions(lookupRowService);
     }
 
     @Test
@@ -222,9 +416,8 @@ class LookupServiceTest {
         // Arrange
         when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
 
-        DeleteResult deleteResult = mock(DeleteResult.class);
-        when(deleteResult.getDeletedCount()).thenReturn(0L);
-        when(mongoCollection.deleteOne(any(Bson.class))).thenReturn(deleteResult);
+        when(mongoCollection.findOneAndDelete(any(Bson.class), any(FindOneAndDeleteOptions.class)))
+            .thenReturn(null);
 
         // Act & Assert
         NotFoundException exception = assertThrows(
@@ -232,6 +425,7 @@ class LookupServiceTest {
             () -> lookupService.deleteLookup("non-existent")
         );
         assertTrue(exception.getMessage().contains("not found"));
+        verifyNoInteractions(lookupRowService, lookupVersionService);
     }
 
     // ===== Update Field Descriptions Tests =====
@@ -249,22 +443,18 @@ class LookupServiceTest {
             .fieldDescriptions(fieldDescriptions)
             .build();
 
-        Document existingDoc = createValidMockDocument(lookupName, "Test Lookup", 5);
-
         when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
-        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
-        when(findIterable.first()).thenReturn(existingDoc);
-
-        UpdateResult updateResult = mock(UpdateResult.class);
-        when(mongoCollection.replaceOne(any(Bson.class), any(Document.class), any())).thenReturn(updateResult);
+        when(mongoCollection.updateOne(any(Bson.class), any(Bson.class)))
+            .thenReturn(UpdateResult.acknowledged(1L, 1L, null));
 
         // Act
         LookupFieldDescriptionsDTO result = lookupService.updateFieldDescriptions(lookupName, contextDTO);
 
-        // Assert
+        // Assert - updated in place, without reading or rewriting the rows
         assertNotNull(result);
         assertEquals(fieldDescriptions, result.getFieldDescriptions());
-        verify(mongoCollection).replaceOne(any(Bson.class), any(Document.class), any());
+        verify(mongoCollection).updateOne(any(Bson.class), any(Bson.class));
+        verify(mongoCollection, never()).find(any(Bson.class));
     }
 
     @Test
@@ -276,8 +466,8 @@ class LookupServiceTest {
             .build();
 
         when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
-        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
-        when(findIterable.first()).thenReturn(null);
+        when(mongoCollection.updateOne(any(Bson.class), any(Bson.class)))
+            .thenReturn(UpdateResult.acknowledged(0L, 0L, null));
 
         // Act & Assert
         NotFoundException exception = assertThrows(
@@ -302,9 +492,11 @@ class LookupServiceTest {
 
         Document existingDoc = createValidMockDocument(lookupName, "Test Lookup", 5);
         existingDoc.put("fieldDescriptions", fieldDescriptions);
+        existingDoc.remove("data");
 
         when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
         when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
         when(findIterable.first()).thenReturn(existingDoc);
 
         // Act
@@ -323,6 +515,7 @@ class LookupServiceTest {
 
         when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
         when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
         when(findIterable.first()).thenReturn(null);
 
         // Act & Assert
@@ -340,6 +533,7 @@ class LookupServiceTest {
     @Test
     void updateLookup_WithFileAndDescription_Success() {
         // Arrange
+        useStorageMode(LookupStorageMode.EMBEDDED);
         String lookupName = "test-lookup";
         String csvContent = "name,age\nJohn,30\nJane,25";
         MockMultipartFile file = new MockMultipartFile(
@@ -358,12 +552,13 @@ class LookupServiceTest {
         Map<String, String> existingFieldDescs = Map.of("name", "Old name desc", "id", "ID field");
         existingDoc.put("fieldDescriptions", existingFieldDescs);
 
+        existingDoc.remove("data");
         when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoDatabase.getCollection(stagingCollectionName)).thenReturn(stagingCollection);
         when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
         when(findIterable.first()).thenReturn(existingDoc);
-
-        UpdateResult updateResult = mock(UpdateResult.class);
-        when(mongoCollection.replaceOne(any(Bson.class), any(Document.class), any())).thenReturn(updateResult);
+        when(stagingCollection.aggregate(anyList())).thenReturn(aggregateIterable);
 
         // Act
         LookupDTO result = lookupService.updateLookup(lookupName, updateDTO);
@@ -373,7 +568,37 @@ class LookupServiceTest {
         assertEquals(lookupName, result.getLookupName());
         assertEquals(2, result.getRecordCount());
         assertEquals("Updated description", result.getDescription());
-        verify(mongoCollection).replaceOne(any(Bson.class), any(Document.class), any());
+        assertEquals("Old name desc", result.getFieldDescriptions().get("name"));
+        assertEquals("", result.getFieldDescriptions().get("age"));
+        assertFalse(result.getFieldDescriptions().containsKey("id"));
+        verify(aggregateIterable).toCollection();
+        verify(mongoCollection, never()).replaceOne(any(Bson.class), any(Document.class), any());
+    }
+
+    @Test
+    void updateLookup_DescriptionOnly_UpdatesInPlace() {
+        // Arrange
+        String lookupName = "test-lookup";
+        UpdateLookupDTO updateDTO = UpdateLookupDTO.builder()
+            .description("Updated description")
+            .build();
+
+        Document existingDoc = createValidMockDocument(lookupName, lookupName, 5);
+        existingDoc.remove("data");
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(existingDoc);
+
+        // Act
+        LookupDTO result = lookupService.updateLookup(lookupName, updateDTO);
+
+        // Assert
+        assertEquals("Updated description", result.getDescription());
+        assertEquals(5, result.getRecordCount());
+        verify(mongoCollection).updateOne(any(Bson.class), any(Bson.class));
+        verify(mongoCollection, never()).replaceOne(any(Bson.class), any(Document.class), any());
+        verifyNoInteractions(stagingCollection);
     }
 
     @Test
@@ -387,6 +612,7 @@ class LookupServiceTest {
 
         when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
         when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
         when(findIterable.first()).thenReturn(null);
 
         // Act & Assert
@@ -398,8 +624,832 @@ class LookupServiceTest {
         assertTrue(exception.getMessage().contains("not found"));
     }
 
+    // ===== Chunked Storage Tests =====
+
+    @Test
+    void createLookup_Chunked_InsertsRowsAndPointsLookupAtUpload() {
+        // Arrange
+        useStorageMode(LookupStorageMode.CHUNKED);
+        ReflectionTestUtils.setField(lookupService, "ingestBatchSize", 2);
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+
+        // Act
+        LookupDTO result = lookupService.createLookup(createLookupDTO("name,age\nJohn,30\nJane,25\nBob,35"));
+
+        // Assert - two insertMany batches (2 + 1 rows) under one upload ID
+        assertEquals(3, result.getRecordCount());
+        ArgumentCaptor<String> uploadIdCaptor = ArgumentCaptor.forClass(String.class);
+        verify(lookupRowService).insertRows(eq("employees"), uploadIdCaptor.capture(), eq(0),
+            argThat(rows -> rows.size() == 2 && "John".equals(rows.get(0).getString("name"))), eq(List.of()));
+        verify(lookupRowService).insertRows(eq("employees"), eq(uploadIdCaptor.getValue()), eq(2),
+            argThat(rows -> rows.size() == 1), eq(List.of()));
+
+        ArgumentCaptor<Bson> updateCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(mongoCollection).findOneAndUpdate(any(Bson.class), updateCaptor.capture(),
+            any(FindOneAndUpdateOptions.class));
+        BsonDocument update = updateCaptor.getValue()
+            .toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+        assertEquals(uploadIdCaptor.getValue(), update.getDocument("$set").getString("rowsUploadId").getValue());
+        assertEquals(3, update.getDocument("$set").getInt32("recordCount").getValue());
+        assertEquals("INTEGER", update.getDocument("$set").getDocument("columnTypes").getString("age").getValue());
+        assertTrue(update.getDocument("$unset").containsKey("data"));
+
+        // Typed columns are converted before the upload becomes visible
+        InOrder inOrder = inOrder(lookupVersionService, lookupRowService, mongoCollection);
+        inOrder.verify(lookupVersionService).startVersion("employees", uploadIdCaptor.getValue());
+        inOrder.verify(lookupRowService).applyColumnTypes("employees", uploadIdCaptor.getValue(),
+            Map.of("age", LookupColumnType.INTEGER), null);
+        inOrder.verify(mongoCollection).findOneAndUpdate(any(Bson.class), any(Bson.class),
+            any(FindOneAndUpdateOptions.class));
+        inOrder.verify(lookupVersionService).activateVersion("employees", uploadIdCaptor.getValue(), 3, null);
+        verify(lookupVersionService, never()).discardVersion(anyString(), anyString());
+        verify(lookupRowService, never()).deleteRows(anyString(), anyString());
+        verify(mongoDatabase, never()).getCollection(stagingCollectionName);
+        verify(eventPublisher).publishEvent(new LookupChangedEvent("employees"));
+    }
+
+    @Test
+    void updateLookup_Chunked_SwapsPointerAndRetiresPreviousUpload() {
+        // Arrange
+        Document existingDoc = createChunkedMockDocument("employees", "upload-0", 2);
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(existingDoc);
+        when(mongoCollection.findOneAndUpdate(any(Bson.class), any(Bson.class), any(FindOneAndUpdateOptions.class)))
+            .thenReturn(new Document("_id", "employees").append("rowsUploadId", "upload-0"));
+        MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", "name\nJohn".getBytes());
+
+        // Act
+        LookupDTO result = lookupService.updateLookup("employees",
+            UpdateLookupDTO.builder().description("Updated").lookupFile(file).build());
+
+        // Assert - the previous rows are only retired; nothing is deleted during the upload
+        assertEquals(1, result.getRecordCount());
+        ArgumentCaptor<String> uploadIdCaptor = ArgumentCaptor.forClass(String.class);
+        verify(lookupVersionService).startVersion(eq("employees"), uploadIdCaptor.capture());
+        assertNotEquals("upload-0", uploadIdCaptor.getValue());
+        verify(lookupVersionService).activateVersion("employees", uploadIdCaptor.getValue(), 1, "upload-0");
+        verify(lookupRowService, never()).deleteRows(anyString(), anyString());
+    }
+
+    @Test
+    void createLookup_Chunked_HeaderOnly_RemovesUnpublishedRows() {
+        // Arrange
+        useStorageMode(LookupStorageMode.CHUNKED);
+
+        // Act & Assert
+        CsvProcessingException exception = assertThrows(
+            CsvProcessingException.class,
+            () -> lookupService.createLookup(createLookupDTO("name,age\n"))
+        );
+        assertEquals("CSV file contains no data rows", exception.getMessage());
+        verify(lookupVersionService).discardVersion(eq("employees"), anyString());
+        verify(lookupVersionService, never()).activateVersion(anyString(), anyString(), anyInt(), any());
+        verifyNoInteractions(mongoCollection);
+    }
+
+    @Test
+    void createLookup_Compressed_InsertsBlocksAndFlagsLookup() {
+        // Arrange
+        useStorageMode(LookupStorageMode.COMPRESSED);
+        ReflectionTestUtils.setField(lookupService, "ingestBatchSize", 2);
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+
+        // Act
+        LookupDTO result = lookupService.createLookup(createLookupDTO("name,age\nJohn,30\nJane,25\nBob,35"));
+
+        // Assert - one block per batch, rows stay text
+        assertEquals(3, result.getRecordCount());
+        ArgumentCaptor<String> uploadIdCaptor = ArgumentCaptor.forClass(String.class);
+        verify(lookupRowService).insertBlock(eq("employees"), uploadIdCaptor.capture(), eq(0),
+            argThat(rows -> rows.size() == 2 && "30".equals(rows.get(0).getString("age"))));
+        verify(lookupRowService).insertBlock(eq("employees"), eq(uploadIdCaptor.getValue()), eq(2),
+            argThat(rows -> rows.size() == 1));
+        verify(lookupRowService, never()).insertRows(anyString(), anyString(), anyInt(), anyList(), anyList());
+        verify(lookupRowService, never()).applyColumnTypes(anyString(), anyString(), anyMap(), any());
+
+        ArgumentCaptor<Bson> updateCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(mongoCollection).findOneAndUpdate(any(Bson.class), updateCaptor.capture(),
+            any(FindOneAndUpdateOptions.class));
+        BsonDocument update = updateCaptor.getValue()
+            .toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+        assertEquals(uploadIdCaptor.getValue(), update.getDocument("$set").getString("rowsUploadId").getValue());
+        assertTrue(update.getDocument("$set").getBoolean("compressedRows").getValue());
+        verify(lookupVersionService).activateVersion("employees", uploadIdCaptor.getValue(), 3, null);
+    }
+
+    @Test
+    void getLookupRows_Compressed_ReadsBlocks() {
+        // Arrange
+        stubChunkedLookup(createChunkedMockDocument("employees", "upload-1", 5).append("compressedRows", true));
+        when(lookupRowService.findBlockRows(eq("employees"), eq("upload-1"), any(LookupRowFilter.class), eq(-1),
+            eq(0), eq(3)))
+            .thenReturn(List.of(new LookupRowService.Row(0, Map.of("field1", "a"))));
+
+        // Act
+        LookupRowsPageDTO page = lookupService.getLookupRows("employees",
+            LookupRowsQueryDTO.builder().limit(2).build());
+
+        // Assert
+        assertEquals(List.of(Map.of("field1", "a")), page.getRows());
+        verify(lookupRowService, never()).findRows(anyString(), anyString(), any(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void findLookupByName_ChunkedLookup_StreamsRowsOfCurrentUpload() {
+        // Arrange
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(createChunkedMockDocument("employees", "upload-1", 3));
+        when(lookupRowService.streamRows("employees", "upload-1", 2))
+            .thenReturn(Stream.of(Map.of("name", "John"), Map.of("name", "Jane")));
+
+        // Act
+        Lookup result = lookupService.findLookupByName("employees", 2);
+
+        // Assert - only the requested rows are read; the record count covers all rows
+        assertEquals(List.of(Map.of("name", "John"), Map.of("name", "Jane")), result.getData());
+        assertEquals(3, result.getRecordCount());
+        verify(findIterable).first();
+        verify(mongoCollection, never()).updateOne(any(Bson.class), any(Bson.class));
+    }
+
+    @Test
+    void findLookupByName_EmbeddedLookup_ReadsRowsWithoutMigrating() {
+        // Arrange
+        useStorageMode(LookupStorageMode.CHUNKED);
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(createValidMockDocument("employees", "employees", 2));
+
+        // Act
+        Lookup result = lookupService.findLookupByName("employees");
+
+        // Assert - reads never write, whatever the storage of new lookups
+        assertEquals(2, result.getData().size());
+        verify(mongoCollection, never()).updateOne(any(Bson.class), any(Bson.class));
+        verifyNoInteractions(lookupRowService, lookupVersionService, queryService);
+    }
+
+    @Test
+    void migrateToChunkedRows_MovesRowsAndFlagsDependentQueries() {
+        // Arrange
+        Document legacyDoc = createValidMockDocument("employees", "employees", 2);
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(legacyDoc);
+        when(mongoCollection.updateOne(any(Bson.class), any(Bson.class)))
+            .thenReturn(UpdateResult.acknowledged(1L, 1L, null));
+        when(queryService.flagQueriesJoiningLookup(eq("employees"), anyString())).thenReturn(List.of("headcount"));
+
+        // Act
+        LookupMigrationDTO result = lookupService.migrateToChunkedRows("employees");
+
+        // Assert
+        ArgumentCaptor<String> uploadIdCaptor = ArgumentCaptor.forClass(String.class);
+        verify(lookupRowService).insertRows(eq("employees"), uploadIdCaptor.capture(), eq(0),
+            argThat(rows -> rows.size() == 2 && "value1".equals(rows.get(0).getString("field1"))), eq(List.of()));
+        verify(lookupVersionService).startVersion("employees", uploadIdCaptor.getValue());
+        verify(lookupVersionService).activateVersion("employees", uploadIdCaptor.getValue(), 2, null);
+        verify(lookupRowService, never()).deleteRows(anyString(), anyString());
+        assertEquals(uploadIdCaptor.getValue(), result.getRowsUploadId());
+        assertEquals(2, result.getRecordCount());
+        assertEquals(List.of("headcount"), result.getFlaggedQueries());
+        verify(eventPublisher).publishEvent(new LookupChangedEvent("employees"));
+    }
+
+    @Test
+    void migrateToChunkedRows_LostRace_UsesWinningUpload() {
+        // Arrange
+        Document legacyDoc = createValidMockDocument("employees", "employees", 2);
+        Document migratedDoc = createChunkedMockDocument("employees", "other-upload", 2);
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(legacyDoc, legacyDoc, migratedDoc);
+        when(mongoCollection.updateOne(any(Bson.class), any(Bson.class)))
+            .thenReturn(UpdateResult.acknowledged(0L, 0L, null));
+
+        // Act
+        LookupMigrationDTO result = lookupService.migrateToChunkedRows("employees");
+
+        // Assert - our copy of the rows is removed again
+        assertEquals("other-upload", result.getRowsUploadId());
+        ArgumentCaptor<String> uploadIdCaptor = ArgumentCaptor.forClass(String.class);
+        verify(lookupRowService).insertRows(eq("employees"), uploadIdCaptor.capture(), eq(0), anyList(), anyList());
+        verify(lookupVersionService).discardVersion("employees", uploadIdCaptor.getValue());
+    }
+
+    @Test
+    void migrateToChunkedRows_AlreadyChunked_ThrowsIllegalArgumentException() {
+        // Arrange
+        stubChunkedLookup(createChunkedMockDocument("employees", "upload-1", 2));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> lookupService.migrateToChunkedRows("employees"));
+        verifyNoInteractions(lookupRowService, lookupVersionService, queryService);
+    }
+
+    @Test
+    void updateLookup_EmbeddedLookup_StaysEmbeddedInChunkedMode() {
+        // Arrange
+        useStorageMode(LookupStorageMode.CHUNKED);
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoDatabase.getCollection(stagingCollectionName)).thenReturn(stagingCollection);
+        when(stagingCollection.aggregate(anyList())).thenReturn(aggregateIterable);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(createValidMockDocument("employees", "employees", 2));
+        MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", "name\nJohn".getBytes());
+
+        // Act
+        lookupService.updateLookup("employees", UpdateLookupDTO.builder().lookupFile(file).build());
+
+        // Assert
+        verify(lookupRowService, never()).insertRows(anyString(), anyString(), anyInt(), anyList(), anyList());
+        verify(stagingCollection).aggregate(anyList());
+    }
+
+    // ===== Lookup Rows Tests =====
+
+    @Test
+    void getLookupRows_Chunked_ReturnsPageAndResumesFromCursor() {
+        // Arrange
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(createChunkedMockDocument("employees", "upload-1", 5));
+        when(lookupRowService.findRows(eq("employees"), eq("upload-1"), any(LookupRowFilter.class), eq(-1), eq(0), eq(3)))
+            .thenReturn(List.of(
+                new LookupRowService.Row(0, Map.of("field1", "a")),
+                new LookupRowService.Row(1, Map.of("field1", "b")),
+                new LookupRowService.Row(2, Map.of("field1", "c"))));
+        when(lookupRowService.findRows(eq("employees"), eq("upload-1"), any(LookupRowFilter.class), eq(1), eq(0), eq(3)))
+            .thenReturn(List.of(new LookupRowService.Row(2, Map.of("field1", "c"))));
+
+        // Act
+        LookupRowsPageDTO first = lookupService.getLookupRows("employees",
+            LookupRowsQueryDTO.builder().limit(2).columns(List.of("field1")).eq(List.of("field2:x:y")).build());
+        LookupRowsPageDTO second = lookupService.getLookupRows("employees",
+            LookupRowsQueryDTO.builder().limit(2).cursor(first.getNextCursor()).build());
+
+        // Assert
+        assertEquals(List.of(Map.of("field1", "a"), Map.of("field1", "b")), first.getRows());
+        assertEquals(0, first.getOffset());
+        assertEquals(5, first.getRecordCount());
+        assertNotNull(first.getNextCursor());
+        assertEquals(List.of(Map.of("field1", "c")), second.getRows());
+        assertNull(second.getOffset());
+        assertNull(second.getNextCursor());
+
+        ArgumentCaptor<LookupRowFilter> filterCaptor = ArgumentCaptor.forClass(LookupRowFilter.class);
+        verify(lookupRowService).findRows(eq("employees"), eq("upload-1"), filterCaptor.capture(), eq(-1), eq(0), eq(3));
+        assertEquals(Map.of("field2", "x:y"), filterCaptor.getValue().exact());
+        assertEquals(List.of("field1"), filterCaptor.getValue().columns());
+    }
+
+    @Test
+    void getLookupRows_UnknownColumn_ThrowsIllegalArgumentException() {
+        // Arrange
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(createChunkedMockDocument("employees", "upload-1", 5));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> lookupService.getLookupRows("employees",
+                LookupRowsQueryDTO.builder().prefix(List.of("salary:1")).build()));
+        assertEquals("Unknown columns for lookup 'employees': salary", exception.getMessage());
+        verifyNoInteractions(lookupRowService);
+    }
+
+    @Test
+    void getLookupRows_RangeOnTypedColumn_PassesColumnTypesToFilter() {
+        // Arrange
+        stubChunkedLookup(createChunkedMockDocument("employees", "upload-1", 5)
+            .append("columnTypes", new Document("field1", "STRING").append("field2", "INTEGER")));
+        when(lookupRowService.findRows(eq("employees"), eq("upload-1"), any(LookupRowFilter.class), eq(-1), eq(0), eq(3)))
+            .thenReturn(List.of());
+
+        // Act
+        lookupService.getLookupRows("employees",
+            LookupRowsQueryDTO.builder().limit(2).from(List.of("field2:9")).to(List.of("field2:10")).build());
+
+        // Assert
+        ArgumentCaptor<LookupRowFilter> filterCaptor = ArgumentCaptor.forClass(LookupRowFilter.class);
+        verify(lookupRowService).findRows(eq("employees"), eq("upload-1"), filterCaptor.capture(), eq(-1), eq(0), eq(3));
+        assertEquals(9L, filterCaptor.getValue().typedValue("field2", filterCaptor.getValue().from().get("field2")));
+        assertEquals(10L, filterCaptor.getValue().typedValue("field2", filterCaptor.getValue().to().get("field2")));
+    }
+
+    @Test
+    void getLookupRows_PrefixOnTypedColumn_ThrowsIllegalArgumentException() {
+        // Arrange
+        stubChunkedLookup(createChunkedMockDocument("employees", "upload-1", 5)
+            .append("columnTypes", new Document("field2", "INTEGER")));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> lookupService.getLookupRows("employees",
+                LookupRowsQueryDTO.builder().prefix(List.of("field2:1")).build()));
+        assertEquals("Prefix filters only apply to text columns; use from/to on: field2", exception.getMessage());
+        verifyNoInteractions(lookupRowService);
+    }
+
+    @Test
+    void getLookupRows_ValueNotOfColumnType_ThrowsIllegalArgumentException() {
+        // Arrange
+        stubChunkedLookup(createChunkedMockDocument("employees", "upload-1", 5)
+            .append("columnTypes", new Document("field2", "DATE")));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> lookupService.getLookupRows("employees",
+                LookupRowsQueryDTO.builder().from(List.of("field2:31/12/2025")).build()));
+        assertTrue(exception.getMessage().startsWith("Column 'field2' holds DATE values"));
+        verifyNoInteractions(lookupRowService);
+    }
+
+    @Test
+    void getLookupRows_CursorOfEarlierUpload_ThrowsIllegalArgumentException() {
+        // Arrange
+        String staleCursor = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("r:upload-0:9".getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(createChunkedMockDocument("employees", "upload-1", 5));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> lookupService.getLookupRows("employees", LookupRowsQueryDTO.builder().cursor(staleCursor).build()));
+        assertTrue(exception.getMessage().contains("re-uploaded"));
+        verify(lookupVersionService).findVersion("employees", "upload-0");
+        verifyNoInteractions(lookupRowService);
+    }
+
+    @Test
+    void getLookupRows_CursorOfRetainedUpload_KeepsPagingThroughIt() {
+        // Arrange
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("r:upload-0:9".getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(createChunkedMockDocument("employees", "upload-1", 5));
+        when(lookupVersionService.findVersion("employees", "upload-0")).thenReturn(Optional.of(new LookupVersion(
+            "upload-0", "employees", LookupVersionState.RETIRED, new Date(), new Date(), new Date(), 11)));
+        when(lookupRowService.findRows(eq("employees"), eq("upload-0"), any(LookupRowFilter.class), eq(9), eq(0), eq(3)))
+            .thenReturn(List.of(new LookupRowService.Row(10, Map.of("field1", "k"))));
+
+        // Act
+        LookupRowsPageDTO page = lookupService.getLookupRows("employees",
+            LookupRowsQueryDTO.builder().limit(2).cursor(cursor).build());
+
+        // Assert - the page comes from the upload the cursor started on
+        assertEquals(List.of(Map.of("field1", "k")), page.getRows());
+        assertEquals(11, page.getRecordCount());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getLookupRows_InvalidPaging_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> lookupService.getLookupRows("employees",
+            LookupRowsQueryDTO.builder().offset(0).cursor("abc").build()));
+        assertThrows(IllegalArgumentException.class, () -> lookupService.getLookupRows("employees",
+            LookupRowsQueryDTO.builder().limit(0).build()));
+        assertThrows(IllegalArgumentException.class, () -> lookupService.getLookupRows("employees",
+            LookupRowsQueryDTO.builder().offset(-1).build()));
+        assertThrows(IllegalArgumentException.class, () -> lookupService.getLookupRows("employees",
+            LookupRowsQueryDTO.builder().eq(List.of("no-separator")).build()));
+        verifyNoInteractions(mongoDatabase);
+    }
+
+    @Test
+    void getLookupRows_Embedded_SlicesPageOnServer() {
+        // Arrange
+        useStorageMode(LookupStorageMode.EMBEDDED);
+        Document legacyDoc = createValidMockDocument("employees", "employees", 2);
+        legacyDoc.remove("data");
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(legacyDoc);
+        when(mongoCollection.aggregate(anyList())).thenReturn(aggregateIterable);
+        when(aggregateIterable.first()).thenReturn(new Document("rows", List.of(
+            Map.of("field1", "value3", "field2", "value4"))));
+
+        // Act
+        LookupRowsPageDTO page = lookupService.getLookupRows("employees", LookupRowsQueryDTO.builder()
+            .offset(1).limit(1).columns(List.of("field1")).prefix(List.of("field2:value")).build());
+
+        // Assert
+        assertEquals(List.of(Map.of("field1", "value3")), page.getRows());
+        assertNull(page.getNextCursor());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Bson>> pipelineCaptor = ArgumentCaptor.forClass(List.class);
+        verify(mongoCollection).aggregate(pipelineCaptor.capture());
+        BsonDocument project = pipelineCaptor.getValue().get(1)
+            .toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+        BsonArray slice = project.getDocument("$project").getDocument("rows").getArray("$slice");
+        assertEquals(1, slice.get(1).asInt32().getValue());
+        assertEquals(2, slice.get(2).asInt32().getValue());
+        verifyNoInteractions(lookupRowService);
+    }
+
+    // ===== Key Lookup Tests =====
+
+    @Test
+    void createLookup_Chunked_WithKeyColumns_StoresKeysWithRows() {
+        // Arrange
+        useStorageMode(LookupStorageMode.CHUNKED);
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        com.project.core_service.dto.CreateLookupDTO dto = createLookupDTO("id,name\n1,John");
+        dto.setKeyColumns(List.of(" id ", "id", ""));
+
+        // Act
+        LookupDTO result = lookupService.createLookup(dto);
+
+        // Assert
+        assertEquals(List.of("id"), result.getKeyColumns());
+        verify(lookupRowService).insertRows(eq("employees"), anyString(), eq(0), anyList(), eq(List.of("id")));
+    }
+
+    @Test
+    void createLookup_UnqueryableColumnName_ThrowsCsvProcessingException() {
+        // Arrange
+        useStorageMode(LookupStorageMode.CHUNKED);
+
+        // Act & Assert
+        CsvProcessingException exception = assertThrows(
+            CsvProcessingException.class,
+            () -> lookupService.createLookup(createLookupDTO("id,version.major,$price\n1,2,3"))
+        );
+        assertEquals("Column names must not be empty, contain '.' or start with '$': version.major, $price",
+            exception.getMessage());
+        verify(lookupRowService, never()).insertRows(anyString(), anyString(), anyInt(), anyList(), anyList());
+    }
+
+    @Test
+    void createLookup_KeyColumnNotInHeader_ThrowsCsvProcessingException() {
+        // Arrange
+        useStorageMode(LookupStorageMode.CHUNKED);
+        com.project.core_service.dto.CreateLookupDTO dto = createLookupDTO("id,name\n1,John");
+        dto.setKeyColumns(List.of("email"));
+
+        // Act & Assert
+        CsvProcessingException exception = assertThrows(
+            CsvProcessingException.class,
+            () -> lookupService.createLookup(dto)
+        );
+        assertEquals("Key columns not found in CSV header: email", exception.getMessage());
+        verify(lookupRowService, never()).insertRows(anyString(), anyString(), anyInt(), anyList(), anyList());
+    }
+
+    @Test
+    void findRowsByKey_SmallLookup_BuildsIndexOnceAndReusesIt() {
+        // Arrange
+        Document doc = createChunkedMockDocument("employees", "upload-1", 3);
+        doc.put("keyColumns", List.of("field1"));
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(doc);
+        when(lookupRowService.streamRows("employees", "upload-1", 0)).thenReturn(Stream.of(
+            Map.of("field1", "a", "field2", "x"),
+            Map.of("field1", "b", "field2", "y"),
+            Map.of("field1", "a", "field2", "z")));
+
+        // Act
+        LookupKeyMatchDTO first = lookupService.findRowsByKey("employees", "field1", "a");
+        LookupKeyMatchDTO second = lookupService.findRowsByKey("employees", "field1", "b");
+
+        // Assert
+        assertEquals(List.of(Map.of("field1", "a", "field2", "x"), Map.of("field1", "a", "field2", "z")),
+            first.getRows());
+        assertEquals(List.of(Map.of("field1", "b", "field2", "y")), second.getRows());
+        verify(lookupRowService, times(1)).streamRows("employees", "upload-1", 0);
+        verify(lookupRowService, never()).findRowsByKey(anyString(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void onLookupChanged_DropsKeyIndexOfChangedLookupOnly() {
+        // Arrange
+        Document doc = createChunkedMockDocument("employees", "upload-1", 1);
+        doc.put("keyColumns", List.of("field1"));
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(doc);
+        when(lookupRowService.streamRows("employees", "upload-1", 0))
+            .thenAnswer(invocation -> Stream.of(Map.of("field1", "a")));
+        lookupService.findRowsByKey("employees", "field1", "a");
+
+        // Act
+        lookupService.onLookupChanged(new LookupChangedEvent("departments"));
+        lookupService.findRowsByKey("employees", "field1", "a");
+        lookupService.onLookupChanged(new LookupChangedEvent("employees"));
+        lookupService.findRowsByKey("employees", "field1", "a");
+
+        // Assert - rebuilt only after the event for its own lookup
+        verify(lookupRowService, times(2)).streamRows("employees", "upload-1", 0);
+    }
+
+    @Test
+    void findRowsByKey_LargeLookup_ReadsThroughRowsKeyIndex() {
+        // Arrange
+        ReflectionTestUtils.setField(lookupService, "keyIndexMaxRows", 2);
+        Document doc = createChunkedMockDocument("employees", "upload-1", 3);
+        doc.put("keyColumns", List.of("field1"));
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(doc);
+        when(lookupRowService.findRowsByKey("employees", "upload-1", "field1", "a"))
+            .thenReturn(List.of(Map.of("field1", "a")));
+
+        // Act
+        LookupKeyMatchDTO result = lookupService.findRowsByKey("employees", "field1", "a");
+
+        // Assert
+        assertEquals(List.of(Map.of("field1", "a")), result.getRows());
+        verify(lookupRowService, never()).streamRows(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    void findRowsByKey_NotAKeyColumn_ThrowsIllegalArgumentException() {
+        // Arrange
+        Document doc = createChunkedMockDocument("employees", "upload-1", 3);
+        doc.put("keyColumns", List.of("field1"));
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(doc);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> lookupService.findRowsByKey("employees", "field2", "x")
+        );
+        assertTrue(exception.getMessage().contains("key columns: field1"));
+        verifyNoInteractions(lookupRowService);
+    }
+
+    @Test
+    void findRowsByKey_NoMatch_ThrowsNotFoundException() {
+        // Arrange
+        useStorageMode(LookupStorageMode.EMBEDDED);
+        Document metadata = createValidMockDocument("employees", "employees", 2);
+        metadata.put("keyColumns", List.of("field1"));
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(metadata);
+
+        // Act & Assert
+        assertThrows(NotFoundException.class, () -> lookupService.findRowsByKey("employees", "field1", "missing"));
+        assertEquals(1, lookupService.findRowsByKey("employees", "field1", "value3").getRows().size());
+    }
+
+    @Test
+    void updateLookup_KeyColumnsOnly_RebuildsKeysBeforeAdvertisingThem() {
+        // Arrange
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(createChunkedMockDocument("employees", "upload-1", 2));
+
+        // Act
+        LookupDTO result = lookupService.updateLookup("employees",
+            UpdateLookupDTO.builder().keyColumns(List.of("field2")).build());
+
+        // Assert
+        assertEquals(List.of("field2"), result.getKeyColumns());
+        InOrder inOrder = inOrder(lookupRowService, mongoCollection);
+        inOrder.verify(lookupRowService).rebuildKeys("employees", "upload-1", List.of("field2"));
+        ArgumentCaptor<Bson> updateCaptor = ArgumentCaptor.forClass(Bson.class);
+        inOrder.verify(mongoCollection).updateOne(any(Bson.class), updateCaptor.capture());
+        BsonDocument update = updateCaptor.getValue()
+            .toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+        assertEquals("field2", update.getDocument("$set").getArray("keyColumns").get(0).asString().getValue());
+    }
+
+    @Test
+    void updateLookup_UnknownKeyColumn_ThrowsIllegalArgumentException() {
+        // Arrange
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(createChunkedMockDocument("employees", "upload-1", 2));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> lookupService.updateLookup("employees",
+            UpdateLookupDTO.builder().keyColumns(List.of("email")).build()));
+        verify(mongoCollection, never()).updateOne(any(Bson.class), any(Bson.class));
+        verifyNoInteractions(lookupRowService);
+    }
+
+    // ===== Diff Upload Tests =====
+
+    @Test
+    void updateLookup_Diff_CopiesUnchangedRowsAndWritesChangedRowsToNewUpload() {
+        // Arrange
+        stubChunkedLookup(createChunkedMockDocument("employees", "upload-1", 3));
+        when(lookupRowService.streamRowHashes("employees", "upload-1", "field1")).thenReturn(Stream.of(
+            new LookupRowService.RowHash(0, "value1",
+                LookupRowService.rowHash(new Document("field1", "value1").append("field2", "value2"))),
+            new LookupRowService.RowHash(1, "value3", 7L),
+            new LookupRowService.RowHash(2, "gone", 8L)));
+        when(mongoCollection.updateOne(any(Bson.class), any(Bson.class)))
+            .thenReturn(UpdateResult.acknowledged(1L, 1L, null));
+
+        // Act
+        LookupDTO result = lookupService.updateLookup("employees", diffUpdate(
+            "field1,field2\nvalue1,value2\nvalue3,changed\nnew,row"));
+
+        // Assert
+        assertEquals(3, result.getRecordCount());
+        assertEquals(1, result.getDiff().getInserted());
+        assertEquals(1, result.getDiff().getUpdated());
+        assertEquals(1, result.getDiff().getDeleted());
+        assertEquals(1, result.getDiff().getUnchanged());
+        ArgumentCaptor<String> uploadIdCaptor = ArgumentCaptor.forClass(String.class);
+        verify(lookupVersionService).startVersion(eq("employees"), uploadIdCaptor.capture());
+        String uploadId = uploadIdCaptor.getValue();
+        assertNotEquals("upload-1", uploadId);
+        verify(lookupRowService).copyRows("employees", "upload-1", uploadId, Set.of(1, 2));
+        // Changed rows are written batch by batch while the file is parsed
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Integer, Document>> writtenCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(lookupRowService, times(2)).insertRows(eq("employees"), eq(uploadId), writtenCaptor.capture(),
+            eq(List.of()));
+        Map<Integer, Document> written = new HashMap<>();
+        writtenCaptor.getAllValues().forEach(written::putAll);
+        assertEquals(Set.of(1, 3), written.keySet());
+        assertEquals("changed", written.get(1).getString("field2"));
+        assertEquals("new", written.get(3).getString("field1"));
+        verify(lookupRowService, never()).rebuildKeys(anyString(), anyString(), anyList());
+
+        // The pointer moves from the compared upload to the new one
+        ArgumentCaptor<Bson> filterCaptor = ArgumentCaptor.forClass(Bson.class);
+        ArgumentCaptor<Bson> updateCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(mongoCollection).updateOne(filterCaptor.capture(), updateCaptor.capture());
+        BsonDocument filter = filterCaptor.getValue()
+            .toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+        BsonDocument update = updateCaptor.getValue()
+            .toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+        assertTrue(filter.toJson().contains("\"rowsUploadId\": \"upload-1\""));
+        assertEquals(uploadId, update.getDocument("$set").getString("rowsUploadId").getValue());
+        verify(lookupVersionService).activateVersion("employees", uploadId, 3, "upload-1");
+        verify(lookupVersionService, never()).discardVersion(anyString(), anyString());
+    }
+
+    @Test
+    void updateLookup_Diff_ConvertsChangedColumnsEverywhereAndTypedColumnsInWrittenRows() {
+        // Arrange
+        stubChunkedLookup(createChunkedMockDocument("employees", "upload-1", 1)
+            .append("columnTypes", new Document("field1", "STRING").append("field2", "INTEGER")
+                .append("field3", "DATE")));
+        when(lookupRowService.streamRowHashes("employees", "upload-1", "field1")).thenReturn(Stream.empty());
+        when(mongoCollection.updateOne(any(Bson.class), any(Bson.class)))
+            .thenReturn(UpdateResult.acknowledged(1L, 1L, null));
+
+        // Act
+        LookupDTO result = lookupService.updateLookup("employees", diffUpdate(
+            "field1,field2,field3\na,1.5,2025-01-31\nb,2,"));
+
+        // Assert - field2 widened to DECIMAL, field3 stayed a DATE
+        assertEquals(Map.of("field1", LookupColumnType.STRING, "field2", LookupColumnType.DECIMAL,
+            "field3", LookupColumnType.DATE), result.getColumnTypes());
+        ArgumentCaptor<String> uploadIdCaptor = ArgumentCaptor.forClass(String.class);
+        verify(lookupVersionService).startVersion(eq("employees"), uploadIdCaptor.capture());
+        String uploadId = uploadIdCaptor.getValue();
+        verify(lookupRowService).applyColumnTypes("employees", uploadId,
+            Map.of("field2", LookupColumnType.DECIMAL), null);
+        verify(lookupRowService).applyColumnTypes(eq("employees"), eq(uploadId),
+            eq(Map.of("field3", LookupColumnType.DATE)), argThat(rows -> Set.copyOf(rows).equals(Set.of(0, 1))));
+    }
+
+    @Test
+    void updateLookup_DiffWithDuplicateKey_DiscardsNewUpload() {
+        // Arrange
+        stubChunkedLookup(createChunkedMockDocument("employees", "upload-1", 1));
+        when(lookupRowService.streamRowHashes("employees", "upload-1", "field1")).thenReturn(Stream.empty());
+
+        // Act & Assert
+        CsvProcessingException exception = assertThrows(
+            CsvProcessingException.class,
+            () -> lookupService.updateLookup("employees", diffUpdate("field1,field2\na,1\na,2"))
+        );
+        assertEquals("Duplicate value 'a' in diff key column 'field1'", exception.getMessage());
+        verify(lookupRowService, never()).copyRows(anyString(), anyString(), anyString(), anyCollection());
+        ArgumentCaptor<String> uploadIdCaptor = ArgumentCaptor.forClass(String.class);
+        verify(lookupVersionService).startVersion(eq("employees"), uploadIdCaptor.capture());
+        verify(lookupVersionService).discardVersion("employees", uploadIdCaptor.getValue());
+        verify(lookupVersionService, never()).activateVersion(anyString(), anyString(), anyInt(), any());
+        verify(mongoCollection, never()).updateOne(any(Bson.class), any(Bson.class));
+    }
+
+    @Test
+    void updateLookup_DiffRacingWithReupload_DiscardsNewUploadAndThrows() {
+        // Arrange
+        stubChunkedLookup(createChunkedMockDocument("employees", "upload-1", 1));
+        when(lookupRowService.streamRowHashes("employees", "upload-1", "field1")).thenReturn(Stream.empty());
+        when(mongoCollection.updateOne(any(Bson.class), any(Bson.class)))
+            .thenReturn(UpdateResult.acknowledged(0L, 0L, null));
+
+        // Act & Assert
+        assertThrows(ConcurrentOperationException.class,
+            () -> lookupService.updateLookup("employees", diffUpdate("field1,field2\na,1")));
+        ArgumentCaptor<String> uploadIdCaptor = ArgumentCaptor.forClass(String.class);
+        verify(lookupVersionService).startVersion(eq("employees"), uploadIdCaptor.capture());
+        verify(lookupVersionService).discardVersion("employees", uploadIdCaptor.getValue());
+        verify(lookupVersionService, never()).activateVersion(anyString(), anyString(), anyInt(), any());
+    }
+
+    @Test
+    void updateLookup_DiffKeyNotInHeader_ThrowsCsvProcessingException() {
+        // Arrange
+        stubChunkedLookup(createChunkedMockDocument("employees", "upload-1", 1));
+        UpdateLookupDTO update = diffUpdate("field2\n1");
+
+        // Act & Assert
+        assertThrows(CsvProcessingException.class, () -> lookupService.updateLookup("employees", update));
+        verify(lookupRowService, never()).streamRowHashes(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void updateLookup_DiffOnCompressedLookup_ThrowsIllegalArgumentException() {
+        // Arrange
+        stubChunkedLookup(createChunkedMockDocument("employees", "upload-1", 1).append("compressedRows", true));
+        UpdateLookupDTO update = diffUpdate("field1,field2\na,1");
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> lookupService.updateLookup("employees", update));
+        assertEquals("Lookup 'employees' keeps its rows compressed and cannot take a diff upload",
+            exception.getMessage());
+        verify(lookupRowService, never()).streamRowHashes(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void updateLookup_DiffWithoutFile_ThrowsIllegalArgumentException() {
+        // Arrange
+        stubChunkedLookup(createChunkedMockDocument("employees", "upload-1", 1));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> lookupService.updateLookup("employees",
+            UpdateLookupDTO.builder().diffKeyColumn("field1").build()));
+        verifyNoInteractions(lookupRowService);
+    }
+
     // ===== Helper Methods =====
 
+    private void stubNoExistingLookup() {
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(null);
+    }
+
+    private void stubChunkedLookup(Document doc) {
+        when(mongoDatabase.getCollection(collectionName)).thenReturn(mongoCollection);
+        when(mongoCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any())).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(doc);
+    }
+
+    private UpdateLookupDTO diffUpdate(String csvContent) {
+        MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", csvContent.getBytes());
+        return UpdateLookupDTO.builder().lookupFile(file).diffKeyColumn("field1").build();
+    }
+
+    private void useStorageMode(LookupStorageMode storageMode) {
+        ReflectionTestUtils.setField(lookupService, "storageMode", storageMode);
+    }
+
+    private com.project.core_service.dto.CreateLookupDTO createLookupDTO(String csvContent) {
+        MockMultipartFile file = new MockMultipartFile("file", "test.csv", "text/csv", csvContent.getBytes());
+        return com.project.core_service.dto.CreateLookupDTO.builder()
+            .lookupName("employees")
+            .description("Employee lookup")
+            .lookupFile(file)
+            .build();
+    }
+
+    private Document createChunkedMockDocument(String id, String rowsUploadId, int recordCount) {
+        Document doc = createValidMockDocument(id, id, recordCount);
+        doc.remove("data");
+        doc.put("rowsUploadId", rowsUploadId);
+        return doc;
+    }
+
     private Document createValidMockDocument(String id, String name, int recordCount) {
         Document doc = new Document();
         doc.put("_id", id);
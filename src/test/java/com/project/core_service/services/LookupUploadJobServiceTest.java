@@ -0,0 +1,238 @@
+package com.project.core_service.services;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.result.UpdateResult;
+import com.project.core_service.dto.CreateLookupDTO;
+import com.project.core_service.dto.LookupDTO;
+import com.project.core_service.dto.LookupUploadJobDTO;
+import com.project.core_service.exceptions.CsvProcessingException;
+import com.project.core_service.exceptions.InvalidFileException;
+import com.project.core_service.models.lookup.LookupUploadJobState;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LookupUploadJobServiceTest {
+
+    @Mock
+    private MongoDatabase mongoDatabase;
+
+    @Mock
+    private LookupService lookupService;
+
+    @Mock
+    private MongoCollection<Document> jobsCollection;
+
+    @Mock
+    private FindIterable<Document> staleJobs;
+
+    @InjectMocks
+    private LookupUploadJobService lookupUploadJobService;
+
+    @TempDir
+    private Path spoolDir;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(mongoDatabase.getCollection("lookupUploadJobs")).thenReturn(jobsCollection);
+        ReflectionTestUtils.setField(lookupUploadJobService, "spoolDir", spoolDir.toString());
+        ReflectionTestUtils.setField(lookupUploadJobService, "progressIntervalMs", 0L);
+        ReflectionTestUtils.setField(lookupUploadJobService, "owner", "instance-a");
+        lenient().when(jobsCollection.find(any(Bson.class))).thenReturn(staleJobs);
+        lenient().when(staleJobs.into(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        lookupUploadJobService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        lookupUploadJobService.stop();
+    }
+
+    @Test
+    void submitCreate_SpoolsFileAndRunsUploadInBackground() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("lookupFile", "employees.csv", "text/csv",
+            "name\nJohn".getBytes(StandardCharsets.UTF_8));
+        ArgumentCaptor<CreateLookupDTO> dtoCaptor = ArgumentCaptor.forClass(CreateLookupDTO.class);
+        when(lookupService.createLookup(dtoCaptor.capture(), any(IntConsumer.class))).thenAnswer(invocation -> {
+            MultipartFile spooled = dtoCaptor.getValue().getLookupFile();
+            assertEquals("employees.csv", spooled.getOriginalFilename());
+            assertEquals("name\nJohn", new String(spooled.getBytes(), StandardCharsets.UTF_8));
+            return LookupDTO.builder().recordCount(1).build();
+        });
+
+        // Act
+        LookupUploadJobDTO job = lookupUploadJobService.submitCreate(CreateLookupDTO.builder()
+            .lookupName("employees")
+            .description("Employee lookup")
+            .keyColumns(List.of("name"))
+            .lookupFile(file)
+            .build());
+
+        // Assert
+        assertEquals(LookupUploadJobState.QUEUED, job.getState());
+        assertEquals("CREATE", job.getOperation());
+        assertEquals(9L, job.getFileSize());
+        verify(jobsCollection).insertOne(argThat(doc -> job.getJobId().equals(doc.getString("_id"))
+            && "QUEUED".equals(doc.getString("state"))));
+        verify(lookupService, timeout(5000)).createLookup(any(CreateLookupDTO.class), any(IntConsumer.class));
+        assertEquals(List.of("name"), dtoCaptor.getValue().getKeyColumns());
+        verify(jobsCollection, timeout(5000)).updateOne(any(Bson.class),
+            argThat((Bson update) -> json(update).contains("SUCCEEDED")));
+        try (var spooled = Files.list(spoolDir)) {
+            assertEquals(0, spooled.count());
+        }
+    }
+
+    @Test
+    void submitCreate_WithoutFile_ThrowsInvalidFileException() {
+        // Act & Assert
+        assertThrows(InvalidFileException.class, () -> lookupUploadJobService.submitCreate(
+            CreateLookupDTO.builder().lookupName("employees").description("Employee lookup").build()));
+        verifyNoInteractions(lookupService);
+    }
+
+    @Test
+    void run_RecordsProgressAndSuccess() throws Exception {
+        // Arrange
+        Path spooled = Files.createFile(spoolDir.resolve("job-1.csv"));
+
+        // Act
+        lookupUploadJobService.run("job-1", spooled, progress -> {
+            progress.accept(1000);
+            progress.accept(1500);
+            return LookupDTO.builder().recordCount(1500).build();
+        });
+
+        // Assert
+        ArgumentCaptor<Bson> updateCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(jobsCollection, times(4)).updateOne(any(Bson.class), updateCaptor.capture());
+        List<String> updates = updateCaptor.getAllValues().stream().map(LookupUploadJobServiceTest::json).toList();
+        assertTrue(updates.get(0).contains("RUNNING"));
+        assertTrue(updates.get(1).contains("\"rowsProcessed\": 1000"));
+        assertTrue(updates.get(3).contains("SUCCEEDED"));
+        assertTrue(updates.get(3).contains("\"rowsProcessed\": 1500"));
+        assertFalse(Files.exists(spooled));
+    }
+
+    @Test
+    void run_UploadFails_RecordsError() throws Exception {
+        // Arrange
+        Path spooled = Files.createFile(spoolDir.resolve("job-2.csv"));
+
+        // Act
+        lookupUploadJobService.run("job-2", spooled, progress -> {
+            throw new CsvProcessingException("CSV file contains no data rows");
+        });
+
+        // Assert
+        ArgumentCaptor<Bson> updateCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(jobsCollection, times(2)).updateOne(any(Bson.class), updateCaptor.capture());
+        String failure = json(updateCaptor.getAllValues().get(1));
+        assertTrue(failure.contains("FAILED"));
+        assertTrue(failure.contains("CSV file contains no data rows"));
+        assertFalse(Files.exists(spooled));
+    }
+
+    @Test
+    void start_LooksForUnfinishedJobsOfThisOwner() {
+        // Assert
+        verify(jobsCollection).find(argThat((Bson filter) -> json(filter).contains("\"owner\": \"instance-a\"")
+            && json(filter).contains("QUEUED") && json(filter).contains("RUNNING")));
+    }
+
+    @Test
+    void failStaleJobs_FailsJobsAndDeletesOwnSpooledFiles() throws Exception {
+        // Arrange
+        Path ownFile = Files.createFile(spoolDir.resolve("job-1.csv"));
+        Path otherFile = Files.createFile(spoolDir.resolve("job-2.csv"));
+        when(staleJobs.into(anyList())).thenReturn(new ArrayList<>(List.of(
+            new Document("_id", "job-1").append("state", "RUNNING").append("owner", "instance-a")
+                .append("spoolPath", ownFile.toString()),
+            new Document("_id", "job-2").append("state", "QUEUED").append("owner", "instance-b")
+                .append("spoolPath", otherFile.toString()))));
+        when(jobsCollection.updateOne(any(Bson.class), any(Bson.class)))
+            .thenReturn(UpdateResult.acknowledged(1L, 1L, null));
+
+        // Act
+        int failed = lookupUploadJobService.failStaleJobs(Filters.eq("owner", "instance-a"));
+
+        // Assert - the other instance's spool directory is not ours to clean
+        assertEquals(2, failed);
+        ArgumentCaptor<Bson> updateCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(jobsCollection, times(2)).updateOne(any(Bson.class), updateCaptor.capture());
+        String update = json(updateCaptor.getAllValues().get(0));
+        assertTrue(update.contains("FAILED"));
+        assertTrue(update.contains("finishedAt"));
+        assertFalse(Files.exists(ownFile));
+        assertTrue(Files.exists(otherFile));
+    }
+
+    @Test
+    void failStaleJobs_JobFinishedMeanwhile_IsNotCounted() {
+        // Arrange
+        when(staleJobs.into(anyList())).thenReturn(new ArrayList<>(List.of(
+            new Document("_id", "job-1").append("state", "RUNNING").append("owner", "instance-b"))));
+        when(jobsCollection.updateOne(any(Bson.class), any(Bson.class)))
+            .thenReturn(UpdateResult.acknowledged(0L, 0L, null));
+
+        // Act & Assert
+        assertEquals(0, lookupUploadJobService.failStaleJobs(Filters.eq("owner", "instance-b")));
+    }
+
+    @Test
+    void toDTO_ComputesThroughputOverRunningTime() {
+        // Arrange
+        Document job = new Document("_id", "job-1")
+            .append("lookupName", "employees")
+            .append("operation", "UPDATE")
+            .append("state", "RUNNING")
+            .append("fileSize", 2048L)
+            .append("rowsProcessed", 5000)
+            .append("createdAt", new Date(0))
+            .append("startedAt", new Date(1_000));
+
+        // Act
+        LookupUploadJobDTO dto = LookupUploadJobService.toDTO(job, 3_000);
+
+        // Assert
+        assertEquals(LookupUploadJobState.RUNNING, dto.getState());
+        assertEquals(2500.0, dto.getRowsPerSecond());
+        assertEquals(2048L, dto.getFileSize());
+        assertNull(dto.getFinishedAt());
+    }
+
+    private static String json(Bson bson) {
+        return bson.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry()).toJson();
+    }
+}
@@ -0,0 +1,170 @@
+package com.project.core_service.services;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.UpdateOptions;
+import com.project.core_service.models.lookup.LookupVersion;
+import com.project.core_service.models.lookup.LookupVersionState;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LookupVersionServiceTest {
+
+    @Mock
+    private MongoDatabase mongoDatabase;
+
+    @Mock
+    private MongoCollection<Document> versionsCollection;
+
+    @Mock
+    private MongoCollection<Document> lookupsCollection;
+
+    @Mock
+    private FindIterable<Document> findIterable;
+
+    @Mock
+    private LookupRowService lookupRowService;
+
+    @InjectMocks
+    private LookupVersionService lookupVersionService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(lookupVersionService, "lookupsCollectionName", "lookups");
+        lenient().when(mongoDatabase.getCollection("lookupVersions")).thenReturn(versionsCollection);
+        lenient().when(mongoDatabase.getCollection("lookups")).thenReturn(lookupsCollection);
+    }
+
+    @Test
+    void startVersion_RecordsWritingUpload() {
+        // Act
+        lookupVersionService.startVersion("employees", "upload-1");
+
+        // Assert
+        ArgumentCaptor<Document> captor = ArgumentCaptor.forClass(Document.class);
+        verify(versionsCollection).insertOne(captor.capture());
+        assertEquals("upload-1", captor.getValue().getString("_id"));
+        assertEquals("employees", captor.getValue().getString("lookupId"));
+        assertEquals("WRITING", captor.getValue().getString("state"));
+        assertNotNull(captor.getValue().getDate("createdAt"));
+    }
+
+    @Test
+    void activateVersion_OnlyActivatesWritingUploadAndRetiresPrevious() {
+        // Act
+        lookupVersionService.activateVersion("employees", "upload-2", 3, "upload-1");
+
+        // Assert
+        ArgumentCaptor<Bson> filterCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(versionsCollection).updateOne(filterCaptor.capture(), any(Bson.class));
+        BsonDocument activateFilter = toBson(filterCaptor.getValue());
+        assertEquals("WRITING",
+            activateFilter.getArray("$and").get(1).asDocument().getString("state").getValue());
+
+        ArgumentCaptor<Bson> retireCaptor = ArgumentCaptor.forClass(Bson.class);
+        verify(versionsCollection).updateOne(filterCaptor.capture(), retireCaptor.capture(), any(UpdateOptions.class));
+        assertEquals("upload-1", toBson(filterCaptor.getValue()).getString("_id").getValue());
+        BsonDocument retire = toBson(retireCaptor.getValue());
+        assertEquals("RETIRED", retire.getDocument("$set").getString("state").getValue());
+        assertTrue(retire.getDocument("$set").containsKey("retiredAt"));
+    }
+
+    @Test
+    void activateVersion_WithoutPreviousUpload_RetiresNothing() {
+        // Act
+        lookupVersionService.activateVersion("employees", "upload-1", 3, null);
+
+        // Assert
+        verify(versionsCollection).updateOne(any(Bson.class), any(Bson.class));
+        verify(versionsCollection, never()).updateOne(any(Bson.class), any(Bson.class), any(UpdateOptions.class));
+        verify(versionsCollection, never()).updateMany(any(Bson.class), any(Bson.class));
+    }
+
+    @Test
+    void findVersion_MapsDocument() {
+        // Arrange
+        Date retiredAt = new Date();
+        when(versionsCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(new Document("_id", "upload-1")
+            .append("lookupId", "employees")
+            .append("state", "RETIRED")
+            .append("retiredAt", retiredAt)
+            .append("recordCount", 5));
+
+        // Act
+        Optional<LookupVersion> version = lookupVersionService.findVersion("employees", "upload-1");
+
+        // Assert
+        assertTrue(version.isPresent());
+        assertEquals(LookupVersionState.RETIRED, version.get().state());
+        assertEquals(retiredAt, version.get().retiredAt());
+        assertEquals(5, version.get().recordCount());
+    }
+
+    @Test
+    void collectExpiredVersions_DeletesRowsOfExpiredUploads() {
+        // Arrange
+        when(versionsCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.into(anyList())).thenAnswer(invocation -> {
+            Collection<Document> target = invocation.getArgument(0);
+            target.add(new Document("_id", "upload-1").append("lookupId", "employees"));
+            target.add(new Document("_id", "upload-2").append("lookupId", "employees"));
+            return target;
+        });
+        when(lookupsCollection.countDocuments(any(Bson.class))).thenReturn(0L, 1L);
+
+        // Act
+        int collected = lookupVersionService.collectExpiredVersions();
+
+        // Assert - the upload the lookup still points at is kept and marked active again
+        assertEquals(1, collected);
+        verify(lookupRowService).deleteRows("employees", "upload-1");
+        verify(lookupRowService, never()).deleteRows("employees", "upload-2");
+        verify(versionsCollection).deleteOne(any(Bson.class));
+        verify(versionsCollection).updateOne(any(Bson.class), any(Bson.class));
+    }
+
+    @Test
+    void collectExpiredVersions_DeleteFails_RetriesNextRun() {
+        // Arrange
+        when(versionsCollection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.into(anyList())).thenAnswer(invocation -> {
+            Collection<Document> target = invocation.getArgument(0);
+            target.add(new Document("_id", "upload-1").append("lookupId", "employees"));
+            return target;
+        });
+        when(lookupsCollection.countDocuments(any(Bson.class))).thenReturn(0L);
+        doThrow(new RuntimeException("network")).when(lookupRowService).deleteRows(anyString(), anyString());
+
+        // Act
+        int collected = lookupVersionService.collectExpiredVersions();
+
+        // Assert - the version record stays so the next run finds it again
+        assertEquals(0, collected);
+        verify(versionsCollection, never()).deleteOne(any(Bson.class));
+    }
+
+    private static BsonDocument toBson(Bson bson) {
+        return bson.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+    }
+}
@@ -78,7 +78,7 @@ class OpenAiQueryGenerationServiceTest {
     @Test
     void generateQueryStream_Success() throws Exception {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
 
         // Create mock streaming response
         ChatCompletionChunk chunk1 = createMockChunk("[{\"$match\":");
@@ -100,14 +100,14 @@ class OpenAiQueryGenerationServiceTest {
         });
 
         // Assert
-        verify(lookupService).findLookupByName("business-capabilities");
+        verify(lookupService).findLookupByName("business-capabilities", 100);
         verify(openAiService).streamChatCompletion(any(ChatCompletionRequest.class));
     }
 
     @Test
     void generateQueryStream_LookupNotFound_CompletesWithError() {
         // Arrange
-        when(lookupService.findLookupByName("non-existent"))
+        when(lookupService.findLookupByName("non-existent", 100))
                 .thenThrow(new NotFoundException("Lookup not found"));
 
         SseEmitter emitter = mock(SseEmitter.class);
@@ -120,14 +120,14 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert
-        verify(lookupService).findLookupByName("non-existent");
+        verify(lookupService).findLookupByName("non-existent", 100);
         verify(emitter).completeWithError(any(NotFoundException.class));
     }
 
     @Test
     void generateQueryStream_OpenAiError_HandlesError() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
 
         Flowable<ChatCompletionChunk> errorStream = Flowable.error(
                 new RuntimeException("OpenAI API Error"));
@@ -144,14 +144,14 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert - just verify the service was called
-        verify(lookupService).findLookupByName("business-capabilities");
+        verify(lookupService).findLookupByName("business-capabilities", 100);
         verify(openAiService).streamChatCompletion(any(ChatCompletionRequest.class));
     }
 
     @Test
     void generateQueryStream_EmptyChunks_HandlesGracefully() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
 
         // Create empty chunk
         ChatCompletionChunk emptyChunk = createMockChunk("");
@@ -180,7 +180,7 @@ class OpenAiQueryGenerationServiceTest {
     void generateQueryStream_MultipleFields_FiltersCorrectly() {
         // Arrange
         List<String> multipleFields = List.of("L1", "L2", "L3");
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -198,7 +198,7 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert
-        verify(lookupService).findLookupByName("business-capabilities");
+        verify(lookupService).findLookupByName("business-capabilities", 100);
         verify(openAiService).streamChatCompletion(any(ChatCompletionRequest.class));
         verify(emitter).complete();
     }
@@ -207,7 +207,7 @@ class OpenAiQueryGenerationServiceTest {
     void generateQueryStream_LargeLookupData_LimitsTo50Records() {
         // Arrange
         Lookup largeLookup = createLargeLookup(100);
-        when(lookupService.findLookupByName("large-lookup")).thenReturn(largeLookup);
+        when(lookupService.findLookupByName("large-lookup", 100)).thenReturn(largeLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -225,7 +225,7 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert
-        verify(lookupService).findLookupByName("large-lookup");
+        verify(lookupService).findLookupByName("large-lookup", 100);
         verify(openAiService).streamChatCompletion(any(ChatCompletionRequest.class));
         verify(emitter).complete();
     }
@@ -236,7 +236,7 @@ class OpenAiQueryGenerationServiceTest {
         String complexPrompt = "Find all solution reviews where documentState is ACTIVE " +
                 "and businessUnit is PAYMENTS and group by systemCode";
 
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{\"documentState\":\"ACTIVE\"}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -254,7 +254,7 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert
-        verify(lookupService).findLookupByName("business-capabilities");
+        verify(lookupService).findLookupByName("business-capabilities", 100);
         verify(openAiService).streamChatCompletion(any(ChatCompletionRequest.class));
         verify(emitter).complete();
     }
@@ -263,7 +263,7 @@ class OpenAiQueryGenerationServiceTest {
     void generateQueryStream_LookupWithEmptyFieldDescriptions_HandlesGracefully() {
         // Arrange
         Lookup lookupWithoutDescriptions = createTestLookupWithoutFieldDescriptions();
-        when(lookupService.findLookupByName("minimal-lookup")).thenReturn(lookupWithoutDescriptions);
+        when(lookupService.findLookupByName("minimal-lookup", 100)).thenReturn(lookupWithoutDescriptions);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -281,7 +281,7 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert
-        verify(lookupService).findLookupByName("minimal-lookup");
+        verify(lookupService).findLookupByName("minimal-lookup", 100);
         verify(openAiService).streamChatCompletion(any(ChatCompletionRequest.class));
         verify(emitter).complete();
     }
@@ -289,7 +289,7 @@ class OpenAiQueryGenerationServiceTest {
     @Test
     void generateQueryStream_UsesCorrectModelName() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -318,7 +318,7 @@ class OpenAiQueryGenerationServiceTest {
     @Test
     void generateQueryStream_UsesLowTemperature() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -346,7 +346,7 @@ class OpenAiQueryGenerationServiceTest {
     @Test
     void generateQueryStream_IncludesSystemAndUserMessages() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -379,7 +379,7 @@ class OpenAiQueryGenerationServiceTest {
     @Test
     void generateQueryStream_InvalidFieldInLookupFieldsUsed_CompletesWithError() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
         List<String> invalidFields = List.of("L1", "InvalidField", "AnotherInvalidField");
 
         SseEmitter emitter = mock(SseEmitter.class);
@@ -392,14 +392,14 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert
-        verify(lookupService).findLookupByName("business-capabilities");
+        verify(lookupService).findLookupByName("business-capabilities", 100);
         verify(emitter).completeWithError(any(IllegalArgumentException.class));
     }
 
     @Test
     void generateQueryStream_AllInvalidFields_CompletesWithError() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
         List<String> allInvalidFields = List.of("Field1", "Field2", "Field3");
 
         SseEmitter emitter = mock(SseEmitter.class);
@@ -412,7 +412,7 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert
-        verify(lookupService).findLookupByName("business-capabilities");
+        verify(lookupService).findLookupByName("business-capabilities", 100);
         verify(emitter).completeWithError(any(IllegalArgumentException.class));
     }
 
@@ -429,7 +429,7 @@ class OpenAiQueryGenerationServiceTest {
                 .recordCount(0)
                 .build();
 
-        when(lookupService.findLookupByName("empty-lookup")).thenReturn(emptyLookup);
+        when(lookupService.findLookupByName("empty-lookup", 100)).thenReturn(emptyLookup);
 
         SseEmitter emitter = mock(SseEmitter.class);
 
@@ -441,7 +441,7 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert
-        verify(lookupService).findLookupByName("empty-lookup");
+        verify(lookupService).findLookupByName("empty-lookup", 100);
         verify(emitter).completeWithError(any(IllegalArgumentException.class));
     }
 
@@ -449,7 +449,7 @@ class OpenAiQueryGenerationServiceTest {
     void generateQueryStream_InconsistentSchemaAcrossRecords_HandlesGracefully() {
         // Arrange - Create lookup with inconsistent schema
         Lookup inconsistentLookup = createLookupWithInconsistentSchema();
-        when(lookupService.findLookupByName("inconsistent-lookup")).thenReturn(inconsistentLookup);
+        when(lookupService.findLookupByName("inconsistent-lookup", 100)).thenReturn(inconsistentLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -469,7 +469,7 @@ class OpenAiQueryGenerationServiceTest {
         });
 
         // Assert - Should complete successfully without errors
-        verify(lookupService).findLookupByName("inconsistent-lookup");
+        verify(lookupService).findLookupByName("inconsistent-lookup", 100);
         verify(openAiService).streamChatCompletion(any(ChatCompletionRequest.class));
         verify(emitter).complete();
     }
@@ -480,7 +480,7 @@ class OpenAiQueryGenerationServiceTest {
     void generateQueryStream_LargeDataset_AppliesChunking() {
         // Arrange - Create lookup with 100 records
         Lookup largeLookup = createLargeLookup(100);
-        when(lookupService.findLookupByName("large-lookup")).thenReturn(largeLookup);
+        when(lookupService.findLookupByName("large-lookup", 100)).thenReturn(largeLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -499,7 +499,7 @@ class OpenAiQueryGenerationServiceTest {
 
         // Assert - The service should have completed without errors
         // The chunking logic will limit the records based on token estimation
-        verify(lookupService).findLookupByName("large-lookup");
+        verify(lookupService).findLookupByName("large-lookup", 100);
         verify(openAiService).streamChatCompletion(any(ChatCompletionRequest.class));
         verify(emitter).complete();
     }
@@ -509,7 +509,7 @@ class OpenAiQueryGenerationServiceTest {
         // Arrange - Short prompt should allow more records
         String shortPrompt = "Count all";
         Lookup largeLookup = createLargeLookup(100);
-        when(lookupService.findLookupByName("large-lookup")).thenReturn(largeLookup);
+        when(lookupService.findLookupByName("large-lookup", 100)).thenReturn(largeLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$count\":\"total\"}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -527,7 +527,7 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert
-        verify(lookupService).findLookupByName("large-lookup");
+        verify(lookupService).findLookupByName("large-lookup", 100);
         verify(openAiService).streamChatCompletion(any(ChatCompletionRequest.class));
         verify(emitter).complete();
     }
@@ -542,7 +542,7 @@ class OpenAiQueryGenerationServiceTest {
         String veryLongPrompt = longPromptBuilder.toString();
 
         Lookup largeLookup = createLargeLookup(100);
-        when(lookupService.findLookupByName("large-lookup")).thenReturn(largeLookup);
+        when(lookupService.findLookupByName("large-lookup", 100)).thenReturn(largeLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -560,7 +560,7 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert - Should still complete successfully with fewer records
-        verify(lookupService).findLookupByName("large-lookup");
+        verify(lookupService).findLookupByName("large-lookup", 100);
         verify(openAiService).streamChatCompletion(any(ChatCompletionRequest.class));
         verify(emitter).complete();
     }
@@ -570,7 +570,7 @@ class OpenAiQueryGenerationServiceTest {
         // Arrange - Requesting many fields should reduce the number of records
         List<String> manyFields = List.of("L1", "L2", "L3");
         Lookup largeLookup = createLargeLookup(100);
-        when(lookupService.findLookupByName("large-lookup")).thenReturn(largeLookup);
+        when(lookupService.findLookupByName("large-lookup", 100)).thenReturn(largeLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -588,7 +588,7 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert
-        verify(lookupService).findLookupByName("large-lookup");
+        verify(lookupService).findLookupByName("large-lookup", 100);
         verify(openAiService).streamChatCompletion(any(ChatCompletionRequest.class));
         verify(emitter).complete();
     }
@@ -598,7 +598,7 @@ class OpenAiQueryGenerationServiceTest {
     @Test
     void generateQueryStream_ChunkWithNullChoices_HandlesGracefully() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
 
         ChatCompletionChunk nullChoicesChunk = mock(ChatCompletionChunk.class);
         when(nullChoicesChunk.getChoices()).thenReturn(null);
@@ -625,7 +625,7 @@ class OpenAiQueryGenerationServiceTest {
     @Test
     void generateQueryStream_ChunkWithEmptyChoices_HandlesGracefully() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
 
         ChatCompletionChunk emptyChoicesChunk = mock(ChatCompletionChunk.class);
         when(emptyChoicesChunk.getChoices()).thenReturn(Collections.emptyList());
@@ -652,7 +652,7 @@ class OpenAiQueryGenerationServiceTest {
     @Test
     void generateQueryStream_ChunkWithNullMessage_HandlesGracefully() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
 
         // Create a chunk that will return empty string from extractContentFromChunk
         // The mock in createMockChunk returns empty list for choices, which is handled
@@ -681,7 +681,7 @@ class OpenAiQueryGenerationServiceTest {
     @Test
     void generateQueryStream_ChunkWithNullContent_HandlesGracefully() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
 
         // Create a chunk where content extraction returns empty string
         // Using the createMockChunk with empty string will accomplish this
@@ -709,7 +709,7 @@ class OpenAiQueryGenerationServiceTest {
     @Test
     void generateQueryStream_MixedChunks_HandlesCorrectly() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
 
         ChatCompletionChunk validChunk = createMockChunk("[{");
         ChatCompletionChunk nullChunk = mock(ChatCompletionChunk.class);
@@ -742,7 +742,7 @@ class OpenAiQueryGenerationServiceTest {
     @Test
     void generateQueryStream_EmptyPrompt_Success() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -760,7 +760,7 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert
-        verify(lookupService).findLookupByName("business-capabilities");
+        verify(lookupService).findLookupByName("business-capabilities", 100);
         verify(openAiService).streamChatCompletion(any(ChatCompletionRequest.class));
         verify(emitter).complete();
     }
@@ -768,7 +768,7 @@ class OpenAiQueryGenerationServiceTest {
     @Test
     void generateQueryStream_NullPrompt_HandlesGracefully() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -786,7 +786,7 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert
-        verify(lookupService).findLookupByName("business-capabilities");
+        verify(lookupService).findLookupByName("business-capabilities", 100);
         verify(openAiService).streamChatCompletion(any(ChatCompletionRequest.class));
         verify(emitter).complete();
     }
@@ -797,7 +797,7 @@ class OpenAiQueryGenerationServiceTest {
     void generateQueryStream_LookupWithSingleRecord_Success() {
         // Arrange
         Lookup singleRecordLookup = createLargeLookup(1);
-        when(lookupService.findLookupByName("single-record")).thenReturn(singleRecordLookup);
+        when(lookupService.findLookupByName("single-record", 100)).thenReturn(singleRecordLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -815,7 +815,7 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert
-        verify(lookupService).findLookupByName("single-record");
+        verify(lookupService).findLookupByName("single-record", 100);
         verify(openAiService).streamChatCompletion(any(ChatCompletionRequest.class));
         verify(emitter).complete();
     }
@@ -843,7 +843,7 @@ class OpenAiQueryGenerationServiceTest {
                 .recordCount(1)
                 .build();
 
-        when(lookupService.findLookupByName("large-values-lookup")).thenReturn(largeLookup);
+        when(lookupService.findLookupByName("large-values-lookup", 100)).thenReturn(largeLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -861,7 +861,7 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert
-        verify(lookupService).findLookupByName("large-values-lookup");
+        verify(lookupService).findLookupByName("large-values-lookup", 100);
         verify(openAiService).streamChatCompletion(any(ChatCompletionRequest.class));
         verify(emitter).complete();
     }
@@ -871,7 +871,7 @@ class OpenAiQueryGenerationServiceTest {
     @Test
     void generateQueryStream_SingleInvalidField_CompletesWithError() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
         List<String> singleInvalidField = List.of("NonExistentField");
 
         SseEmitter emitter = mock(SseEmitter.class);
@@ -884,14 +884,14 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert
-        verify(lookupService).findLookupByName("business-capabilities");
+        verify(lookupService).findLookupByName("business-capabilities", 100);
         verify(emitter).completeWithError(any(IllegalArgumentException.class));
     }
 
     @Test
     void generateQueryStream_MixedValidAndInvalidFields_CompletesWithError() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
         List<String> mixedFields = List.of("L1", "InvalidField", "L2");
 
         SseEmitter emitter = mock(SseEmitter.class);
@@ -904,14 +904,14 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert
-        verify(lookupService).findLookupByName("business-capabilities");
+        verify(lookupService).findLookupByName("business-capabilities", 100);
         verify(emitter).completeWithError(any(IllegalArgumentException.class));
     }
 
     @Test
     void generateQueryStream_DuplicateFields_Success() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
         List<String> duplicateFields = List.of("L1", "L1", "L2", "L2");
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
@@ -930,7 +930,7 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert
-        verify(lookupService).findLookupByName("business-capabilities");
+        verify(lookupService).findLookupByName("business-capabilities", 100);
         verify(openAiService).streamChatCompletion(any(ChatCompletionRequest.class));
         verify(emitter).complete();
     }
@@ -940,7 +940,7 @@ class OpenAiQueryGenerationServiceTest {
     @Test
     void generateQueryStream_VerifyStreamingEnabled() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -968,7 +968,7 @@ class OpenAiQueryGenerationServiceTest {
     @Test
     void generateQueryStream_VerifyMessageContentContainsSchema() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -998,7 +998,7 @@ class OpenAiQueryGenerationServiceTest {
     @Test
     void generateQueryStream_VerifyMessageContentContainsLookupData() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -1029,7 +1029,7 @@ class OpenAiQueryGenerationServiceTest {
     @Test
     void generateQueryStream_VerifyMessageContentContainsUserPrompt() {
         // Arrange
-        when(lookupService.findLookupByName("business-capabilities")).thenReturn(testLookup);
+        when(lookupService.findLookupByName("business-capabilities", 100)).thenReturn(testLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -1062,7 +1062,7 @@ class OpenAiQueryGenerationServiceTest {
     void generateQueryStream_ExtremelyLargeDataset_LimitsRecordsAppropriately() {
         // Arrange - Create lookup with 500 records
         Lookup extremelyLargeLookup = createLargeLookup(500);
-        when(lookupService.findLookupByName("extreme-lookup")).thenReturn(extremelyLargeLookup);
+        when(lookupService.findLookupByName("extreme-lookup", 100)).thenReturn(extremelyLargeLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
@@ -1080,7 +1080,7 @@ class OpenAiQueryGenerationServiceTest {
                 emitter);
 
         // Assert - Should complete successfully with limited records
-        verify(lookupService).findLookupByName("extreme-lookup");
+        verify(lookupService).findLookupByName("extreme-lookup", 100);
         verify(openAiService).streamChatCompletion(any(ChatCompletionRequest.class));
         verify(emitter).complete();
     }
@@ -1089,7 +1089,7 @@ class OpenAiQueryGenerationServiceTest {
     void generateQueryStream_MinimalData_IncludesAtLeastOneRecord() {
         // Arrange
         Lookup minimalLookup = createLargeLookup(1);
-        when(lookupService.findLookupByName("minimal-lookup")).thenReturn(minimalLookup);
+        when(lookupService.findLookupByName("minimal-lookup", 100)).thenReturn(minimalLookup);
 
         ChatCompletionChunk chunk = createMockChunk("[{\"$match\":{}}]");
         Flowable<ChatCompletionChunk> mockStream = Flowable.just(chunk);
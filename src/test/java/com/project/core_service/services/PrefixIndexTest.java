@@ -0,0 +1,39 @@
+package com.project.core_service.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixIndexTest {
+
+    private final PrefixIndex index = PrefixIndex.of(List.of(
+        "Spring Boot", "Apache Spring Integration", "Node.js", ".NET Core", "spring", ""));
+
+    @Test
+    void search_RanksNamePrefixMatchesBeforeWordMatches() {
+        // Act & Assert - "spring" and "spring boot" start with the prefix, the Apache product only has a word
+        assertEquals(List.of(4, 0, 1), index.search("Spr", 10));
+    }
+
+    @Test
+    void search_StopsAtLimit() {
+        assertEquals(List.of(4, 0), index.search("spring", 2));
+    }
+
+    @Test
+    void search_MatchesWordsAfterPunctuation() {
+        assertEquals(List.of(3), index.search("net", 10));
+        assertEquals(List.of(3), index.search(".net", 10));
+        assertEquals(List.of(2), index.search("js", 10));
+    }
+
+    @Test
+    void search_BlankOrUnknownPrefix_ReturnsNothing() {
+        assertTrue(index.search(" ", 10).isEmpty());
+        assertTrue(index.search(null, 10).isEmpty());
+        assertTrue(index.search("python", 10).isEmpty());
+        assertTrue(PrefixIndex.of(List.of()).search("spring", 10).isEmpty());
+    }
+}
@@ -3,6 +3,7 @@ package com.project.core_service.services;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -258,6 +259,39 @@ class QueryServiceTest {
         verify(queryRepository, never()).save(any());
     }
 
+    @Test
+    void updateMongoQuery_ClearsStaleReason() {
+        testQuery.setStaleReason("Lookup 'employees' was migrated");
+        UpdateQueryRequestDTO request = UpdateQueryRequestDTO.builder()
+                .mongoQuery("[{\"$match\": {\"email\": \"test@example.com\"}}]")
+                .build();
+
+        when(queryRepository.findById("getUserByEmail")).thenReturn(Optional.of(testQuery));
+        when(queryRepository.save(any(Query.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Query result = queryService.updateMongoQuery("getUserByEmail", request);
+
+        assertNull(result.getStaleReason());
+    }
+
+    @Test
+    void flagQueriesJoiningLookup_FlagsOnlyQueriesJoiningThatLookup() {
+        Query joinsEmployees = new Query("headcount",
+                "[{\"$lookup\": {\"from\": \"lookups\", \"pipeline\": [{\"$match\": {\"_id\": \"employees\"}}], \"as\": \"e\"}}]",
+                "Headcount per system");
+        Query joinsOtherLookup = new Query("vendors",
+                "[{\"$lookup\": {\"from\": \"lookups\", \"pipeline\": [{\"$match\": {\"_id\": \"vendors\"}}], \"as\": \"v\"}}]",
+                "Vendors per system");
+        when(queryRepository.findAll()).thenReturn(List.of(joinsEmployees, joinsOtherLookup, testQuery));
+
+        List<String> flagged = queryService.flagQueriesJoiningLookup("employees", "migrated");
+
+        assertEquals(List.of("headcount"), flagged);
+        assertEquals("migrated", joinsEmployees.getStaleReason());
+        assertNull(joinsOtherLookup.getStaleReason());
+        verify(queryRepository).saveAll(List.of(joinsEmployees));
+    }
+
     @Test
     void updateMongoQuery_ThrowsWhenUpdatedQueryIsNull() {
         IllegalArgumentException exception = assertThrows(
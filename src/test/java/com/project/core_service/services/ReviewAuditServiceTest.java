@@ -0,0 +1,201 @@
+package com.project.core_service.services;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import com.project.core_service.dto.TransitionThroughputDTO;
+import com.project.core_service.models.review_transition.ReviewTransition;
+import com.project.core_service.models.solutions_review.DocumentState;
+import com.project.core_service.repositories.ReviewTransitionRepository;
+
+/**
+ * Unit tests for {@link ReviewAuditService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReviewAuditServiceTest {
+
+    @Mock
+    private ReviewTransitionRepository reviewTransitionRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    private ReviewAuditService reviewAuditService;
+
+    @BeforeEach
+    void setUp() {
+        reviewAuditService = new ReviewAuditService(reviewTransitionRepository, mongoTemplate, 2, 60_000, 5, "UTC");
+    }
+
+    private ReviewTransition transition(String documentId) {
+        return ReviewTransition.builder()
+                .documentId(documentId)
+                .systemCode("SYS-001")
+                .operation(DocumentState.StateOperation.SUBMIT)
+                .fromState(DocumentState.DRAFT)
+                .toState(DocumentState.SUBMITTED)
+                .modifiedBy("user1")
+                .comment("comment")
+                .transitionedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void record_DoesNotWriteImmediately() {
+        reviewAuditService.record(transition("sr-1"));
+
+        verify(reviewTransitionRepository, never()).insert(anyList());
+        verify(reviewTransitionRepository, never()).insert(any(ReviewTransition.class));
+    }
+
+    @Test
+    void flush_WritesQueuedTransitionsInBatches() {
+        List<Integer> batchSizes = new ArrayList<>();
+        when(reviewTransitionRepository.insert(anyList())).thenAnswer(invocation -> {
+            List<ReviewTransition> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            return batch;
+        });
+        reviewAuditService.record(transition("sr-1"));
+        reviewAuditService.record(transition("sr-2"));
+        reviewAuditService.record(transition("sr-3"));
+
+        int written = reviewAuditService.flush();
+
+        assertEquals(3, written);
+        assertEquals(List.of(2, 1), batchSizes);
+        assertEquals(0, reviewAuditService.flush());
+    }
+
+    @Test
+    void flush_RequeuesBatchWhenWriteFails() {
+        when(reviewTransitionRepository.insert(anyList()))
+                .thenThrow(new RuntimeException("Database unavailable"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        reviewAuditService.record(transition("sr-1"));
+
+        assertEquals(0, reviewAuditService.flush());
+        assertEquals(1, reviewAuditService.flush());
+        verify(reviewTransitionRepository, times(2)).insert(anyList());
+    }
+
+    @Test
+    void record_FlushesOnCallerThreadWhenQueueIsFull() {
+        when(reviewTransitionRepository.insert(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        for (int i = 0; i < 5; i++) {
+            reviewAuditService.record(transition("sr-" + i));
+        }
+
+        reviewAuditService.record(transition("sr-overflow"));
+
+        verify(reviewTransitionRepository, times(3)).insert(anyList());
+        assertEquals(1, reviewAuditService.flush());
+    }
+
+    @Test
+    void record_DropsEntryWithoutThrowingWhenQueueCannotBeFlushed() {
+        when(reviewTransitionRepository.insert(anyList())).thenThrow(new RuntimeException("Database unavailable"));
+        for (int i = 0; i < 5; i++) {
+            reviewAuditService.record(transition("sr-" + i));
+        }
+
+        assertDoesNotThrow(() -> reviewAuditService.record(transition("sr-overflow")));
+
+        verify(reviewTransitionRepository, never()).insert(any(ReviewTransition.class));
+    }
+
+    @Test
+    void stop_FlushesPendingTransitions() {
+        when(mongoTemplate.indexOps(ReviewTransition.class)).thenReturn(indexOperations);
+        when(reviewTransitionRepository.insert(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        reviewAuditService.start();
+        reviewAuditService.record(transition("sr-1"));
+
+        reviewAuditService.stop();
+
+        verify(indexOperations, times(3)).ensureIndex(any(IndexDefinition.class));
+        verify(reviewTransitionRepository).insert(anyList());
+    }
+
+    @Test
+    void getDocumentHistory_DelegatesToRepository() {
+        List<ReviewTransition> history = List.of(transition("sr-1"));
+        when(reviewTransitionRepository.findByDocumentIdOrderByTransitionedAtDesc("sr-1")).thenReturn(history);
+
+        assertSame(history, reviewAuditService.getDocumentHistory("sr-1"));
+    }
+
+    @Test
+    void getSystemHistory_DelegatesToRepository() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<ReviewTransition> page = new PageImpl<>(List.of(transition("sr-1")), pageable, 1);
+        when(reviewTransitionRepository.findBySystemCodeOrderByTransitionedAtDesc("SYS-001", pageable))
+                .thenReturn(page);
+
+        assertSame(page, reviewAuditService.getSystemHistory("SYS-001", pageable));
+    }
+
+    @Test
+    void getThroughput_QueriesWholeDays() {
+        List<TransitionThroughputDTO> expected = List.of(new TransitionThroughputDTO("2025-01-01", 4));
+        when(reviewTransitionRepository.countTransitionsPerDay(
+                Date.from(Instant.parse("2025-01-01T00:00:00Z")),
+                Date.from(Instant.parse("2025-01-08T00:00:00Z")),
+                "UTC")).thenReturn(expected);
+
+        List<TransitionThroughputDTO> result = reviewAuditService.getThroughput(
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 7));
+
+        assertSame(expected, result);
+    }
+
+    @Test
+    void getThroughput_UsesConfiguredZoneForBoundsAndGrouping() {
+        ReviewAuditService berlinAudit = new ReviewAuditService(
+                reviewTransitionRepository, mongoTemplate, 2, 60_000, 5, "Europe/Berlin");
+        List<TransitionThroughputDTO> expected = List.of(new TransitionThroughputDTO("2025-07-01", 1));
+        when(reviewTransitionRepository.countTransitionsPerDay(
+                Date.from(Instant.parse("2025-06-30T22:00:00Z")),
+                Date.from(Instant.parse("2025-07-01T22:00:00Z")),
+                "Europe/Berlin")).thenReturn(expected);
+
+        assertSame(expected, berlinAudit.getThroughput(LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 1)));
+    }
+
+    @Test
+    void getThroughput_RejectsInvertedRange() {
+        assertThrows(IllegalArgumentException.class, () -> reviewAuditService.getThroughput(
+                LocalDate.of(2025, 1, 8), LocalDate.of(2025, 1, 1)));
+    }
+}
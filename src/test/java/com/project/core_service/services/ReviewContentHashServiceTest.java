@@ -0,0 +1,79 @@
+package com.project.core_service.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.project.core_service.models.business_capabilities.BusinessCapability;
+import com.project.core_service.models.solution_overview.Concern;
+import com.project.core_service.models.solution_overview.ConcernStatus;
+import com.project.core_service.models.solution_overview.ConcernType;
+import com.project.core_service.models.solution_overview.SolutionOverview;
+import com.project.core_service.models.solutions_review.DocumentState;
+import com.project.core_service.models.solutions_review.SolutionReview;
+
+/**
+ * Unit tests for {@link ReviewContentHashService}.
+ */
+class ReviewContentHashServiceTest {
+
+    private final ReviewContentHashService hashService = new ReviewContentHashService(
+            Jackson2ObjectMapperBuilder.json().build());
+
+    private SolutionReview review() {
+        SolutionReview review = new SolutionReview();
+        review.setId("rev-1");
+        review.setSystemCode("SYS-001");
+        review.setDocumentState(DocumentState.DRAFT);
+        review.setLastModifiedAt(LocalDateTime.of(2025, 1, 1, 10, 0));
+        return review;
+    }
+
+    @Test
+    void hash_IsStableForEqualContent() {
+        String hash = hashService.hash(review());
+
+        assertEquals(hash, hashService.hash(review()));
+        assertEquals(64, hash.length());
+    }
+
+    @Test
+    void hash_IgnoresStateAndAuditFields() {
+        SolutionReview other = review();
+        other.setDocumentState(DocumentState.SUBMITTED);
+        other.setLastModifiedAt(LocalDateTime.of(2025, 6, 1, 10, 0));
+        other.setLastModifiedBy("someone-else");
+
+        assertEquals(hashService.hash(review()), hashService.hash(other));
+    }
+
+    @Test
+    void hash_UsesMillisecondPrecisionForDateTimes() {
+        SolutionReview withNanos = review();
+        withNanos.setSolutionOverview(overviewWithConcernRaisedAt(LocalDateTime.of(2025, 1, 1, 10, 0, 0, 123_456_789)));
+        SolutionReview withMillis = review();
+        withMillis.setSolutionOverview(overviewWithConcernRaisedAt(LocalDateTime.of(2025, 1, 1, 10, 0, 0, 123_000_000)));
+
+        assertEquals(hashService.hash(withMillis), hashService.hash(withNanos));
+    }
+
+    @Test
+    void hash_ChangesWhenASectionChanges() {
+        SolutionReview other = review();
+        other.setBusinessCapabilities(List.of(new BusinessCapability("cap-1", null, null, null, "remarks")));
+
+        assertNotEquals(hashService.hash(review()), hashService.hash(other));
+    }
+
+    private static SolutionOverview overviewWithConcernRaisedAt(LocalDateTime raisedAt) {
+        SolutionOverview overview = new SolutionOverview();
+        overview.setConcerns(List.of(new Concern("concern-1", ConcernType.RISK, "desc", "impact", "disposition",
+                ConcernStatus.UNKNOWN, raisedAt)));
+        return overview;
+    }
+}
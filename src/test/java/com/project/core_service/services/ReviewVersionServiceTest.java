@@ -0,0 +1,225 @@
+package com.project.core_service.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.project.core_service.dto.SolutionReviewDTO;
+import com.project.core_service.exceptions.NotFoundException;
+import com.project.core_service.models.business_capabilities.BusinessCapability;
+import com.project.core_service.models.review_version.ReviewChange;
+import com.project.core_service.models.review_version.ReviewVersion;
+import com.project.core_service.models.solution_overview.BusinessDriver;
+import com.project.core_service.models.solution_overview.BusinessUnit;
+import com.project.core_service.models.solution_overview.SolutionDetails;
+import com.project.core_service.models.solution_overview.SolutionOverview;
+import com.project.core_service.models.solutions_review.DocumentState;
+import com.project.core_service.models.solutions_review.SolutionReview;
+import com.project.core_service.repositories.ReviewVersionRepository;
+
+/**
+ * Unit tests for {@link ReviewVersionService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReviewVersionServiceTest {
+
+    private static final String SYSTEM = "SYS-001";
+
+    @Mock
+    private ReviewVersionRepository reviewVersionRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private final List<ReviewVersion> store = new ArrayList<>();
+
+    private ReviewVersionService versionService;
+
+    @BeforeEach
+    void setUp() {
+        versionService = new ReviewVersionService(reviewVersionRepository, mongoTemplate,
+                Jackson2ObjectMapperBuilder.json().build(), 3);
+
+        // Back the repository with an in-memory list
+        lenient().when(reviewVersionRepository.insert(any(ReviewVersion.class))).thenAnswer(invocation -> {
+            ReviewVersion version = invocation.getArgument(0);
+            store.add(version);
+            return version;
+        });
+        lenient().when(reviewVersionRepository.findFirstBySystemCodeOrderByVersionDesc(anyString()))
+                .thenAnswer(invocation -> store.stream()
+                        .max(Comparator.comparingInt(ReviewVersion::getVersion)));
+        lenient().when(reviewVersionRepository
+                .findFirstBySystemCodeAndKeyframeTrueAndVersionLessThanEqualOrderByVersionDesc(anyString(), anyInt()))
+                .thenAnswer(invocation -> store.stream()
+                        .filter(v -> v.isKeyframe() && v.getVersion() <= invocation.<Integer>getArgument(1))
+                        .max(Comparator.comparingInt(ReviewVersion::getVersion)));
+        lenient().when(reviewVersionRepository.findVersionRange(anyString(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> store.stream()
+                        .filter(v -> v.getVersion() > invocation.<Integer>getArgument(1)
+                                && v.getVersion() <= invocation.<Integer>getArgument(2))
+                        .sorted(Comparator.comparingInt(ReviewVersion::getVersion))
+                        .toList());
+    }
+
+    private static SolutionReview review(String valueOutcome, BusinessCapability... capabilities) {
+        SolutionOverview overview = SolutionOverview.newDraftBuilder()
+                .solutionDetails(new SolutionDetails("Solution", "Project", "AWG001", "Architect", "PM", "Partner"))
+                .businessUnit(BusinessUnit.UNKNOWN)
+                .businessDriver(BusinessDriver.OPERATIONAL_EFFICIENCY)
+                .valueOutcome(valueOutcome)
+                .build();
+        SolutionReview review = new SolutionReview(SYSTEM, overview);
+        review.setId("sr-" + valueOutcome);
+        review.setDocumentState(DocumentState.ACTIVE);
+        review.setBusinessCapabilities(new ArrayList<>(List.of(capabilities)));
+        return review;
+    }
+
+    private static BusinessCapability capability(String id, String remarks) {
+        return new BusinessCapability(id, "L1", "L2", "L3", remarks);
+    }
+
+    @Test
+    void recordVersion_FirstVersionIsKeyframe() {
+        ReviewVersion version = versionService.recordVersion(review("v1", capability("cap-1", null)), "admin");
+
+        assertEquals(1, version.getVersion());
+        assertTrue(version.isKeyframe());
+        assertNull(version.getChanges());
+        assertEquals("admin", version.getRecordedBy());
+    }
+
+    @Test
+    void recordVersion_LaterVersionsStoreOnlyChanges() {
+        versionService.recordVersion(review("v1", capability("cap-1", null), capability("cap-2", null)), "admin");
+
+        ReviewVersion second = versionService.recordVersion(
+                review("v1", capability("cap-1", "changed"), capability("cap-2", null)), "admin");
+
+        assertEquals(2, second.getVersion());
+        assertFalse(second.isKeyframe());
+        assertNull(second.getSnapshot());
+        assertEquals(1, second.getChanges().size());
+        ReviewChange change = second.getChanges().get(0);
+        assertEquals(ReviewChange.Type.REPLACE, change.getType());
+        assertEquals("businessCapabilities", change.getSection());
+        assertEquals("cap-1", change.getElementKey());
+    }
+
+    @Test
+    void recordVersion_StoresKeyframeEveryInterval() {
+        for (int i = 1; i <= 4; i++) {
+            versionService.recordVersion(review("v" + i), "admin");
+        }
+
+        assertEquals(List.of(true, false, false, true), store.stream().map(ReviewVersion::isKeyframe).toList());
+    }
+
+    @Test
+    void getVersion_ReconstructsEveryVersion() {
+        List<SolutionReview> reviews = List.of(
+                review("v1", capability("cap-1", null)),
+                review("v2", capability("cap-1", null), capability("cap-2", null)),
+                review("v3", capability("cap-2", "kept"), capability("cap-1", null)),
+                review("v4"),
+                review("v5", capability("cap-3", null)));
+        reviews.forEach(review -> versionService.recordVersion(review, "admin"));
+
+        for (int i = 0; i < reviews.size(); i++) {
+            SolutionReviewDTO reconstructed = versionService.getVersion(SYSTEM, i + 1);
+            SolutionReview expected = reviews.get(i);
+
+            assertEquals(SYSTEM, reconstructed.getSystemCode());
+            assertEquals(expected.getSolutionOverview().getValueOutcome(),
+                    reconstructed.getSolutionOverview().getValueOutcome());
+            assertEquals(expected.getBusinessCapabilities(), reconstructed.getBusinessCapabilities());
+        }
+    }
+
+    @Test
+    void getVersion_ThrowsWhenVersionMissing() {
+        versionService.recordVersion(review("v1"), "admin");
+
+        assertThrows(NotFoundException.class, () -> versionService.getVersion(SYSTEM, 2));
+        assertThrows(NotFoundException.class, () -> versionService.getVersion("SYS-404", 1));
+    }
+
+    @Test
+    void diffVersions_ReturnsChangesBetweenAnyTwoVersions() {
+        versionService.recordVersion(review("v1", capability("cap-1", null)), "admin");
+        versionService.recordVersion(review("v2", capability("cap-1", null)), "admin");
+        versionService.recordVersion(review("v3", capability("cap-2", null)), "admin");
+
+        List<ReviewChange> changes = versionService.diffVersions(SYSTEM, 1, 3);
+
+        assertEquals(List.of(ReviewChange.Type.REPLACE, ReviewChange.Type.REMOVE, ReviewChange.Type.ADD),
+                changes.stream().map(ReviewChange::getType).toList());
+        assertEquals(ReviewVersionService.OVERVIEW_SECTION, changes.get(0).getSection());
+        assertEquals("cap-1", changes.get(1).getElementKey());
+        assertEquals("cap-2", changes.get(2).getElementKey());
+    }
+
+    @Test
+    void diff_OfEqualContentIsEmpty() {
+        Map<String, Object> content = Map.of("businessCapabilities", List.of(Map.of("id", "cap-1")));
+
+        assertTrue(versionService.diff(content, content).isEmpty());
+    }
+
+    @Test
+    void apply_ReversesDiffIncludingReorderAndElementsWithoutId() {
+        Map<String, Object> from = Map.of("dataAssets", List.of(
+                Map.of("id", "a", "dataName", "A"),
+                Map.of("dataName", "no-id"),
+                Map.of("id", "b", "dataName", "B")));
+        Map<String, Object> to = Map.of("dataAssets", List.of(
+                Map.of("id", "b", "dataName", "B2"),
+                Map.of("id", "a", "dataName", "A"),
+                Map.of("id", "c", "dataName", "C")));
+
+        List<ReviewChange> changes = versionService.diff(from, to);
+
+        assertEquals(to.get("dataAssets"), versionService.apply(from, changes).get("dataAssets"));
+        assertTrue(changes.stream().anyMatch(change -> change.getType() == ReviewChange.Type.REORDER));
+    }
+
+    @Test
+    void diff_ElementInsertedAtFront_IsASingleAdd() {
+        Map<String, Object> from = Map.of("dataAssets", List.of(
+                Map.of("id", "a", "dataName", "A"),
+                Map.of("id", "b", "dataName", "B")));
+        Map<String, Object> to = Map.of("dataAssets", List.of(
+                Map.of("id", "new", "dataName", "New"),
+                Map.of("id", "a", "dataName", "A"),
+                Map.of("id", "b", "dataName", "B")));
+
+        List<ReviewChange> changes = versionService.diff(from, to);
+
+        assertEquals(1, changes.size());
+        assertEquals(ReviewChange.Type.ADD, changes.get(0).getType());
+        assertEquals("new", changes.get(0).getElementKey());
+        assertEquals(0, changes.get(0).getPosition());
+        assertEquals(to.get("dataAssets"), versionService.apply(from, changes).get("dataAssets"));
+    }
+}
@@ -0,0 +1,207 @@
+package com.project.core_service.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.mongodb.client.result.UpdateResult;
+import com.project.core_service.exceptions.NotFoundException;
+import com.project.core_service.models.integration_flow.IntegrationFlow;
+import com.project.core_service.models.solutions_review.DocumentState;
+import com.project.core_service.models.solutions_review.ReviewSection;
+import com.project.core_service.models.solutions_review.ReviewSectionElement;
+import com.project.core_service.models.solutions_review.SolutionReview;
+
+/**
+ * Unit tests for {@link SolutionReviewSectionService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class SolutionReviewSectionServiceTest {
+
+    private static final String REVIEW_ID = "review-1";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private DraftAutosaveService draftAutosaveService;
+
+    private SolutionReviewSectionService sectionService;
+
+    @BeforeEach
+    void setUp() {
+        sectionService = new SolutionReviewSectionService(mongoTemplate, Jackson2ObjectMapperBuilder.json().build(),
+                draftAutosaveService);
+    }
+
+    private static Map<String, Object> flowBody(String componentName) {
+        return Map.of(
+                "componentName", componentName,
+                "counterpartSystemCode", "SYS-002",
+                "counterpartSystemRole", "CONSUMER",
+                "integrationMethod", "API",
+                "frequency", "DAILY",
+                "purpose", "Payments",
+                "middleware", "NONE");
+    }
+
+    private void givenMatched(long matched) {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(SolutionReview.class)))
+                .thenReturn(UpdateResult.acknowledged(matched, matched, null));
+    }
+
+    private ArgumentCaptor<Query> queryCaptor() {
+        return ArgumentCaptor.forClass(Query.class);
+    }
+
+    @Test
+    void addElement_PushesConvertedElementWithGeneratedId() {
+        givenMatched(1);
+        ArgumentCaptor<Query> query = queryCaptor();
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+
+        ReviewSectionElement added = sectionService.addElement(REVIEW_ID, ReviewSection.INTEGRATION_FLOWS,
+                flowBody("Gateway"));
+
+        IntegrationFlow flow = assertInstanceOf(IntegrationFlow.class, added);
+        assertEquals("Gateway", flow.getComponentName());
+        assertFalse(flow.getId().isBlank());
+
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(SolutionReview.class));
+        assertEquals(REVIEW_ID, query.getValue().getQueryObject().get("_id"));
+        assertEquals(DocumentState.DRAFT, query.getValue().getQueryObject().get("documentState"));
+        Document updateObject = update.getValue().getUpdateObject();
+        assertEquals(flow, updateObject.get("$push", Document.class).get("integrationFlows"));
+        assertTrue(updateObject.get("$set", Document.class).containsKey("lastModifiedAt"));
+        assertTrue(updateObject.get("$unset", Document.class).containsKey("contentHash"));
+    }
+
+    @Test
+    void replaceSection_SetsOnlyTheSectionField() {
+        givenMatched(1);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+
+        List<ReviewSectionElement> written = sectionService.replaceSection(REVIEW_ID,
+                ReviewSection.INTEGRATION_FLOWS, List.of(flowBody("First"), flowBody("Second")));
+
+        assertEquals(2, written.size());
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(SolutionReview.class));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals(written, set.get("integrationFlows"));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void replaceSection_RejectsNullElements() {
+        assertThrows(IllegalArgumentException.class,
+                () -> sectionService.replaceSection(REVIEW_ID, ReviewSection.INTEGRATION_FLOWS, null));
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(SolutionReview.class));
+    }
+
+    @Test
+    void replaceElement_UsesPositionalOperatorAndKeepsElementId() {
+        givenMatched(1);
+        ArgumentCaptor<Query> query = queryCaptor();
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+
+        ReviewSectionElement replaced = sectionService.replaceElement(REVIEW_ID, ReviewSection.INTEGRATION_FLOWS,
+                "flow-1", flowBody("Renamed"));
+
+        assertEquals("flow-1", replaced.getId());
+        verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(SolutionReview.class));
+        assertEquals("flow-1", query.getValue().getQueryObject().get("integrationFlows._id"));
+        assertEquals(replaced, update.getValue().getUpdateObject().get("$set", Document.class)
+                .get("integrationFlows.$"));
+    }
+
+    @Test
+    void removeElement_PullsById() {
+        givenMatched(1);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+
+        sectionService.removeElement(REVIEW_ID, ReviewSection.INTEGRATION_FLOWS, "flow-1");
+
+        verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(SolutionReview.class));
+        assertEquals(new Document("_id", "flow-1"),
+                update.getValue().getUpdateObject().get("$pull", Document.class).get("integrationFlows"));
+    }
+
+    @Test
+    void addElement_ThrowsNotFoundWhenReviewMissing() {
+        givenMatched(0);
+        when(mongoTemplate.findOne(any(Query.class), eq(SolutionReview.class))).thenReturn(null);
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> sectionService.addElement(REVIEW_ID, ReviewSection.INTEGRATION_FLOWS, flowBody("Gateway")));
+
+        assertTrue(exception.getMessage().contains(REVIEW_ID));
+    }
+
+    @Test
+    void addElement_ThrowsIllegalStateWhenReviewNotDraft() {
+        givenMatched(0);
+        SolutionReview submitted = new SolutionReview();
+        submitted.setDocumentState(DocumentState.SUBMITTED);
+        when(mongoTemplate.findOne(any(Query.class), eq(SolutionReview.class))).thenReturn(submitted);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> sectionService.addElement(REVIEW_ID, ReviewSection.INTEGRATION_FLOWS, flowBody("Gateway")));
+
+        assertEquals("Only DRAFT reviews can be modified", exception.getMessage());
+    }
+
+    @Test
+    void removeElement_ThrowsNotFoundWhenElementMissing() {
+        givenMatched(0);
+        SolutionReview draft = new SolutionReview();
+        draft.setDocumentState(DocumentState.DRAFT);
+        when(mongoTemplate.findOne(any(Query.class), eq(SolutionReview.class))).thenReturn(draft);
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> sectionService.removeElement(REVIEW_ID, ReviewSection.INTEGRATION_FLOWS, "flow-9"));
+
+        assertTrue(exception.getMessage().contains("flow-9"));
+        assertTrue(exception.getMessage().contains("integration-flows"));
+    }
+
+    @Test
+    void addElement_RejectsNullElement() {
+        assertThrows(IllegalArgumentException.class,
+                () -> sectionService.addElement(REVIEW_ID, ReviewSection.INTEGRATION_FLOWS, null));
+    }
+
+    @Test
+    void replaceElement_FlushesBufferedAutosaveBeforeWriting() {
+        givenMatched(1);
+
+        sectionService.replaceElement(REVIEW_ID, ReviewSection.INTEGRATION_FLOWS, "flow-1", flowBody("Gateway"));
+
+        InOrder order = inOrder(draftAutosaveService, mongoTemplate);
+        order.verify(draftAutosaveService).flush(REVIEW_ID);
+        order.verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(SolutionReview.class));
+    }
+}
@@ -3,12 +3,14 @@ package com.project.core_service.services;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import com.project.core_service.dto.CleanSolutionReviewDTO;
 import com.project.core_service.dto.NewSolutionOverviewRequestDTO;
 import com.project.core_service.dto.SolutionReviewDTO;
+import com.project.core_service.dto.SolutionReviewReferenceDTO;
 import com.project.core_service.dto.SystemDependencyDTO;
 import com.project.core_service.dto.BusinessCapabilityDiagramDTO;
 import com.project.core_service.dto.SearchQueryDTO;
@@ -28,15 +30,21 @@ import com.project.core_service.repositories.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.bson.Document;
+import org.bson.types.ObjectId;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -51,6 +59,13 @@ class SolutionReviewServiceTest {
     private com.project.core_service.client.ChatbotServiceClient chatbotServiceClient;
     @Mock
     private QueryService queryService;
+    @Mock
+    private SystemCodeLockService systemCodeLockService;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Spy
+    private ReviewContentHashService contentHashService = new ReviewContentHashService(
+            Jackson2ObjectMapperBuilder.json().build());
     @InjectMocks
     private SolutionReviewService service;
 
@@ -104,6 +119,10 @@ class SolutionReviewServiceTest {
                 .documentState(DocumentState.DRAFT)
                 .lastModifiedAt(LocalDateTime.now())
                 .build();
+
+        // Run locked sections inline
+        lenient().when(systemCodeLockService.executeWithLock(any(), any()))
+                .thenAnswer(invocation -> invocation.<java.util.function.Supplier<?>>getArgument(1).get());
     }
 
     @Test
@@ -126,6 +145,26 @@ class SolutionReviewServiceTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void requireDraft_AcceptsDraft() {
+        SolutionReview draft = new SolutionReview();
+        draft.setDocumentState(DocumentState.DRAFT);
+        when(solutionReviewRepository.findDocumentStateById("rev-1")).thenReturn(Optional.of(draft));
+
+        assertDoesNotThrow(() -> service.requireDraft("rev-1"));
+    }
+
+    @Test
+    void requireDraft_RejectsMissingOrNonDraftReview() {
+        SolutionReview submitted = new SolutionReview();
+        submitted.setDocumentState(DocumentState.SUBMITTED);
+        when(solutionReviewRepository.findDocumentStateById("rev-1")).thenReturn(Optional.of(submitted));
+        when(solutionReviewRepository.findDocumentStateById("x")).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class, () -> service.requireDraft("rev-1"));
+        assertThrows(NotFoundException.class, () -> service.requireDraft("x"));
+    }
+
     @Test
     void getSolutionReviews_Page() {
         Page<SolutionReview> page = new PageImpl<>(List.of(review));
@@ -1374,6 +1413,42 @@ class SolutionReviewServiceTest {
         verify(solutionReviewRepository).insert(any(SolutionReview.class));
     }
 
+    @Test
+    void createSolutionReview_ShouldCheckAndInsertUnderSystemLock() {
+        when(solutionReviewRepository.findAllBySystemCodeAndDocumentStateIn(eq("SYS-123"), anyList()))
+                .thenReturn(Collections.emptyList());
+        when(solutionReviewRepository.insert(any(SolutionReview.class))).thenReturn(review);
+        NewSolutionOverviewRequestDTO dto = new NewSolutionOverviewRequestDTO(overview.getSolutionDetails(),
+                overview.getBusinessUnit(),
+                overview.getBusinessDriver(),
+                overview.getValueOutcome(),
+                overview.getApplicationUsers(),
+                overview.getConcerns());
+
+        service.createSolutionReview("SYS-123", dto);
+
+        org.mockito.InOrder inOrder = inOrder(systemCodeLockService, solutionReviewRepository);
+        inOrder.verify(systemCodeLockService).executeWithLock(eq("SYS-123"), any());
+        inOrder.verify(solutionReviewRepository).findAllBySystemCodeAndDocumentStateIn(eq("SYS-123"), anyList());
+        inOrder.verify(solutionReviewRepository).insert(any(SolutionReview.class));
+    }
+
+    @Test
+    void createSolutionReview_ShouldPropagateLockTimeout() {
+        when(systemCodeLockService.executeWithLock(eq("SYS-123"), any()))
+                .thenThrow(new com.project.core_service.exceptions.ConcurrentOperationException("busy"));
+        NewSolutionOverviewRequestDTO dto = new NewSolutionOverviewRequestDTO(overview.getSolutionDetails(),
+                overview.getBusinessUnit(),
+                overview.getBusinessDriver(),
+                overview.getValueOutcome(),
+                overview.getApplicationUsers(),
+                overview.getConcerns());
+
+        assertThrows(com.project.core_service.exceptions.ConcurrentOperationException.class,
+                () -> service.createSolutionReview("SYS-123", dto));
+        verify(solutionReviewRepository, never()).insert(any(SolutionReview.class));
+    }
+
     @Test
     void createSolutionReviewFromExisting_ShouldThrowIfSystemCodeNullOrEmpty() {
         assertThrows(NotFoundException.class, () -> service.createSolutionReview(null));
@@ -1382,18 +1457,20 @@ class SolutionReviewServiceTest {
 
     @Test
     void createSolutionReviewFromExisting_ShouldThrowIfSystemCodeNotFound() {
-        when(solutionReviewRepository.findFirstBySystemCodeAndDocumentStateIn(eq("NOT-EXIST"), anyList()))
-                .thenReturn(Optional.empty());
+        when(solutionReviewRepository.existsBySystemCodeAndDocumentStateIn("NOT-EXIST",
+                List.of(DocumentState.ACTIVE)))
+                .thenReturn(false);
 
         assertThrows(NotFoundException.class, () -> service.createSolutionReview("NOT-EXIST"));
+        verifyNoInteractions(mongoTemplate);
     }
 
     @Test
     void createSolutionReviewFromExisting_ShouldCreateFromActiveReview() {
         // Mock active review exists
-        review.setDocumentState(DocumentState.ACTIVE);
-        when(solutionReviewRepository.findFirstBySystemCodeAndDocumentStateIn(eq("SYS-123"), anyList()))
-                .thenReturn(Optional.of(review));
+        when(solutionReviewRepository.existsBySystemCodeAndDocumentStateIn("SYS-123",
+                List.of(DocumentState.ACTIVE)))
+                .thenReturn(true);
 
         // Mock constraint validation passes for exclusive states (DRAFT, SUBMITTED,
         // APPROVED)
@@ -1402,13 +1479,18 @@ class SolutionReviewServiceTest {
                 List.copyOf(DocumentState.getExclusiveStates())))
                 .thenReturn(Collections.emptyList());
 
-        when(solutionReviewRepository.insert(any(SolutionReview.class)))
-                .thenReturn(review);
+        when(mongoTemplate.getCollectionName(SolutionReview.class)).thenReturn("solutionReviews");
+        when(solutionReviewRepository.existsById(anyString())).thenReturn(true);
 
-        SolutionReview result = service.createSolutionReview("SYS-123");
-        assertNotNull(result);
+        SolutionReviewReferenceDTO result = service.createSolutionReview("SYS-123");
+        assertNotNull(result.getId());
         assertEquals("SYS-123", result.getSystemCode());
-        verify(solutionReviewRepository).insert(any(SolutionReview.class));
+        assertEquals(DocumentState.DRAFT, result.getDocumentState());
+        verify(mongoTemplate).aggregate(any(Aggregation.class), eq("solutionReviews"), eq(Document.class));
+        verify(solutionReviewRepository).existsById(result.getId());
+        // The review content is never loaded or written by the service
+        verify(solutionReviewRepository, never()).findFirstBySystemCodeAndDocumentStateIn(any(), anyList());
+        verify(solutionReviewRepository, never()).insert(any(SolutionReview.class));
     }
 
     @Test
@@ -1417,27 +1499,143 @@ class SolutionReviewServiceTest {
         // because they have separate constraints
 
         // Mock active review exists
-        review.setDocumentState(DocumentState.ACTIVE);
-        when(solutionReviewRepository.findFirstBySystemCodeAndDocumentStateIn("SYS-123",
+        when(solutionReviewRepository.existsBySystemCodeAndDocumentStateIn("SYS-123",
                 List.of(DocumentState.ACTIVE)))
-                .thenReturn(Optional.of(review));
+                .thenReturn(true);
 
         // Mock that no exclusive state documents exist (DRAFT, SUBMITTED, APPROVED)
         when(solutionReviewRepository.findAllBySystemCodeAndDocumentStateIn("SYS-123",
                 List.copyOf(DocumentState.getExclusiveStates())))
                 .thenReturn(Collections.emptyList());
 
-        when(solutionReviewRepository.insert(any(SolutionReview.class)))
-                .thenReturn(review);
+        when(solutionReviewRepository.existsById(anyString())).thenReturn(true);
 
         // This should not throw an exception
         assertDoesNotThrow(() -> {
-            SolutionReview result = service.createSolutionReview("SYS-123");
+            SolutionReviewReferenceDTO result = service.createSolutionReview("SYS-123");
             assertNotNull(result);
             assertEquals("SYS-123", result.getSystemCode());
         });
+    }
 
-        verify(solutionReviewRepository).insert(any(SolutionReview.class));
+    @Test
+    void createSolutionReviewFromExisting_ShouldThrowIfExclusiveStateExists() {
+        SolutionReview draft = SolutionReview.newDraftBuilder()
+                .id("rev-2")
+                .systemCode("SYS-123")
+                .solutionOverview(overview)
+                .build();
+        when(solutionReviewRepository.existsBySystemCodeAndDocumentStateIn("SYS-123",
+                List.of(DocumentState.ACTIVE)))
+                .thenReturn(true);
+        when(solutionReviewRepository.findAllBySystemCodeAndDocumentStateIn("SYS-123",
+                List.copyOf(DocumentState.getExclusiveStates())))
+                .thenReturn(List.of(draft));
+
+        assertThrows(IllegalOperationException.class, () -> service.createSolutionReview("SYS-123"));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void createSolutionReviewFromExisting_ShouldThrowIfActiveRemovedBeforeClone() {
+        when(solutionReviewRepository.existsBySystemCodeAndDocumentStateIn("SYS-123",
+                List.of(DocumentState.ACTIVE)))
+                .thenReturn(true);
+        when(solutionReviewRepository.findAllBySystemCodeAndDocumentStateIn("SYS-123",
+                List.copyOf(DocumentState.getExclusiveStates())))
+                .thenReturn(Collections.emptyList());
+        when(solutionReviewRepository.existsById(anyString())).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> service.createSolutionReview("SYS-123"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void cloneActiveToDraft_ResetsIdsAndStateInsideThePipeline() {
+        when(mongoTemplate.getCollectionName(SolutionReview.class)).thenReturn("solutionReviews");
+        ObjectId draftId = new ObjectId();
+
+        List<Document> stages = service.cloneActiveToDraft("SYS-123", draftId)
+                .toPipeline(Aggregation.DEFAULT_CONTEXT);
+
+        assertEquals(List.of("$match", "$limit", "$project", "$unset", "$set", "$set", "$merge"),
+                stages.stream().map(stage -> stage.keySet().iterator().next()).toList());
+        Document match = stages.get(0).get("$match", Document.class);
+        assertEquals("SYS-123", match.get("systemCode"));
+        assertEquals("ACTIVE", match.get("documentState"));
+        assertEquals("solutionOverview._id", stages.get(3).get("$unset"));
+        // Element IDs are kept; elements without one are numbered after the draft
+        Document elementIds = stages.get(4).get("$set", Document.class);
+        assertTrue(elementIds.keySet().containsAll(List.of("businessCapabilities", "processCompliances")));
+        String businessCapabilities = elementIds.get("businessCapabilities", Document.class).toJson();
+        assertTrue(businessCapabilities.contains("\"$$element._id\""));
+        assertTrue(businessCapabilities.contains("\"" + draftId.toHexString() + "-\""));
+        Document set = stages.get(5).get("$set", Document.class);
+        assertEquals(new Document("$literal", draftId), set.get("_id"));
+        assertEquals("DRAFT", set.get("documentState"));
+        Document merge = stages.get(6).get("$merge", Document.class);
+        assertEquals("solutionReviews", merge.get("into"));
+        assertEquals("fail", merge.get("whenMatched"));
+    }
+
+    @Test
+    void assignElementIds_KeepsIdsAndGeneratesMissingOrRepeatedOnes() {
+        List<BusinessCapability> elements = List.of(
+                new BusinessCapability("cap-1", "L1", "L2", "L3", null),
+                new BusinessCapability(null, "L1", "L2", "Other", null),
+                new BusinessCapability("cap-1", "L1", "L2", "Copy", null));
+
+        SolutionReviewService.assignElementIds(elements, null);
+
+        assertEquals("cap-1", elements.get(0).getId());
+        assertNotNull(elements.get(1).getId());
+        assertNotNull(elements.get(2).getId());
+        assertEquals(3, elements.stream().map(BusinessCapability::getId).distinct().count());
+    }
+
+    @Test
+    void assignElementIds_UnchangedElementWithoutId_TakesStoredId() {
+        List<BusinessCapability> stored = List.of(
+                new BusinessCapability("cap-1", "L1", "L2", "L3", null),
+                new BusinessCapability("cap-2", "L1", "L2", "L4", null));
+        List<BusinessCapability> elements = List.of(
+                new BusinessCapability(null, "L1", "L2", "L4", null),
+                new BusinessCapability(null, "L1", "L2", "New", null));
+
+        SolutionReviewService.assignElementIds(elements, stored);
+
+        assertEquals("cap-2", elements.get(0).getId());
+        assertNotEquals("cap-1", elements.get(1).getId());
+        assertNotNull(elements.get(1).getId());
+    }
+
+    @Test
+    void updateSolutionReview_ElementsResentWithoutIds_KeepsIdsAndSkipsWrite() {
+        review.setBusinessCapabilities(new ArrayList<>(List.of(new BusinessCapability("cap-1", "L1", "L2", "L3", null))));
+        SolutionReviewDTO dto = new SolutionReviewDTO();
+        dto.setId("rev-1");
+        dto.setBusinessCapabilities(List.of(new BusinessCapability(null, "L1", "L2", "L3", null)));
+
+        when(solutionReviewRepository.findById("rev-1")).thenReturn(Optional.of(review));
+
+        SolutionReview updated = service.updateSolutionReview(dto);
+
+        assertEquals("cap-1", updated.getBusinessCapabilities().get(0).getId());
+        verify(solutionReviewRepository, never()).save(any());
+    }
+
+    @Test
+    void updateSolutionReview_NewElementWithoutId_GetsId() {
+        SolutionReviewDTO dto = new SolutionReviewDTO();
+        dto.setId("rev-1");
+        dto.setBusinessCapabilities(List.of(new BusinessCapability(null, "L1", "L2", "L3", null)));
+
+        when(solutionReviewRepository.findById("rev-1")).thenReturn(Optional.of(review));
+        when(solutionReviewRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        SolutionReview updated = service.updateSolutionReview(dto);
+
+        assertNotNull(updated.getBusinessCapabilities().get(0).getId());
     }
 
     @Test
@@ -1450,6 +1648,9 @@ class SolutionReviewServiceTest {
         SolutionReviewDTO dto = new SolutionReviewDTO();
         dto.setId("rev-1");
         dto.setDocumentState(DocumentState.DRAFT);
+        dto.setSolutionOverview(SolutionOverview.fromExisting(overview)
+                .valueOutcome("Updated value outcome")
+                .build());
 
         when(solutionReviewRepository.findById("rev-1")).thenReturn(Optional.of(review));
         when(solutionReviewRepository.save(any())).thenReturn(review);
@@ -1457,7 +1658,51 @@ class SolutionReviewServiceTest {
         SolutionReview updated = service.updateSolutionReview(dto);
 
         assertNotNull(updated);
-        verify(solutionReviewRepository).save(any(SolutionReview.class));
+        ArgumentCaptor<SolutionReview> captor = ArgumentCaptor.forClass(SolutionReview.class);
+        verify(solutionReviewRepository).save(captor.capture());
+        assertEquals(contentHashService.hash(captor.getValue()), captor.getValue().getContentHash());
+    }
+
+    @Test
+    void updateSolutionReview_UnchangedContent_SkipsWrite() {
+        LocalDateTime lastModifiedAt = review.getLastModifiedAt();
+        SolutionReviewDTO dto = new SolutionReviewDTO(review);
+
+        when(solutionReviewRepository.findById("rev-1")).thenReturn(Optional.of(review));
+
+        SolutionReview updated = service.updateSolutionReview(dto);
+
+        assertSame(review, updated);
+        assertEquals(lastModifiedAt, updated.getLastModifiedAt());
+        verify(solutionReviewRepository, never()).save(any());
+    }
+
+    @Test
+    void updateSolutionReview_StoredHashMatches_SkipsWrite() {
+        review.setContentHash(contentHashService.hash(review));
+        SolutionReviewDTO dto = new SolutionReviewDTO();
+        dto.setId("rev-1");
+
+        when(solutionReviewRepository.findById("rev-1")).thenReturn(Optional.of(review));
+
+        service.updateSolutionReview(dto);
+
+        verify(solutionReviewRepository, never()).save(any());
+    }
+
+    @Test
+    void updateSolutionReview_StaleStoredHash_Writes() {
+        review.setContentHash("stale");
+        SolutionReviewDTO dto = new SolutionReviewDTO();
+        dto.setId("rev-1");
+
+        when(solutionReviewRepository.findById("rev-1")).thenReturn(Optional.of(review));
+        when(solutionReviewRepository.save(any())).thenReturn(review);
+
+        service.updateSolutionReview(dto);
+
+        verify(solutionReviewRepository).save(review);
+        assertNotEquals("stale", review.getContentHash());
     }
 
     @Test
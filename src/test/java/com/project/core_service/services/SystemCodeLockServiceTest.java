@@ -0,0 +1,238 @@
+package com.project.core_service.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.client.result.UpdateResult;
+import com.project.core_service.exceptions.ConcurrentOperationException;
+
+/**
+ * Unit tests for {@link SystemCodeLockService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class SystemCodeLockServiceTest {
+
+    private static final String LEASES = SystemCodeLockService.LEASE_COLLECTION;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private SystemCodeLockService inProcessOnly(long acquireTimeoutMs) {
+        return new SystemCodeLockService(mongoTemplate, false, 30_000, acquireTimeoutMs, 1);
+    }
+
+    private SystemCodeLockService withLease(long acquireTimeoutMs) {
+        return new SystemCodeLockService(mongoTemplate, true, 30_000, acquireTimeoutMs, 1);
+    }
+
+    @Test
+    void executeWithLock_ReturnsActionResult() {
+        SystemCodeLockService lockService = inProcessOnly(1_000);
+
+        assertEquals("done", lockService.executeWithLock("SYS-001", () -> "done"));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void executeWithLock_DropsLocalLockWhenDone() {
+        SystemCodeLockService lockService = inProcessOnly(1_000);
+
+        lockService.executeWithLock("SYS-001", () -> lockService.executeWithLock("SYS-002", () -> "done"));
+
+        assertEquals(0, lockService.lockedSystemCodeCount());
+    }
+
+    @Test
+    void executeWithLock_SameSystemSerializes() throws Exception {
+        SystemCodeLockService lockService = inProcessOnly(50);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> lockService.runWithLock("SYS-001", () -> {
+                held.countDown();
+                awaitQuietly(release);
+            }));
+            assertTrue(held.await(5, TimeUnit.SECONDS));
+
+            assertThrows(ConcurrentOperationException.class,
+                    () -> lockService.runWithLock("SYS-001", () -> { }));
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+            assertEquals("after", lockService.executeWithLock("SYS-001", () -> "after"));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void executeWithLock_DifferentSystemsProceedInParallel() throws Exception {
+        SystemCodeLockService lockService = withLease(50);
+        String first = "SYS-001";
+        String second = "SYS-002";
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> lockService.runWithLock(first, () -> {
+                held.countDown();
+                awaitQuietly(release);
+            }));
+            assertTrue(held.await(5, TimeUnit.SECONDS));
+
+            assertEquals("parallel", lockService.executeWithLock(second, () -> "parallel"));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void executeWithLock_IsReentrantAndTakesLeaseOnce() {
+        SystemCodeLockService lockService = withLease(1_000);
+
+        String result = lockService.executeWithLock("SYS-001",
+                () -> lockService.executeWithLock("SYS-001", () -> "nested"));
+
+        assertEquals("nested", result);
+        verify(mongoTemplate, times(1)).upsert(any(Query.class), any(Update.class), eq(LEASES));
+        verify(mongoTemplate, times(1)).remove(any(Query.class), eq(LEASES));
+    }
+
+    @Test
+    void executeWithLock_RetriesWhileLeaseIsHeldElsewhere() {
+        SystemCodeLockService lockService = withLease(5_000);
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(LEASES)))
+                .thenThrow(new DuplicateKeyException("lease held"))
+                .thenThrow(new DuplicateKeyException("lease held"))
+                .thenReturn(null);
+
+        assertEquals("acquired", lockService.executeWithLock("SYS-001", () -> "acquired"));
+        verify(mongoTemplate, times(3)).upsert(any(Query.class), any(Update.class), eq(LEASES));
+    }
+
+    @Test
+    void executeWithLock_ThrowsWhenLeaseNotAcquiredInTime() {
+        SystemCodeLockService lockService = withLease(20);
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(LEASES)))
+                .thenThrow(new DuplicateKeyException("lease held"));
+
+        ConcurrentOperationException exception = assertThrows(ConcurrentOperationException.class,
+                () -> lockService.executeWithLock("SYS-001", () -> "never"));
+
+        assertTrue(exception.getMessage().contains("SYS-001"));
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(LEASES));
+    }
+
+    @Test
+    void executeWithLock_ReleasesOwnLeaseWhenActionFails() {
+        SystemCodeLockService lockService = withLease(1_000);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<Query> removeCaptor = ArgumentCaptor.forClass(Query.class);
+
+        assertThrows(IllegalStateException.class, () -> lockService.runWithLock("SYS-001", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        verify(mongoTemplate).upsert(any(Query.class), updateCaptor.capture(), eq(LEASES));
+        verify(mongoTemplate).remove(removeCaptor.capture(), eq(LEASES));
+        Object owner = updateCaptor.getValue().getUpdateObject().get("$set", org.bson.Document.class).get("owner");
+        assertEquals("SYS-001", removeCaptor.getValue().getQueryObject().get("_id"));
+        assertEquals(owner, removeCaptor.getValue().getQueryObject().get("owner"));
+    }
+
+    @Test
+    void executeWithLock_UsesNewTokenForEachAcquisition() {
+        SystemCodeLockService lockService = withLease(1_000);
+        ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.forClass(Update.class);
+
+        lockService.runWithLock("SYS-001", () -> { });
+        lockService.runWithLock("SYS-001", () -> { });
+
+        verify(mongoTemplate, times(2)).upsert(any(Query.class), updateCaptor.capture(), eq(LEASES));
+        Object firstOwner = updateCaptor.getAllValues().get(0).getUpdateObject()
+                .get("$set", org.bson.Document.class).get("owner");
+        Object secondOwner = updateCaptor.getAllValues().get(1).getUpdateObject()
+                .get("$set", org.bson.Document.class).get("owner");
+        assertNotEquals(firstOwner, secondOwner);
+    }
+
+    @Test
+    void checkLease_PassesWhileLeaseIsStillOwned() {
+        SystemCodeLockService lockService = withLease(1_000);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(LEASES)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        lockService.runWithLock("SYS-001", () -> lockService.checkLease("SYS-001"));
+
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(LEASES));
+    }
+
+    @Test
+    void checkLease_FailsWhenLeaseWasTakenOver() {
+        SystemCodeLockService lockService = withLease(1_000);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(LEASES)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        assertThrows(ConcurrentOperationException.class,
+                () -> lockService.runWithLock("SYS-001", () -> lockService.checkLease("SYS-001")));
+    }
+
+    @Test
+    void checkLease_WithoutLock_ThrowsIllegalStateException() {
+        SystemCodeLockService lockService = withLease(1_000);
+
+        assertThrows(IllegalStateException.class, () -> lockService.checkLease("SYS-001"));
+    }
+
+    @Test
+    void renewLeases_ExtendsHeldLeaseAndMarksLostOnes() {
+        SystemCodeLockService lockService = withLease(1_000);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(LEASES)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        lockService.runWithLock("SYS-001", () -> {
+            lockService.renewLeases();
+            lockService.renewLeases();
+            assertThrows(ConcurrentOperationException.class, () -> lockService.checkLease("SYS-001"));
+        });
+
+        verify(mongoTemplate, times(2)).updateFirst(any(Query.class), any(Update.class), eq(LEASES));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
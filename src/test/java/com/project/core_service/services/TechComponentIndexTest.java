@@ -0,0 +1,42 @@
+package com.project.core_service.services;
+
+import com.project.core_service.dto.TechComponentLookupDTO;
+import com.project.core_service.dto.TechProductDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TechComponentIndexTest {
+
+    private final TechComponentIndex index = TechComponentIndex.of(List.of(
+        new TechComponentLookupDTO("Spring Boot", "3.2"),
+        new TechComponentLookupDTO("Node.js", "20.x"),
+        new TechComponentLookupDTO("spring boot", "2.7"),
+        new TechComponentLookupDTO("Spring Boot", "3.2"),
+        new TechComponentLookupDTO("Spring Boot", ""),
+        new TechComponentLookupDTO("Apache Spring Integration", "6.1"),
+        new TechComponentLookupDTO(" ", "1.0")
+    ));
+
+    @Test
+    void search_GroupsVersionsByProduct() {
+        // Act
+        List<TechProductDTO> result = index.search("spring", 10);
+
+        // Assert
+        assertEquals(List.of(
+            new TechProductDTO("Spring Boot", List.of("3.2", "2.7")),
+            new TechProductDTO("Apache Spring Integration", List.of("6.1"))
+        ), result);
+    }
+
+    @Test
+    void product_MatchesNameIgnoringCase() {
+        assertEquals(Optional.of(new TechProductDTO("Node.js", List.of("20.x"))), index.product("NODE.JS"));
+        assertTrue(index.product("Python").isEmpty());
+        assertTrue(index.product(null).isEmpty());
+    }
+}
@@ -0,0 +1,149 @@
+package com.project.core_service.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.mongodb.MongoException;
+
+/**
+ * Unit tests for {@link TransactionRetryService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionRetryServiceTest {
+
+    @Mock
+    private ObjectProvider<PlatformTransactionManager> transactionManagerProvider;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionRetryService createService(PlatformTransactionManager manager, int maxAttempts) {
+        when(transactionManagerProvider.getIfAvailable()).thenReturn(manager);
+        return new TransactionRetryService(transactionManagerProvider, maxAttempts, 0);
+    }
+
+    private static MongoException labelledException(String label) {
+        MongoException exception = new MongoException(112, "WriteConflict");
+        exception.addLabel(label);
+        return exception;
+    }
+
+    @Test
+    @DisplayName("Should commit through the transaction manager when one is configured")
+    void shouldCommitThroughTransactionManager() {
+        TransactionRetryService service = createService(transactionManager, 3);
+
+        String result = service.executeInTransaction(() -> "done");
+
+        assertEquals("done", result);
+        verify(transactionManager).getTransaction(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should run the action directly when no transaction manager is configured")
+    void shouldRunDirectlyWithoutTransactionManager() {
+        TransactionRetryService service = createService(null, 3);
+        AtomicInteger calls = new AtomicInteger();
+
+        service.runInTransaction(calls::incrementAndGet);
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should retry on TransientTransactionError and return the result")
+    void shouldRetryOnTransientTransactionError() {
+        TransactionRetryService service = createService(null, 3);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = service.executeInTransaction(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new UncategorizedMongoDbException("conflict",
+                        labelledException(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL));
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should not replay the callback on UnknownTransactionCommitResult")
+    void shouldNotReplayOnUnknownCommitResult() {
+        TransactionRetryService service = createService(null, 3);
+        AtomicInteger calls = new AtomicInteger();
+        MongoException failure = labelledException(MongoException.UNKNOWN_TRANSACTION_COMMIT_RESULT_LABEL);
+
+        MongoException thrown = assertThrows(MongoException.class, () -> service.runInTransaction(() -> {
+            calls.incrementAndGet();
+            throw failure;
+        }));
+
+        assertSame(failure, thrown);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should give up after the configured number of attempts")
+    void shouldStopAfterMaxAttempts() {
+        TransactionRetryService service = createService(null, 3);
+        AtomicInteger calls = new AtomicInteger();
+        MongoException failure = labelledException(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL);
+
+        MongoException thrown = assertThrows(MongoException.class, () -> service.runInTransaction(() -> {
+            calls.incrementAndGet();
+            throw failure;
+        }));
+
+        assertSame(failure, thrown);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    @DisplayName("Should not retry non-transient failures")
+    void shouldNotRetryNonTransientFailures() {
+        TransactionRetryService service = createService(transactionManager, 3);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> service.runInTransaction(() -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("Only DRAFT reviews can be modified");
+        }));
+
+        assertEquals(1, calls.get());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Should detect retryable labels anywhere in the cause chain")
+    void shouldDetectLabelsInCauseChain() {
+        TransactionRetryService service = createService(null, 3);
+
+        assertTrue(service.isRetryable(new RuntimeException("outer",
+                new UncategorizedMongoDbException("inner",
+                        labelledException(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL)))));
+        assertFalse(service.isRetryable(new MongoException(11000, "duplicate key")));
+        assertFalse(service.isRetryable(labelledException(MongoException.UNKNOWN_TRANSACTION_COMMIT_RESULT_LABEL)));
+        assertFalse(service.isRetryable(new RuntimeException("plain")));
+    }
+}